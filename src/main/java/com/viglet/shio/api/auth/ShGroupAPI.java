@@ -39,6 +39,7 @@ import com.viglet.shio.persistence.model.auth.ShGroup;
 import com.viglet.shio.persistence.model.auth.ShUser;
 import com.viglet.shio.persistence.repository.auth.ShGroupRepository;
 import com.viglet.shio.persistence.repository.auth.ShUserRepository;
+import com.viglet.shio.spring.security.ShAccessIndex;
 
 import io.swagger.annotations.Api;
 
@@ -54,6 +55,8 @@ public class ShGroupAPI {
 	private ShGroupRepository shGroupRepository;
 	@Autowired
 	private ShUserRepository shUserRepository;
+	@Autowired
+	private ShAccessIndex shAccessIndex;
 
 	@GetMapping
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
@@ -88,6 +91,7 @@ public class ShGroupAPI {
 			shUserRepos.getShGroups().add(shGroup);
 			shUserRepository.saveAndFlush(shUserRepos);
 		}
+		shAccessIndex.deleteUserCache();
 
 		return shGroup;
 	}
@@ -96,6 +100,7 @@ public class ShGroupAPI {
 	@DeleteMapping("/{id}")
 	public boolean shGroupDelete(@PathVariable String id) {
 		shGroupRepository.delete(id);
+		shAccessIndex.deleteUserCache();
 		return true;
 	}
 
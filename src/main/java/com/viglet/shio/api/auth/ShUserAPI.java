@@ -51,6 +51,7 @@ import com.viglet.shio.persistence.repository.auth.ShUserRepository;
 import com.viglet.shio.persistence.repository.provider.auth.ShAuthProviderInstanceRepository;
 import com.viglet.shio.provider.auth.ShAuthSystemProviderVendor;
 import com.viglet.shio.provider.auth.ShAuthenticationProvider;
+import com.viglet.shio.spring.security.ShAccessIndex;
 
 import io.swagger.annotations.Api;
 
@@ -72,6 +73,8 @@ public class ShUserAPI {
 	private ShAuthProviderInstanceRepository shAuthProviderInstanceRepository;
 	@Autowired
 	private ApplicationContext context;
+	@Autowired
+	private ShAccessIndex shAccessIndex;
 
 	@GetMapping
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
@@ -149,9 +152,7 @@ public class ShUserAPI {
 			shAuthenticationProvider = (ShAuthenticationProvider) context
 					.getBean(Class.forName(instance.getVendor().getClassName()));
 
-			shAuthenticationProvider.init(instance.getId());
-
-			shUser = shAuthenticationProvider.getShUser(currentUserName);
+			shUser = shAuthenticationProvider.getShUser(instance.getId(), currentUserName);
 		} catch (BeansException e) {
 			logger.error("shUserCurrent BeansException", e);
 		} catch (ClassNotFoundException e) {
@@ -186,6 +187,7 @@ public class ShUserAPI {
 			}
 			shUserEdit.setShGroups(shUser.getShGroups());
 			shUserRepository.save(shUserEdit);
+			shAccessIndex.deleteUserCache();
 		}
 		return shUserEdit;
 	}
@@ -194,6 +196,7 @@ public class ShUserAPI {
 	@DeleteMapping("/{username}")
 	public boolean shUserDelete(@PathVariable String username) {
 		shUserRepository.delete(username);
+		shAccessIndex.deleteUserCache();
 		return true;
 	}
 
@@ -205,6 +208,7 @@ public class ShUserAPI {
 		}
 
 		shUserRepository.save(shUser);
+		shAccessIndex.deleteUserCache();
 
 		return shUser;
 	}
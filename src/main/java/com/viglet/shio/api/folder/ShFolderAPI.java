@@ -29,6 +29,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -39,21 +40,27 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.fasterxml.jackson.annotation.JsonView;
 import com.viglet.shio.api.ShJsonView;
+import com.viglet.shio.bean.ShFolderTinyBean;
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.object.ShObject;
 import com.viglet.shio.persistence.model.site.ShSite;
 import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
 import com.viglet.shio.persistence.repository.object.ShObjectRepository;
+import com.viglet.shio.report.ShReportPostType;
 import com.viglet.shio.spreedsheet.ShSpreadsheet;
 import com.viglet.shio.turing.ShTuringIntegration;
 import com.viglet.shio.url.ShURLFormatter;
 import com.viglet.shio.utils.ShFolderUtils;
 import com.viglet.shio.utils.ShHistoryUtils;
+import com.viglet.shio.utils.ShKeysetUtils;
 import com.viglet.shio.utils.ShObjectUtils;
+import com.viglet.shio.website.cache.component.ShCacheObject;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -71,6 +78,8 @@ public class ShFolderAPI {
 	@Autowired
 	private ShFolderUtils shFolderUtils;
 	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
 	private ShURLFormatter shURLFormatter;
 	@Autowired
 	private ShObjectRepository shObjectRepository;
@@ -82,6 +91,10 @@ public class ShFolderAPI {
 	private ShSpreadsheet shSpreadsheet;
 	@Autowired
 	private ShHistoryUtils shHistoryUtils;
+	@Autowired
+	private ShKeysetUtils shKeysetUtils;
+	@Autowired
+	private ShCacheObject shCacheObject;
 
 	@ApiOperation(value = "Folder list")
 	@GetMapping
@@ -90,6 +103,20 @@ public class ShFolderAPI {
 		return shFolderRepository.findAll();
 	}
 
+	@ApiOperation(value = "Folder list using keyset pagination")
+	@GetMapping("/cursor")
+	public ResponseEntity<StreamingResponseBody> shFolderCursor(@RequestParam(defaultValue = "") String after,
+			@RequestParam(defaultValue = "50") int size,
+			@RequestParam(defaultValue = ShKeysetUtils.VIEW_TINY) String view) {
+		Pageable pageable = shKeysetUtils.pageable(size);
+		if (shKeysetUtils.isObjectView(view))
+			return shKeysetUtils.stream(shFolderRepository.findByIdGreaterThanOrderByIdAsc(after, pageable), size,
+					ShFolder::getId);
+		else
+			return shKeysetUtils.stream(shFolderRepository.findByIdGreaterThanTiny(after, pageable), size,
+					ShFolderTinyBean::getId);
+	}
+
 	@ApiOperation(value = "Show a folder")
 	@GetMapping("/{id}")
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
@@ -109,6 +136,9 @@ public class ShFolderAPI {
 			Optional<ShFolder> shFolderOptional = shFolderRepository.findById(id);
 			if (shFolderOptional.isPresent()) {
 				ShFolder shFolderEdit = shFolderOptional.get();
+				ShSite shSite = shFolderUtils.getSite(shFolderEdit);
+
+				shReportPostType.removeFolder(shFolderEdit);
 
 				shFolderEdit.setDate(new Date());
 				shFolderEdit.setName(shFolder.getName());
@@ -117,6 +147,10 @@ public class ShFolderAPI {
 				shFolderEdit.setFurl(shURLFormatter.format(shFolderEdit.getName()));
 				shFolderRepository.saveAndFlush(shFolderEdit);
 
+				shReportPostType.addFolder(shFolderEdit);
+
+				shCacheObject.updated(shFolderEdit, shSite);
+
 				shTuringIntegration.indexObject(shFolderEdit);
 
 				shHistoryUtils.commit(shFolder, principal, ShHistoryUtils.UPDATE);
@@ -135,7 +169,9 @@ public class ShFolderAPI {
 		if (shObjectUtils.canAccess(principal, id)) {
 			shFolderRepository.findById(id).ifPresent(shFolder -> {
 				try {
+					ShSite shSite = shFolderUtils.getSite(shFolder);
 					shFolderUtils.deleteFolder(shFolder);
+					shCacheObject.deleted(shFolder, shSite);
 					shHistoryUtils.commit(shFolder, principal, ShHistoryUtils.DELETE);
 				} catch (IOException e) {
 					logger.error("FolderDeleteException", e);
@@ -169,6 +205,10 @@ public class ShFolderAPI {
 					shFolder.setShUsers(new HashSet<>(shObject.getShUsers()));
 					shFolderRepository.saveAndFlush(shFolder);
 
+					shReportPostType.addFolder(shFolder);
+
+					shCacheObject.created(shFolder);
+
 					shTuringIntegration.indexObject(shFolder);
 
 					shHistoryUtils.commit(shFolder, principal, ShHistoryUtils.CREATE);
@@ -216,6 +256,10 @@ public class ShFolderAPI {
 
 				shFolderRepository.save(shNewFolder);
 
+				shReportPostType.addFolder(shNewFolder);
+
+				shCacheObject.created(shNewFolder);
+
 				shHistoryUtils.commit(shNewFolder, principal, ShHistoryUtils.CREATE);
 			});
 
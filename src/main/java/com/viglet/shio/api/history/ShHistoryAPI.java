@@ -23,9 +23,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.viglet.shio.persistence.model.site.ShSite;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -35,6 +38,7 @@ import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
 import com.viglet.shio.persistence.repository.history.ShHistoryPageableRepository;
 import com.viglet.shio.persistence.repository.history.ShHistoryRepository;
 import com.viglet.shio.persistence.repository.object.ShObjectRepository;
+import com.viglet.shio.utils.ShKeysetUtils;
 
 import io.swagger.annotations.Api;
 
@@ -52,6 +56,8 @@ public class ShHistoryAPI {
 	private ShHistoryRepository shHistoryRepository;
 	@Autowired
 	private ShHistoryPageableRepository shHistoryPageableRepository;
+	@Autowired
+	private ShKeysetUtils shKeysetUtils;
 
 	@GetMapping
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
@@ -77,6 +83,41 @@ public class ShHistoryAPI {
 		return Collections.emptyList();
 	}
 
+	/**
+	 * History of object using keyset pagination, newest first
+	 * 
+	 * @param globalId Object Id
+	 * @param after    Last history id of previous page
+	 * @param size     Items by page
+	 * @return History and next cursor, or bad request when after is not a
+	 *         history id
+	 */
+	@GetMapping("/object/{globalId}/cursor")
+	public ResponseEntity<StreamingResponseBody> shHistoryCursorByObject(@PathVariable String globalId,
+			@RequestParam(defaultValue = "") String after, @RequestParam(defaultValue = "50") int size) {
+		Pageable pageable = shKeysetUtils.pageable(size);
+		List<ShHistory> shHistories = Collections.emptyList();
+		ShObjectImpl shObject = shObjectRepository.findById(globalId).orElse(null);
+		if (shObject != null) {
+			ShHistory shHistoryAfter = after.isEmpty() ? null : shHistoryRepository.findById(after).orElse(null);
+			// Starting again from first page would make the client loop forever
+			if (!after.isEmpty() && shHistoryAfter == null)
+				return ResponseEntity.badRequest().build();
+			if (shObject instanceof ShSite) {
+				shHistories = shHistoryAfter == null
+						? shHistoryPageableRepository.findByShSiteOrderByDateDescIdDesc(shObject.getId(), pageable)
+						: shHistoryPageableRepository.findByShSiteAfter(shObject.getId(), shHistoryAfter.getDate(),
+								shHistoryAfter.getId(), pageable);
+			} else {
+				shHistories = shHistoryAfter == null
+						? shHistoryPageableRepository.findByShObjectOrderByDateDescIdDesc(shObject.getId(), pageable)
+						: shHistoryPageableRepository.findByShObjectAfter(shObject.getId(), shHistoryAfter.getDate(),
+								shHistoryAfter.getId(), pageable);
+			}
+		}
+		return shKeysetUtils.stream(shHistories, size, ShHistory::getId);
+	}
+
 	@GetMapping("/object/{globalId}/count")
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
 	public int shHistoryByObjectCount(@PathVariable String globalId) {
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -50,8 +51,6 @@ import com.viglet.shio.bean.ShPostTinyBean;
 import com.viglet.shio.bean.security.ShConsoleSecurityBean;
 import com.viglet.shio.bean.security.ShPageSecurityBean;
 import com.viglet.shio.bean.security.ShSecurityBean;
-import com.viglet.shio.persistence.model.auth.ShGroup;
-import com.viglet.shio.persistence.model.auth.ShUser;
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.object.ShObject;
 import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
@@ -59,12 +58,12 @@ import com.viglet.shio.persistence.model.post.ShPost;
 import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
 import com.viglet.shio.persistence.model.post.type.ShPostType;
 import com.viglet.shio.persistence.model.site.ShSite;
-import com.viglet.shio.persistence.repository.auth.ShUserRepository;
 import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
 import com.viglet.shio.persistence.repository.object.ShObjectRepository;
 import com.viglet.shio.persistence.repository.post.ShPostRepository;
 import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
-import com.viglet.shio.url.ShURLFormatter;
+import com.viglet.shio.spring.security.ShAccessIndex;
+import com.viglet.shio.spring.security.ShAccessIndex.ShUserAccess;
 import com.viglet.shio.utils.ShFolderUtils;
 import com.viglet.shio.utils.ShObjectUtils;
 import com.viglet.shio.utils.ShPostUtils;
@@ -104,13 +103,11 @@ public class ShObjectAPI {
 	@Autowired
 	private ShSitesPostUtils shSitesPostUtils;
 	@Autowired
-	private ShURLFormatter shURLFormatter;
-	@Autowired
 	private ShCacheObject shCacheObject;
 	@Autowired
 	private ShSitesObjectUtils shSitesObjectUtils;
 	@Autowired
-	private ShUserRepository shUserRepository;
+	private ShAccessIndex shAccessIndex;
 	@Autowired
 	private ShObjectUtils shObjectUtils;
 	@Autowired
@@ -232,6 +229,7 @@ public class ShObjectAPI {
 			}
 
 			shObjectRepository.saveAndFlush(shObject);
+			shAccessIndex.deleteCache(id);
 		}
 		return shSecurityBean;
 	}
@@ -239,56 +237,19 @@ public class ShObjectAPI {
 	@PutMapping("/moveto/{globallIdDest}")
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
 	public List<ShObject> shObjectMoveTo(@PathVariable String globallIdDest, @RequestBody List<String> globalIds) {
-		List<ShObject> shObjects = new ArrayList<>();
-		ShObjectImpl shObjectDest = shObjectRepository.findById(globallIdDest).orElse(null);
-		for (String globalId : globalIds) {
-			shCacheObject.deleteCache(globalId);
-			ShObjectImpl shObject = shObjectRepository.findById(globalId).orElse(null);
-			if (shObjectDest instanceof ShFolder) {
-				ShFolder shFolderDest = (ShFolder) shObjectDest;
-				if (shObject instanceof ShPost) {
-					ShPost shPost = (ShPost) shObject;
-					shPost.setShFolder(shFolderDest);
-					shPost.setFurl(shURLFormatter.format(shPost.getTitle()));
-					shPostRepository.save(shPost);
-					shObjects.add(shPost);
-				} else if (shObject instanceof ShFolder) {
-					ShFolder shFolder = (ShFolder) shObject;
-					shFolder.setParentFolder(shFolderDest);
-					shFolder.setRootFolder((byte) 0);
-					shFolder.setShSite(null);
-					shFolder.setFurl(shURLFormatter.format(shFolder.getName()));
-					shFolderRepository.save(shFolder);
-					shObjects.add(shFolder);
-				}
-			} else if (shObjectDest instanceof ShSite && shObject instanceof ShFolder) {
-				ShSite shSiteDest = (ShSite) shObjectDest;
-				ShFolder shFolder = (ShFolder) shObject;
-				shFolder.setParentFolder(null);
-				shFolder.setRootFolder((byte) 1);
-				shFolder.setShSite(shSiteDest);
-				shFolder.setFurl(shURLFormatter.format(shFolder.getName()));
-				shFolderRepository.save(shFolder);
-				shObjects.add(shFolder);
-			}
-		}
-
-		shCacheObject.deleteCache(globallIdDest);
-		return shObjects;
+		return shObjectUtils.moveTo(globallIdDest, globalIds);
 	}
 
 	@PutMapping("/copyto/{globallIdDest}")
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
 	public List<ShObject> shObjectCopyTo(@PathVariable String globallIdDest, @RequestBody List<String> globalIds) {
 		List<ShObject> shObjects = new ArrayList<>();
-		for (String globalId : globalIds) {
-			ShObjectImpl shObject = shObjectRepository.findById(globalId).orElse(null);
-			ShObjectImpl shObjectDest = shObjectRepository.findById(globallIdDest).orElse(null);
+		ShObjectImpl shObjectDest = shObjectRepository.findById(globallIdDest).orElse(null);
+		List<ShPostImpl> shPosts = new ArrayList<>();
+		for (ShObject shObject : shObjectRepository.findAllById(globalIds)) {
 			if (shObjectDest instanceof ShFolder) {
-				ShFolder shFolderDest = (ShFolder) shObjectDest;
 				if (shObject instanceof ShPost) {
-					ShPostImpl shPost = (ShPostImpl) shObject;
-					shObjects.add(shPostUtils.copy(shPost, shFolderDest));
+					shPosts.add((ShPostImpl) shObject);
 				} else if (shObject instanceof ShFolder) {
 					ShFolder shFolder = (ShFolder) shObject;
 					shObjects.add(shFolderUtils.copy(shFolder, shObjectDest));
@@ -298,6 +259,8 @@ public class ShObjectAPI {
 				shObjects.add(shFolderUtils.copy(shFolder, shObjectDest));
 			}
 		}
+		if (!shPosts.isEmpty())
+			shObjects.addAll(shPostUtils.copy(shPosts, (ShFolder) shObjectDest));
 		shCacheObject.deleteCache(globallIdDest);
 		return shObjects;
 	}
@@ -308,9 +271,7 @@ public class ShObjectAPI {
 		if (shObjectUtils.canAccess(principal, id)) {
 			Optional<ShObject> shObjectOptional = shObjectRepository.findById(id);
 			if (shObjectOptional.isPresent()) {
-				ShUser shUser = null;
-				if (principal != null)
-					shUser = shUserRepository.findByUsername(principal.getName());
+				ShUserAccess shUser = shAccessIndex.user(principal);
 				ShObjectImpl shObject = shObjectOptional.get();
 				if (shObject instanceof ShFolder) {
 
@@ -340,29 +301,19 @@ public class ShObjectAPI {
 		return new ResponseEntity<>(null, HttpStatus.FORBIDDEN);
 	}
 
-	private Set<ShFolderTinyBean> allowedFolders(ShUser shUser, ShObjectImpl shObject) {
+	private Set<ShFolderTinyBean> allowedFolders(ShUserAccess shUser, ShObjectImpl shObject) {
 
 		Set<ShFolderTinyBean> folders = this.foldersFromObject(shObject);
 
-		if (this.userHasGroups(shUser)) {
-			return this.isAdministrator(shUser) ? folders : this.showFolderWithRestriction(shUser, folders);
+		if (shUser != null && !shUser.isAdministrator()) {
+			Set<String> allowed = shAccessIndex.allowed(shUser,
+					folders.stream().map(ShFolderTinyBean::getId).collect(Collectors.toList()));
+			return folders.stream().filter(folder -> allowed.contains(folder.getId())).collect(Collectors.toSet());
 		} else {
 			return folders;
 		}
 	}
 
-	private boolean isAdministrator(ShUser shUser) {
-		boolean fullAccess = false;
-		for (ShGroup shGroup : shUser.getShGroups())
-			if (shGroup.getName().equals("Administrator"))
-				fullAccess = true;
-		return fullAccess;
-	}
-
-	private boolean userHasGroups(ShUser shUser) {
-		return shUser != null && shUser.getShGroups() != null;
-	}
-
 	private Set<ShFolderTinyBean> foldersFromObject(ShObjectImpl shObject) {
 		Set<ShFolderTinyBean> folders = new HashSet<>();
 		if (shObject instanceof ShFolder) {
@@ -375,29 +326,14 @@ public class ShObjectAPI {
 		return folders;
 	}
 
-	private Set<ShFolderTinyBean> showFolderWithRestriction(ShUser shUser, Set<ShFolderTinyBean> folders) {
-		Set<String> shGroups = new HashSet<>();
-		Set<String> shUsers = new HashSet<>();
-		Set<ShFolderTinyBean> shFolders = new HashSet<>();
-
-		for (ShGroup shGroup : shUser.getShGroups()) {
-			shGroups.add(shGroup.getName());
-		}
-		shUsers.add(shUser.getUsername());
-		for (ShFolderTinyBean folder : folders)
-			if (shObjectRepository.countByIdAndShGroupsInOrIdAndShUsersInOrIdAndShGroupsIsNullAndShUsersIsNull(
-					folder.getId(), shGroups, folder.getId(), shUsers, folder.getId()) > 0)
-				shFolders.add(folder);
-
-		return shFolders;
-	}
-
-	private List<ShPostTinyBean> allowedPosts(ShUser shUser, ShObjectImpl shObject) {
+	private List<ShPostTinyBean> allowedPosts(ShUserAccess shUser, ShObjectImpl shObject) {
 
 		List<ShPostTinyBean> posts = postsFromObject(shObject);
 
-		if (userHasGroups(shUser)) {
-			return this.isAdministrator(shUser) ? posts : this.showPostWithRestriction(shUser, posts);
+		if (shUser != null && !shUser.isAdministrator()) {
+			Set<String> allowed = shAccessIndex.allowed(shUser,
+					posts.stream().map(ShPostTinyBean::getId).collect(Collectors.toList()));
+			return posts.stream().filter(post -> allowed.contains(post.getId())).collect(Collectors.toList());
 		} else {
 			return posts;
 		}
@@ -413,21 +349,6 @@ public class ShObjectAPI {
 		return posts;
 	}
 
-	private List<ShPostTinyBean> showPostWithRestriction(ShUser shUser, List<ShPostTinyBean> posts) {
-		Set<String> shGroups = new HashSet<>();
-		Set<String> shUsers = new HashSet<>();
-		List<ShPostTinyBean> shPosts = new ArrayList<>();
-		for (ShGroup shGroup : shUser.getShGroups()) {
-			shGroups.add(shGroup.getName());
-		}
-		shUsers.add(shUser.getUsername());
-		for (ShPostTinyBean post : posts)
-			if (shObjectRepository.countByIdAndShGroupsInOrIdAndShUsersInOrIdAndShGroupsIsNullAndShUsersIsNull(
-					post.getId(), shGroups, post.getId(), shUsers, post.getId()) > 0)
-				shPosts.add(post);
-		return shPosts;
-	}
-
 	@GetMapping("/{id}/list/{postTypeName}")
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
 	public ShFolderList shFolderListByPostType(@PathVariable String id, @PathVariable String postTypeName) {
@@ -24,8 +24,10 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -36,6 +38,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -46,10 +49,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.viglet.shio.bean.IShPostSiteType;
+import com.viglet.shio.bean.ShPostTinyBean;
 import com.viglet.shio.persistence.model.post.ShPostAttr;
 import com.viglet.shio.persistence.model.post.ShPostDraft;
 import com.viglet.shio.persistence.model.post.ShPostDraftAttr;
@@ -59,8 +65,6 @@ import com.viglet.shio.persistence.model.post.type.ShPostType;
 import com.viglet.shio.persistence.model.reference.ShReference;
 import com.viglet.shio.persistence.model.reference.ShReferenceDraft;
 import com.fasterxml.jackson.annotation.JsonView;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.viglet.shio.api.ShJsonView;
 import com.viglet.shio.exchange.post.ShPostExport;
 import com.viglet.shio.object.ShObjectPublishStatus;
@@ -78,13 +82,18 @@ import com.viglet.shio.persistence.repository.reference.ShReferenceDraftReposito
 import com.viglet.shio.persistence.repository.reference.ShReferenceRepository;
 import com.viglet.shio.persistence.repository.workflow.ShWorkflowTaskRepository;
 import com.viglet.shio.post.type.ShSystemPostType;
+import com.viglet.shio.report.ShReportPostType;
+import com.viglet.shio.spring.security.ShAccessIndex;
 import com.viglet.shio.turing.ShTuringIntegration;
 import com.viglet.shio.url.ShURLFormatter;
 import com.viglet.shio.utils.ShHistoryUtils;
+import com.viglet.shio.utils.ShKeysetUtils;
 import com.viglet.shio.utils.ShObjectUtils;
+import com.viglet.shio.utils.ShPostDraftUtils;
 import com.viglet.shio.utils.ShPostUtils;
 import com.viglet.shio.utils.ShStaticFileUtils;
 import com.viglet.shio.website.cache.component.ShCacheObject;
+import com.viglet.shio.website.cache.component.ShCacheQuery;
 import com.viglet.shio.widget.ShSystemWidget;
 
 import io.swagger.annotations.Api;
@@ -127,6 +136,8 @@ public class ShPostAPI {
 	@Autowired
 	private ShPostUtils shPostUtils;
 	@Autowired
+	private ShPostDraftUtils shPostDraftUtils;
+	@Autowired
 	private ShTuringIntegration shTuringIntegration;
 	@Autowired
 	private ShCacheObject shCacheObject;
@@ -138,6 +149,14 @@ public class ShPostAPI {
 	private ShHistoryUtils shHistoryUtils;
 	@Autowired
 	private ShPostExport shPostExport;
+	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShKeysetUtils shKeysetUtils;
+	@Autowired
+	private ShCacheQuery shCacheQuery;
+	@Autowired
+	private ShAccessIndex shAccessIndex;
 
 	private final SimpleDateFormat dt = new SimpleDateFormat("dd/MM/yyyyy");
 
@@ -147,6 +166,27 @@ public class ShPostAPI {
 		return shPostRepository.findAll();
 	}
 
+	/**
+	 * Post list using keyset pagination
+	 * 
+	 * @param after Last post id of previous page
+	 * @param size  Posts by page
+	 * @param view  tiny or object
+	 * @return Posts and next cursor
+	 */
+	@GetMapping("/cursor")
+	public ResponseEntity<StreamingResponseBody> shPostCursor(@RequestParam(defaultValue = "") String after,
+			@RequestParam(defaultValue = "50") int size,
+			@RequestParam(defaultValue = ShKeysetUtils.VIEW_TINY) String view) {
+		Pageable pageable = shKeysetUtils.pageable(size);
+		if (shKeysetUtils.isObjectView(view))
+			return shKeysetUtils.stream(shPostRepository.findByIdGreaterThanOrderByIdAsc(after, pageable), size,
+					ShPost::getId);
+		else
+			return shKeysetUtils.stream(shPostRepository.findByIdGreaterThanTiny(after, pageable), size,
+					ShPostTinyBean::getId);
+	}
+
 	@GetMapping("/post-type/{postTypeName}")
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
 	public List<ShPost> shPostListByPostType(@PathVariable String postTypeName) {
@@ -154,6 +194,22 @@ public class ShPostAPI {
 		return shPostRepository.findByShPostType(shPostType);
 	}
 
+	@GetMapping("/post-type/{postTypeName}/cursor")
+	public ResponseEntity<StreamingResponseBody> shPostCursorByPostType(@PathVariable String postTypeName,
+			@RequestParam(defaultValue = "") String after, @RequestParam(defaultValue = "50") int size,
+			@RequestParam(defaultValue = ShKeysetUtils.VIEW_TINY) String view) {
+		ShPostType shPostType = shPostTypeRepository.findByName(postTypeName);
+		Pageable pageable = shKeysetUtils.pageable(size);
+		if (shKeysetUtils.isObjectView(view))
+			return shKeysetUtils.stream(
+					shPostRepository.findByShPostTypeAndIdGreaterThanOrderByIdAsc(shPostType, after, pageable), size,
+					ShPost::getId);
+		else
+			return shKeysetUtils.stream(
+					shPostRepository.findByShPostTypeAndIdGreaterThanTiny(shPostType, after, pageable), size,
+					ShPostTinyBean::getId);
+	}
+
 	/**
 	 * Post Edit API
 	 * 
@@ -219,6 +275,8 @@ public class ShPostAPI {
 
 				this.postSave(shPost);
 
+				shCacheObject.created(shPost);
+
 				shHistoryUtils.commit(shPost, principal, ShHistoryUtils.CREATE);
 
 				return this.shPostEdit(shPost.getId(), principal);
@@ -255,6 +313,12 @@ public class ShPostAPI {
 
 				shHistoryUtils.commit(shPost, principal, ShHistoryUtils.DELETE);
 
+				shReportPostType.removePost(shPost);
+
+				shCacheQuery.deleteCache(shPost);
+
+				shAccessIndex.deleteCache(id);
+
 				shPostRepository.delete(id);
 
 				return new ResponseEntity<>(true, HttpStatus.OK);
@@ -290,6 +354,73 @@ public class ShPostAPI {
 	}
 
 	public void postSave(ShPost shPost) {
+		IShPostSiteType shPostSiteType = shReportPostType.postSiteType(shPost.getId());
+
+		this.postPrepare(shPost);
+
+		if (shPost.getPublishStatus() != null) {
+			if (shPost.getPublishStatus().equals(ShObjectPublishStatus.PUBLISH))
+				this.postPublishSave(shPost);
+			else if (shPost.getPublishStatus().equals(ShObjectPublishStatus.UNPUBLISH))
+				this.postUnpublishSave(shPost);
+			else if (shPost.getPublishStatus().equals(ShObjectPublishStatus.DRAFT))
+				this.postDraftSave(shPost);
+
+		} else {
+			if (shPost.isPublished())
+				this.postDraftSave(shPost);
+			else
+				this.postUnpublishSave(shPost);
+
+		}
+
+		shReportPostType.updatePost(shPostSiteType, shReportPostType.postSiteType(shPost.getId()));
+
+		shCacheQuery.deleteCache(shPost);
+
+		this.lastPostTypeUsed(shPost);
+
+	}
+
+	/**
+	 * Save many new posts, like form submissions, with one saveAll. The report,
+	 * the search index and the query cache are updated once for all of them.
+	 * It must be called in a transaction.
+	 * 
+	 * @param shPosts new posts, saved as unpublished
+	 * @since 0.3.7
+	 */
+	public void postSaveAll(List<ShPost> shPosts) {
+		if (shPosts.isEmpty())
+			return;
+		shPosts.forEach(shPost -> {
+			this.postPrepare(shPost);
+			shPost.setPublished(false);
+		});
+
+		shPostRepository.saveAll(shPosts);
+		shPostRepository.flush();
+
+		shPosts.forEach(this::postReferenceSave);
+
+		shReportPostType.addPosts(shPosts);
+
+		Map<String, List<ShPost>> shPostsBySite = new HashMap<>();
+		Set<String> evicted = new HashSet<>();
+		shPosts.forEach(shPost -> {
+			if (shPost.getShSite() != null)
+				shPostsBySite.computeIfAbsent(shPost.getShSite().getId(), k -> new ArrayList<>()).add(shPost);
+			String folderId = shPost.getShFolder() != null ? shPost.getShFolder().getId() : null;
+			if (evicted.add(folderId + "/" + shPost.getShPostType().getName()))
+				shCacheQuery.deleteCache(shPost);
+		});
+		shPostsBySite.values()
+				.forEach(shSitePosts -> shTuringIntegration.deindexObjects(shSitePosts.get(0).getShSite(), shSitePosts));
+
+		this.lastPostTypeUsed(shPosts.get(shPosts.size() - 1));
+	}
+
+	private void postPrepare(ShPost shPost) {
 		// Get PostAttrs before save, because JPA Lazy
 		@SuppressWarnings("unchecked")
 		Set<ShPostAttr> shPostAttrs = (Set<ShPostAttr>) shPost.getShPostAttrs();
@@ -317,25 +448,6 @@ public class ShPostAPI {
 			this.updateRelatorParent(shPostAttr, shPost);
 
 		});
-
-		if (shPost.getPublishStatus() != null) {
-			if (shPost.getPublishStatus().equals(ShObjectPublishStatus.PUBLISH))
-				this.postPublishSave(shPost);
-			else if (shPost.getPublishStatus().equals(ShObjectPublishStatus.UNPUBLISH))
-				this.postUnpublishSave(shPost);
-			else if (shPost.getPublishStatus().equals(ShObjectPublishStatus.DRAFT))
-				this.postDraftSave(shPost);
-
-		} else {
-			if (shPost.isPublished())
-				this.postDraftSave(shPost);
-			else
-				this.postUnpublishSave(shPost);
-
-		}
-
-		this.lastPostTypeUsed(shPost);
-
 	}
 
 	private void lastPostTypeUsed(ShPost shPost) {
@@ -426,13 +538,7 @@ public class ShPostAPI {
 	public void postDraftSave(ShPost shPost) {
 		if (shPost.getId() != null && shPost.isPublished()) {
 			shPostRepository.findById(shPost.getId()).ifPresent(shPostEdit -> {
-				ShPostDraft shPostDraft = convertPost2Draft(shPost);
-				@SuppressWarnings("unchecked")
-				Set<ShPostDraftAttr> shPostAttrs = (Set<ShPostDraftAttr>) shPostDraft.getShPostAttrs();
-				shPostAttrs.forEach(shPostAttr -> {
-					shPostAttr.setShPost(shPostDraft);
-					this.updateRelatorParent(shPostAttr, shPostDraft);
-				});
+				ShPostDraft shPostDraft = shPostDraftUtils.toDraft(shPost);
 
 				shPostDraftRepository.saveAndFlush(shPostDraft);
 				this.postReferenceSave(shPostDraft);
@@ -445,20 +551,6 @@ public class ShPostAPI {
 		}
 	}
 
-	private ShPostDraft convertPost2Draft(ShPost shPost) {
-		ShPostDraft shPostDraft = null;
-		ObjectMapper mapper = new ObjectMapper();
-		try {
-			String jsonInString = mapper.writeValueAsString(shPost);
-			shPostDraft = mapper.readValue(jsonInString, ShPostDraft.class);
-
-		} catch (JsonProcessingException e) {
-			logger.error("convertPost2Draft JsonProcessingException:", e);
-		}
-
-		return shPostDraft;
-	}
-
 	private void updateRelatorParent(ShPostAttrImpl shPostAttr, ShPostImpl shPost) {
 		shPostAttr.getShChildrenRelatorItems().forEach(shRelatorItem -> {
 			shRelatorItem.setShParentPostAttr(shPostAttr);
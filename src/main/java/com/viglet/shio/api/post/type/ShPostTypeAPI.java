@@ -50,7 +50,10 @@ import com.viglet.shio.persistence.repository.post.ShPostAttrRepository;
 import com.viglet.shio.persistence.repository.post.ShPostRepository;
 import com.viglet.shio.persistence.repository.post.type.ShPostTypeAttrRepository;
 import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
+import com.viglet.shio.report.ShReportPostType;
+import com.viglet.shio.spring.security.ShAccessIndex;
 import com.viglet.shio.utils.ShPostTypeUtils;
+import com.viglet.shio.website.cache.component.ShCacheQuery;
 
 import io.swagger.annotations.Api;
 
@@ -73,6 +76,12 @@ public class ShPostTypeAPI {
 	private ShPostTypeExport shPostTypeExport;
 	@Autowired
 	private ShPostTypeUtils shPostTypeUtils;
+	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShCacheQuery shCacheQuery;
+	@Autowired
+	private ShAccessIndex shAccessIndex;
 
 	@GetMapping
 	@JsonView({ ShJsonView.ShJsonViewPostType.class })
@@ -158,10 +167,13 @@ public class ShPostTypeAPI {
 			});
 			shPostType.getShPosts().forEach(shPost -> {
 				shPost.getShPostAttrs().forEach(shPostAttr -> shPostAttrRepository.delete(shPostAttr.getId()));
+				shReportPostType.removePost(shPost);
 				shPostRepository.delete(shPost.getId());
 			});
 
 			shPostTypeRepository.delete(id);
+			shCacheQuery.deleteCache();
+			shAccessIndex.deleteCache();
 			return true;
 		}
 		return false;
@@ -213,6 +225,8 @@ public class ShPostTypeAPI {
 
 		shPostTypeRepository.saveAndFlush(shPostType);
 
+		shCacheQuery.deleteCache();
+
 	}
 
 	@PutMapping("/clone")
@@ -16,25 +16,13 @@
  */
 package com.viglet.shio.api.provider.exchange;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.InvocationTargetException;
 import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-import org.apache.tika.Tika;
-import org.apache.tika.config.TikaConfig;
-import org.apache.tika.mime.MimeType;
-import org.apache.tika.mime.MimeTypeException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -44,10 +32,10 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.multipart.MultipartFile;
 
 import com.fasterxml.jackson.annotation.JsonView;
 import com.viglet.shio.api.ShJsonView;
+import com.viglet.shio.bean.provider.exchange.ShExchangeImportJobBean;
 import com.viglet.shio.bean.provider.exchange.ShExchangeProviderInstanceBean;
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
@@ -59,11 +47,9 @@ import com.viglet.shio.persistence.repository.provider.exchange.ShExchangeProvid
 import com.viglet.shio.persistence.repository.provider.exchange.ShExchangeProviderVendorRepository;
 import com.viglet.shio.persistence.repository.system.ShConfigVarRepository;
 import com.viglet.shio.property.ShConfigProperties;
-import com.viglet.shio.provider.exchange.ShExchangeProvider;
 import com.viglet.shio.provider.exchange.ShExchangeProviderFolder;
-import com.viglet.shio.provider.exchange.ShExchangeProviderPost;
-import com.viglet.shio.utils.ShConfigVarUtils;
-import com.viglet.shio.utils.ShStaticFileUtils;
+import com.viglet.shio.provider.exchange.ShExchangeProviderImport;
+import com.viglet.shio.provider.exchange.ShExchangeProviderRegistry;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -75,24 +61,21 @@ import io.swagger.annotations.ApiOperation;
 @RequestMapping("/api/v2/provider/exchange")
 @Api(tags = "Exchange Provider", description = "Exchange Provider API")
 public class ShExchangeProviderAPI {
-	private static final Log logger = LogFactory.getLog(ShExchangeProviderAPI.class);
 
 	@Autowired
 	private ShConfigProperties shConfigProperties;
 	@Autowired
 	private ShFolderRepository shFolderRepository;
 	@Autowired
-	private ShStaticFileUtils shStaticFileUtils;
-	@Autowired
-	private ShConfigVarUtils shConfigVarUtils;
-	@Autowired
 	private ShExchangeProviderInstanceRepository shExchangeProviderInstanceRepository;
 	@Autowired
 	private ShExchangeProviderVendorRepository shExchangeProviderVendorRepository;
 	@Autowired
 	private ShConfigVarRepository shConfigVarRepository;
-
-	private ShExchangeProvider shExchangeProvider;
+	@Autowired
+	private ShExchangeProviderRegistry shExchangeProviderRegistry;
+	@Autowired
+	private ShExchangeProviderImport shExchangeProviderImport;
 
 	@GetMapping("/vendor")
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
@@ -200,6 +183,8 @@ public class ShExchangeProviderAPI {
 				shConfigVarRepository.saveAndFlush(shConfigVar);
 			}
 
+			shExchangeProviderRegistry.remove(id);
+
 			return shExchangeProviderInstanceBean;
 		}
 
@@ -216,6 +201,7 @@ public class ShExchangeProviderAPI {
 			String providerInstancePath = String.format(shConfigProperties.getExchange(), id);
 			shConfigVarRepository.deleteByPath(providerInstancePath);
 			shExchangeProviderInstanceRepository.delete(id);
+			shExchangeProviderRegistry.remove(id);
 			return true;
 		} else {
 			return false;
@@ -250,69 +236,38 @@ public class ShExchangeProviderAPI {
 
 	}
 
-	private void initProvider(String providerInstanceId) {
-		ShExchangeProviderInstance shExchangeProviderInstance = shExchangeProviderInstanceRepository
-				.findById(providerInstanceId).orElse(null);
-		if (shExchangeProviderInstance != null) {
-			Map<String, String> variables = shConfigVarUtils
-					.getVariablesFromPath(String.format(shConfigProperties.getExchange(), providerInstanceId));
-
-			try {
-
-				shExchangeProvider = (ShExchangeProvider) Class
-						.forName(shExchangeProviderInstance.getVendor().getClassName()).getDeclaredConstructor()
-						.newInstance();
-
-			} catch (IllegalArgumentException | InvocationTargetException | NoSuchMethodException | SecurityException
-					| InstantiationException | IllegalAccessException | ClassNotFoundException e) {
-				logger.error("initProvider: ", e);
-			}
-			shExchangeProvider.init(variables);
-		}
-	}
-
 	@PostMapping("/{providerInstanceId}/import/{providerItemId}/to/{folderId}")
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
 	public ShPostImpl shExchangeProviderImportItem(@PathVariable String folderId,
 			@PathVariable String providerInstanceId, @PathVariable String providerItemId, Principal principal) {
 
-		this.initProvider(providerInstanceId);
-
-		ShExchangeProviderPost shExchangeProviderPost = shExchangeProvider.getObject(providerItemId, false);
-
-		String fileName = shExchangeProviderPost.getTitle();
-		InputStream is = shExchangeProvider.getDownload(providerItemId);
-
-		try {
+		ShFolder shFolder = shFolderRepository.findById(folderId).orElse(null);
+		if (shFolder == null)
+			return null;
+		return shExchangeProviderRegistry.execute(providerInstanceId, shExchangeProvider -> shExchangeProviderImport
+				.importItem(shExchangeProvider, providerItemId, shFolder, principal));
+	}
 
-			MultipartFile file = new MockMultipartFile(fileName, IOUtils.toByteArray(is));
+	@ApiOperation(value = "Import a provider folder in background")
+	@PostMapping("/{providerInstanceId}/import/folder/{providerFolderId}/to/{folderId}")
+	public ShExchangeImportJobBean shExchangeProviderImportFolder(@PathVariable String folderId,
+			@PathVariable String providerInstanceId, @PathVariable String providerFolderId, Principal principal) {
+		return shExchangeProviderImport.importFolder(providerInstanceId, providerFolderId, folderId, principal);
+	}
 
-			ShFolder shFolder = shFolderRepository.findById(folderId).orElse(null);
-			if (shFolder != null) {
-				TikaConfig config = TikaConfig.getDefaultConfig();
-				String mediaType = new Tika().detect(file.getInputStream());
-				MimeType mimeType = config.getMimeRepository().forName(mediaType);
-				String extension = mimeType.getExtension();
-				if (!StringUtils.isEmpty(extension)) {
-					String fileWithoutExtension = fileName.substring(0, fileName.lastIndexOf('.'));
-					String fileNameFormatted = String.format("%s%s", fileWithoutExtension, extension);
-					fileName = fileNameFormatted;
-				}
-				return shStaticFileUtils.createFilePost(file, fileName, shFolder, principal, true);
-			}
-		} catch (IOException | MimeTypeException e) {
-			logger.error(e);
-		}
-		return null;
+	@ApiOperation(value = "Status of a provider folder import")
+	@GetMapping("/import/job/{jobId}")
+	public ShExchangeImportJobBean shExchangeProviderImportJob(@PathVariable String jobId) {
+		return shExchangeProviderImport.getJob(jobId);
 	}
 
 	@GetMapping("/{providerInstanceId}/{id}/list")
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
 	public ShExchangeProviderFolder shExchangeProviderListItem(@PathVariable String providerInstanceId,
 			@PathVariable String id) {
-		this.initProvider(providerInstanceId);
-
-		return id.equals("_root") ? shExchangeProvider.getRootFolder() : shExchangeProvider.getFolder(id);
+		return shExchangeProviderRegistry.execute(providerInstanceId, shExchangeProvider -> id.equals("_root")
+				? shExchangeProvider.getRootFolder()
+				: shExchangeProvider.getFolder(id));
 
 	}
 }
@@ -76,8 +76,9 @@ public class ShSearchAPI {
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
 	public List<ShPostWithBreadcrumb> shSearch(@RequestParam(value = "q") String q) {
 		List<ShPostWithBreadcrumb> searchResults = new ArrayList<>();
-		for (ShPost shPost : shPostRepository.fuzzySearch(q)) {
-			ShPostImpl shPostLazy = shPostUtils.loadLazyPost(shPost.getId(), false);
+		List<String> ids = new ArrayList<>();
+		shPostRepository.fuzzySearch(q).forEach(shPost -> ids.add(shPost.getId()));
+		for (ShPostImpl shPostLazy : shPostUtils.loadLazyPosts(ids, false)) {
 			List<ShFolder> breadcrumb = shFolderUtils.breadcrumb(shPostLazy.getShFolder());
 			ShSite shSite = breadcrumb.get(0).getShSite();
 			ShPostWithBreadcrumb shPostWithBreadcrumb = new ShPostWithBreadcrumb();
@@ -96,8 +97,9 @@ public class ShSearchAPI {
 
 		ShPostType shPostType = shPostTypeRepository.findByName(objectName);
 		List<ShPostWithBreadcrumb> searchResults = new ArrayList<>();
-		for (ShPost shPost : shPostRepository.findByShPostType(shPostType)) {
-			ShPostImpl shPostLazy = shPostUtils.loadLazyPost(shPost.getId(), false);
+		List<String> ids = new ArrayList<>();
+		shPostRepository.findByShPostType(shPostType).forEach(shPost -> ids.add(shPost.getId()));
+		for (ShPostImpl shPostLazy : shPostUtils.loadLazyPosts(ids, false)) {
 			List<ShFolder> breadcrumb = shFolderUtils.breadcrumb(shPostLazy.getShFolder());
 			ShSite shSite = breadcrumb.get(0).getShSite();
 			ShPostWithBreadcrumb shPostWithBreadcrumb = new ShPostWithBreadcrumb();
@@ -34,7 +34,6 @@ import org.apache.http.client.ClientProtocolException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -61,9 +60,11 @@ import com.viglet.shio.persistence.model.site.ShSite;
 import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
 import com.viglet.shio.persistence.repository.site.ShSiteRepository;
 import com.viglet.shio.report.ShReportPostType;
+import com.viglet.shio.spring.security.ShAccessIndex;
 import com.viglet.shio.url.ShURLFormatter;
 import com.viglet.shio.utils.ShFolderUtils;
 import com.viglet.shio.utils.ShHistoryUtils;
+import com.viglet.shio.website.cache.component.ShCacheObject;
 import com.viglet.shio.website.nodejs.ShSitesNodeJS;
 
 import io.swagger.annotations.Api;
@@ -99,6 +100,10 @@ public class ShSiteAPI {
 	private ShHistoryUtils shHistoryUtils;
 	@Autowired
 	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShCacheObject shCacheObject;
+	@Autowired
+	private ShAccessIndex shAccessIndex;
 
 	@GetMapping
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
@@ -132,6 +137,8 @@ public class ShSiteAPI {
 			shSiteEdit.setFurl(shURLFormatter.format(shSite.getName()));
 			shSiteRepository.save(shSiteEdit);
 
+			shCacheObject.updated(shSiteEdit);
+
 			shHistoryUtils.commit(shSite, principal, ShHistoryUtils.UPDATE);
 
 			return shSiteEdit;
@@ -160,6 +167,13 @@ public class ShSiteAPI {
 
 		shSiteRepository.delete(id);
 
+		shReportPostType.removeSite(id);
+
+		if (shSite != null)
+			shCacheObject.deleted(shSite);
+
+		shAccessIndex.deleteCache();
+
 		shHistoryUtils.commit(shSite, principal, ShHistoryUtils.DELETE);
 
 		return true;
@@ -236,7 +250,6 @@ public class ShSiteAPI {
 
 	@GetMapping("/{id}/type/count")
 	@JsonView({ ShJsonView.ShJsonViewObject.class })
-	@Cacheable(value = "report", key = "#id", sync = true)
 	public List<ShPostTypeReport> shSitePostTypeCount(@PathVariable String id) {
 		return shReportPostType.postTypeCountBySite(id);
 
@@ -0,0 +1,8 @@
+package com.viglet.shio.bean;
+
+public interface IShPostSiteType {
+
+	String getShSite();
+
+	String getShPostType();
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.bean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.viglet.shio.persistence.model.folder.ShFolder;
+
+/**
+ * Navigation Tree Item
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+public class ShNavigationItem {
+
+	private ShFolder shFolder;
+
+	private String link;
+
+	private boolean visible;
+
+	private List<ShNavigationItem> children = new ArrayList<>();
+
+	public ShFolder getShFolder() {
+		return shFolder;
+	}
+
+	public void setShFolder(ShFolder shFolder) {
+		this.shFolder = shFolder;
+	}
+
+	public String getLink() {
+		return link;
+	}
+
+	public void setLink(String link) {
+		this.link = link;
+	}
+
+	public boolean isVisible() {
+		return visible;
+	}
+
+	public void setVisible(boolean visible) {
+		this.visible = visible;
+	}
+
+	public List<ShNavigationItem> getChildren() {
+		return children;
+	}
+
+	public void setChildren(List<ShNavigationItem> children) {
+		this.children = children;
+	}
+
+}
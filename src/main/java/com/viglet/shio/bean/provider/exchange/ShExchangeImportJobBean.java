@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.bean.provider.exchange;
+
+import java.util.Date;
+
+/**
+ * Status of a background import of an exchange provider folder.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+public class ShExchangeImportJobBean {
+	public static final String QUEUED = "QUEUED";
+	public static final String RUNNING = "RUNNING";
+	public static final String DONE = "DONE";
+	public static final String FAILED = "FAILED";
+
+	private String id;
+
+	private String providerInstanceId;
+
+	private String providerFolderId;
+
+	private String folderId;
+
+	private volatile String status = QUEUED;
+
+	private volatile int imported;
+
+	private volatile int failed;
+
+	private Date started;
+
+	private volatile Date finished;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getProviderInstanceId() {
+		return providerInstanceId;
+	}
+
+	public void setProviderInstanceId(String providerInstanceId) {
+		this.providerInstanceId = providerInstanceId;
+	}
+
+	public String getProviderFolderId() {
+		return providerFolderId;
+	}
+
+	public void setProviderFolderId(String providerFolderId) {
+		this.providerFolderId = providerFolderId;
+	}
+
+	public String getFolderId() {
+		return folderId;
+	}
+
+	public void setFolderId(String folderId) {
+		this.folderId = folderId;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public int getImported() {
+		return imported;
+	}
+
+	public synchronized void addImported() {
+		this.imported++;
+	}
+
+	public int getFailed() {
+		return failed;
+	}
+
+	public synchronized void addFailed() {
+		this.failed++;
+	}
+
+	public Date getStarted() {
+		return started;
+	}
+
+	public void setStarted(Date started) {
+		this.started = started;
+	}
+
+	public Date getFinished() {
+		return finished;
+	}
+
+	public void setFinished(Date finished) {
+		this.finished = finished;
+	}
+}
@@ -35,7 +35,9 @@ import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.site.ShSite;
 import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
 import com.viglet.shio.persistence.repository.site.ShSiteRepository;
+import com.viglet.shio.report.ShReportPostType;
 import com.viglet.shio.url.ShURLFormatter;
+import com.viglet.shio.website.cache.component.ShCacheObject;
 
 /**
  * @author Alexandre Oliveira
@@ -51,6 +53,10 @@ public class ShFolderImport {
 	private ShURLFormatter shURLFormatter;
 	@Autowired
 	private ShPostImport shPostImport;
+	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShCacheObject shCacheObject;
 
 	public void shFolderImportNested(String shObject, File extractFolder, String username, boolean importOnlyFolders,
 			Map<String, Object> shObjects, Map<String, List<String>> shChildObjects, boolean isCloned) {
@@ -117,6 +123,8 @@ public class ShFolderImport {
 		this.rootFolderSettings(shFolderExchange, shObject, shObjects, shFolderChild);
 		logger.info(String.format("...... %s Folder (%s)", shFolderChild.getName(), shFolderChild.getId()));
 		shFolderRepository.save(shFolderChild);
+		shReportPostType.addFolder(shFolderChild);
+		shCacheObject.created(shFolderChild);
 		return shFolderChild;
 	}
 
@@ -56,11 +56,13 @@ import com.viglet.shio.persistence.repository.post.type.ShPostTypeAttrRepository
 import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
 import com.viglet.shio.post.type.ShSystemPostType;
 import com.viglet.shio.post.type.ShSystemPostTypeAttr;
+import com.viglet.shio.report.ShReportPostType;
 import com.viglet.shio.turing.ShTuringIntegration;
 import com.viglet.shio.url.ShURLFormatter;
 import com.viglet.shio.utils.ShFolderUtils;
 import com.viglet.shio.utils.ShPostUtils;
 import com.viglet.shio.utils.ShStaticFileUtils;
+import com.viglet.shio.website.cache.component.ShCacheObject;
 import com.viglet.shio.widget.ShSystemWidget;
 
 /**
@@ -91,6 +93,10 @@ public class ShPostImport {
 	private ShURLFormatter shURLFormatter;
 	@Autowired
 	private ShTuringIntegration shTuringIntegration;
+	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShCacheObject shCacheObject;
 
 	private boolean turingEnabled = true;
 
@@ -288,6 +294,10 @@ public class ShPostImport {
 
 		shPostRepository.saveAndFlush(shPost);
 
+		shReportPostType.addPost(shPost);
+
+		shCacheObject.created(shPost);
+
 		this.createShPostAttrs(context, shPostExchange, shPost, shPostExchange.getFields(), null, shObjects);
 
 		for (ShPostAttrImpl shPostAttr : shPostAttrRepository.findByShPost(shPost)) {
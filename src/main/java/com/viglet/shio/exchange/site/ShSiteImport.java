@@ -45,6 +45,7 @@ import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
 import com.viglet.shio.persistence.repository.site.ShSiteRepository;
 import com.viglet.shio.post.type.ShSystemPostType;
 import com.viglet.shio.url.ShURLFormatter;
+import com.viglet.shio.website.cache.component.ShCacheObject;
 import com.viglet.shio.widget.ShSystemWidget;
 
 /**
@@ -59,6 +60,8 @@ public class ShSiteImport {
 	@Autowired
 	private ShSiteRepository shSiteRepository;
 	@Autowired
+	private ShCacheObject shCacheObject;
+	@Autowired
 	private ShURLFormatter shURLFormatter;
 	@Autowired
 	private ShFolderImport shFolderImport;
@@ -145,6 +148,7 @@ public class ShSiteImport {
 			shSite.setDate(shSiteExchange.getDate());
 			shSiteRepository.save(shSite);
 
+			shCacheObject.updated(shSite);
 		}
 
 		return shSite;
@@ -0,0 +1,368 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.form;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import com.viglet.shio.property.ShFormProperties;
+import com.viglet.shio.utils.ShFormUtils;
+
+/**
+ * Form Queue. Form submissions are written to a queue file in store/form
+ * before they are acknowledged, and saved as posts in batches by a background
+ * writer. A queue file is removed when all of its submissions are saved, so
+ * the files left by a crash are saved again in next startup, skipping the
+ * submissions with a receipt. Submissions that can't be saved are written to
+ * store/form/journal.json and also saved in next startup.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShFormQueue {
+	private static final Log logger = LogFactory.getLog(ShFormQueue.class);
+	private static final String FORM_DIR = "store" + File.separator + "form";
+	private static final String JOURNAL_FILE = "journal.json";
+	private static final String QUEUE_FILE_PREFIX = "queue-";
+	private static final String QUEUE_FILE = QUEUE_FILE_PREFIX + "%d-%d.json";
+
+	@Autowired
+	private ShFormUtils shFormUtils;
+	@Autowired
+	private ShFormProperties shFormProperties;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private BlockingQueue<ShFormEntry> shFormQueue;
+	private ScheduledExecutorService scheduledExecutorService;
+
+	private final Object segmentLock = new Object();
+	private final long started = System.currentTimeMillis();
+	private long segmentCount = 0;
+	private ShFormSegment currentSegment = null;
+
+	@PostConstruct
+	public void init() {
+		if (shFormProperties.isAsync()) {
+			List<File> replayFiles = this.replayFiles();
+			shFormQueue = new ArrayBlockingQueue<>(Math.max(shFormProperties.getQueueSize(), 1));
+			scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "shio-form");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduledExecutorService.execute(() -> this.replay(replayFiles));
+			scheduledExecutorService.scheduleWithFixedDelay(this::flush, shFormProperties.getFlushInterval(),
+					shFormProperties.getFlushInterval(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	public boolean isAsync() {
+		return shFormQueue != null;
+	}
+
+	public void append(ShFormSubmission shFormSubmission) {
+		if (shFormQueue == null) {
+			this.save(Collections.singletonList(shFormSubmission));
+			return;
+		}
+		ShFormEntry shFormEntry = this.writeAhead(shFormSubmission);
+		// Queue file can't be written or queue is full, so save it now instead of
+		// losing it
+		if (shFormEntry == null || !shFormQueue.offer(shFormEntry)) {
+			if (this.save(Collections.singletonList(shFormSubmission)) && shFormEntry != null)
+				this.release(Collections.singletonList(shFormEntry));
+		}
+	}
+
+	public synchronized void flush() {
+		if (shFormQueue == null)
+			return;
+		this.rotate();
+		List<ShFormEntry> shFormEntries = new ArrayList<>();
+		while (shFormQueue.drainTo(shFormEntries, Math.max(shFormProperties.getBatchSize(), 1)) > 0) {
+			if (this.save(shFormEntries.stream().map(ShFormEntry::getSubmission).collect(Collectors.toList())))
+				this.release(shFormEntries);
+			shFormEntries.clear();
+		}
+	}
+
+	/**
+	 * Save a batch in one transaction, or each submission alone when the batch
+	 * fails, so one bad submission doesn't hold the others.
+	 * 
+	 * @return true when each submission was saved or written to the journal
+	 */
+	private boolean save(List<ShFormSubmission> shFormSubmissions) {
+		try {
+			shFormUtils.save(shFormSubmissions);
+			return true;
+		} catch (Exception e) {
+			if (shFormSubmissions.size() == 1) {
+				logger.error("Form submission save failed, writing to journal: ", e);
+				return this.writeJournal(shFormSubmissions);
+			}
+			logger.warn("Form batch save failed, saving each submission: ", e);
+		}
+		List<ShFormSubmission> failed = new ArrayList<>();
+		for (ShFormSubmission shFormSubmission : shFormSubmissions) {
+			try {
+				shFormUtils.save(Collections.singletonList(shFormSubmission));
+			} catch (Exception e) {
+				logger.error("Form submission save failed, writing to journal: ", e);
+				failed.add(shFormSubmission);
+			}
+		}
+		return failed.isEmpty() || this.writeJournal(failed);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (scheduledExecutorService != null) {
+			scheduledExecutorService.shutdown();
+			try {
+				scheduledExecutorService.awaitTermination(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				logger.error("Form queue shutdown interrupted: ", e);
+				Thread.currentThread().interrupt();
+			}
+			this.flush();
+			this.rotate();
+		}
+	}
+
+	private File formDir() {
+		File formDir = new File(System.getProperty("user.dir"), FORM_DIR);
+		if (!formDir.exists())
+			formDir.mkdirs();
+		return formDir;
+	}
+
+	private ShFormEntry writeAhead(ShFormSubmission shFormSubmission) {
+		try {
+			byte[] line = objectMapper.writeValueAsString(shFormSubmission).concat(System.lineSeparator())
+					.getBytes(StandardCharsets.UTF_8);
+			synchronized (segmentLock) {
+				if (currentSegment == null)
+					currentSegment = new ShFormSegment(
+							new File(this.formDir(), String.format(QUEUE_FILE, started, ++segmentCount)));
+				currentSegment.write(line);
+				return new ShFormEntry(shFormSubmission, currentSegment);
+			}
+		} catch (IOException e) {
+			logger.error("Form submission can't be written to the queue file: ", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Close the current queue file, next submissions go to a new one. It is
+	 * removed now when all of its submissions are already saved.
+	 */
+	private void rotate() {
+		synchronized (segmentLock) {
+			if (currentSegment != null) {
+				ShFormSegment shFormSegment = currentSegment;
+				currentSegment = null;
+				shFormSegment.close();
+				if (shFormSegment.getPending() == 0)
+					FileUtils.deleteQuietly(shFormSegment.getFile());
+			}
+		}
+	}
+
+	private void release(Collection<ShFormEntry> shFormEntries) {
+		synchronized (segmentLock) {
+			for (ShFormEntry shFormEntry : shFormEntries) {
+				ShFormSegment shFormSegment = shFormEntry.getSegment();
+				if (shFormSegment.release() == 0 && shFormSegment != currentSegment)
+					FileUtils.deleteQuietly(shFormSegment.getFile());
+			}
+		}
+	}
+
+	private synchronized boolean writeJournal(Collection<ShFormSubmission> shFormSubmissions) {
+		List<String> lines = new ArrayList<>();
+		for (ShFormSubmission shFormSubmission : shFormSubmissions) {
+			try {
+				lines.add(objectMapper.writeValueAsString(shFormSubmission));
+			} catch (IOException e) {
+				logger.error("Form submission serialization failed: ", e);
+			}
+		}
+		File journal = new File(this.formDir(), JOURNAL_FILE);
+		try {
+			FileUtils.writeLines(journal, StandardCharsets.UTF_8.name(), lines, true);
+			return true;
+		} catch (IOException e) {
+			logger.error(String.format("Form journal %s can't be written: ", journal.getAbsolutePath()), e);
+			return false;
+		}
+	}
+
+	/**
+	 * Queue files and journal left by the last run. The journal is renamed, so
+	 * submissions that fail again are written to a new one.
+	 */
+	private List<File> replayFiles() {
+		File formDir = this.formDir();
+		File journal = new File(formDir, JOURNAL_FILE);
+		if (journal.exists() && !journal.renameTo(new File(formDir, String.format(QUEUE_FILE, started, 0))))
+			logger.error(String.format("Form journal %s can't be renamed", journal.getAbsolutePath()));
+		File[] files = formDir.listFiles((dir, name) -> name.startsWith(QUEUE_FILE_PREFIX));
+		return files != null ? Arrays.asList(files) : Collections.emptyList();
+	}
+
+	/**
+	 * Save the submissions of queue files again. Submissions with a receipt
+	 * were saved before the crash and are skipped.
+	 */
+	private void replay(List<File> files) {
+		Set<String> replayed = new HashSet<>();
+		for (File file : files) {
+			try {
+				List<ShFormSubmission> shFormSubmissions = new ArrayList<>();
+				for (String line : FileUtils.readLines(file, StandardCharsets.UTF_8)) {
+					try {
+						if (!line.trim().isEmpty())
+							shFormSubmissions.add(objectMapper.readValue(line, ShFormSubmission.class));
+					} catch (IOException e) {
+						// Last line of a queue file may be incomplete after a crash
+						logger.error(String.format("Form queue file %s has an invalid line: ", file.getName()), e);
+					}
+				}
+				Set<String> saved = shFormUtils.saved(shFormSubmissions.stream().map(ShFormSubmission::getId)
+						.filter(Objects::nonNull).collect(Collectors.toSet()));
+				int total = shFormSubmissions.size();
+				shFormSubmissions.removeIf(shFormSubmission -> shFormSubmission.getId() != null
+						&& (saved.contains(shFormSubmission.getId()) || !replayed.add(shFormSubmission.getId())));
+				if (shFormSubmissions.size() < total)
+					logger.info(String.format("Form queue file %s has %d submissions already saved", file.getName(),
+							total - shFormSubmissions.size()));
+				boolean allSaved = true;
+				for (List<ShFormSubmission> batch : Lists.partition(shFormSubmissions,
+						Math.max(shFormProperties.getBatchSize(), 1)))
+					allSaved &= this.save(batch);
+				if (allSaved)
+					FileUtils.deleteQuietly(file);
+				logger.info(String.format("Form queue file %s replayed with %d submissions", file.getName(),
+						shFormSubmissions.size()));
+			} catch (Exception e) {
+				logger.error(String.format("Form queue file %s replay failed: ", file.getName()), e);
+			}
+		}
+		try {
+			Calendar calendar = Calendar.getInstance();
+			calendar.add(Calendar.DAY_OF_MONTH, -shFormProperties.getReceiptRetentionDays());
+			shFormUtils.deleteReceipts(calendar.getTime());
+		} catch (Exception e) {
+			logger.error("Form receipts removal failed: ", e);
+		}
+	}
+
+	private static class ShFormEntry {
+		private final ShFormSubmission submission;
+		private final ShFormSegment segment;
+
+		ShFormEntry(ShFormSubmission submission, ShFormSegment segment) {
+			this.submission = submission;
+			this.segment = segment;
+		}
+
+		ShFormSubmission getSubmission() {
+			return submission;
+		}
+
+		ShFormSegment getSegment() {
+			return segment;
+		}
+	}
+
+	/**
+	 * Queue file with the count of its submissions not saved yet, guarded by
+	 * segmentLock.
+	 */
+	private static class ShFormSegment {
+		private final File file;
+		private FileOutputStream outputStream;
+		private int pending = 0;
+
+		ShFormSegment(File file) {
+			this.file = file;
+		}
+
+		void write(byte[] line) throws IOException {
+			if (outputStream == null)
+				outputStream = new FileOutputStream(file, true);
+			outputStream.write(line);
+			outputStream.getFD().sync();
+			pending++;
+		}
+
+		int release() {
+			return --pending;
+		}
+
+		void close() {
+			if (outputStream != null) {
+				try {
+					outputStream.close();
+				} catch (IOException e) {
+					logger.error("Form queue file close failed: ", e);
+				}
+				outputStream = null;
+			}
+		}
+
+		File getFile() {
+			return file;
+		}
+
+		int getPending() {
+			return pending;
+		}
+	}
+}
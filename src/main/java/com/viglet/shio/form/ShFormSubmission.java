@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.form;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Form submission read from the request, with the values of each post type
+ * attribute, waiting to be saved as a post. Its id identifies it when it is
+ * replayed from the queue files.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+public class ShFormSubmission {
+	private String id;
+	private String postType;
+	private String folderId;
+	private Map<String, List<String>> fields = new HashMap<>();
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getPostType() {
+		return postType;
+	}
+
+	public void setPostType(String postType) {
+		this.postType = postType;
+	}
+
+	public String getFolderId() {
+		return folderId;
+	}
+
+	public void setFolderId(String folderId) {
+		this.folderId = folderId;
+	}
+
+	public Map<String, List<String>> getFields() {
+		return fields;
+	}
+
+	public void setFields(Map<String, List<String>> fields) {
+		this.fields = fields;
+	}
+}
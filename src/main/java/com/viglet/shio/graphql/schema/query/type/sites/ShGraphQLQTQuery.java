@@ -58,6 +58,8 @@ public class ShGraphQLQTQuery {
 	private static final Log logger = LogFactory.getLog(ShGraphQLQTQuery.class);
 	@Autowired
 	private ShQueryComponent shQueryComponent;
+	@Autowired
+	private ObjectMapper objectMapper;
 	private static final String QUERY_TYPE_NAME = "shQuery";
 
 	public static final String POST_TYPE_NAME = "postTypeName";
@@ -106,12 +108,11 @@ public class ShGraphQLQTQuery {
 
 	private Map<String, Object> postToGraphQL(Map<String, ShPostAttr> post) {
 		Map<String, Object> result = new HashMap<>();
-		ObjectMapper mapper = new ObjectMapper();
 		String jsonInString;
 		try {
-			jsonInString = mapper.writerWithView(ShJsonView.ShJsonViewObject.class).writeValueAsString(post);
+			jsonInString = objectMapper.writerWithView(ShJsonView.ShJsonViewObject.class).writeValueAsString(post);
 
-			Map<String, ShPostAttr> tinyPost = mapper.readValue(jsonInString,
+			Map<String, ShPostAttr> tinyPost = objectMapper.readValue(jsonInString,
 					new TypeReference<Map<String, ShPostAttr>>() {
 					});
 			tinyPost.remove("__type__");
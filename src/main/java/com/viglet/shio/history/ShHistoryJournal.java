@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viglet.shio.persistence.model.history.ShHistory;
+import com.viglet.shio.persistence.repository.history.ShHistoryRepository;
+import com.viglet.shio.property.ShHistoryProperties;
+import com.viglet.shio.utils.ShTransactionUtils;
+
+/**
+ * History Journal. History items are queued and saved in batches by a
+ * background writer, after the editor transaction commits. Items that can't be
+ * saved are written to store/history/journal.json and saved in next startup.
+ * Items older than retention days are archived by month and removed.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShHistoryJournal {
+	private static final Log logger = LogFactory.getLog(ShHistoryJournal.class);
+	private static final String HISTORY_DIR = "store" + File.separator + "history";
+	private static final String JOURNAL_FILE = "journal.json";
+	private static final String ARCHIVE_DIR = "archive";
+	private static final long ONE_DAY = TimeUnit.DAYS.toMillis(1);
+
+	@Autowired
+	private ShHistoryRepository shHistoryRepository;
+	@Autowired
+	private ShHistoryProperties shHistoryProperties;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate requiresNew;
+
+	private BlockingQueue<ShHistory> shHistoryQueue;
+	private ScheduledExecutorService scheduledExecutorService;
+
+	@PostConstruct
+	public void init() {
+		requiresNew = new TransactionTemplate(transactionManager);
+		requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		if (shHistoryProperties.isAsync()) {
+			shHistoryQueue = new ArrayBlockingQueue<>(Math.max(shHistoryProperties.getQueueSize(), 1));
+			scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "shio-history");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduledExecutorService.execute(this::replay);
+			scheduledExecutorService.scheduleWithFixedDelay(this::flush, shHistoryProperties.getFlushInterval(),
+					shHistoryProperties.getFlushInterval(), TimeUnit.MILLISECONDS);
+			if (shHistoryProperties.getRetentionDays() > 0)
+				scheduledExecutorService.scheduleWithFixedDelay(this::retention, 1, ONE_DAY, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	public void append(ShHistory shHistory) {
+		if (shHistoryQueue == null) {
+			shHistoryRepository.save(shHistory);
+		} else {
+			ShTransactionUtils.afterCommit(() -> this.offer(shHistory));
+		}
+	}
+
+	private void offer(ShHistory shHistory) {
+		// Queue is full, so save it now instead of losing it. It runs after commit,
+		// so it needs its own transaction to be written.
+		if (!shHistoryQueue.offer(shHistory)) {
+			try {
+				requiresNew.executeWithoutResult(status -> shHistoryRepository.save(shHistory));
+			} catch (Exception e) {
+				logger.error("History save failed, writing to journal: ", e);
+				this.writeJournal(Collections.singletonList(shHistory));
+			}
+		}
+	}
+
+	public synchronized void flush() {
+		if (shHistoryQueue == null)
+			return;
+		List<ShHistory> shHistories = new ArrayList<>();
+		while (shHistoryQueue.drainTo(shHistories, Math.max(shHistoryProperties.getBatchSize(), 1)) > 0) {
+			try {
+				shHistoryRepository.saveAll(shHistories);
+			} catch (Exception e) {
+				logger.error("History flush failed, writing to journal: ", e);
+				this.writeJournal(shHistories);
+			}
+			shHistories.clear();
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (scheduledExecutorService != null) {
+			scheduledExecutorService.shutdown();
+			try {
+				scheduledExecutorService.awaitTermination(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				logger.error("History shutdown interrupted: ", e);
+				Thread.currentThread().interrupt();
+			}
+			this.flush();
+		}
+	}
+
+	private File historyDir() {
+		File historyDir = new File(System.getProperty("user.dir"), HISTORY_DIR);
+		if (!historyDir.exists())
+			historyDir.mkdirs();
+		return historyDir;
+	}
+
+	private synchronized void writeJournal(Collection<ShHistory> shHistories) {
+		File journal = new File(this.historyDir(), JOURNAL_FILE);
+		try {
+			this.writeLines(journal, shHistories);
+		} catch (IOException e) {
+			logger.error(String.format("History %s can't be written: ", journal.getAbsolutePath()), e);
+		}
+	}
+
+	/**
+	 * Append the items to file.
+	 * 
+	 * @return items written, without the items that can't be serialized
+	 */
+	private List<ShHistory> writeLines(File file, Collection<ShHistory> shHistories) throws IOException {
+		List<ShHistory> written = new ArrayList<>();
+		List<String> lines = new ArrayList<>();
+		for (ShHistory shHistory : shHistories) {
+			try {
+				lines.add(objectMapper.writeValueAsString(shHistory));
+				written.add(shHistory);
+			} catch (IOException e) {
+				logger.error("History serialization failed: ", e);
+			}
+		}
+		FileUtils.writeLines(file, StandardCharsets.UTF_8.name(), lines, true);
+		return written;
+	}
+
+	private void replay() {
+		File journal = new File(this.historyDir(), JOURNAL_FILE);
+		if (!journal.exists())
+			return;
+		try {
+			List<ShHistory> shHistories = new ArrayList<>();
+			for (String line : FileUtils.readLines(journal, StandardCharsets.UTF_8)) {
+				if (!line.trim().isEmpty())
+					shHistories.add(objectMapper.readValue(line, ShHistory.class));
+			}
+			shHistoryRepository.saveAll(shHistories);
+			FileUtils.deleteQuietly(journal);
+			logger.info(String.format("History journal replayed with %d items", shHistories.size()));
+		} catch (Exception e) {
+			logger.error("History journal replay failed: ", e);
+		}
+	}
+
+	private void retention() {
+		Calendar calendar = Calendar.getInstance();
+		calendar.add(Calendar.DAY_OF_MONTH, -shHistoryProperties.getRetentionDays());
+		SimpleDateFormat monthFormat = new SimpleDateFormat("yyyy-MM");
+		try {
+			List<ShHistory> shDeletedHistories;
+			do {
+				List<ShHistory> shHistories = shHistoryRepository.findByDateBeforeOrderByDateAsc(
+						calendar.getTime(), PageRequest.of(0, Math.max(shHistoryProperties.getBatchSize(), 1)));
+				if (shHistoryProperties.isArchive()) {
+					// Only items already in archive are removed, also when a month fails
+					shDeletedHistories = new ArrayList<>();
+					try {
+						this.archive(shHistories, monthFormat, shDeletedHistories);
+					} finally {
+						shHistoryRepository.deleteInBatch(shDeletedHistories);
+					}
+				} else {
+					shDeletedHistories = shHistories;
+					shHistoryRepository.deleteInBatch(shDeletedHistories);
+				}
+			} while (!shDeletedHistories.isEmpty());
+		} catch (Exception e) {
+			logger.error("History retention failed: ", e);
+		}
+	}
+
+	private void archive(List<ShHistory> shHistories, SimpleDateFormat monthFormat, List<ShHistory> archived)
+			throws IOException {
+		Map<String, List<ShHistory>> shHistoriesByMonth = new HashMap<>();
+		for (ShHistory shHistory : shHistories)
+			shHistoriesByMonth.computeIfAbsent(monthFormat.format(shHistory.getDate()), month -> new ArrayList<>())
+					.add(shHistory);
+
+		File archiveDir = new File(this.historyDir(), ARCHIVE_DIR);
+		if (!archiveDir.exists())
+			archiveDir.mkdirs();
+		for (Map.Entry<String, List<ShHistory>> shHistoriesOfMonth : shHistoriesByMonth.entrySet())
+			archived.addAll(this.writeLines(
+					new File(archiveDir, String.format("history-%s.json", shHistoriesOfMonth.getKey())),
+					shHistoriesOfMonth.getValue()));
+	}
+}
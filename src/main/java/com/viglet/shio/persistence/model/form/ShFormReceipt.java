@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.persistence.model.form;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.GenericGenerator;
+
+/**
+ * The persistent class for the ShFormReceipt database table. Saved in the
+ * same transaction as the posts of form submissions, so a submission replayed
+ * after a crash is not saved again.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Entity
+@Table(indexes = { @Index(columnList = "submission", unique = true), @Index(columnList = "date") })
+@NamedQuery(name = "ShFormReceipt.findAll", query = "SELECT fr FROM ShFormReceipt fr")
+public class ShFormReceipt implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GenericGenerator(name = "UUID", strategy = "com.viglet.shio.jpa.ShUUIDGenerator")
+	@GeneratedValue(generator = "UUID")
+
+	@Column(name = "id", updatable = false, nullable = false)
+	private String id;
+
+	@Column(nullable = false, length = 36)
+	private String submission;
+
+	private Date date;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getSubmission() {
+		return submission;
+	}
+
+	public void setSubmission(String submission) {
+		this.submission = submission;
+	}
+
+	public Date getDate() {
+		return date;
+	}
+
+	public void setDate(Date date) {
+		this.date = date;
+	}
+}
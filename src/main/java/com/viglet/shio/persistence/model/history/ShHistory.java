@@ -23,7 +23,9 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.NamedQuery;
+import javax.persistence.Table;
 
 import org.hibernate.annotations.GenericGenerator;
 
@@ -33,6 +35,7 @@ import org.hibernate.annotations.GenericGenerator;
  * @author Alexandre Oliveira
  */
 @Entity
+@Table(indexes = { @Index(columnList = "shObject,date,id"), @Index(columnList = "shSite,date,id") })
 @NamedQuery(name = "ShHistory.findAll", query = "SELECT h FROM ShHistory h")
 public class ShHistory implements Serializable {
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.persistence.model.site;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.GenericGenerator;
+
+/**
+ * The persistent class for the ShSiteTypeCount database table. Keeps the total
+ * of objects by type of a site, type is the Post Type Id or FOLDER.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Entity
+@Table(name = "shSiteTypeCount", uniqueConstraints = @UniqueConstraint(columnNames = { "shSite", "type" }))
+@NamedQuery(name = "ShSiteTypeCount.findAll", query = "SELECT stc FROM ShSiteTypeCount stc")
+public class ShSiteTypeCount implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GenericGenerator(name = "UUID", strategy = "com.viglet.shio.jpa.ShUUIDGenerator")
+	@GeneratedValue(generator = "UUID")
+
+	@Column(name = "id", updatable = false, nullable = false)
+	private String id;
+
+	@Column(nullable = false, length = 255)
+	private String shSite;
+
+	@Column(nullable = false, length = 255)
+	private String type;
+
+	private long total;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getShSite() {
+		return shSite;
+	}
+
+	public void setShSite(String shSite) {
+		this.shSite = shSite;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public void setTotal(long total) {
+		this.total = total;
+	}
+
+}
@@ -37,6 +37,9 @@ public interface ShUserRepository extends JpaRepository<ShUser, String> {
 	List<ShUser> findAll();
 
 	ShUser findByUsername(String username);
+
+	@Query("select u from ShUser u left join fetch u.shGroups where u.username = ?1")
+	ShUser findByUsernameFull(String username);
 	
 	boolean existsByUsernameAndPassword(String username, String password);
 
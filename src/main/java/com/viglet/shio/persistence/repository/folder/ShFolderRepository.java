@@ -16,10 +16,12 @@
  */
 package com.viglet.shio.persistence.repository.folder;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -56,8 +58,15 @@ public interface ShFolderRepository extends JpaRepository<ShFolder, String> {
 
 	Set<ShFolder> findByParentFolder(ShFolder parentFolder);
 
+	List<ShFolder> findByParentFolderIn(Collection<ShFolder> parentFolders);
+
 	List<ShFolder> findByParentFolderOrderByPositionAsc(ShFolder parentFolder);
 
+	List<ShFolder> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
+
+	@Query("select new com.viglet.shio.bean.ShFolderTinyBean(f.id, f.name, f.position, f.date) from ShFolder f where f.id > ?1 order by f.id")
+	List<ShFolderTinyBean> findByIdGreaterThanTiny(String id, Pageable pageable);
+
 	int countByShSite(ShSite shSite);
 	
 	Optional<ShFolder> findById(String id);
@@ -68,4 +77,8 @@ public interface ShFolderRepository extends JpaRepository<ShFolder, String> {
 	@Modifying
 	@Query("delete from ShFolder p where p.id = ?1")
 	void delete(String shFolderId);
+
+	@Modifying(clearAutomatically = true)
+	@Query("update ShFolder f set f.parentFolder = ?1, f.shSite = ?2, f.rootFolder = ?3 where f.id in ?4")
+	int updateParentByIdIn(ShFolder parentFolder, ShSite shSite, byte rootFolder, Collection<String> ids);
 }
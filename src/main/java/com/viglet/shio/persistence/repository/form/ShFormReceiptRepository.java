@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.persistence.repository.form;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.viglet.shio.persistence.model.form.ShFormReceipt;
+
+/**
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Repository
+public interface ShFormReceiptRepository extends JpaRepository<ShFormReceipt, String> {
+
+	@Query("select fr.submission from ShFormReceipt fr where fr.submission in ?1")
+	List<String> findSubmissionBySubmissionIn(Collection<String> submissions);
+
+	@Modifying
+	@Query("delete from ShFormReceipt fr where fr.date < ?1")
+	void deleteByDateBefore(Date date);
+}
@@ -16,10 +16,12 @@
  */
 package com.viglet.shio.persistence.repository.history;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
@@ -36,6 +38,16 @@ public interface ShHistoryPageableRepository extends PagingAndSortingRepository<
 	List<ShHistory> findByShObjectOrderByDateDesc(String shObject,  Pageable pageable);
 	
 	List<ShHistory> findByShSiteOrderByDateDesc(String shSite,  Pageable pageable);
+
+	List<ShHistory> findByShObjectOrderByDateDescIdDesc(String shObject, Pageable pageable);
+
+	List<ShHistory> findByShSiteOrderByDateDescIdDesc(String shSite, Pageable pageable);
+
+	@Query("SELECT h FROM ShHistory h WHERE h.shObject = ?1 AND (h.date < ?2 OR (h.date = ?2 AND h.id < ?3)) ORDER BY h.date DESC, h.id DESC")
+	List<ShHistory> findByShObjectAfter(String shObject, Date date, String id, Pageable pageable);
+
+	@Query("SELECT h FROM ShHistory h WHERE h.shSite = ?1 AND (h.date < ?2 OR (h.date = ?2 AND h.id < ?3)) ORDER BY h.date DESC, h.id DESC")
+	List<ShHistory> findByShSiteAfter(String shSite, Date date, String id, Pageable pageable);
 	
 	Optional<ShHistory> findById(String id);
 	
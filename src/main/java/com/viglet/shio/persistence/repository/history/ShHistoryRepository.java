@@ -16,9 +16,11 @@
  */
 package com.viglet.shio.persistence.repository.history;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -43,6 +45,8 @@ public interface ShHistoryRepository extends JpaRepository<ShHistory, String> {
 
 	int countByShSite(String shSite);
 
+	List<ShHistory> findByDateBeforeOrderByDateAsc(Date date, Pageable pageable);
+
 	@Modifying
 	@Query("delete from ShHistory h where h.id = ?1")
 	void delete(String id);
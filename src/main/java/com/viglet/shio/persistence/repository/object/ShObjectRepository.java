@@ -20,11 +20,15 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.LockModeType;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.viglet.shio.bean.IShObjectPrincipal;
 import com.viglet.shio.persistence.model.object.ShObject;
 
 /**
@@ -45,7 +49,21 @@ public interface ShObjectRepository extends JpaRepository<ShObject, String> {
 	int countByIdAndShGroupsInOrIdAndShUsersInOrIdAndShGroupsIsNullAndShUsersIsNull(String id, Collection<String> groups,
 			String id2, Collection<String> users, String id3);
 
+	@Query("select o.id as id, g as principal from ShObject o left join o.shGroups g where o.id in ?1")
+	List<IShObjectPrincipal> findShGroupsByIdIn(Collection<String> ids);
+
+	@Query("select o.id as id, u as principal from ShObject o left join o.shUsers u where o.id in ?1")
+	List<IShObjectPrincipal> findShUsersByIdIn(Collection<String> ids);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select o from ShObject o where o.id in ?1")
+	List<ShObject> findForUpdateByIdIn(Collection<String> ids);
+
 	@Modifying
 	@Query("delete from ShObject o where o.id = ?1")
 	void delete(String shObjectId);
+
+	@Modifying
+	@Query("update ShObject o set o.furl = ?1 where o.id = ?2")
+	int updateFurl(String furl, String id);
 }
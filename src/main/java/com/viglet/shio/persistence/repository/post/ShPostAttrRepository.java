@@ -46,6 +46,9 @@ public interface ShPostAttrRepository extends JpaRepository<ShPostAttr, String>,
 
 	Set<ShPostAttr> findByShPost(ShPostImpl shPost);
 
+	@Query("select p from ShPostAttr p JOIN FETCH p.shPostTypeAttr where p.shPost.id in ?1")
+	Set<ShPostAttr> findByShPostIdInAll(Collection<String> shPostIds);
+
 	@Query("select p from ShPostAttr p JOIN FETCH p.shPostTypeAttr where p.shParentRelatorItem = ?1")
 	Set<ShPostAttr> findByShParentRelatorItemJoin(ShRelatorItemImpl shRelatorItem);
 
@@ -63,4 +66,8 @@ public interface ShPostAttrRepository extends JpaRepository<ShPostAttr, String>,
 	@Query("delete from ShPostAttr pa where pa.id = ?1")
 	void delete(String shPostAttrId);
 
+	@Modifying
+	@Query("delete from ShPostAttr pa where pa.shPost.id in ?1")
+	void deleteByShPostIdIn(Collection<String> shPostIds);
+
 }
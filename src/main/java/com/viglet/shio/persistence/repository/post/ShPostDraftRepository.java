@@ -61,6 +61,9 @@ public interface ShPostDraftRepository extends JpaRepository<ShPostDraft, String
 	
 	@Query("select p from ShPostDraft p JOIN FETCH p.shPostType JOIN FETCH p.shFolder JOIN FETCH p.shPostAttrs where p.id = ?1")
 	Optional<ShPostDraft> findByIdFull(String id);
+
+	@Query("select distinct p from ShPostDraft p JOIN FETCH p.shPostType JOIN FETCH p.shFolder JOIN FETCH p.shPostAttrs where p.id in ?1")
+	List<ShPostDraft> findByIdInFull(Collection<String> ids);
 	
 	Optional<ShPostDraft> findById(String id);
 
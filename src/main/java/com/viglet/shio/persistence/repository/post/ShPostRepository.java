@@ -21,12 +21,14 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.viglet.shio.bean.IShPostSiteType;
 import com.viglet.shio.bean.IShPostTypeCount;
 import com.viglet.shio.bean.ShPostTinyBean;
 import com.viglet.shio.persistence.model.folder.ShFolder;
@@ -46,6 +48,8 @@ public interface ShPostRepository extends JpaRepository<ShPost, String>, ShPostR
 	List<ShPost> findAll();
 
 	List<ShPost> findByShFolder(ShFolder shFolder);
+
+	List<ShPost> findByShFolderIn(Collection<ShFolder> shFolders);
 	
 	List<ShPost> findByShFolderOrderByShPostType(ShFolder shFolder);
 
@@ -58,9 +62,24 @@ public interface ShPostRepository extends JpaRepository<ShPost, String>, ShPostR
 	List<ShPost> findByShFolderAndShPostType(ShFolder shFolder, ShPostType shPostType);
 	
 	List<ShPost> findByShPostType(ShPostType shPostType);
+
+	List<ShPost> findByShPostType(ShPostType shPostType, Pageable pageable);
+
+	List<ShPost> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
+
+	@Query("select new com.viglet.shio.bean.ShPostTinyBean(p) from ShPost p where p.id > ?1 order by p.id")
+	List<ShPostTinyBean> findByIdGreaterThanTiny(String id, Pageable pageable);
+
+	List<ShPost> findByShPostTypeAndIdGreaterThanOrderByIdAsc(ShPostType shPostType, String id, Pageable pageable);
+
+	@Query("select new com.viglet.shio.bean.ShPostTinyBean(p) from ShPost p where p.shPostType = ?1 and p.id > ?2 order by p.id")
+	List<ShPostTinyBean> findByShPostTypeAndIdGreaterThanTiny(ShPostType shPostType, String id, Pageable pageable);
 		
 	@Query("SELECT p.shPostType AS shPostType, COUNT(p.shPostType) AS totalPostType FROM ShPost AS p WHERE p.shSite = ?1 GROUP BY p.shPostType")
 	List<IShPostTypeCount> counShPostTypeByShSite(ShSite shSite);
+
+	@Query("SELECT s.id AS shSite, t.id AS shPostType FROM ShPost AS p LEFT JOIN p.shSite AS s LEFT JOIN p.shPostType AS t WHERE p.id = ?1")
+	IShPostSiteType findSiteTypeById(String id);
 	
 	List<ShPost> findByShSite_IdIn(Collection<String> shSiteId); //NOSONAR
 	
@@ -68,8 +87,14 @@ public interface ShPostRepository extends JpaRepository<ShPost, String>, ShPostR
 	
 	List<ShPost> findByShFolderAndShPostTypeOrderByPositionAsc(ShFolder shFolder, ShPostType shPostType);
 
+	List<ShPost> findByShFolderAndShPostTypeOrderByPositionAsc(ShFolder shFolder, ShPostType shPostType,
+			Pageable pageable);
+
 	@Query("select p from ShPost p JOIN FETCH p.shPostType JOIN FETCH p.shFolder JOIN FETCH p.shPostAttrs where p.id = ?1")
 	Optional<ShPost> findByIdFull(String id);
+
+	@Query("select distinct p from ShPost p JOIN FETCH p.shPostType JOIN FETCH p.shFolder JOIN FETCH p.shPostAttrs where p.id in ?1")
+	List<ShPost> findByIdInFull(Collection<String> ids);
 	
 	Optional<ShPost> findById(String id);
 
@@ -90,6 +115,8 @@ public interface ShPostRepository extends JpaRepository<ShPost, String>, ShPostR
 	ShPost findByShFolderAndTitle(ShFolder shFolder, String title);
 
 	ShPost findByShFolderAndFurl(ShFolder shFolder, String furl);
+
+	List<ShPost> findByShFolderInAndFurl(Collection<ShFolder> shFolders, String furl);
 	
 	boolean existsByShFolderAndTitle(ShFolder shFolder, String title);
 	
@@ -101,4 +128,12 @@ public interface ShPostRepository extends JpaRepository<ShPost, String>, ShPostR
 	@Modifying
 	@Query("delete from ShPost p where p.id = ?1")
 	void delete(String shPostId);
+
+	@Modifying(clearAutomatically = true)
+	@Query("update ShPost p set p.shFolder = ?1 where p.id in ?2")
+	int updateShFolderByIdIn(ShFolder shFolder, Collection<String> ids);
+
+	@Modifying(clearAutomatically = true)
+	@Query("update ShPost p set p.shSite = ?1 where p.id in ?2")
+	int updateShSiteByIdIn(ShSite shSite, Collection<String> ids);
 }
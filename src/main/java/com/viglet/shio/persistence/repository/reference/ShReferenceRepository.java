@@ -16,6 +16,7 @@
  */
 package com.viglet.shio.persistence.repository.reference;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,4 +48,8 @@ public interface ShReferenceRepository extends JpaRepository<ShReference, String
 	@Modifying
 	@Query("delete from ShReference r where r.id = ?1")
 	void delete(String id);
+
+	@Modifying
+	@Query("delete from ShReference r where r.shObjectFrom.id in ?1 or r.shObjectTo.id in ?1")
+	void deleteByShObjectIdIn(Collection<String> shObjectIds);
 }
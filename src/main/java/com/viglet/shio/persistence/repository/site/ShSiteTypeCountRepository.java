@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.persistence.repository.site;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.viglet.shio.persistence.model.site.ShSiteTypeCount;
+
+/**
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Repository
+public interface ShSiteTypeCountRepository extends JpaRepository<ShSiteTypeCount, String> {
+
+	List<ShSiteTypeCount> findByShSite(String shSite);
+
+	boolean existsByShSite(String shSite);
+
+	@SuppressWarnings("unchecked")
+	ShSiteTypeCount save(ShSiteTypeCount shSiteTypeCount);
+
+	@Modifying
+	@Query("UPDATE ShSiteTypeCount stc SET stc.total = stc.total + ?3 WHERE stc.shSite = ?1 AND stc.type = ?2")
+	int addTotal(String shSite, String type, long total);
+
+	@Modifying
+	@Query("DELETE FROM ShSiteTypeCount stc WHERE stc.shSite = ?1")
+	void deleteByShSite(String shSite);
+}
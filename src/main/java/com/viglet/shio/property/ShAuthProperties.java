@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.property;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+@ConfigurationProperties("shio.auth")
+public class ShAuthProperties {
+	private int timeout = 5;
+	private int maxConnections = 50;
+	private long cacheTtl = 300;
+	private long cacheSize = 10000;
+	private int passwordStrength = 10;
+	private int passwordVerifiers = 0;
+	private long accessIndexTtl = 60;
+
+	public int getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	public long getCacheTtl() {
+		return cacheTtl;
+	}
+
+	public void setCacheTtl(long cacheTtl) {
+		this.cacheTtl = cacheTtl;
+	}
+
+	public long getCacheSize() {
+		return cacheSize;
+	}
+
+	public void setCacheSize(long cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+
+	public int getPasswordStrength() {
+		return passwordStrength;
+	}
+
+	public void setPasswordStrength(int passwordStrength) {
+		this.passwordStrength = passwordStrength;
+	}
+
+	public int getPasswordVerifiers() {
+		return passwordVerifiers;
+	}
+
+	public void setPasswordVerifiers(int passwordVerifiers) {
+		this.passwordVerifiers = passwordVerifiers;
+	}
+
+	public long getAccessIndexTtl() {
+		return accessIndexTtl;
+	}
+
+	public void setAccessIndexTtl(long accessIndexTtl) {
+		this.accessIndexTtl = accessIndexTtl;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.property;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+@ConfigurationProperties("shio.form")
+public class ShFormProperties {
+	private boolean async = true;
+	private int queueSize = 10000;
+	private int batchSize = 100;
+	private long flushInterval = 1000;
+	private int recaptchaTimeout = 5;
+	private int recaptchaMaxConnections = 20;
+	private int receiptRetentionDays = 7;
+
+	public boolean isAsync() {
+		return async;
+	}
+
+	public void setAsync(boolean async) {
+		this.async = async;
+	}
+
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	public void setQueueSize(int queueSize) {
+		this.queueSize = queueSize;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public long getFlushInterval() {
+		return flushInterval;
+	}
+
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	public int getRecaptchaTimeout() {
+		return recaptchaTimeout;
+	}
+
+	public void setRecaptchaTimeout(int recaptchaTimeout) {
+		this.recaptchaTimeout = recaptchaTimeout;
+	}
+
+	public int getRecaptchaMaxConnections() {
+		return recaptchaMaxConnections;
+	}
+
+	public void setRecaptchaMaxConnections(int recaptchaMaxConnections) {
+		this.recaptchaMaxConnections = recaptchaMaxConnections;
+	}
+
+	public int getReceiptRetentionDays() {
+		return receiptRetentionDays;
+	}
+
+	public void setReceiptRetentionDays(int receiptRetentionDays) {
+		this.receiptRetentionDays = receiptRetentionDays;
+	}
+
+}
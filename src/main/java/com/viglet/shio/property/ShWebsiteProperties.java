@@ -26,7 +26,24 @@ import org.springframework.stereotype.Component;
 @Component
 @ConfigurationProperties("shio.website")
 public class ShWebsiteProperties {
+	private String engine = "nashorn";
 	private String[] nashorn = {};
+	private int queryCacheSize = 1000;
+	private int queryCacheTtl = 300;
+	private int templateCacheSize = 1000;
+	private int linkCacheSize = 10000;
+	private boolean snapshot = false;
+	private int snapshotTtl = 300;
+	private int renderThreads = 16;
+	private int renderQueueSize = 1000;
+
+	public String getEngine() {
+		return engine;
+	}
+
+	public void setEngine(String engine) {
+		this.engine = engine;
+	}
 
 	public String[] getNashorn() {
 		return nashorn;
@@ -36,6 +53,70 @@ public class ShWebsiteProperties {
 		this.nashorn = nashorn;
 	}
 
+	public int getQueryCacheSize() {
+		return queryCacheSize;
+	}
+
+	public void setQueryCacheSize(int queryCacheSize) {
+		this.queryCacheSize = queryCacheSize;
+	}
+
+	public int getQueryCacheTtl() {
+		return queryCacheTtl;
+	}
+
+	public void setQueryCacheTtl(int queryCacheTtl) {
+		this.queryCacheTtl = queryCacheTtl;
+	}
+
+	public int getTemplateCacheSize() {
+		return templateCacheSize;
+	}
+
+	public void setTemplateCacheSize(int templateCacheSize) {
+		this.templateCacheSize = templateCacheSize;
+	}
+
+	public int getLinkCacheSize() {
+		return linkCacheSize;
+	}
+
+	public void setLinkCacheSize(int linkCacheSize) {
+		this.linkCacheSize = linkCacheSize;
+	}
+
+	public boolean isSnapshot() {
+		return snapshot;
+	}
+
+	public void setSnapshot(boolean snapshot) {
+		this.snapshot = snapshot;
+	}
+
+	public int getSnapshotTtl() {
+		return snapshotTtl;
+	}
+
+	public void setSnapshotTtl(int snapshotTtl) {
+		this.snapshotTtl = snapshotTtl;
+	}
+
+	public int getRenderThreads() {
+		return renderThreads;
+	}
+
+	public void setRenderThreads(int renderThreads) {
+		this.renderThreads = renderThreads;
+	}
+
+	public int getRenderQueueSize() {
+		return renderQueueSize;
+	}
+
+	public void setRenderQueueSize(int renderQueueSize) {
+		this.renderQueueSize = renderQueueSize;
+	}
+
 	public Object[] getNashornAsObject() {
 		return new Object[] { nashorn };
 	}
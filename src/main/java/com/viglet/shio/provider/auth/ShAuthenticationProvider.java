@@ -9,4 +9,18 @@ public interface ShAuthenticationProvider extends AuthenticationProvider {
 	public void init(String providerId);
 	
 	public ShUser getShUser(String username);
+
+	/**
+	 * User of a provider instance, without changing the instance used by
+	 * authenticate.
+	 * 
+	 * @param providerId auth provider instance id
+	 * @param username   username
+	 * @return user
+	 * @since 0.3.7
+	 */
+	public default ShUser getShUser(String providerId, String username) {
+		this.init(providerId);
+		return this.getShUser(username);
+	}
 }
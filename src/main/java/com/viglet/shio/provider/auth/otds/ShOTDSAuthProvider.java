@@ -25,6 +25,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 import com.viglet.shio.persistence.model.auth.ShUser;
@@ -42,7 +43,7 @@ public class ShOTDSAuthProvider implements ShAuthenticationProvider {
 	@Autowired
 	private ObjectFactory<HttpSession> httpSessionFactory;
 
-	private String providerId = null;
+	private volatile String providerId = null;
 
 	@Override
 	public void init(String providerId) {
@@ -56,7 +57,7 @@ public class ShOTDSAuthProvider implements ShAuthenticationProvider {
 		String name = authentication.getName();
 		String password = authentication.getCredentials().toString();
 
-		if (shOTDSService.isAuthorizedUser(name, password)) {
+		if (shOTDSService.isAuthorizedUser(providerId, name, password)) {
 			HttpSession session = httpSessionFactory.getObject();
 			session.setAttribute("authProvider", this.providerId);
 			return new UsernamePasswordAuthenticationToken(name, password, new ArrayList<>());
@@ -74,6 +75,22 @@ public class ShOTDSAuthProvider implements ShAuthenticationProvider {
 
 	@Override
 	public ShUser getShUser(String username) {
-		return shOTDSService.getShUser(username);
+		return this.getShUser(providerId, username);
+	}
+
+	/**
+	 * The client of the provider instance is created by its first use. When the
+	 * OTDS ticket of the user expired, the session is closed, so the next request
+	 * authenticates again and gets a new ticket.
+	 */
+	@Override
+	public ShUser getShUser(String providerId, String username) {
+		ShUser shUser = shOTDSService.getShUser(providerId, username);
+		if (shUser == null) {
+			SecurityContextHolder.clearContext();
+			HttpSession session = httpSessionFactory.getObject();
+			session.invalidate();
+		}
+		return shUser;
 	}
 }
\ No newline at end of file
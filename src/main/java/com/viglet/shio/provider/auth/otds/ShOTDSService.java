@@ -17,19 +17,35 @@
 package com.viglet.shio.provider.auth.otds;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.BasicResponseHandler;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
@@ -39,6 +55,8 @@ import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.net.HttpHeaders;
 import com.viglet.shio.provider.auth.otds.bean.ShOTDSAuthenticationResponseBean;
 import com.viglet.shio.provider.auth.otds.bean.ShOTDSCredencialBean;
@@ -47,9 +65,14 @@ import com.viglet.shio.provider.auth.otds.bean.ShOTDSUserResponseBean;
 import com.viglet.shio.provider.auth.otds.bean.ShOTDSValuesBean;
 import com.viglet.shio.bean.provider.auth.ShAuthProviderInstanceBean;
 import com.viglet.shio.persistence.model.auth.ShUser;
+import com.viglet.shio.property.ShAuthProperties;
 import com.viglet.shio.provider.auth.ShAuthProviderService;
 
 /**
+ * OTDS client. Each provider instance has its own pooled connections, and
+ * verified logins keep their ticket by provider and user for a short time, so
+ * repeated logins and profile lookups of the same user do not go back to OTDS.
+ * 
  * @author Alexandre Oliveira
  * @since 0.3.6
  */
@@ -74,10 +97,16 @@ public class ShOTDSService {
 
 	@Autowired
 	private ShAuthProviderService shAuthProviderService;
+	@Autowired
+	private ShAuthProperties shAuthProperties;
+
+	private final Map<String, ShOTDSClient> clients = new ConcurrentHashMap<>();
 
-	private ShOTDSProviderInstanceBean otdsInstance = null;
+	private final List<CloseableHttpClient> retiredHttpClients = new CopyOnWriteArrayList<>();
 
-	private HttpClient httpClient = HttpClientBuilder.create().build();
+	private Cache<String, ShOTDSTicket> tickets;
+
+	private final String credentialSalt = UUID.randomUUID().toString();
 
 	private ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
 			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
@@ -86,13 +115,79 @@ public class ShOTDSService {
 
 	private static final Log logger = LogFactory.getLog(ShOTDSService.class);
 
-	private String otdsTicket = null;
+	@PostConstruct
+	private void initCache() {
+		tickets = CacheBuilder.newBuilder().maximumSize(shAuthProperties.getCacheSize())
+				.expireAfterWrite(shAuthProperties.getCacheTtl(), TimeUnit.SECONDS).build();
+	}
 
+	/**
+	 * Load the provider instance. When its server changed, a new client is
+	 * created, and the previous one is closed only when the application stops,
+	 * because other requests can still be using it.
+	 * 
+	 * @param providerId auth provider instance id
+	 */
 	public void init(String providerId) {
-		otdsInstance = this.getInstance(providerId);
+		ShOTDSProviderInstanceBean instance = this.getInstance(providerId);
+		String server = String.format("%s:%d", instance.getHost(), instance.getPort());
+		clients.compute(providerId, (key, client) -> {
+			if (client != null && server.equals(client.server))
+				return new ShOTDSClient(instance, client.server, client.httpClient);
+			if (client != null) {
+				retiredHttpClients.add(client.httpClient);
+				tickets.asMap().keySet().removeIf(ticketKey -> ticketKey.startsWith(ticketKey(providerId, "")));
+			}
+			return new ShOTDSClient(instance, server, this.createHttpClient());
+		});
+	}
+
+	private ShOTDSClient client(String providerId) {
+		ShOTDSClient client = clients.get(providerId);
+		if (client == null) {
+			this.init(providerId);
+			client = clients.get(providerId);
+		}
+		return client;
+	}
+
+	private CloseableHttpClient createHttpClient() {
+		int timeout = shAuthProperties.getTimeout() * 1000;
+		RequestConfig config = RequestConfig.custom().setConnectTimeout(timeout)
+				.setConnectionRequestTimeout(timeout).setSocketTimeout(timeout).build();
+		PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+		cm.setMaxTotal(shAuthProperties.getMaxConnections());
+		cm.setDefaultMaxPerRoute(shAuthProperties.getMaxConnections());
+		cm.setValidateAfterInactivity(3000);
+		return HttpClientBuilder.create().setDefaultRequestConfig(config).setConnectionManager(cm).build();
+	}
+
+	private static String ticketKey(String providerId, String username) {
+		return providerId + ":" + username;
+	}
+
+	@PreDestroy
+	private void destroy() {
+		clients.values().forEach(client -> this.close(client.httpClient));
+		retiredHttpClients.forEach(this::close);
 	}
 
-	public boolean isAuthorizedUser(String username, String password) {	
+	private void close(CloseableHttpClient client) {
+		try {
+			client.close();
+		} catch (IOException e) {
+			logger.error("close IOException: ", e);
+		}
+	}
+
+	public boolean isAuthorizedUser(String providerId, String username, String password) {
+		ShOTDSClient client = this.client(providerId);
+		String credential = this.credentialHash(username, password);
+		ShOTDSTicket cached = tickets.getIfPresent(ticketKey(providerId, username));
+		if (cached != null && MessageDigest.isEqual(cached.getCredential().getBytes(StandardCharsets.UTF_8),
+				credential.getBytes(StandardCharsets.UTF_8)))
+			return true;
+
 		ShOTDSCredencialBean shOTDSCredencialBean = new ShOTDSCredencialBean();
 		shOTDSCredencialBean.setUserName(username);
 		shOTDSCredencialBean.setPassword(password);
@@ -103,21 +198,22 @@ public class ShOTDSService {
 			StringEntity entity = new StringEntity(jsonString);
 
 			HttpPost httpPost = new HttpPost(String.format("http://%s:%d/otdsws/rest/authentication/credentials",
-					otdsInstance.getHost(), otdsInstance.getPort()));
+					client.instance.getHost(), client.instance.getPort()));
 			httpPost.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
 			httpPost.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
 			httpPost.setEntity(entity);
 
-			HttpResponse response = httpClient.execute(httpPost);
-			String responseString = responseHandler.handleResponse(response);
-			ShOTDSAuthenticationResponseBean authenticationResponse = objectMapper.readValue(responseString,
-					ShOTDSAuthenticationResponseBean.class);
-
-			if (response.getStatusLine().getStatusCode() == 200
-					&& this.validateTicket(authenticationResponse.getTicket())) {
+			try (CloseableHttpResponse response = client.httpClient.execute(httpPost)) {
+				String responseString = responseHandler.handleResponse(response);
+				ShOTDSAuthenticationResponseBean authenticationResponse = objectMapper.readValue(responseString,
+						ShOTDSAuthenticationResponseBean.class);
 
-				otdsTicket = authenticationResponse.getTicket();
-				return true;
+				if (response.getStatusLine().getStatusCode() == 200
+						&& this.validateTicket(providerId, authenticationResponse.getTicket())) {
+					tickets.put(ticketKey(providerId, username),
+							new ShOTDSTicket(authenticationResponse.getTicket(), credential));
+					return true;
+				}
 			}
 		} catch (HttpResponseException e) {
 			logger.error("authenticate HttpResponseException.");
@@ -129,9 +225,14 @@ public class ShOTDSService {
 		return false;
 	}
 
-	public boolean validateTicket(String ticket) {
+	private String credentialHash(String username, String password) {
+		return DigestUtils.sha256Hex(String.join(":", credentialSalt, username, password));
+	}
 
-		if (otdsInstance != null) {
+	public boolean validateTicket(String providerId, String ticket) {
+		ShOTDSClient client = this.client(providerId);
+		if (client != null) {
+			ShOTDSProviderInstanceBean otdsInstance = client.instance;
 			ShOTDSTicketRequestBean shOTDSTicketRequestBean = new ShOTDSTicketRequestBean();
 			shOTDSTicketRequestBean.setSourceResourceId(otdsInstance.getResourceId());
 			shOTDSTicketRequestBean.setSecureSecret(otdsInstance.getSecretKey());
@@ -149,10 +250,11 @@ public class ShOTDSService {
 				httpPost.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
 				httpPost.setEntity(entity);
 
-				HttpResponse response = httpClient.execute(httpPost);
-
-				if (response.getStatusLine().getStatusCode() == 200) {
-					return true;
+				try (CloseableHttpResponse response = client.httpClient.execute(httpPost)) {
+					EntityUtils.consume(response.getEntity());
+					if (response.getStatusLine().getStatusCode() == 200) {
+						return true;
+					}
 				}
 			} catch (HttpResponseException e) {
 				logger.error("validateTicket HttpResponseException.");
@@ -165,23 +267,40 @@ public class ShOTDSService {
 		return false;
 	}
 
-	public ShOTDSUserResponseBean getUser(String userName) {
+	/**
+	 * OTDS user, read with the ticket of the user login.
+	 * 
+	 * @param providerId auth provider instance id
+	 * @param userName   username
+	 * @return user, or null when the ticket expired or OTDS rejects it, so the
+	 *         user needs to authenticate again
+	 */
+	public ShOTDSUserResponseBean getUser(String providerId, String userName) {
 
 		ShOTDSUserResponseBean userResponse = new ShOTDSUserResponseBean();
 
-		HttpGet httpGet = new HttpGet(String.format("http://%s:%d/otdsws/rest/users/%s", otdsInstance.getHost(),
-				otdsInstance.getPort(), userName));
+		ShOTDSTicket otdsTicket = tickets.getIfPresent(ticketKey(providerId, userName));
+		if (otdsTicket == null) {
+			logger.debug(String.format("getUser: OTDS ticket of %s expired", userName));
+			return null;
+		}
+
+		ShOTDSClient client = this.client(providerId);
+		HttpGet httpGet = new HttpGet(String.format("http://%s:%d/otdsws/rest/users/%s", client.instance.getHost(),
+				client.instance.getPort(), userName));
 		httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
 		httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
-		httpGet.setHeader(OTDS_TICKET, otdsTicket);
-		try {
-			HttpResponse response = httpClient.execute(httpGet);
-
+		httpGet.setHeader(OTDS_TICKET, otdsTicket.getTicket());
+		try (CloseableHttpResponse response = client.httpClient.execute(httpGet)) {
 			String responseString = responseHandler.handleResponse(response);
 			userResponse = objectMapper.readValue(responseString, ShOTDSUserResponseBean.class);
 
 		} catch (HttpResponseException e) {
 			logger.error("getUser HttpResponseException.");
+			if (e.getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
+				tickets.invalidate(ticketKey(providerId, userName));
+				return null;
+			}
 		} catch (UnsupportedOperationException e) {
 			logger.error("getUser UnsupportedOperationException: ", e);
 		} catch (IOException e) {
@@ -190,26 +309,33 @@ public class ShOTDSService {
 		return userResponse;
 	}
 
-	public ShUser getCurrentUser() {
+	public ShUser getCurrentUser(String providerId) {
 		ShUser shUser = new ShUser();
 		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 		if (!(authentication instanceof AnonymousAuthenticationToken)) {
 			String currentUserName = authentication.getName();
 
-			shUser = this.getShUser(currentUserName);
+			shUser = this.getShUser(providerId, currentUserName);
 		}
 		return shUser;
 	}
 
-	public ShUser getShUser(String username) {
+	/**
+	 * @return user, or null when the user needs to authenticate again
+	 */
+	public ShUser getShUser(String providerId, String username) {
+		ShOTDSTicket otdsTicket = tickets.getIfPresent(ticketKey(providerId, username));
+		if (otdsTicket != null && otdsTicket.getShUser() != null)
+			return otdsTicket.getShUser();
 
-		ShUser shUser = new ShUser();
+		ShUser shUser = null;
 
-		ShOTDSUserResponseBean userResponse = this.getUser(username);
+		ShOTDSUserResponseBean userResponse = this.getUser(providerId, username);
 
 		if (userResponse != null) {
+			shUser = new ShUser();
 			shUser.setUsername(username);
-			for (ShOTDSValuesBean value : userResponse.getValues()) {
+			for (ShOTDSValuesBean value : ListUtils.emptyIfNull(userResponse.getValues())) {
 				if (value.getName().equals("givenName")) {
 					shUser.setFirstName((String) value.getValues()[0]);
 
@@ -219,6 +345,8 @@ public class ShOTDSService {
 
 				}
 			}
+			if (otdsTicket != null && userResponse.getValues() != null)
+				otdsTicket.setShUser(shUser);
 		}
 		return shUser;
 	}
@@ -259,4 +387,43 @@ public class ShOTDSService {
 		return instance;
 
 	}
+
+	private static class ShOTDSClient {
+		private final ShOTDSProviderInstanceBean instance;
+		private final String server;
+		private final CloseableHttpClient httpClient;
+
+		ShOTDSClient(ShOTDSProviderInstanceBean instance, String server, CloseableHttpClient httpClient) {
+			this.instance = instance;
+			this.server = server;
+			this.httpClient = httpClient;
+		}
+	}
+
+	private static class ShOTDSTicket {
+		private final String ticket;
+		private final String credential;
+		private volatile ShUser shUser;
+
+		ShOTDSTicket(String ticket, String credential) {
+			this.ticket = ticket;
+			this.credential = credential;
+		}
+
+		String getTicket() {
+			return ticket;
+		}
+
+		String getCredential() {
+			return credential;
+		}
+
+		ShUser getShUser() {
+			return shUser;
+		}
+
+		void setShUser(ShUser shUser) {
+			this.shUser = shUser;
+		}
+	}
 }
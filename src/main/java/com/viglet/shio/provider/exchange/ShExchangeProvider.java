@@ -36,4 +36,12 @@ public interface ShExchangeProvider {
 
 	public InputStream getDownload(String id);
 
+	/**
+	 * Release connections and sessions when the instance is reconfigured or
+	 * removed.
+	 * 
+	 * @since 0.3.7
+	 */
+	public default void close() {
+	}
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.provider.exchange;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.util.EntityUtils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Metadata cache of an exchange provider instance. REST responses are fresh
+ * for the TTL and then revalidated with their ETag or Last-Modified, objects
+ * already known from a folder listing are kept so browsing into them needs no
+ * extra call.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+public class ShExchangeProviderCache {
+	public static final String CACHE_TTL_VAR = "CACHE_TTL";
+	private static final long DEFAULT_TTL = 60;
+	private static final long MAX_SIZE = 10000;
+	private static final long STALE_FACTOR = 10;
+
+	private final long ttl;
+
+	private final Cache<String, ShExchangeProviderResponse> responses;
+
+	private final Cache<String, ShExchangeProviderPost> objects;
+
+	public ShExchangeProviderCache(String ttlSeconds) {
+		this(ttlSeconds != null && ttlSeconds.trim().matches("\\d+") ? Long.parseLong(ttlSeconds.trim())
+				: DEFAULT_TTL);
+	}
+
+	public ShExchangeProviderCache(long ttlSeconds) {
+		this.ttl = TimeUnit.SECONDS.toMillis(ttlSeconds);
+		responses = CacheBuilder.newBuilder().maximumSize(MAX_SIZE)
+				.expireAfterWrite(Math.max(1, ttlSeconds * STALE_FACTOR), TimeUnit.SECONDS).build();
+		objects = CacheBuilder.newBuilder().maximumSize(MAX_SIZE)
+				.expireAfterWrite(Math.max(1, ttlSeconds), TimeUnit.SECONDS).build();
+	}
+
+	/**
+	 * Body of a GET request, from the cache while fresh. A stale entry is
+	 * revalidated with a conditional request and kept when the server answers
+	 * 304 Not Modified.
+	 * 
+	 * @param httpGet  request
+	 * @param executor executes the request with the provider session
+	 * @return body, or null when the server does not answer 200 or 304
+	 */
+	public String get(HttpGet httpGet, ShExchangeProviderExecutor executor) throws IOException {
+		String url = httpGet.getURI().toString();
+		ShExchangeProviderResponse cached = responses.getIfPresent(url);
+		if (cached != null && System.currentTimeMillis() - cached.getFetched() < ttl)
+			return cached.getBody();
+		if (cached != null) {
+			if (cached.getEtag() != null)
+				httpGet.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getEtag());
+			if (cached.getLastModified() != null)
+				httpGet.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+		}
+		try (CloseableHttpResponse response = executor.execute(httpGet)) {
+			int statusCode = response.getStatusLine().getStatusCode();
+			if (statusCode == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+				EntityUtils.consume(response.getEntity());
+				responses.put(url, new ShExchangeProviderResponse(cached.getBody(), cached.getEtag(),
+						cached.getLastModified()));
+				return cached.getBody();
+			}
+			if (statusCode == HttpStatus.SC_OK) {
+				String body = EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+				responses.put(url, new ShExchangeProviderResponse(body,
+						this.headerValue(response.getFirstHeader(HttpHeaders.ETAG)),
+						this.headerValue(response.getFirstHeader(HttpHeaders.LAST_MODIFIED))));
+				return body;
+			}
+			EntityUtils.consume(response.getEntity());
+			responses.invalidate(url);
+			return null;
+		}
+	}
+
+	private String headerValue(Header header) {
+		return header != null ? header.getValue() : null;
+	}
+
+	public ShExchangeProviderPost getObject(String key) {
+		return objects.getIfPresent(key);
+	}
+
+	public void putObject(String key, ShExchangeProviderPost shExchangeProviderPost) {
+		objects.put(key, shExchangeProviderPost);
+	}
+
+	public void invalidateAll() {
+		responses.invalidateAll();
+		objects.invalidateAll();
+	}
+
+	@FunctionalInterface
+	public interface ShExchangeProviderExecutor {
+		CloseableHttpResponse execute(HttpUriRequest request) throws IOException;
+	}
+
+	private static class ShExchangeProviderResponse {
+		private final String body;
+		private final String etag;
+		private final String lastModified;
+		private final long fetched = System.currentTimeMillis();
+
+		ShExchangeProviderResponse(String body, String etag, String lastModified) {
+			this.body = body;
+			this.etag = etag;
+			this.lastModified = lastModified;
+		}
+
+		String getBody() {
+			return body;
+		}
+
+		String getEtag() {
+			return etag;
+		}
+
+		String getLastModified() {
+			return lastModified;
+		}
+
+		long getFetched() {
+			return fetched;
+		}
+	}
+}
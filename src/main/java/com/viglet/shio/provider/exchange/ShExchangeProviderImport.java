@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.provider.exchange;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tika.Tika;
+import org.apache.tika.config.TikaConfig;
+import org.apache.tika.mime.MimeTypeException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.viglet.shio.bean.provider.exchange.ShExchangeImportJobBean;
+import com.viglet.shio.persistence.model.folder.ShFolder;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
+import com.viglet.shio.property.ShExchangeProperties;
+import com.viglet.shio.report.ShReportPostType;
+import com.viglet.shio.url.ShURLFormatter;
+import com.viglet.shio.utils.ShHistoryUtils;
+import com.viglet.shio.utils.ShStaticFileUtils;
+import com.viglet.shio.utils.ShThreadUtils;
+import com.viglet.shio.website.cache.component.ShCacheObject;
+
+/**
+ * Import of exchange provider items into the file store. Content is streamed
+ * to disk and only a bounded prefix is kept in memory to detect its type.
+ * Whole provider folders are imported by background jobs.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShExchangeProviderImport {
+	private static final Log logger = LogFactory.getLog(ShExchangeProviderImport.class);
+	private static final int DETECT_BUFFER_SIZE = 64 * 1024;
+	private static final Tika tika = new Tika();
+
+	@Autowired
+	private ShExchangeProviderRegistry shExchangeProviderRegistry;
+	@Autowired
+	private ShExchangeProperties shExchangeProperties;
+	@Autowired
+	private ShStaticFileUtils shStaticFileUtils;
+	@Autowired
+	private ShFolderRepository shFolderRepository;
+	@Autowired
+	private ShURLFormatter shURLFormatter;
+	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShCacheObject shCacheObject;
+	@Autowired
+	private ShHistoryUtils shHistoryUtils;
+	@Autowired
+	private ShThreadUtils shThreadUtils;
+
+	private ExecutorService executor;
+
+	private final Cache<String, ShExchangeImportJobBean> jobs = CacheBuilder.newBuilder().maximumSize(1000)
+			.expireAfterWrite(1, TimeUnit.DAYS).build();
+
+	@PostConstruct
+	private void init() {
+		executor = shThreadUtils.executor("shio-exchange-import", shExchangeProperties.getMaxConcurrent(),
+				shExchangeProperties.getImportQueueSize());
+	}
+
+	@PreDestroy
+	private void destroy() {
+		executor.shutdownNow();
+	}
+
+	public ShPost importItem(ShExchangeProvider shExchangeProvider, String providerItemId, ShFolder shFolder,
+			Principal principal) {
+		ShExchangeProviderPost shExchangeProviderPost = shExchangeProvider.getObject(providerItemId, false);
+		try (InputStream download = shExchangeProvider.getDownload(providerItemId)) {
+			if (download == null || shExchangeProviderPost.getTitle() == null)
+				return null;
+			InputStream inputStream = new BufferedInputStream(download, DETECT_BUFFER_SIZE);
+			String fileName = this.fileName(shExchangeProviderPost.getTitle(), inputStream);
+			return shStaticFileUtils.createFilePost(inputStream, fileName, shFolder, principal);
+		} catch (IOException e) {
+			logger.error("importItem: ", e);
+		}
+		return null;
+	}
+
+	private String fileName(String title, InputStream inputStream) throws IOException {
+		try {
+			String extension = TikaConfig.getDefaultConfig().getMimeRepository().forName(tika.detect(inputStream))
+					.getExtension();
+			if (!StringUtils.isEmpty(extension)) {
+				String fileWithoutExtension = title.lastIndexOf('.') > 0 ? title.substring(0, title.lastIndexOf('.'))
+						: title;
+				return String.format("%s%s", fileWithoutExtension, extension);
+			}
+		} catch (MimeTypeException e) {
+			logger.error("fileName: ", e);
+		}
+		return title;
+	}
+
+	/**
+	 * Queue the import of a provider folder, with its subfolders, into a folder.
+	 * 
+	 * @return job, or null when the folder does not exist or the queue is full
+	 */
+	public ShExchangeImportJobBean importFolder(String providerInstanceId, String providerFolderId, String folderId,
+			Principal principal) {
+		ShFolder shFolder = shFolderRepository.findById(folderId).orElse(null);
+		if (shFolder == null)
+			return null;
+		ShExchangeImportJobBean job = new ShExchangeImportJobBean();
+		job.setId(UUID.randomUUID().toString());
+		job.setProviderInstanceId(providerInstanceId);
+		job.setProviderFolderId(providerFolderId);
+		job.setFolderId(folderId);
+		job.setStarted(new Date());
+		try {
+			executor.execute(() -> this.runJob(job, shFolder, principal));
+		} catch (RejectedExecutionException e) {
+			logger.warn(String.format("Import of %s refused, the import queue is full", providerFolderId));
+			return null;
+		}
+		jobs.put(job.getId(), job);
+		return job;
+	}
+
+	public ShExchangeImportJobBean getJob(String jobId) {
+		return jobs.getIfPresent(jobId);
+	}
+
+	private void runJob(ShExchangeImportJobBean job, ShFolder shFolder, Principal principal) {
+		job.setStatus(ShExchangeImportJobBean.RUNNING);
+		try {
+			this.importFolder(job, job.getProviderFolderId(), shFolder, principal);
+			job.setStatus(ShExchangeImportJobBean.DONE);
+		} catch (RuntimeException e) {
+			logger.error("runJob: ", e);
+			job.setStatus(ShExchangeImportJobBean.FAILED);
+		}
+		job.setFinished(new Date());
+		logger.info(String.format("Import job %s finished: %d imported, %d failed", job.getId(), job.getImported(),
+				job.getFailed()));
+	}
+
+	private void importFolder(ShExchangeImportJobBean job, String providerFolderId, ShFolder shFolder,
+			Principal principal) {
+		ShExchangeProviderFolder shExchangeProviderFolder = shExchangeProviderRegistry
+				.execute(job.getProviderInstanceId(), shExchangeProvider -> shExchangeProvider.getFolder(providerFolderId));
+		if (shExchangeProviderFolder == null) {
+			job.addFailed();
+			return;
+		}
+		for (ShExchangeProviderPost shExchangeProviderPost : shExchangeProviderFolder.getPosts()) {
+			ShPost shPost = shExchangeProviderRegistry.execute(job.getProviderInstanceId(),
+					shExchangeProvider -> this.importItem(shExchangeProvider, shExchangeProviderPost.getId(), shFolder,
+							principal));
+			if (shPost != null)
+				job.addImported();
+			else
+				job.addFailed();
+		}
+		for (ShExchangeProviderFolder shExchangeProviderChild : shExchangeProviderFolder.getFolders()) {
+			this.importFolder(job, shExchangeProviderChild.getId(),
+					this.childFolder(shFolder, shExchangeProviderChild.getName(), principal), principal);
+		}
+	}
+
+	private ShFolder childFolder(ShFolder shParentFolder, String name, Principal principal) {
+		ShFolder shFolder = shFolderRepository.findByParentFolderAndName(shParentFolder, name);
+		if (shFolder == null) {
+			shFolder = new ShFolder();
+			shFolder.setDate(new Date());
+			shFolder.setName(name);
+			shFolder.setFurl(shURLFormatter.format(name));
+			shFolder.setParentFolder(shParentFolder);
+			shFolder.setRootFolder((byte) 0);
+			shFolder.setShGroups(new HashSet<>(shParentFolder.getShGroups()));
+			shFolder.setShUsers(new HashSet<>(shParentFolder.getShUsers()));
+			shFolderRepository.save(shFolder);
+
+			shReportPostType.addFolder(shFolder);
+
+			shCacheObject.created(shFolder);
+
+			shHistoryUtils.commit(shFolder, principal, ShHistoryUtils.CREATE);
+		}
+		return shFolder;
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.provider.exchange;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.viglet.shio.persistence.model.provider.exchange.ShExchangeProviderInstance;
+import com.viglet.shio.persistence.repository.provider.exchange.ShExchangeProviderInstanceRepository;
+import com.viglet.shio.property.ShConfigProperties;
+import com.viglet.shio.property.ShExchangeProperties;
+import com.viglet.shio.utils.ShConfigVarUtils;
+
+/**
+ * Keeps one initialized provider by exchange provider instance, so its
+ * connections and remote session are reused between requests. Calls to the
+ * same instance are limited by shio.exchange.max-concurrent.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShExchangeProviderRegistry {
+	private static final Log logger = LogFactory.getLog(ShExchangeProviderRegistry.class);
+	@Autowired
+	private ShExchangeProviderInstanceRepository shExchangeProviderInstanceRepository;
+	@Autowired
+	private ShConfigVarUtils shConfigVarUtils;
+	@Autowired
+	private ShConfigProperties shConfigProperties;
+	@Autowired
+	private ShExchangeProperties shExchangeProperties;
+
+	private final Map<String, ShExchangeProviderEntry> providers = new ConcurrentHashMap<>();
+
+	/**
+	 * Run a function with the provider of an instance.
+	 * 
+	 * @param providerInstanceId exchange provider instance
+	 * @param function           calls to the provider
+	 * @return function result, or null when the instance does not exist, failed
+	 *         to initialize less than shio.exchange.retry-delay seconds ago or
+	 *         is busy for longer than shio.exchange.timeout seconds
+	 */
+	public <T> T execute(String providerInstanceId, Function<ShExchangeProvider, T> function) {
+		while (true) {
+			ShExchangeProviderEntry entry = providers.computeIfAbsent(providerInstanceId,
+					id -> new ShExchangeProviderEntry(shExchangeProperties.getMaxConcurrent()));
+			try {
+				if (!entry.getPermits().tryAcquire(shExchangeProperties.getTimeout(), TimeUnit.SECONDS)) {
+					logger.warn(String.format("Exchange provider %s is busy", providerInstanceId));
+					return null;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			try {
+				if (!entry.isRemoved()) {
+					ShExchangeProvider shExchangeProvider = entry.getProvider(providerInstanceId);
+					// Don't keep entries of ids without instance
+					if (entry.isMissing() && providers.remove(providerInstanceId, entry))
+						entry.setRemoved();
+					return shExchangeProvider != null ? function.apply(shExchangeProvider) : null;
+				}
+			} finally {
+				entry.getPermits().release();
+				if (entry.isRemoved())
+					entry.close();
+			}
+		}
+	}
+
+	/**
+	 * Close the provider of an instance, the next call initializes it again
+	 * with the current settings. Calls in progress finish with the old provider,
+	 * it is closed when the last one releases its permit.
+	 * 
+	 * @param providerInstanceId exchange provider instance
+	 */
+	public void remove(String providerInstanceId) {
+		ShExchangeProviderEntry entry = providers.remove(providerInstanceId);
+		if (entry != null) {
+			entry.setRemoved();
+			entry.close();
+		}
+	}
+
+	@PreDestroy
+	private void destroy() {
+		providers.keySet().forEach(this::remove);
+	}
+
+	private ShExchangeProvider createProvider(ShExchangeProviderInstance shExchangeProviderInstance) {
+		Map<String, String> variables = shConfigVarUtils.getVariablesFromPath(
+				String.format(shConfigProperties.getExchange(), shExchangeProviderInstance.getId()));
+		try {
+			ShExchangeProvider shExchangeProvider = (ShExchangeProvider) Class
+					.forName(shExchangeProviderInstance.getVendor().getClassName()).getDeclaredConstructor()
+					.newInstance();
+			shExchangeProvider.init(variables);
+			return shExchangeProvider;
+		} catch (RuntimeException | InvocationTargetException | NoSuchMethodException | InstantiationException
+				| IllegalAccessException | ClassNotFoundException e) {
+			logger.error("createProvider: ", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Provider of one instance, initialized by the first call that needs it
+	 * outside of the registry map, so a slow remote login only holds callers of
+	 * the same instance.
+	 */
+	private class ShExchangeProviderEntry {
+		private final Semaphore permits;
+		private final int maxPermits;
+		private final AtomicBoolean closed = new AtomicBoolean();
+		private volatile boolean removed;
+		private volatile boolean missing;
+		private ShExchangeProvider provider;
+		private long failedAt;
+
+		ShExchangeProviderEntry(int maxPermits) {
+			this.maxPermits = maxPermits;
+			this.permits = new Semaphore(maxPermits, true);
+		}
+
+		synchronized ShExchangeProvider getProvider(String providerInstanceId) {
+			if (provider == null && (failedAt == 0 || System.currentTimeMillis() - failedAt >= TimeUnit.SECONDS
+					.toMillis(shExchangeProperties.getRetryDelay()))) {
+				ShExchangeProviderInstance shExchangeProviderInstance = shExchangeProviderInstanceRepository
+						.findById(providerInstanceId).orElse(null);
+				missing = shExchangeProviderInstance == null;
+				provider = missing ? null : createProvider(shExchangeProviderInstance);
+				failedAt = provider == null ? System.currentTimeMillis() : 0;
+			}
+			return provider;
+		}
+
+		Semaphore getPermits() {
+			return permits;
+		}
+
+		boolean isRemoved() {
+			return removed;
+		}
+
+		/**
+		 * The instance didn't exist in the last try to initialize its provider.
+		 */
+		boolean isMissing() {
+			return missing;
+		}
+
+		void setRemoved() {
+			removed = true;
+		}
+
+		/**
+		 * Close the provider once no call holds a permit. Whoever drains all
+		 * permits closes it and gives them back, so waiting callers move on to
+		 * the new entry.
+		 */
+		void close() {
+			if (!closed.get() && permits.tryAcquire(maxPermits)) {
+				try {
+					if (closed.compareAndSet(false, true)) {
+						ShExchangeProvider shExchangeProvider;
+						synchronized (this) {
+							shExchangeProvider = provider;
+							provider = null;
+						}
+						if (shExchangeProvider != null)
+							shExchangeProvider.close();
+					}
+				} finally {
+					permits.release(maxPermits);
+				}
+			}
+		}
+	}
+}
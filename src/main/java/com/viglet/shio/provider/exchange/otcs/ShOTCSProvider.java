@@ -23,13 +23,17 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.BasicResponseHandler;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
 import org.springframework.http.MediaType;
 
@@ -38,6 +42,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.net.HttpHeaders;
 import com.viglet.shio.provider.exchange.ShExchangeProvider;
 import com.viglet.shio.provider.exchange.ShExchangeProviderBreadcrumbItem;
+import com.viglet.shio.provider.exchange.ShExchangeProviderCache;
 import com.viglet.shio.provider.exchange.ShExchangeProviderFolder;
 import com.viglet.shio.provider.exchange.ShExchangeProviderPost;
 import com.viglet.shio.provider.exchange.otcs.bean.folder.ShOTCSFolderBean;
@@ -48,7 +53,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.Consts;
-import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
 
 /**
@@ -65,10 +70,17 @@ public class ShOTCSProvider implements ShExchangeProvider {
 	private static final String URL_VAR = "URL";
 	private static final String USERNAME_VAR = "USERNAME";
 	private static final String PASSWORD_VAR = "PASSWORD";
+	private static final int MAX_CONNECTIONS = 20;
 
 	private ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
 
-	private HttpClient httpClient = HttpClientBuilder.create().build();
+	private int timeout = 5;
+	private RequestConfig config = RequestConfig.custom().setConnectTimeout(timeout * 1000)
+			.setConnectionRequestTimeout(timeout * 1000).setSocketTimeout(timeout * 1000).build();
+
+	private CloseableHttpClient httpClient = null;
+
+	private ShExchangeProviderCache cache = null;
 
 	private ResponseHandler<String> responseHandler = new BasicResponseHandler();
 
@@ -78,10 +90,27 @@ public class ShOTCSProvider implements ShExchangeProvider {
 
 	private String password = null;
 
+	private volatile String ticket = null;
+
 	public void init(Map<String, String> variables) {
 		this.baseURL = variables.get(URL_VAR);
 		this.username = variables.get(USERNAME_VAR);
 		this.password = variables.get(PASSWORD_VAR);
+		this.cache = new ShExchangeProviderCache(variables.get(ShExchangeProviderCache.CACHE_TTL_VAR));
+		PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+		cm.setMaxTotal(MAX_CONNECTIONS);
+		cm.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+		cm.setValidateAfterInactivity(3000);
+		httpClient = HttpClientBuilder.create().setDefaultRequestConfig(config).setConnectionManager(cm).build();
+	}
+
+	@Override
+	public void close() {
+		try {
+			httpClient.close();
+		} catch (IOException e) {
+			logger.error(e);
+		}
 	}
 
 	public ShExchangeProviderFolder getRootFolder() {
@@ -90,23 +119,10 @@ public class ShOTCSProvider implements ShExchangeProvider {
 	}
 
 	public ShExchangeProviderFolder getFolder(String id) {
-		ShOTCSTicketBean shOTCSTicketBean = this.otcsAuth();
 		ShExchangeProviderFolder shExchangeProviderFolder = new ShExchangeProviderFolder();
-		if (shOTCSTicketBean != null) {
-			ShOTCSFolderBean shOTCSFolderBean = null;
-
-			try {
-				HttpGet httpGet = new HttpGet(String.format("%s/api/v2/nodes/%s/nodes", this.baseURL, id));
-				httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
-				httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
-				httpGet.setHeader(OTCS_TICKET, shOTCSTicketBean.getTicket());
-				HttpResponse response = httpClient.execute(httpGet);
-				shOTCSFolderBean = objectMapper.readValue(responseHandler.handleResponse(response),
-						ShOTCSFolderBean.class);
-
-			} catch (UnsupportedOperationException | IOException e) {
-				logger.error(e);
-			}
+		if (this.getTicket() != null) {
+			ShOTCSFolderBean shOTCSFolderBean = this.restAPIGet(
+					String.format("%s/api/v2/nodes/%s/nodes", this.baseURL, id), ShOTCSFolderBean.class);
 
 			ShExchangeProviderPost shExchangeProviderPost = this.getObject(id, true);
 
@@ -132,6 +148,7 @@ public class ShOTCSProvider implements ShExchangeProvider {
 						shExchangeProviderFolderChild.setDate(resultDate);
 
 						shExchangeProviderFolder.getFolders().add(shExchangeProviderFolderChild);
+						this.cacheChild(resultId, resultName, id);
 					} else {
 
 						String postId = Integer.toString(results.getData().getProperties().getId());
@@ -150,6 +167,7 @@ public class ShOTCSProvider implements ShExchangeProvider {
 						shExchangeProviderPostChild.setType(postType);
 
 						shExchangeProviderFolder.getPosts().add(shExchangeProviderPostChild);
+						this.cacheChild(postId, postTitle, id);
 
 					}
 				});
@@ -159,32 +177,70 @@ public class ShOTCSProvider implements ShExchangeProvider {
 	}
 
 	public ShExchangeProviderPost getObject(String id, boolean isFolder) {
-		ShOTCSTicketBean sOTCSTicketBean = this.otcsAuth();
-		ShExchangeProviderPost shExchangeProviderPost = new ShExchangeProviderPost();
-		if (sOTCSTicketBean != null) {
-			ShOTCSObjectBean shOTCSObjetBean = null;
-			try {
-				HttpGet httpGet = new HttpGet(String.format("%s/api/v2/nodes/%s", this.baseURL, id));
-				httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
-				httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
-				httpGet.setHeader(OTCS_TICKET, sOTCSTicketBean.getTicket());
-				HttpResponse response = httpClient.execute(httpGet);
-				shOTCSObjetBean = objectMapper.readValue(responseHandler.handleResponse(response),
-						ShOTCSObjectBean.class);
-			} catch (UnsupportedOperationException | IOException e) {
-				logger.error(e);
-			}
+		ShExchangeProviderPost shExchangeProviderPost = cache.getObject(id);
+		if (shExchangeProviderPost != null)
+			return shExchangeProviderPost;
+		shExchangeProviderPost = new ShExchangeProviderPost();
+		if (this.getTicket() != null) {
+			ShOTCSObjectBean shOTCSObjetBean = this
+					.restAPIGet(String.format("%s/api/v2/nodes/%s", this.baseURL, id), ShOTCSObjectBean.class);
 
 			if (shOTCSObjetBean != null) {
 				shExchangeProviderPost.setId(id);
 				shExchangeProviderPost.setTitle(shOTCSObjetBean.getResults().getData().getProperties().getName());
 				shExchangeProviderPost.setParentId(
 						Integer.toString(shOTCSObjetBean.getResults().getData().getProperties().getParentId()));
+				cache.putObject(id, shExchangeProviderPost);
 			}
 		}
 		return shExchangeProviderPost;
 	}
 
+	private void cacheChild(String id, String title, String parentId) {
+		ShExchangeProviderPost shExchangeProviderPost = new ShExchangeProviderPost();
+		shExchangeProviderPost.setId(id);
+		shExchangeProviderPost.setTitle(title);
+		shExchangeProviderPost.setParentId(parentId);
+		cache.putObject(id, shExchangeProviderPost);
+	}
+
+	private <T> T restAPIGet(String url, Class<T> valueType) {
+		HttpGet httpGet = new HttpGet(url);
+		httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
+		httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
+		try {
+			String body = cache.get(httpGet, this::execute);
+			if (body != null)
+				return objectMapper.readValue(body, valueType);
+		} catch (UnsupportedOperationException | IOException e) {
+			logger.error(e);
+		}
+		return null;
+	}
+
+	private CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+		request.setHeader(OTCS_TICKET, this.getTicket());
+		CloseableHttpResponse response = httpClient.execute(request);
+		if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
+			response.close();
+			this.renewTicket();
+			request.setHeader(OTCS_TICKET, this.getTicket());
+			response = httpClient.execute(request);
+		}
+		return response;
+	}
+
+	private String getTicket() {
+		if (ticket == null)
+			this.renewTicket();
+		return ticket;
+	}
+
+	private synchronized void renewTicket() {
+		ShOTCSTicketBean shOTCSTicketBean = this.otcsAuth();
+		ticket = shOTCSTicketBean != null ? shOTCSTicketBean.getTicket() : null;
+	}
+
 	private ShOTCSTicketBean otcsAuth() {
 		List<NameValuePair> form = new ArrayList<>();
 		form.add(new BasicNameValuePair("username", this.username));
@@ -197,9 +253,7 @@ public class ShOTCSProvider implements ShExchangeProvider {
 
 		ShOTCSTicketBean sOTCSTicketBean = null;
 
-		try {
-			HttpResponse response = httpClient.execute(httpPost);
-
+		try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
 			sOTCSTicketBean = objectMapper.readValue(responseHandler.handleResponse(response), ShOTCSTicketBean.class);
 
 		} catch (UnsupportedOperationException | IOException e) {
@@ -209,16 +263,17 @@ public class ShOTCSProvider implements ShExchangeProvider {
 	}
 
 	public InputStream getDownload(String id) {
-		ShOTCSTicketBean shOTCSTicketBean = this.otcsAuth();
 		InputStream inputStream = null;
-		if (shOTCSTicketBean != null) {
+		if (this.getTicket() != null) {
 			try {
 				HttpGet httpGet = new HttpGet(String.format("%s/api/v2/nodes/%s/content", this.baseURL, id));
 				httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
 				httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
-				httpGet.setHeader(OTCS_TICKET, shOTCSTicketBean.getTicket());
-				HttpResponse response = httpClient.execute(httpGet);
-				inputStream = response.getEntity().getContent();
+				CloseableHttpResponse response = this.execute(httpGet);
+				if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK)
+					inputStream = response.getEntity().getContent();
+				else
+					response.close();
 			} catch (UnsupportedOperationException | IOException e) {
 				logger.error(e);
 			}
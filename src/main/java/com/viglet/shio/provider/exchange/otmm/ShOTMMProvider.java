@@ -24,14 +24,16 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.http.client.CookieStore;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.BasicResponseHandler;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
@@ -42,6 +44,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.net.HttpHeaders;
 import com.viglet.shio.provider.exchange.ShExchangeProvider;
 import com.viglet.shio.provider.exchange.ShExchangeProviderBreadcrumbItem;
+import com.viglet.shio.provider.exchange.ShExchangeProviderCache;
 import com.viglet.shio.provider.exchange.ShExchangeProviderFolder;
 import com.viglet.shio.provider.exchange.ShExchangeProviderPost;
 import com.viglet.shio.provider.exchange.otmm.bean.assets.ShOTMMAssetDetailBean;
@@ -55,7 +58,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.Consts;
-import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.NameValuePair;
 
 /**
@@ -72,6 +75,7 @@ public class ShOTMMProvider implements ShExchangeProvider {
 	private static final String URL_VAR = "URL";
 	private static final String USERNAME_VAR = "USERNAME";
 	private static final String PASSWORD_VAR = "PASSWORD";
+	private static final int MAX_CONNECTIONS = 20;
 
 	private ObjectMapper objectMapper = new ObjectMapper().enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
 
@@ -80,7 +84,9 @@ public class ShOTMMProvider implements ShExchangeProvider {
 			.setConnectionRequestTimeout(timeout * 1000).setSocketTimeout(timeout * 1000).build();
 	private CookieStore httpCookieStore = new BasicCookieStore();
 
-	private HttpClient httpClient = null;
+	private CloseableHttpClient httpClient = null;
+
+	private ShExchangeProviderCache cache = null;
 
 	private ResponseHandler<String> responseHandler = new BasicResponseHandler();
 
@@ -94,25 +100,29 @@ public class ShOTMMProvider implements ShExchangeProvider {
 		this.baseURL = variables.get(URL_VAR);
 		this.username = variables.get(USERNAME_VAR);
 		this.password = variables.get(PASSWORD_VAR);
+		this.cache = new ShExchangeProviderCache(variables.get(ShExchangeProviderCache.CACHE_TTL_VAR));
+		PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+		cm.setMaxTotal(MAX_CONNECTIONS);
+		cm.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+		cm.setValidateAfterInactivity(3000);
+		httpClient = HttpClientBuilder.create().setDefaultRequestConfig(config).setDefaultCookieStore(httpCookieStore)
+				.setConnectionManager(cm).build();
 		this.otmmAuth();
 	}
 
-	public ShExchangeProviderFolder getRootFolder() {
-
-		ShOTMMFoldersBean shOTMMFoldersBean = null;
+	@Override
+	public void close() {
 		try {
-			HttpGet httpGet = new HttpGet(String.format("%s/otmmapi/v5/folders/rootfolders", this.baseURL));
-			httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
-			httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
-			HttpResponse response = httpClient.execute(httpGet);
-
-			shOTMMFoldersBean = objectMapper.readValue(responseHandler.handleResponse(response),
-					ShOTMMFoldersBean.class);
-		} catch (UnsupportedOperationException e) {
-			logger.error("getRootFolder UnsupportedOperationException: ", e);
+			httpClient.close();
 		} catch (IOException e) {
-			logger.error("getRootFolder IOException: ", e);
+			logger.error(e);
 		}
+	}
+
+	public ShExchangeProviderFolder getRootFolder() {
+
+		ShOTMMFoldersBean shOTMMFoldersBean = this.restAPIGet(
+				String.format("%s/otmmapi/v5/folders/rootfolders", this.baseURL), ShOTMMFoldersBean.class);
 
 		ShExchangeProviderFolder shExchangeProviderFolder = new ShExchangeProviderFolder();
 
@@ -144,6 +154,7 @@ public class ShOTMMProvider implements ShExchangeProvider {
 				shExchangeProviderFolderChild.setDate(resultDate);
 
 				shExchangeProviderFolder.getFolders().add(shExchangeProviderFolderChild);
+				this.cacheChild(resultId, resultName, shExchangeProviderFolder.getId(), true);
 			});
 		}
 	}
@@ -176,20 +187,7 @@ public class ShOTMMProvider implements ShExchangeProvider {
 	}
 
 	private ShOTMMFoldersBean restAPIFolderGet(String id, String restAPI) {
-		ShOTMMFoldersBean shOTMMFoldersBean = null;
-		try {
-
-			HttpGet httpGet = new HttpGet(String.format(restAPI, this.baseURL, id));
-			httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
-			httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
-			HttpResponse response = httpClient.execute(httpGet);
-			if (response.getStatusLine().getStatusCode() == 200)
-				shOTMMFoldersBean = objectMapper.readValue(responseHandler.handleResponse(response),
-						ShOTMMFoldersBean.class);
-		} catch (UnsupportedOperationException | IOException e) {
-			logger.error(e);
-		}
-		return shOTMMFoldersBean;
+		return this.restAPIGet(String.format(restAPI, this.baseURL, id), ShOTMMFoldersBean.class);
 	}
 
 	private ShOTMMFoldersBean getOTMMAssetParents(String id) {
@@ -202,16 +200,8 @@ public class ShOTMMProvider implements ShExchangeProvider {
 
 	private void getOTMMAssets(String id, ShExchangeProviderFolder shExchangeProviderFolder) {
 
-		ShOTMMAssetsBean shOTMMAssetsBean = null;
-		try {
-			HttpGet httpGet = new HttpGet(String.format("%s/otmmapi/v5/folders/%s/assets", this.baseURL, id));
-			httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
-			httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
-			HttpResponse response = httpClient.execute(httpGet);
-			shOTMMAssetsBean = objectMapper.readValue(responseHandler.handleResponse(response), ShOTMMAssetsBean.class);
-		} catch (UnsupportedOperationException | IOException e) {
-			logger.error(e);
-		}
+		ShOTMMAssetsBean shOTMMAssetsBean = this.restAPIGet(
+				String.format("%s/otmmapi/v5/folders/%s/assets", this.baseURL, id), ShOTMMAssetsBean.class);
 		if (shOTMMAssetsBean != null && shOTMMAssetsBean.getAssetsResource() != null
 				&& shOTMMAssetsBean.getAssetsResource().getAssetList() != null) {
 
@@ -232,22 +222,37 @@ public class ShOTMMProvider implements ShExchangeProvider {
 				shExchangeProviderPostChild.setType(postType);
 
 				shExchangeProviderFolder.getPosts().add(shExchangeProviderPostChild);
+				this.cacheChild(postId, postTitle, id, false);
 			});
 		}
 	}
 
 	public ShExchangeProviderPost getObject(String id, boolean isFolder) {
 
-		if (isFolder) {
-			return this.folderObject(id);
-		} else {
-			return this.assetObject(id);
+		String key = this.objectKey(id, isFolder);
+		ShExchangeProviderPost shExchangeProviderPost = cache.getObject(key);
+		if (shExchangeProviderPost == null) {
+			shExchangeProviderPost = isFolder ? this.folderObject(id) : this.assetObject(id);
+			cache.putObject(key, shExchangeProviderPost);
 		}
+		return shExchangeProviderPost;
+	}
+
+	private String objectKey(String id, boolean isFolder) {
+		return String.format("%s:%s", isFolder ? "folder" : "asset", id);
+	}
+
+	private void cacheChild(String id, String title, String parentId, boolean isFolder) {
+		ShExchangeProviderPost shExchangeProviderPost = new ShExchangeProviderPost();
+		shExchangeProviderPost.setId(id);
+		shExchangeProviderPost.setTitle(title);
+		shExchangeProviderPost.setParentId(ROOT_FOLDER_ID.equals(parentId) ? null : parentId);
+		cache.putObject(this.objectKey(id, isFolder), shExchangeProviderPost);
 	}
 
 	private ShExchangeProviderPost assetObject(String id) {
-		ShOTMMAssetDetailBean shOTMMAssetDetailBean = null;
-		shOTMMAssetDetailBean = this.getAssetFromOTMM(id, shOTMMAssetDetailBean);
+		ShOTMMAssetDetailBean shOTMMAssetDetailBean = this.restAPIGet(
+				String.format("%s/otmmapi/v5/assets/%s", this.baseURL, id), ShOTMMAssetDetailBean.class);
 
 		ShExchangeProviderPost shExchangeProviderPost = new ShExchangeProviderPost();
 		shExchangeProviderPost.setId(id);
@@ -265,8 +270,8 @@ public class ShOTMMProvider implements ShExchangeProvider {
 	}
 
 	private ShExchangeProviderPost folderObject(String id) {
-		ShOTMMFolderDetailBean shOTMMFolderDetailBean = null;
-		shOTMMFolderDetailBean = this.getFolderFromOTMM(id, shOTMMFolderDetailBean);
+		ShOTMMFolderDetailBean shOTMMFolderDetailBean = this.restAPIGet(
+				String.format("%s/otmmapi/v5/folders/%s", this.baseURL, id), ShOTMMFolderDetailBean.class);
 
 		ShExchangeProviderPost shExchangeProviderPost = new ShExchangeProviderPost();
 		shExchangeProviderPost.setId(id);
@@ -286,42 +291,33 @@ public class ShOTMMProvider implements ShExchangeProvider {
 		return shExchangeProviderPost;
 	}
 
-	private ShOTMMAssetDetailBean getAssetFromOTMM(String id, ShOTMMAssetDetailBean shOTMMAssetDetailBean) {
+	private <T> T restAPIGet(String url, Class<T> valueType) {
+		HttpGet httpGet = new HttpGet(url);
+		httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
+		httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
 		try {
-			HttpGet httpGet = new HttpGet(String.format("%s/otmmapi/v5/assets/%s", this.baseURL, id));
-			httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
-			httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
-			HttpResponse response = httpClient.execute(httpGet);
-			shOTMMAssetDetailBean = objectMapper.readValue(responseHandler.handleResponse(response),
-					ShOTMMAssetDetailBean.class);
-
+			String body = cache.get(httpGet, this::execute);
+			if (body != null)
+				return objectMapper.readValue(body, valueType);
+			if (logger.isDebugEnabled())
+				logger.debug(String.format("%s returned no content", url));
 		} catch (UnsupportedOperationException | IOException e) {
 			logger.error(e);
 		}
-		return shOTMMAssetDetailBean;
+		return null;
 	}
 
-	private ShOTMMFolderDetailBean getFolderFromOTMM(String id, ShOTMMFolderDetailBean shOTMMFolderDetailBean) {
-		try {
-			HttpGet httpGet = new HttpGet(String.format("%s/otmmapi/v5/folders/%s", this.baseURL, id));
-			httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
-			httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
-			HttpResponse response = httpClient.execute(httpGet);
-			shOTMMFolderDetailBean = objectMapper.readValue(responseHandler.handleResponse(response),
-					ShOTMMFolderDetailBean.class);
-		} catch (UnsupportedOperationException | IOException e) {
-			logger.error(e);
+	private CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+		CloseableHttpResponse response = httpClient.execute(request);
+		if (response.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
+			response.close();
+			this.otmmAuth();
+			response = httpClient.execute(request);
 		}
-		return shOTMMFolderDetailBean;
+		return response;
 	}
 
-	private ShOTMMSessionsBean otmmAuth() {
-		PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
-		cm.setMaxTotal(10000);
-		cm.setDefaultMaxPerRoute(10000);
-		cm.setValidateAfterInactivity(3000);
-		httpClient = HttpClientBuilder.create().setDefaultRequestConfig(config).setDefaultCookieStore(httpCookieStore)
-				.setConnectionManager(cm).build();
+	private synchronized ShOTMMSessionsBean otmmAuth() {
 		List<NameValuePair> form = new ArrayList<>();
 		form.add(new BasicNameValuePair("username", this.username));
 		form.add(new BasicNameValuePair("password", this.password));
@@ -333,9 +329,7 @@ public class ShOTMMProvider implements ShExchangeProvider {
 
 		ShOTMMSessionsBean shOTMMSessionsBean = null;
 
-		try {
-			HttpResponse response = httpClient.execute(httpPost);
-
+		try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
 			shOTMMSessionsBean = objectMapper.readValue(responseHandler.handleResponse(response),
 					ShOTMMSessionsBean.class);
 
@@ -353,8 +347,11 @@ public class ShOTMMProvider implements ShExchangeProvider {
 			HttpGet httpGet = new HttpGet(String.format("%s/otmmapi/v5/assets/%s/contents", this.baseURL, id));
 			httpGet.setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON.toString());
 			httpGet.setHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON.toString());
-			HttpResponse response = httpClient.execute(httpGet);
-			inputStream = response.getEntity().getContent();
+			CloseableHttpResponse response = this.execute(httpGet);
+			if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK)
+				inputStream = response.getEntity().getContent();
+			else
+				response.close();
 
 		} catch (UnsupportedOperationException | IOException e) {
 			logger.error(e);
@@ -18,54 +18,108 @@ package com.viglet.shio.report;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.viglet.shio.bean.IShPostSiteType;
 import com.viglet.shio.bean.IShPostTypeCount;
 import com.viglet.shio.bean.ShPostTypeReport;
+import com.viglet.shio.object.ShObjectType;
+import com.viglet.shio.persistence.model.folder.ShFolder;
+import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
+import com.viglet.shio.persistence.model.post.type.ShPostType;
 import com.viglet.shio.persistence.model.site.ShSite;
+import com.viglet.shio.persistence.model.site.ShSiteTypeCount;
 import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
 import com.viglet.shio.persistence.repository.post.ShPostRepository;
+import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
 import com.viglet.shio.persistence.repository.site.ShSiteRepository;
+import com.viglet.shio.persistence.repository.site.ShSiteTypeCountRepository;
 
 /**
  * Post Type Report
  * 
+ * Totals are kept by ShSiteTypeCount and updated when posts and folders are
+ * created, deleted or changed, so the report doesn't need to count the site
+ * content. A site without totals is counted once from database.
+ * 
  * @author Alexandre Oliveira
  * @since 0.3.7
  * 
  */
 @Component
 public class ShReportPostType {
+	private static final Log logger = LogFactory.getLog(ShReportPostType.class);
+	private static final String FOLDER_LABEL = "Folder";
 	@Autowired
 	private ShSiteRepository shSiteRepository;
 	@Autowired
 	private ShFolderRepository shFolderRepository;
 	@Autowired
 	private ShPostRepository shPostRepository;
+	@Autowired
+	private ShPostTypeRepository shPostTypeRepository;
+	@Autowired
+	private ShSiteTypeCountRepository shSiteTypeCountRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate requiresNew;
+
+	@PostConstruct
+	private void init() {
+		requiresNew = new TransactionTemplate(transactionManager);
+		requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
 
+	@Transactional
 	public List<ShPostTypeReport> postTypeCountBySite(String id) {
-		ShSite shSite = shSiteRepository.findById(id).orElse(null);
-		List<IShPostTypeCount> shPostTypeCounts = shPostRepository.counShPostTypeByShSite(shSite);
-		int countFolder = shFolderRepository.countByShSite(shSite);
+		List<ShSiteTypeCount> shSiteTypeCounts = shSiteTypeCountRepository.findByShSite(id);
+		if (shSiteTypeCounts.isEmpty())
+			shSiteTypeCounts = this.rebuild(id);
 
 		Map<String, Float> countTypes = new HashMap<>();
 
-		countTypes.put("Folder", (float) countFolder);
+		long total = 0;
+
+		List<String> postTypeIds = new ArrayList<>();
+		for (ShSiteTypeCount shSiteTypeCount : shSiteTypeCounts) {
+			if (shSiteTypeCount.getType().equals(ShObjectType.FOLDER)) {
+				countTypes.put(FOLDER_LABEL, (float) shSiteTypeCount.getTotal());
+				total += shSiteTypeCount.getTotal();
+			} else if (shSiteTypeCount.getTotal() > 0) {
+				postTypeIds.add(shSiteTypeCount.getType());
+			}
+		}
 
-		long total = countFolder;
+		Map<String, ShPostType> shPostTypes = shPostTypeRepository.findAllById(postTypeIds).stream()
+				.collect(Collectors.toMap(ShPostType::getId, shPostType -> shPostType));
 
-		for (IShPostTypeCount postTypeCount : shPostTypeCounts) {
-			countTypes.put(postTypeCount.getShPostType().getTitle(), postTypeCount.getTotalPostType());
-			total += postTypeCount.getTotalPostType();
+		for (ShSiteTypeCount shSiteTypeCount : shSiteTypeCounts) {
+			ShPostType shPostType = shPostTypes.get(shSiteTypeCount.getType());
+			if (shPostType != null) {
+				countTypes.put(shPostType.getTitle(), (float) shSiteTypeCount.getTotal());
+				total += shSiteTypeCount.getTotal();
+			}
 		}
 
 		Map<String, Float> sortedMap = countTypes.entrySet().stream()
@@ -86,6 +140,159 @@ public class ShReportPostType {
 		return shPosTypeReports;
 	}
 
+	private List<ShSiteTypeCount> rebuild(String id) {
+		List<ShSiteTypeCount> shSiteTypeCounts = new ArrayList<>();
+		ShSite shSite = shSiteRepository.findById(id).orElse(null);
+		if (shSite == null)
+			return shSiteTypeCounts;
+
+		shSiteTypeCounts.add(this.newSiteTypeCount(id, ShObjectType.FOLDER, shFolderRepository.countByShSite(shSite)));
+
+		Map<String, Long> totals = new HashMap<>();
+		for (IShPostTypeCount postTypeCount : shPostRepository.counShPostTypeByShSite(shSite))
+			totals.put(postTypeCount.getShPostType().getId(), postTypeCount.getTotalPostType().longValue());
+
+		// Every post type has a total, so a new post only updates it
+		for (ShPostType shPostType : shPostTypeRepository.findAll())
+			shSiteTypeCounts.add(this.newSiteTypeCount(id, shPostType.getId(),
+					totals.getOrDefault(shPostType.getId(), 0L)));
+
+		return shSiteTypeCountRepository.saveAll(shSiteTypeCounts);
+	}
+
+	private ShSiteTypeCount newSiteTypeCount(String shSite, String type, long total) {
+		ShSiteTypeCount shSiteTypeCount = new ShSiteTypeCount();
+		shSiteTypeCount.setShSite(shSite);
+		shSiteTypeCount.setType(type);
+		shSiteTypeCount.setTotal(total);
+		return shSiteTypeCount;
+	}
+
+	private void addTotal(String shSite, String type, long total) {
+		if (shSite == null || type == null)
+			return;
+		// Sites without totals yet will be counted when the report is requested
+		if (shSiteTypeCountRepository.addTotal(shSite, type, total) == 0 && total > 0
+				&& shSiteTypeCountRepository.existsByShSite(shSite)) {
+			this.createSiteTypeCount(shSite, type);
+			shSiteTypeCountRepository.addTotal(shSite, type, total);
+		}
+	}
+
+	/**
+	 * Create an empty total in its own transaction, so when a concurrent
+	 * transaction creates the same total, the unique constraint fails only here
+	 * and the caller just updates the total created by the other one.
+	 */
+	private void createSiteTypeCount(String shSite, String type) {
+		try {
+			requiresNew.executeWithoutResult(status -> shSiteTypeCountRepository
+					.saveAndFlush(this.newSiteTypeCount(shSite, type, 0)));
+		} catch (DataIntegrityViolationException e) {
+			if (logger.isDebugEnabled())
+				logger.debug(String.format("Total of %s in %s was created by other transaction", type, shSite));
+		}
+	}
+
+	private String siteId(ShSite shSite) {
+		return shSite != null ? shSite.getId() : null;
+	}
+
+	public IShPostSiteType postSiteType(String id) {
+		return id != null ? shPostRepository.findSiteTypeById(id) : null;
+	}
+
+	@Transactional
+	public void updatePost(IShPostSiteType before, IShPostSiteType after) {
+		if (before != null && after != null && Objects.equals(before.getShSite(), after.getShSite())
+				&& Objects.equals(before.getShPostType(), after.getShPostType()))
+			return;
+		if (before != null)
+			this.addTotal(before.getShSite(), before.getShPostType(), -1);
+		if (after != null)
+			this.addTotal(after.getShSite(), after.getShPostType(), 1);
+	}
+
+	@Transactional
+	public void addPost(ShPostImpl shPost) {
+		if (shPost.getShPostType() != null)
+			this.addTotal(this.siteId(shPost.getShSite()), shPost.getShPostType().getId(), 1);
+	}
+
+	@Transactional
+	public void removePost(ShPostImpl shPost) {
+		if (shPost.getShPostType() != null)
+			this.addTotal(this.siteId(shPost.getShSite()), shPost.getShPostType().getId(), -1);
+	}
+
+	/**
+	 * Remove many posts, updating each site and post type total only once.
+	 * 
+	 * @param shPosts removed posts
+	 * @since 0.3.7
+	 */
+	@Transactional
+	public void removePosts(Collection<? extends ShPostImpl> shPosts) {
+		this.addPostTotals(shPosts, -1);
+	}
+
+	/**
+	 * Add many posts, updating each site and post type total only once.
+	 * 
+	 * @param shPosts added posts
+	 * @since 0.3.7
+	 */
+	@Transactional
+	public void addPosts(Collection<? extends ShPostImpl> shPosts) {
+		this.addPostTotals(shPosts, 1);
+	}
+
+	private void addPostTotals(Collection<? extends ShPostImpl> shPosts, long sign) {
+		Map<String, Map<String, Long>> totals = new HashMap<>();
+		for (ShPostImpl shPost : shPosts) {
+			String shSite = this.siteId(shPost.getShSite());
+			if (shSite != null && shPost.getShPostType() != null)
+				totals.computeIfAbsent(shSite, k -> new HashMap<>()).merge(shPost.getShPostType().getId(), 1L,
+						Long::sum);
+		}
+		totals.forEach((shSite, types) -> types.forEach((type, total) -> this.addTotal(shSite, type, sign * total)));
+	}
+
+	@Transactional
+	public void addFolder(ShFolder shFolder) {
+		this.addTotal(this.siteId(shFolder.getShSite()), ShObjectType.FOLDER, 1);
+	}
+
+	@Transactional
+	public void removeFolder(ShFolder shFolder) {
+		this.addTotal(this.siteId(shFolder.getShSite()), ShObjectType.FOLDER, -1);
+	}
+
+	@Transactional
+	public void addFolders(Collection<ShFolder> shFolders) {
+		this.addFolderTotals(shFolders, 1);
+	}
+
+	@Transactional
+	public void removeFolders(Collection<ShFolder> shFolders) {
+		this.addFolderTotals(shFolders, -1);
+	}
+
+	private void addFolderTotals(Collection<ShFolder> shFolders, long sign) {
+		Map<String, Long> totals = new HashMap<>();
+		for (ShFolder shFolder : shFolders) {
+			String shSite = this.siteId(shFolder.getShSite());
+			if (shSite != null)
+				totals.merge(shSite, 1L, Long::sum);
+		}
+		totals.forEach((shSite, total) -> this.addTotal(shSite, ShObjectType.FOLDER, sign * total));
+	}
+
+	@Transactional
+	public void removeSite(String id) {
+		shSiteTypeCountRepository.deleteByShSite(id);
+	}
+
 	public String rgbRandomColor() {
 		SecureRandom random = new SecureRandom();
 		return String.format("rgb(%d,%d,%d)", randomColor(random), randomColor(random), randomColor(random));
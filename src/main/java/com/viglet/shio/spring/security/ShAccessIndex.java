@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.spring.security;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.viglet.shio.bean.IShObjectPrincipal;
+import com.viglet.shio.persistence.model.auth.ShGroup;
+import com.viglet.shio.persistence.model.auth.ShUser;
+import com.viglet.shio.persistence.repository.auth.ShUserRepository;
+import com.viglet.shio.persistence.repository.object.ShObjectRepository;
+import com.viglet.shio.property.ShAuthProperties;
+import com.viglet.shio.utils.ShTransactionUtils;
+
+/**
+ * In-memory index of console permissions (groups and users) of objects and of
+ * groups of each user. Objects are loaded on demand, many at once, so listing
+ * a folder checks all children without one query by child.
+ * 
+ * Object permissions are copied from parent when object is created, so the
+ * index is flat.
+ * 
+ * Changes of permissions, groups and users remove entries now and again after
+ * commit, and the other members of the cluster remove them by a Hazelcast
+ * topic. Entries older than shio.auth.access-index-ttl seconds are read again,
+ * so a lost message only grants a revoked access until then.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShAccessIndex {
+	private static final Log logger = LogFactory.getLog(ShAccessIndex.class);
+	private static final String ADMINISTRATOR = "Administrator";
+	private static final String TOPIC = "shAccessIndex";
+	private static final String OBJECT = "object:";
+	private static final String OBJECTS = "objects";
+	private static final String USERS = "users";
+
+	@Autowired
+	private ShObjectRepository shObjectRepository;
+	@Autowired
+	private ShUserRepository shUserRepository;
+	@Autowired
+	private ShAuthProperties shAuthProperties;
+	@Autowired(required = false)
+	private HazelcastInstance hazelcastInstance;
+
+	private ITopic<String> topic;
+
+	private final Map<String, ShObjectAccess> objectById = new ConcurrentHashMap<>();
+	private final Map<String, ShUserAccess> userByUsername = new ConcurrentHashMap<>();
+	private final AtomicLong objectGeneration = new AtomicLong();
+	private final AtomicLong userGeneration = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		if (hazelcastInstance != null) {
+			topic = hazelcastInstance.getTopic(TOPIC);
+			topic.addMessageListener(message -> {
+				if (!message.getPublishingMember().localMember())
+					this.remove(message.getMessageObject());
+			});
+		}
+	}
+
+	/**
+	 * Groups of principal
+	 * 
+	 * @param principal logged user
+	 * @return null when there is no principal or user, it means full access
+	 */
+	public ShUserAccess user(Principal principal) {
+		if (principal == null)
+			return null;
+		ShUserAccess shUserAccess = userByUsername.get(principal.getName());
+		if (shUserAccess == null || this.isExpired(shUserAccess.created)) {
+			long generation = userGeneration.get();
+			ShUser shUser = shUserRepository.findByUsername(principal.getName());
+			if (shUser == null || shUser.getShGroups() == null)
+				return null;
+			Set<String> shGroups = shUser.getShGroups().stream().map(ShGroup::getName).collect(Collectors.toSet());
+			shUserAccess = new ShUserAccess(shUser.getUsername(), shGroups);
+			if (generation == userGeneration.get())
+				userByUsername.put(principal.getName(), shUserAccess);
+		}
+		return shUserAccess;
+	}
+
+	public boolean exists(String id) {
+		return !this.load(Collections.singleton(id)).isEmpty();
+	}
+
+	public boolean canAccess(ShUserAccess shUserAccess, String id) {
+		return !this.allowed(shUserAccess, Collections.singleton(id)).isEmpty();
+	}
+
+	/**
+	 * Filter ids of objects that user can access
+	 * 
+	 * @param shUserAccess user, null means full access
+	 * @param ids          object ids
+	 * @return allowed ids of existing objects
+	 */
+	public Set<String> allowed(ShUserAccess shUserAccess, Collection<String> ids) {
+		Map<String, ShObjectAccess> shObjectAccesses = this.load(ids);
+		if (shUserAccess == null || shUserAccess.isAdministrator())
+			return shObjectAccesses.keySet();
+		return shObjectAccesses.entrySet().stream().filter(entry -> entry.getValue().allows(shUserAccess))
+				.map(Map.Entry::getKey).collect(Collectors.toSet());
+	}
+
+	private Map<String, ShObjectAccess> load(Collection<String> ids) {
+		Map<String, ShObjectAccess> shObjectAccesses = new HashMap<>();
+		Set<String> missing = new HashSet<>();
+		for (String id : ids) {
+			ShObjectAccess shObjectAccess = objectById.get(id);
+			if (shObjectAccess != null && !this.isExpired(shObjectAccess.created))
+				shObjectAccesses.put(id, shObjectAccess);
+			else if (id != null)
+				missing.add(id);
+		}
+		if (!missing.isEmpty()) {
+			long generation = objectGeneration.get();
+			Map<String, Set<String>> shGroups = this.principals(shObjectRepository.findShGroupsByIdIn(missing));
+			Map<String, Set<String>> shUsers = this.principals(shObjectRepository.findShUsersByIdIn(missing));
+			shGroups.forEach((id, groups) -> {
+				ShObjectAccess shObjectAccess = new ShObjectAccess(groups, shUsers.get(id));
+				shObjectAccesses.put(id, shObjectAccess);
+				if (generation == objectGeneration.get())
+					objectById.put(id, shObjectAccess);
+			});
+		}
+		return shObjectAccesses;
+	}
+
+	private Map<String, Set<String>> principals(List<IShObjectPrincipal> rows) {
+		Map<String, Set<String>> principals = new HashMap<>();
+		rows.forEach(row -> {
+			Set<String> names = principals.computeIfAbsent(row.getId(), k -> new HashSet<>());
+			if (row.getPrincipal() != null)
+				names.add(row.getPrincipal());
+		});
+		return principals;
+	}
+
+	private boolean isExpired(long created) {
+		long ttl = TimeUnit.SECONDS.toMillis(shAuthProperties.getAccessIndexTtl());
+		return ttl > 0 && System.currentTimeMillis() - created >= ttl;
+	}
+
+	public void deleteCache(String id) {
+		this.deleteCacheInCluster(OBJECT + id);
+	}
+
+	public void deleteCache() {
+		this.deleteCacheInCluster(OBJECTS);
+	}
+
+	public void deleteUserCache() {
+		this.deleteCacheInCluster(USERS);
+	}
+
+	private void deleteCacheInCluster(String entry) {
+		ShTransactionUtils.nowAndAfterCommit(() -> this.remove(entry));
+		ShTransactionUtils.afterCommit(() -> {
+			if (topic != null) {
+				try {
+					topic.publish(entry);
+				} catch (RuntimeException e) {
+					logger.error("deleteCacheInCluster: ", e);
+				}
+			}
+		});
+	}
+
+	private void remove(String entry) {
+		if (USERS.equals(entry)) {
+			userGeneration.incrementAndGet();
+			userByUsername.clear();
+		} else if (OBJECTS.equals(entry)) {
+			objectGeneration.incrementAndGet();
+			objectById.clear();
+		} else if (entry.startsWith(OBJECT)) {
+			objectGeneration.incrementAndGet();
+			objectById.remove(entry.substring(OBJECT.length()));
+		}
+	}
+
+	public static class ShUserAccess {
+		private final String username;
+		private final Set<String> shGroups;
+		private final boolean administrator;
+		private final long created = System.currentTimeMillis();
+
+		private ShUserAccess(String username, Set<String> shGroups) {
+			this.username = username;
+			this.shGroups = shGroups;
+			this.administrator = shGroups.contains(ADMINISTRATOR);
+		}
+
+		public String getUsername() {
+			return username;
+		}
+
+		public Set<String> getShGroups() {
+			return shGroups;
+		}
+
+		public boolean isAdministrator() {
+			return administrator;
+		}
+	}
+
+	private static class ShObjectAccess {
+		private final Set<String> shGroups;
+		private final Set<String> shUsers;
+		private final long created = System.currentTimeMillis();
+
+		private ShObjectAccess(Set<String> shGroups, Set<String> shUsers) {
+			this.shGroups = shGroups;
+			this.shUsers = shUsers != null ? shUsers : Collections.emptySet();
+		}
+
+		private boolean allows(ShUserAccess shUserAccess) {
+			if (shGroups.isEmpty() && shUsers.isEmpty())
+				return true;
+			return shUsers.contains(shUserAccess.getUsername())
+					|| shGroups.stream().anyMatch(shUserAccess.getShGroups()::contains);
+		}
+	}
+}
@@ -22,6 +22,7 @@ import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
@@ -37,7 +38,7 @@ import com.viglet.shio.persistence.repository.auth.ShUserRepository;
  * @author Alexandre Oliveira
  */
 @Service("customUserDetailsService")
-public class ShCustomUserDetailsService implements UserDetailsService {
+public class ShCustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 	@Autowired
 	private ShUserRepository shUserRepository;
 	@Autowired
@@ -64,4 +65,14 @@ public class ShCustomUserDetailsService implements UserDetailsService {
 		}
 	}
 
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		ShUser shUser = shUserRepository.findByUsername(user.getUsername());
+		if (shUser != null) {
+			shUser.setPassword(newPassword);
+			shUserRepository.save(shUser);
+		}
+		return this.loadUserByUsername(user.getUsername());
+	}
+
 }
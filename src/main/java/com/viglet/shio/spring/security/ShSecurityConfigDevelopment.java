@@ -32,6 +32,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.firewall.HttpFirewall;
 import org.springframework.security.web.firewall.StrictHttpFirewall;
 
+import com.viglet.shio.property.ShAuthProperties;
+
 /**
  * @author Alexandre Oliveira
  */
@@ -40,6 +42,9 @@ import org.springframework.security.web.firewall.StrictHttpFirewall;
 @Profile("development")
 public class ShSecurityConfigDevelopment extends WebSecurityConfigurerAdapter {
 	private static final Logger logger = LogManager.getLogger(ShSecurityConfigDevelopment.class);
+	@Autowired
+	private ShAuthProperties shAuthProperties;
+
 	@Override
 	protected void configure(HttpSecurity http) throws Exception {
 		http.headers().frameOptions().disable().cacheControl().disable();
@@ -71,7 +76,7 @@ public class ShSecurityConfigDevelopment extends WebSecurityConfigurerAdapter {
 
 	@Bean(name = "passwordEncoder")
 	public PasswordEncoder passwordencoder() {
-		return new BCryptPasswordEncoder();
+		return new BCryptPasswordEncoder(shAuthProperties.getPasswordStrength());
 	}
 	
 	@Bean
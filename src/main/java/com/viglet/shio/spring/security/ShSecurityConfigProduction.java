@@ -42,6 +42,7 @@ import org.springframework.security.web.firewall.StrictHttpFirewall;
 
 import com.viglet.shio.persistence.model.provider.auth.ShAuthProviderInstance;
 import com.viglet.shio.persistence.repository.provider.auth.ShAuthProviderInstanceRepository;
+import com.viglet.shio.property.ShAuthProperties;
 import com.viglet.shio.provider.auth.ShAuthSystemProviderVendor;
 import com.viglet.shio.provider.auth.ShAuthenticationProvider;
 
@@ -55,6 +56,8 @@ import com.viglet.shio.provider.auth.ShAuthenticationProvider;
 public class ShSecurityConfigProduction extends WebSecurityConfigurerAdapter {
 	private static final Logger logger = LogManager.getLogger(ShSecurityConfigProduction.class);
 	@Autowired
+	private ShAuthProperties shAuthProperties;
+	@Autowired
 	private UserDetailsService userDetailsService;
 	@Autowired
 	private ShAuthenticationEntryPoint shAuthenticationEntryPoint;
@@ -124,7 +127,7 @@ public class ShSecurityConfigProduction extends WebSecurityConfigurerAdapter {
 
 	@Bean(name = "passwordEncoder")
 	public PasswordEncoder passwordencoder() {
-		return new BCryptPasswordEncoder();
+		return new BCryptPasswordEncoder(shAuthProperties.getPasswordStrength());
 	}
 
 	@Bean
@@ -16,16 +16,24 @@
  */
 package com.viglet.shio.tomcat;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.stereotype.Component;
 
+import com.viglet.shio.property.ShThreadProperties;
+import com.viglet.shio.utils.ShThreadUtils;
+
 /**
  * @author Alexandre Oliveira
  */
 @Component
 public class ShTomcatWebServerCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+	@Autowired
+	private ShThreadUtils shThreadUtils;
+	@Autowired
+	private ShThreadProperties shThreadProperties;
 
 	@Override
 	public void customize(TomcatServletWebServerFactory factory) {
@@ -33,5 +41,11 @@ public class ShTomcatWebServerCustomizer implements WebServerFactoryCustomizer<T
 			connector.setProperty("relaxedPathChars", "<>[\\]^`{|}");
 			connector.setProperty("relaxedQueryChars", "<>[\\]^`{|}");
 		});
+		// Requests on virtual threads, limited by shio.thread.max-requests instead of
+		// server.tomcat.threads.max. At most shio.thread.queue-size requests wait for
+		// them, Tomcat closes the connection of a rejected request.
+		if (shThreadUtils.isVirtual())
+			factory.addProtocolHandlerCustomizers(protocolHandler -> protocolHandler.setExecutor(shThreadUtils
+					.executor("shio-http", shThreadProperties.getMaxRequests(), shThreadProperties.getQueueSize())));
 	}
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -59,11 +60,11 @@ import com.viglet.shio.post.type.ShSystemPostType;
 import com.viglet.shio.post.type.ShSystemPostTypeAttr;
 import com.viglet.shio.utils.ShObjectUtils;
 import com.viglet.shio.utils.ShPostTypeUtils;
-import com.viglet.shio.utils.ShUtils;
 import com.viglet.shio.website.utils.ShSitesFolderUtils;
 import com.viglet.shio.website.utils.ShSitesObjectUtils;
 import com.viglet.shio.website.utils.ShSitesPostUtils;
 import com.viglet.shio.widget.ShSystemWidget;
+import com.viglet.shio.widget.ShWidgetSettings;
 import com.viglet.turing.client.sn.job.TurSNJobAction;
 import com.viglet.turing.client.sn.job.TurSNJobItem;
 import com.viglet.turing.client.sn.job.TurSNJobItems;
@@ -82,8 +83,6 @@ public class ShTuringIntegration {
 	@Autowired
 	private ShPostTypeRepository shPostTypeRepository;
 	@Autowired
-	private ShUtils shUtils;
-	@Autowired
 	private ShPostRepository shPostRepository;
 	@Autowired
 	private ShPostTypeUtils shPostTypeUtils;
@@ -113,6 +112,37 @@ public class ShTuringIntegration {
 		}
 	}
 
+	/**
+	 * Index many objects of a site sending only one request.
+	 * 
+	 * @param shSite    site of objects
+	 * @param shObjects changed objects
+	 * @since 0.3.7
+	 */
+	public void indexObjects(ShSite shSite, Collection<? extends ShObjectImpl> shObjects) {
+		if (TURING_ENABLED && hasSearchablePostTypes(shSite)) {
+			TurSNJobItems turSNJobItems = new TurSNJobItems();
+			Set<String> ids = new HashSet<>();
+			int total = 0;
+			for (ShObjectImpl shObject : shObjects) {
+				if (isFolderIndex(shObject))
+					shObject = ((ShPostImpl) shObject).getShFolder();
+				if (ids.add(shObject.getId()) && this.isSearchable(getObjectTypeName(shObject), shSite)) {
+					TurSNJobItem turSNJobItem = this.toTurSNJobItem(shObject);
+					if (turSNJobItem != null) {
+						turSNJobItem.setTurSNJobAction(TurSNJobAction.CREATE);
+						turSNJobItems.add(turSNJobItem);
+						total++;
+					}
+				}
+			}
+			if (total > 0) {
+				this.sendServer(turSNJobItems, shSite);
+				logger.info(String.format("Sent %d objects to index queue", total));
+			}
+		}
+	}
+
 	private boolean hasSearchablePostTypes(ShSite shSite) {
 		return shSite != null && StringUtils.isNotBlank(shSite.getSearchablePostTypes());
 	}
@@ -182,6 +212,33 @@ public class ShTuringIntegration {
 		}
 	}
 
+	/**
+	 * Deindex many objects of a site sending only one request.
+	 * 
+	 * @param shSite    site of objects
+	 * @param shObjects removed objects
+	 * @since 0.3.7
+	 */
+	public void deindexObjects(ShSite shSite, Collection<? extends ShObjectImpl> shObjects) {
+		if (TURING_ENABLED && hasSearchablePostTypes(shSite)) {
+			TurSNJobItems turSNJobItems = new TurSNJobItems();
+			int total = 0;
+			for (ShObjectImpl shObject : shObjects) {
+				if (this.isSearchable(getObjectTypeName(shObject), shSite)) {
+					TurSNJobItem turSNJobItem = new TurSNJobItem();
+					Map<String, Object> attributes = new HashMap<>();
+					attributes.put("id", shObject.getId());
+					turSNJobItem.setAttributes(attributes);
+					turSNJobItem.setTurSNJobAction(TurSNJobAction.DELETE);
+					turSNJobItems.add(turSNJobItem);
+					total++;
+				}
+			}
+			if (total > 0)
+				this.sendServer(turSNJobItems, shSite);
+		}
+	}
+
 	private void desindexChildObjects(ShObjectImpl shObject) {
 		ShFolder shFolder = (ShFolder) shObject;
 		this.deindexInBatch(shPostRepository.findByShFolder(shFolder));
@@ -256,104 +313,15 @@ public class ShTuringIntegration {
 		}
 	}
 
-	private boolean isAdditionalField(ShPostTypeAttr shPostTypeAttr) {
-		if (shUtils.isJSONValid(shPostTypeAttr.getWidgetSettings())) {
-			JSONObject settings = new JSONObject(shPostTypeAttr.getWidgetSettings());
-			if (settings.has(ShTuringSearchSettings.SEARCH)) {
-				JSONObject searchSettings = settings.getJSONObject(ShTuringSearchSettings.SEARCH);
-				if (searchSettings.has(ShTuringSearchSettings.IS_ADDITIONAL_FIELD)
-						&& (searchSettings.getInt(ShTuringSearchSettings.IS_ADDITIONAL_FIELD) == 1)) {
-					return true;
-				}
-			}
-		}
-		return false;
-
-	}
-
-	private boolean isSamePostTypeField(ShPostTypeAttr shPostTypeAttr) {
-		if (shUtils.isJSONValid(shPostTypeAttr.getWidgetSettings())) {
-			JSONObject settings = new JSONObject(shPostTypeAttr.getWidgetSettings());
-			if (settings.has(ShTuringSearchSettings.SEARCH)) {
-				JSONObject searchSettings = settings.getJSONObject(ShTuringSearchSettings.SEARCH);
-				if (searchSettings.has(ShTuringSearchSettings.IS_SAME_POSTTYPE_FIELD)
-						&& (searchSettings.getInt(ShTuringSearchSettings.IS_SAME_POSTTYPE_FIELD) == 1)) {
-					return true;
-				}
-			}
-		}
-		return false;
-
-	}
-
-	private boolean hasCustomFieldName(ShPostTypeAttr shPostTypeAttr) {
-		if (shUtils.isJSONValid(shPostTypeAttr.getWidgetSettings())) {
-			JSONObject settings = new JSONObject(shPostTypeAttr.getWidgetSettings());
-			if (settings.has(ShTuringSearchSettings.SEARCH)) {
-				JSONObject searchSettings = settings.getJSONObject(ShTuringSearchSettings.SEARCH);
-				if (searchSettings.has(ShTuringSearchSettings.CUSTOM_FIELD_NAME)
-						&& StringUtils.isNotBlank(searchSettings.getString(ShTuringSearchSettings.CUSTOM_FIELD_NAME))) {
-					return true;
-				}
-			}
-		}
-		return false;
-
-	}
-
-	private String getCustomFieldName(ShPostTypeAttr shPostTypeAttr) {
-		if (shUtils.isJSONValid(shPostTypeAttr.getWidgetSettings())) {
-			JSONObject settings = new JSONObject(shPostTypeAttr.getWidgetSettings());
-			if (settings.has(ShTuringSearchSettings.SEARCH)) {
-				JSONObject searchSettings = settings.getJSONObject(ShTuringSearchSettings.SEARCH);
-				if (searchSettings.has(ShTuringSearchSettings.CUSTOM_FIELD_NAME)
-						&& StringUtils.isNotBlank(searchSettings.getString(ShTuringSearchSettings.CUSTOM_FIELD_NAME))) {
-					return searchSettings.getString(ShTuringSearchSettings.CUSTOM_FIELD_NAME);
-				}
-			}
-		}
-		return null;
-
-	}
-
-	private boolean hasAssociation(ShPostTypeAttr shPostTypeAttr) {
-		if (shUtils.isJSONValid(shPostTypeAttr.getWidgetSettings())) {
-			JSONObject settings = new JSONObject(shPostTypeAttr.getWidgetSettings());
-			if (settings.has(ShTuringSearchSettings.SEARCH)) {
-				JSONObject searchSettings = settings.getJSONObject(ShTuringSearchSettings.SEARCH);
-				if (searchSettings.has(ShTuringSearchSettings.ASSOCIATION)
-						&& StringUtils.isNotBlank(searchSettings.getString(ShTuringSearchSettings.ASSOCIATION))) {
-					return true;
-				}
-			}
-		}
-		return false;
-
-	}
-
-	private String getAssociation(ShPostTypeAttr shPostTypeAttr) {
-		if (shUtils.isJSONValid(shPostTypeAttr.getWidgetSettings())) {
-			JSONObject settings = new JSONObject(shPostTypeAttr.getWidgetSettings());
-			if (settings.has(ShTuringSearchSettings.SEARCH)) {
-				JSONObject searchSettings = settings.getJSONObject(ShTuringSearchSettings.SEARCH);
-				if (searchSettings.has(ShTuringSearchSettings.ASSOCIATION)
-						&& StringUtils.isNotBlank(searchSettings.getString(ShTuringSearchSettings.ASSOCIATION))) {
-					return searchSettings.getString(ShTuringSearchSettings.ASSOCIATION);
-				}
-			}
-		}
-		return null;
-
-	}
-
 	private void addAdditionalAttributes(Map<String, Object> attributes, ShPostImpl shPost, ShPostType shPostType) {
 		Map<String, ShPostTypeAttr> shPostTypeMap = shPostTypeUtils.toMap(shPostType);
 		shPost.getShPostAttrs().forEach(shPostAttr -> {
 			ShPostTypeAttr shPostTypeAttr = shPostTypeMap.get(((ShPostAttr) shPostAttr).getShPostTypeAttr().getName());
-			if (isAdditionalField(shPostTypeAttr)) {
+			ShWidgetSettings shWidgetSettings = shPostTypeUtils.widgetSettings(shPostTypeAttr);
+			if (shWidgetSettings.isAdditionalField()) {
 				String attributeName = ((ShPostAttr) shPostAttr).getShPostTypeAttr().getName().toLowerCase();
-				if (!isSamePostTypeField(shPostTypeAttr) && hasCustomFieldName(shPostTypeAttr))
-					attributeName = getCustomFieldName(shPostTypeAttr);
+				if (!shWidgetSettings.isSamePostTypeField() && shWidgetSettings.getCustomFieldName() != null)
+					attributeName = shWidgetSettings.getCustomFieldName();
 				if (shPostTypeAttr.getShWidget().getName().equals(ShSystemWidget.MULTI_SELECT)) {
 					Set<String> multiValue = new HashSet<>();
 					((ShPostAttr) shPostAttr).getArrayValue().forEach(multiSelectId -> {
@@ -372,18 +340,19 @@ public class ShTuringIntegration {
 	private void addAssociationAttributes(Map<String, Object> attributes, ShPost shPost, ShPostType shPostType) {
 		Map<String, ShPostAttr> shPostMap = shSitesPostUtils.postToMap(shPost);
 		shPostType.getShPostTypeAttrs().forEach(shPostTypeAttr -> {
-			if (hasAssociation(shPostTypeAttr)) {
+			String association = shPostTypeUtils.widgetSettings(shPostTypeAttr).getAssociation();
+			if (association != null) {
 				if (shPostTypeAttr.getShWidget().getName().equals(ShSystemWidget.FILE)) {
 					String shPostFileId = shPostMap.get(shPostTypeAttr.getName()).getStrValue();
 					if (StringUtils.isNotBlank(shPostFileId)) {
 						ShPost shFilePost = shPostRepository.findById(shPostFileId).orElse(null);
-						attributes.put(getAssociation(shPostTypeAttr), shSitesPostUtils.generatePostLink(shFilePost));
+						attributes.put(association, shSitesPostUtils.generatePostLink(shFilePost));
 					}
 				} else if (shPostTypeAttr.getShWidget().getName().equals(ShSystemWidget.DATE)) {
-					attributes.put(getAssociation(shPostTypeAttr),
+					attributes.put(association,
 							formatDateToTuring(shPostMap.get(shPostTypeAttr.getName()).getDateValue()));
 				} else {
-					attributes.put(getAssociation(shPostTypeAttr),
+					attributes.put(association,
 							shPostMap.get(shPostTypeAttr.getName()).getStrValue());
 				}
 			}
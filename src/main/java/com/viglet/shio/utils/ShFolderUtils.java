@@ -22,24 +22,25 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.http.client.ClientProtocolException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.collect.Lists;
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
 import com.viglet.shio.persistence.model.post.ShPost;
-import com.viglet.shio.persistence.model.post.ShPostAttr;
 import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
-import com.viglet.shio.persistence.model.reference.ShReference;
 import com.viglet.shio.persistence.model.site.ShSite;
 import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
 import com.viglet.shio.persistence.repository.post.ShPostAttrRepository;
 import com.viglet.shio.persistence.repository.post.ShPostRepository;
 import com.viglet.shio.persistence.repository.reference.ShReferenceRepository;
+import com.viglet.shio.report.ShReportPostType;
+import com.viglet.shio.spring.security.ShAccessIndex;
 import com.viglet.shio.turing.ShTuringIntegration;
 
 /**
@@ -47,6 +48,7 @@ import com.viglet.shio.turing.ShTuringIntegration;
  */
 @Component
 public class ShFolderUtils {
+	private static final int BATCH_SIZE = 500;
 	@Autowired
 	private ShFolderRepository shFolderRepository;
 	@Autowired
@@ -57,6 +59,10 @@ public class ShFolderUtils {
 	private ShReferenceRepository shReferenceRepository;
 	@Autowired
 	private ShTuringIntegration shTuringIntegration;
+	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShAccessIndex shAccessIndex;
 
 	public ShFolder getParentFolder(String shFolderId) {
 		Optional<ShFolder> shFolder = shFolderRepository.findById(shFolderId);
@@ -229,31 +235,64 @@ public class ShFolderUtils {
 		return currentFolder;
 	}
 
+	/**
+	 * Delete folder and all descendants. The subtree is read once, level by
+	 * level, and posts, attributes, references and folders are removed with bulk
+	 * statements of up to BATCH_SIZE objects.
+	 */
 	@Transactional
 	public boolean deleteFolder(ShFolder shFolder) throws ClientProtocolException, IOException {
-		shTuringIntegration.deindexObject(shFolder);
-
-		for (ShPost shPost : shPostRepository.findByShFolder(shFolder)) {
-			List<ShReference> shGlobalFromId = shReferenceRepository.findByShObjectFrom(shPost);
-			List<ShReference> shGlobalToId = shReferenceRepository.findByShObjectTo(shPost);
-			shReferenceRepository.deleteInBatch(shGlobalFromId);
-			shReferenceRepository.deleteInBatch(shGlobalToId);
+		List<List<ShFolder>> levels = this.subtreeLevels(shFolder);
+		List<ShFolder> shFolders = new ArrayList<>();
+		levels.forEach(shFolders::addAll);
+
+		List<ShPost> shPosts = new ArrayList<>();
+		for (List<ShFolder> shFolderBatch : Lists.partition(shFolders, BATCH_SIZE))
+			shPosts.addAll(shPostRepository.findByShFolderIn(shFolderBatch));
+
+		List<ShObjectImpl> shObjects = new ArrayList<>(shFolders);
+		shObjects.addAll(shPosts);
+		shTuringIntegration.deindexObjects(this.getSite(shFolder), shObjects);
+
+		shReportPostType.removePosts(shPosts);
+		for (List<ShPost> shPostBatch : Lists.partition(shPosts, BATCH_SIZE)) {
+			List<String> ids = shPostBatch.stream().map(ShPost::getId).collect(Collectors.toList());
+			shReferenceRepository.deleteByShObjectIdIn(ids);
+			shPostAttrRepository.deleteByShPostIdIn(ids);
+			shPostRepository.deleteInBatch(shPostBatch);
+			ids.forEach(shAccessIndex::deleteCache);
 		}
 
-		for (ShPostImpl shPost : shPostRepository.findByShFolder(shFolder)) {
-			Set<ShPostAttr> shPostAttrs = shPostAttrRepository.findByShPost(shPost);
-			shPostAttrRepository.deleteInBatch(shPostAttrs);
+		shReportPostType.removeFolders(shFolders);
+		Collections.reverse(levels);
+		for (List<ShFolder> level : levels) {
+			for (List<ShFolder> shFolderBatch : Lists.partition(level, BATCH_SIZE)) {
+				shFolderRepository.deleteInBatch(shFolderBatch);
+				shFolderBatch.forEach(shFolderDeleted -> shAccessIndex.deleteCache(shFolderDeleted.getId()));
+			}
 		}
 
-		shPostRepository.deleteInBatch(shPostRepository.findByShFolder(shFolder));
+		return true;
+	}
 
-		for (ShFolder shFolderChild : shFolderRepository.findByParentFolder(shFolder)) {
-			this.deleteFolder(shFolderChild);
+	/**
+	 * Folder and its descendants, grouped by depth, using one query by level.
+	 * 
+	 * @param shFolder root of subtree
+	 * @return levels of subtree, first is the folder
+	 * @since 0.3.7
+	 */
+	public List<List<ShFolder>> subtreeLevels(ShFolder shFolder) {
+		List<List<ShFolder>> levels = new ArrayList<>();
+		List<ShFolder> level = Collections.singletonList(shFolder);
+		while (!level.isEmpty()) {
+			levels.add(level);
+			List<ShFolder> children = new ArrayList<>();
+			for (List<ShFolder> shFolderBatch : Lists.partition(level, BATCH_SIZE))
+				children.addAll(shFolderRepository.findByParentFolderIn(shFolderBatch));
+			level = children;
 		}
-
-		shFolderRepository.delete(shFolder.getId());
-
-		return true;
+		return levels;
 	}
 
 	public ShFolder copy(ShFolder shFolder, ShObjectImpl shObjectDest) {
@@ -276,6 +315,8 @@ public class ShFolderUtils {
 		shFolderCopy.setFurl(shFolder.getFurl());
 		shFolderRepository.save(shFolderCopy);
 
+		shReportPostType.addFolder(shFolderCopy);
+
 		return shFolderCopy;
 	}
 
@@ -18,24 +18,36 @@ package com.viglet.shio.utils;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.google.common.collect.Lists;
 import com.viglet.shio.api.post.ShPostAPI;
+import com.viglet.shio.form.ShFormQueue;
+import com.viglet.shio.form.ShFormSubmission;
 import com.viglet.shio.persistence.model.folder.ShFolder;
+import com.viglet.shio.persistence.model.form.ShFormReceipt;
 import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
 import com.viglet.shio.persistence.model.post.ShPost;
 import com.viglet.shio.persistence.model.post.ShPostAttr;
@@ -43,10 +55,11 @@ import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
 import com.viglet.shio.persistence.model.post.type.ShPostType;
 import com.viglet.shio.persistence.model.post.type.ShPostTypeAttr;
 import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
+import com.viglet.shio.persistence.repository.form.ShFormReceiptRepository;
 import com.viglet.shio.persistence.repository.object.ShObjectRepository;
 import com.viglet.shio.persistence.repository.post.ShPostRepository;
-import com.viglet.shio.persistence.repository.post.type.ShPostTypeAttrRepository;
 import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
+import com.viglet.shio.report.ShReportPostType;
 import com.viglet.shio.website.ShSitesContextURL;
 import com.viglet.shio.website.component.form.ShFormConfiguration;
 import com.viglet.shio.widget.ShSystemWidget;
@@ -61,8 +74,6 @@ public class ShFormUtils {
 	@Resource
 	private ApplicationContext applicationContext;
 	@Autowired
-	private ShPostTypeAttrRepository shPostTypeAttrRepository;
-	@Autowired
 	private ShPostAPI shPostAPI;
 	@Autowired
 	private ShPostTypeRepository shPostTypeRepository;
@@ -72,129 +83,250 @@ public class ShFormUtils {
 	private ShPostRepository shPostRepository;
 	@Autowired
 	private ShObjectRepository shObjectRepository;
+	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShPostTypeUtils shPostTypeUtils;
+	@Autowired
+	private ShFormQueue shFormQueue;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private ShFormReceiptRepository shFormReceiptRepository;
 
 	private static final String POST_TYPE_ATTR_PARAM = "__sh-post-type-attr-";
 	private static final String POST_TYPE_PARAM = "__sh-post-type";
-	
-	private ShPost createPost(ShSitesContextURL shSitesContextURL, ShFormConfiguration shFormConfiguration,
+	private static final int RECEIPT_QUERY_SIZE = 500;
+
+	private final Map<String, ShWidgetImplementation> widgets = new ConcurrentHashMap<>();
+
+	private TransactionTemplate transactionTemplate;
+
+	@PostConstruct
+	public void init() {
+		transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Read the form submission of request, or null when it has no target.
+	 */
+	private ShFormSubmission submission(ShSitesContextURL shSitesContextURL, ShFormConfiguration shFormConfiguration,
 			ShPostType shPostType) {
-		Enumeration<String> parameters = shSitesContextURL.getRequest().getParameterNames();
-		ShPost shPost = null;
 		ShObjectImpl shObject = shObjectRepository.findById(shSitesContextURL.getInfo().getObjectId()).orElse(null);
 		if (shFormConfiguration != null || shObject instanceof ShFolder
 				|| (shObject instanceof ShPost && ((ShPostImpl) shObject).getTitle().equals("index"))) {
-			ShFolder shFolder = null;
+			String folderId = null;
 
-			if (shFormConfiguration != null && StringUtils.isNotBlank(shFormConfiguration.getFolder().toString())) {
-				shFolder = shFolderRepository.findById(shFormConfiguration.getFolder().toString()).orElse(null);
+			if (shFormConfiguration != null && shFormConfiguration.getFolder() != null) {
+				folderId = shFormConfiguration.getFolder().toString();
 			} else {
 				if (shObject instanceof ShFolder) {
-					shFolder = (ShFolder) shObject;
+					folderId = shObject.getId();
 				} else {
-					if (shObject != null)
-						shFolder = ((ShPostImpl) shObject).getShFolder();
+					if (shObject != null && ((ShPostImpl) shObject).getShFolder() != null)
+						folderId = ((ShPostImpl) shObject).getShFolder().getId();
 				}
 			}
 
-			shPost = createPostObject(shSitesContextURL, parameters, shPost, shFolder, shPostType);
+			ShFormSubmission shFormSubmission = new ShFormSubmission();
+			shFormSubmission.setId(UUID.randomUUID().toString());
+			shFormSubmission.setPostType(shPostType.getName());
+			shFormSubmission.setFolderId(folderId);
+			HttpServletRequest request = shSitesContextURL.getRequest();
+			Enumeration<String> parameters = request.getParameterNames();
+			while (parameters.hasMoreElements()) {
+				String param = parameters.nextElement();
+				if (param.startsWith(POST_TYPE_ATTR_PARAM)) {
+					String attribute = param.replaceFirst(POST_TYPE_ATTR_PARAM, "").replaceAll("\\[\\]", "");
+					shFormSubmission.getFields().put(attribute, Arrays.asList(request.getParameterValues(param)));
+				}
+			}
+			return shFormSubmission;
 		}
 
-		return shPost;
+		return null;
 	}
 
-	private ShPost createPostObject(ShSitesContextURL shSitesContextURL, Enumeration<String> parameters, ShPost shPost,
-			ShFolder shFolder, ShPostType shPostType) {
-		if (shPostType != null) {
-			shPost = new ShPost();
-			shPost.setDate(new Date());
-			shPost.setOwner("anonymous");
-			shPost.setShFolder(shFolder);
-
-			shPost.setShPostType(shPostType);
-			Set<ShPostAttr> shPostAttrs = getPostAttrs(shSitesContextURL, parameters, shPost, shPostType);
-			shPost.setShPostAttrs(shPostAttrs);
-
+	/**
+	 * Save a form submission as a post.
+	 * 
+	 * @param shFormSubmission form submission
+	 * @return new post, or null when its post type doesn't exist
+	 * @since 0.3.7
+	 */
+	public ShPost save(ShFormSubmission shFormSubmission) {
+		ShPost shPost = this.toPost(shFormSubmission);
+		if (shPost != null)
 			shPostAPI.postSave(shPost);
-
-		}
 		return shPost;
 	}
 
-	private Set<ShPostAttr> getPostAttrs(ShSitesContextURL shSitesContextURL, Enumeration<String> parameters,
-			ShPost shPost, ShPostType shPostType) {
-		Set<ShPostAttr> shPostAttrs = new HashSet<>();
-		while (parameters.hasMoreElements()) {
-			String param = parameters.nextElement();
-			String paramValue = shSitesContextURL.getRequest().getParameter(param);
+	/**
+	 * Save form submissions as posts in one transaction, it is rolled back
+	 * when any of them can't be saved. A receipt of each submission with id is
+	 * saved in the same transaction.
+	 * 
+	 * @param shFormSubmissions form submissions
+	 * @return new posts, without the submissions whose post type doesn't exist
+	 * @since 0.3.7
+	 */
+	public List<ShPost> save(Collection<ShFormSubmission> shFormSubmissions) {
+		return transactionTemplate.execute(status -> {
+			List<ShPost> shPosts = new ArrayList<>();
+			List<ShFormReceipt> shFormReceipts = new ArrayList<>();
+			Date date = new Date();
+			for (ShFormSubmission shFormSubmission : shFormSubmissions) {
+				ShPost shPost = this.toPost(shFormSubmission);
+				if (shPost != null)
+					shPosts.add(shPost);
+				if (shFormSubmission.getId() != null) {
+					ShFormReceipt shFormReceipt = new ShFormReceipt();
+					shFormReceipt.setSubmission(shFormSubmission.getId());
+					shFormReceipt.setDate(date);
+					shFormReceipts.add(shFormReceipt);
+				}
+			}
+			shPostAPI.postSaveAll(shPosts);
+			shFormReceiptRepository.saveAll(shFormReceipts);
+			return shPosts;
+		});
+	}
 
-			if (param.startsWith(POST_TYPE_ATTR_PARAM)) {
-				String attribute = param.replaceFirst(POST_TYPE_ATTR_PARAM, "").replaceAll("\\[\\]", "");
-				ShPostTypeAttr shPostTypeAttr = shPostTypeAttrRepository.findByShPostTypeAndName(shPostType, attribute);
+	/**
+	 * Ids of form submissions already saved.
+	 * 
+	 * @param ids form submission ids
+	 * @return ids with receipt
+	 * @since 0.3.7
+	 */
+	public Set<String> saved(Collection<String> ids) {
+		Set<String> saved = new HashSet<>();
+		for (List<String> partition : Lists.partition(new ArrayList<>(ids), RECEIPT_QUERY_SIZE))
+			saved.addAll(shFormReceiptRepository.findSubmissionBySubmissionIn(partition));
+		return saved;
+	}
 
-				getWidget(shPostTypeAttr);
+	/**
+	 * Remove receipts saved before a date.
+	 * 
+	 * @param date oldest receipt to keep
+	 * @since 0.3.7
+	 */
+	public void deleteReceipts(Date date) {
+		transactionTemplate.execute(status -> {
+			shFormReceiptRepository.deleteByDateBefore(date);
+			return null;
+		});
+	}
 
+	private ShPost toPost(ShFormSubmission shFormSubmission) {
+		ShPostType shPostType = shPostTypeRepository.findByName(shFormSubmission.getPostType());
+		if (shPostType == null)
+			return null;
+		ShFolder shFolder = shFormSubmission.getFolderId() != null
+				? shFolderRepository.findById(shFormSubmission.getFolderId()).orElse(null)
+				: null;
+
+		ShPost shPost = new ShPost();
+		shPost.setDate(new Date());
+		shPost.setOwner("anonymous");
+		shPost.setShFolder(shFolder);
+		shPost.setShPostType(shPostType);
+
+		Map<String, ShPostTypeAttr> shPostTypeMap = shPostTypeUtils.toMap(shPostType);
+		Set<ShPostAttr> shPostAttrs = new HashSet<>();
+		shFormSubmission.getFields().forEach((attribute, values) -> {
+			ShPostTypeAttr shPostTypeAttr = shPostTypeMap.get(attribute);
+			if (shPostTypeAttr != null && !values.isEmpty()) {
 				ShPostAttr shPostAttr = new ShPostAttr();
 				shPostAttr.setShPost(shPost);
 				shPostAttr.setShPostTypeAttr(shPostTypeAttr);
 
 				if (shPostTypeAttr.getShWidget().getName().equals(ShSystemWidget.CHECK_BOX)) {
-					shPostAttr.setArrayValue(setPostAttrArrayValue(shSitesContextURL, param));
+					shPostAttr.setArrayValue(new HashSet<>(values));
 				} else {
-					shPostAttr.setStrValue(paramValue);
+					shPostAttr.setStrValue(values.get(0));
 				}
 
 				shPostAttrs.add(shPostAttr);
 			}
+		});
+		shPost.setShPostAttrs(shPostAttrs);
 
-		}
-		return shPostAttrs;
+		return shPost;
 	}
 
-	private Set<String> setPostAttrArrayValue(ShSitesContextURL shSitesContextURL, String param) {
-		String[] paramArray = shSitesContextURL.getRequest().getParameterValues(param);
-
-		Set<String> arrayValue = new HashSet<>();
-		Collections.addAll(arrayValue, paramArray);
-		return arrayValue;
-
+	private ShWidgetImplementation getWidget(ShPostTypeAttr shPostTypeAttr) {
+		String className = shPostTypeAttr.getShWidget().getClassName();
+		return widgets.computeIfAbsent(className, key -> {
+			try {
+				ShWidgetImplementation object = (ShWidgetImplementation) Class.forName(className)
+						.getDeclaredConstructor().newInstance();
+				applicationContext.getAutowireCapableBeanFactory().autowireBean(object);
+				return object;
+			} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
+					| InvocationTargetException | NoSuchMethodException | SecurityException
+					| ClassNotFoundException e) {
+				logger.error(e);
+				return null;
+			}
+		});
 	}
 
-	private void getWidget(ShPostTypeAttr shPostTypeAttr) {
-		String className = shPostTypeAttr.getShWidget().getClassName();
-		ShWidgetImplementation object;
-		try {
-			object = (ShWidgetImplementation) Class.forName(className).getDeclaredConstructor().newInstance();
-			applicationContext.getAutowireCapableBeanFactory().autowireBean(object);
-		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException
-				| NoSuchMethodException | SecurityException | ClassNotFoundException e) {
-			logger.error(e);
+	private boolean validateForm(HttpServletRequest request, ShPostType shPostType) {
+		for (ShPostTypeAttr shPostTypeAttr : shPostType.getShPostTypeAttrs()) {
+			ShWidgetImplementation object = this.getWidget(shPostTypeAttr);
+			if (object != null && !object.validateForm(request, shPostTypeAttr))
+				return false;
 		}
+		return true;
 	}
 
+	/**
+	 * Validate the form and save it as a post. When the form queue is enabled,
+	 * the submission is queued and saved later in background, and the post
+	 * render of widgets is not called.
+	 * 
+	 * @param shSitesContextURL context of request
+	 */
 	public void execute(ShSitesContextURL shSitesContextURL) {
 
 		ShPostType shPostType = shPostTypeRepository
 				.findByName(shSitesContextURL.getRequest().getParameter(POST_TYPE_PARAM));
+		if (shPostType == null) {
+			logger.warn("Form without post type: " + shSitesContextURL.getInfo().getContextURL());
+			return;
+		}
+		if (!this.validateForm(shSitesContextURL.getRequest(), shPostType)) {
+			logger.warn(String.format("Form of %s is not valid", shPostType.getName()));
+			return;
+		}
 		ShFormConfiguration shFormConfiguration = getFormConfiguration(shPostType);
-		ShPost shPost = this.createPost(shSitesContextURL, shFormConfiguration, shPostType);
+		ShFormSubmission shFormSubmission = this.submission(shSitesContextURL, shFormConfiguration, shPostType);
+
+		if (shFormQueue.isAsync()) {
+			if (shFormSubmission != null && (shFormConfiguration == null || shFormConfiguration.isCreatePost()))
+				shFormQueue.append(shFormSubmission);
+			return;
+		}
+
+		ShPost shPost = shFormSubmission != null ? this.save(shFormSubmission) : null;
 
 		for (ShPostTypeAttr shPostTypeAttr : shPostType.getShPostTypeAttrs()) {
-			String className = shPostTypeAttr.getShWidget().getClassName();
-			ShWidgetImplementation object;
+			ShWidgetImplementation object = this.getWidget(shPostTypeAttr);
 			try {
-				object = (ShWidgetImplementation) Class.forName(className).getDeclaredConstructor().newInstance();
-				applicationContext.getAutowireCapableBeanFactory().autowireBean(object);
-				object.postRender(shPost, shSitesContextURL);
-			} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-					| InvocationTargetException | NoSuchMethodException | SecurityException | ClassNotFoundException
-					| IOException e) {
+				if (object != null)
+					object.postRender(shPost, shSitesContextURL);
+			} catch (IOException e) {
 				logger.error(e);
 			}
 
 		}
 
-		if (shFormConfiguration != null && !shFormConfiguration.isCreatePost())
+		if (shPost != null && shFormConfiguration != null && !shFormConfiguration.isCreatePost()) {
+			shReportPostType.removePost(shPost);
 			shPostRepository.delete(shPost);
+		}
 	}
 
 	private ShFormConfiguration getFormConfiguration(ShPostType shPostType) {
@@ -202,8 +334,7 @@ public class ShFormUtils {
 
 		for (ShPostTypeAttr shPostTypeAttr : shPostType.getShPostTypeAttrs()) {
 			if (shPostTypeAttr.getShWidget().getName().equals(ShSystemWidget.FORM_CONFIGURATION)) {
-				JSONObject formConfiguration = new JSONObject(shPostTypeAttr.getWidgetSettings());
-				shFormConfiguration = new ShFormConfiguration(formConfiguration);
+				shFormConfiguration = shPostTypeUtils.widgetSettings(shPostTypeAttr).getFormConfiguration();
 			}
 		}
 
@@ -22,13 +22,13 @@ import java.util.Date;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.viglet.shio.history.ShHistoryJournal;
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.history.ShHistory;
 import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
 import com.viglet.shio.persistence.model.post.ShPost;
 import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
 import com.viglet.shio.persistence.model.site.ShSite;
-import com.viglet.shio.persistence.repository.history.ShHistoryRepository;
 
 /**
  * @author Alexandre Oliveira
@@ -38,7 +38,7 @@ import com.viglet.shio.persistence.repository.history.ShHistoryRepository;
 public class ShHistoryUtils {
 
 	@Autowired
-	private ShHistoryRepository shHistoryRepository;
+	private ShHistoryJournal shHistoryJournal;
 	@Autowired
 	private ShPostUtils shPostUtils;
 	@Autowired
@@ -84,7 +84,7 @@ public class ShHistoryUtils {
 			shHistory.setShObject(shObject.getId());
 			if (shSite != null)
 				shHistory.setShSite(shSite.getId());
-			shHistoryRepository.saveAndFlush(shHistory);
+			shHistoryJournal.append(shHistory);
 		}
 	}
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.utils;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.viglet.shio.api.ShJsonView;
+
+/**
+ * Keyset (cursor) pagination for listing APIs. Items are written one by one to
+ * response as {"items": [...], "next": cursor}, next is null in last page.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShKeysetUtils {
+	public static final String VIEW_TINY = "tiny";
+	public static final String VIEW_OBJECT = "object";
+	public static final int DEFAULT_SIZE = 50;
+	public static final int MAX_SIZE = 500;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	public int size(int size) {
+		if (size <= 0)
+			return DEFAULT_SIZE;
+		return Math.min(size, MAX_SIZE);
+	}
+
+	public Pageable pageable(int size) {
+		return PageRequest.of(0, this.size(size));
+	}
+
+	public boolean isObjectView(String view) {
+		return VIEW_OBJECT.equals(view);
+	}
+
+	public <T> ResponseEntity<StreamingResponseBody> stream(List<T> items, int size, Function<T, String> cursor) {
+		String next = !items.isEmpty() && items.size() >= this.size(size) ? cursor.apply(items.get(items.size() - 1))
+				: null;
+		ObjectWriter objectWriter = objectMapper.writerWithView(ShJsonView.ShJsonViewObject.class);
+
+		StreamingResponseBody streamingResponseBody = outputStream -> {
+			try (JsonGenerator jsonGenerator = objectMapper.getFactory().createGenerator(outputStream)) {
+				jsonGenerator.writeStartObject();
+				jsonGenerator.writeArrayFieldStart("items");
+				for (T item : items) {
+					objectWriter.writeValue(jsonGenerator, item);
+					jsonGenerator.flush();
+				}
+				jsonGenerator.writeEndArray();
+				jsonGenerator.writeStringField("next", next);
+				jsonGenerator.writeEndObject();
+			}
+		};
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(streamingResponseBody);
+	}
+}
@@ -17,40 +17,66 @@
 package com.viglet.shio.utils;
 
 import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.google.common.collect.Lists;
 import com.viglet.shio.api.folder.ShFolderPath;
-import com.viglet.shio.persistence.model.auth.ShGroup;
-import com.viglet.shio.persistence.model.auth.ShUser;
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.object.ShObject;
 import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
 import com.viglet.shio.persistence.model.post.ShPost;
 import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
 import com.viglet.shio.persistence.model.site.ShSite;
-import com.viglet.shio.persistence.repository.auth.ShUserRepository;
+import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
 import com.viglet.shio.persistence.repository.object.ShObjectRepository;
+import com.viglet.shio.persistence.repository.post.ShPostRepository;
+import com.viglet.shio.report.ShReportPostType;
+import com.viglet.shio.spring.security.ShAccessIndex;
+import com.viglet.shio.spring.security.ShAccessIndex.ShUserAccess;
+import com.viglet.shio.turing.ShTuringIntegration;
+import com.viglet.shio.url.ShURLFormatter;
+import com.viglet.shio.website.cache.component.ShCacheObject;
 
 /**
  * @author Alexandre Oliveira
  */
 @Component
 public class ShObjectUtils {
+	private static final int BATCH_SIZE = 500;
 	@Autowired
 	private ShFolderUtils shFolderUtils;
 	@Autowired
 	private ShObjectRepository shObjectRepository;
 	@Autowired
-	private ShUserRepository shUserRepository;
+	private ShAccessIndex shAccessIndex;
 	@Autowired
 	private ShPostUtils shPostUtils;
+	@Autowired
+	private ShPostRepository shPostRepository;
+	@Autowired
+	private ShFolderRepository shFolderRepository;
+	@Autowired
+	private ShCacheObject shCacheObject;
+	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShTuringIntegration shTuringIntegration;
+	@Autowired
+	private ShURLFormatter shURLFormatter;
 
 	public ShSite getSite(ShObjectImpl shObject) {
 		if (shObject instanceof ShPost) {
@@ -62,49 +88,131 @@ public class ShObjectUtils {
 		}
 	}
 
-	public boolean canAccess(Principal principal, String shObjectId) {
-		ShUser shUser = null;
-		ShObjectImpl shObject = shObjectRepository.findById(shObjectId).orElse(null);
-		shUser = getShUser(principal, shUser);
-		if (shObject != null) {
-			if (userHasGroups(shUser)) {
-				return isAdministrator(shUser) || hasAccess(shUser, shObject);
-			} else {
-				return true;
+	/**
+	 * Move posts and folders to a folder or site in one transaction. Parents are
+	 * updated with one statement by object kind, caches of the moved subtrees
+	 * are deleted together and the subtrees are reindexed after commit.
+	 * 
+	 * @param globallIdDest destination folder or site
+	 * @param globalIds     objects to move
+	 * @return moved objects
+	 * @since 0.3.7
+	 */
+	@Transactional
+	public List<ShObject> moveTo(String globallIdDest, List<String> globalIds) {
+		List<ShObject> shObjects = new ArrayList<>();
+		// Destination and moved objects are locked, so concurrent moves can't make
+		// a cycle or move from a stale parent
+		ShObjectImpl shObjectDest = shObjectRepository.findForUpdateByIdIn(Collections.singletonList(globallIdDest))
+				.stream().findFirst().orElse(null);
+		List<ShPost> shPosts = new ArrayList<>();
+		List<ShFolder> shFolders = new ArrayList<>();
+		for (List<String> batch : Lists.partition(globalIds, BATCH_SIZE)) {
+			for (ShObject shObject : shObjectRepository.findForUpdateByIdIn(batch)) {
+				if (shObjectDest instanceof ShFolder && shObject instanceof ShPost)
+					shPosts.add((ShPost) shObject);
+				else if ((shObjectDest instanceof ShFolder || shObjectDest instanceof ShSite)
+						&& shObject instanceof ShFolder)
+					shFolders.add((ShFolder) shObject);
 			}
 		}
+		if (shPosts.isEmpty() && shFolders.isEmpty())
+			return shObjects;
+		if (shObjectDest instanceof ShFolder && this.isInSubtree((ShFolder) shObjectDest, shFolders))
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					String.format("Destination %s is inside a moved folder", globallIdDest));
 
-		return false;
-	}
+		List<ShObjectImpl> shSubtreeObjects = new ArrayList<>(shPosts);
+		Set<String> ids = new HashSet<>();
+		ids.add(globallIdDest);
+		shPosts.forEach(shPost -> ids.add(shPost.getShFolder().getId()));
+		for (ShFolder shFolder : shFolders) {
+			if (shFolder.getParentFolder() != null)
+				ids.add(shFolder.getParentFolder().getId());
+			List<ShFolder> shSubtreeFolders = new ArrayList<>();
+			shFolderUtils.subtreeLevels(shFolder).forEach(shSubtreeFolders::addAll);
+			shSubtreeObjects.addAll(shSubtreeFolders);
+			for (List<ShFolder> batch : Lists.partition(shSubtreeFolders, BATCH_SIZE))
+				shSubtreeObjects.addAll(shPostRepository.findByShFolderIn(batch));
+		}
+		List<String> shSubtreeIds = shSubtreeObjects.stream().map(ShObjectImpl::getId).collect(Collectors.toList());
+		ids.addAll(shSubtreeIds);
+		shCacheObject.deleteCache(ids);
 
-	private ShUser getShUser(Principal principal, ShUser shUser) {
-		if (principal != null)
-			shUser = shUserRepository.findByUsername(principal.getName());
-		return shUser;
-	}
+		shReportPostType.removeFolders(shFolders);
+
+		ShSite shSite = shObjectDest instanceof ShSite ? (ShSite) shObjectDest : this.getSite(shObjectDest);
+		String shSiteId = shSite != null ? shSite.getId() : null;
+		List<ShPostImpl> shSitePosts = shSubtreeObjects.stream().filter(ShPostImpl.class::isInstance)
+				.map(ShPostImpl.class::cast)
+				.filter(shPost -> !Objects.equals(shPost.getShSite() != null ? shPost.getShSite().getId() : null,
+						shSiteId))
+				.collect(Collectors.toList());
+		shReportPostType.removePosts(shSitePosts);
 
-	private boolean userHasGroups(ShUser shUser) {
-		return shUser != null && shUser.getShGroups() != null;
+		List<String> shPostIds = shPosts.stream().map(ShPost::getId).collect(Collectors.toList());
+		List<String> shFolderIds = shFolders.stream().map(ShFolder::getId).collect(Collectors.toList());
+		ShFolder shFolderDest = shObjectDest instanceof ShFolder ? (ShFolder) shObjectDest : null;
+		ShSite shSiteDest = shObjectDest instanceof ShSite ? (ShSite) shObjectDest : null;
+		byte rootFolder = shSiteDest != null ? (byte) 1 : (byte) 0;
+		for (List<String> batch : Lists.partition(shPostIds, BATCH_SIZE))
+			shPostRepository.updateShFolderByIdIn(shFolderDest, batch);
+		for (List<String> batch : Lists.partition(shFolderIds, BATCH_SIZE))
+			shFolderRepository.updateParentByIdIn(shFolderDest, shSiteDest, rootFolder, batch);
+		for (List<String> batch : Lists.partition(
+				shSitePosts.stream().map(ShPostImpl::getId).collect(Collectors.toList()), BATCH_SIZE))
+			shPostRepository.updateShSiteByIdIn(shSite, batch);
+		shSitePosts.forEach(shPost -> shPost.setShSite(shSite));
+
+		for (ShPost shPost : shPosts) {
+			shPost.setShFolder(shFolderDest);
+			this.updateFurl(shPost, shURLFormatter.format(shPost.getTitle()));
+			shObjects.add(shPost);
+		}
+		for (ShFolder shFolder : shFolders) {
+			shFolder.setParentFolder(shFolderDest);
+			shFolder.setShSite(shSiteDest);
+			shFolder.setRootFolder(rootFolder);
+			this.updateFurl(shFolder, shURLFormatter.format(shFolder.getName()));
+			shObjects.add(shFolder);
+		}
+
+		shReportPostType.addFolders(shFolders);
+		shReportPostType.addPosts(shSitePosts);
+
+		ShTransactionUtils.afterCommit(() -> {
+			List<ShObject> shIndexObjects = new ArrayList<>();
+			for (List<String> batch : Lists.partition(shSubtreeIds, BATCH_SIZE))
+				shIndexObjects.addAll(shObjectRepository.findAllById(batch));
+			shTuringIntegration.indexObjects(shSite, shIndexObjects);
+		});
+
+		return shObjects;
 	}
 
-	private boolean isAdministrator(ShUser shUser) {
-		boolean fullAccess = false;
-		for (ShGroup shGroup : shUser.getShGroups()) {
-			if (shGroup.getName().equals("Administrator")) {
-				fullAccess = true;
-			}
+	/**
+	 * True when the destination is one of the moved folders or inside one.
+	 */
+	private boolean isInSubtree(ShFolder shFolderDest, List<ShFolder> shFolders) {
+		Set<String> shFolderIds = shFolders.stream().map(ShFolder::getId).collect(Collectors.toSet());
+		for (ShFolder shFolder = shFolderDest; shFolder != null; shFolder = shFolder.getParentFolder()) {
+			if (shFolderIds.contains(shFolder.getId()))
+				return true;
 		}
-		return fullAccess;
+		return false;
 	}
 
-	private boolean hasAccess(ShUser shUser, ShObjectImpl shObject) {
-		Set<String> shGroups = new HashSet<>();
-		Set<String> shUsers = new HashSet<>();
-		shUser.getShGroups().forEach(shGroup -> shGroups.add(shGroup.getName()));
-		shUsers.add(shUser.getUsername());
-		return (shObjectRepository.countByIdAndShGroupsInOrIdAndShUsersInOrIdAndShGroupsIsNullAndShUsersIsNull(
-				shObject.getId(), shGroups, shObject.getId(), shUsers, shObject.getId()) > 0);
+	private void updateFurl(ShObject shObject, String furl) {
+		if (!furl.equals(shObject.getFurl())) {
+			shObjectRepository.updateFurl(furl, shObject.getId());
+			shObject.setFurl(furl);
+		}
+	}
 
+	public boolean canAccess(Principal principal, String shObjectId) {
+		ShUserAccess shUserAccess = shAccessIndex.user(principal);
+		return shUserAccess == null ? shAccessIndex.exists(shObjectId)
+				: shAccessIndex.canAccess(shUserAccess, shObjectId);
 	}
 
 	public ShFolderPath objectPath(@PathVariable String id) {
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.utils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.viglet.shio.persistence.model.object.ShObject;
+import com.viglet.shio.persistence.model.object.ShObjectDraft;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.post.ShPostAttr;
+import com.viglet.shio.persistence.model.post.ShPostDraft;
+import com.viglet.shio.persistence.model.post.ShPostDraftAttr;
+import com.viglet.shio.persistence.model.post.impl.ShPostAttrImpl;
+import com.viglet.shio.persistence.model.post.relator.ShRelatorItem;
+import com.viglet.shio.persistence.model.post.relator.ShRelatorItemDraft;
+import com.viglet.shio.persistence.model.post.relator.impl.ShRelatorItemImpl;
+
+/**
+ * Copy Draft entities (Post, Attributes and Relator Items) into detached
+ * Published entities and back, without JSON serialization. Post Type, Folder,
+ * Site and references are shared with the source, not copied.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShPostDraftUtils {
+
+	public ShPost toPost(ShPostDraft shPostDraft) {
+		if (shPostDraft == null)
+			return null;
+		ShPost shPost = new ShPost();
+		this.copyObject(shPostDraft, shPost);
+		shPost.setTitle(shPostDraft.getTitle());
+		shPost.setSummary(shPostDraft.getSummary());
+		shPost.setShPostType(shPostDraft.getShPostType());
+		shPost.setShFolder(shPostDraft.getShFolder());
+		shPost.setShSite(shPostDraft.getShSite());
+
+		Set<ShPostAttr> shPostAttrs = new HashSet<>();
+		for (ShPostAttrImpl shPostDraftAttr : shPostDraft.getShPostAttrs()) {
+			ShPostAttr shPostAttr = this.toPostAttr((ShPostDraftAttr) shPostDraftAttr);
+			shPostAttr.setShPost(shPost);
+			shPostAttrs.add(shPostAttr);
+		}
+		shPost.setShPostAttrs(shPostAttrs);
+		return shPost;
+	}
+
+	public ShPostAttr toPostAttr(ShPostDraftAttr shPostDraftAttr) {
+		if (shPostDraftAttr == null)
+			return null;
+		ShPostAttr shPostAttr = new ShPostAttr();
+		shPostAttr.setId(shPostDraftAttr.getId());
+		shPostAttr.setDateValue(shPostDraftAttr.getDateValue());
+		shPostAttr.setIntValue(shPostDraftAttr.getIntValue());
+		shPostAttr.setStrValue(shPostDraftAttr.getStrValue());
+		shPostAttr.setArrayValue(shPostDraftAttr.getArrayValue());
+		shPostAttr.setReferenceObject(shPostDraftAttr.getReferenceObject());
+		shPostAttr.setType(shPostDraftAttr.getType());
+		shPostAttr.setShPostTypeAttr(shPostDraftAttr.getShPostTypeAttr());
+
+		Set<ShRelatorItem> shRelatorItems = new HashSet<>();
+		for (ShRelatorItemDraft shRelatorItemDraft : shPostDraftAttr.getShChildrenRelatorItems()) {
+			ShRelatorItem shRelatorItem = this.toRelatorItem(shRelatorItemDraft);
+			shRelatorItem.setShParentPostAttr(shPostAttr);
+			shRelatorItems.add(shRelatorItem);
+		}
+		shPostAttr.setShChildrenRelatorItems(shRelatorItems);
+		return shPostAttr;
+	}
+
+	private ShRelatorItem toRelatorItem(ShRelatorItemDraft shRelatorItemDraft) {
+		ShRelatorItem shRelatorItem = new ShRelatorItem();
+		shRelatorItem.setId(shRelatorItemDraft.getId());
+		shRelatorItem.setTitle(shRelatorItemDraft.getTitle());
+		shRelatorItem.setSummary(shRelatorItemDraft.getSummary());
+		shRelatorItem.setOrdinal(shRelatorItemDraft.getOrdinal());
+
+		Set<ShPostAttr> shPostAttrs = new HashSet<>();
+		for (ShPostAttrImpl shChildPostDraftAttr : shRelatorItemDraft.getShChildrenPostAttrs()) {
+			ShPostAttr shPostAttr = this.toPostAttr((ShPostDraftAttr) shChildPostDraftAttr);
+			shPostAttr.setShParentRelatorItem(shRelatorItem);
+			shPostAttrs.add(shPostAttr);
+		}
+		shRelatorItem.setShChildrenPostAttrs(shPostAttrs);
+		return shRelatorItem;
+	}
+
+	public ShPostDraft toDraft(ShPost shPost) {
+		if (shPost == null)
+			return null;
+		ShPostDraft shPostDraft = new ShPostDraft();
+		this.copyObject(shPost, shPostDraft);
+		shPostDraft.setTitle(shPost.getTitle());
+		shPostDraft.setSummary(shPost.getSummary());
+		shPostDraft.setShPostType(shPost.getShPostType());
+		shPostDraft.setShFolder(shPost.getShFolder());
+		shPostDraft.setShSite(shPost.getShSite());
+
+		Set<ShPostDraftAttr> shPostDraftAttrs = new HashSet<>();
+		for (ShPostAttrImpl shPostAttr : shPost.getShPostAttrs()) {
+			ShPostDraftAttr shPostDraftAttr = this.toDraftAttr(shPostAttr);
+			shPostDraftAttr.setShPost(shPostDraft);
+			shPostDraftAttrs.add(shPostDraftAttr);
+		}
+		shPostDraft.setShPostAttrs(shPostDraftAttrs);
+		return shPostDraft;
+	}
+
+	private ShPostDraftAttr toDraftAttr(ShPostAttrImpl shPostAttr) {
+		ShPostDraftAttr shPostDraftAttr = new ShPostDraftAttr();
+		shPostDraftAttr.setId(shPostAttr.getId());
+		shPostDraftAttr.setDateValue(shPostAttr.getDateValue());
+		shPostDraftAttr.setIntValue(shPostAttr.getIntValue());
+		shPostDraftAttr.setStrValue(shPostAttr.getStrValue());
+		shPostDraftAttr.setArrayValue(shPostAttr.getArrayValue());
+		shPostDraftAttr.setReferenceObject(shPostAttr.getReferenceObject());
+		shPostDraftAttr.setType(shPostAttr.getType());
+		shPostDraftAttr.setShPostTypeAttr(shPostAttr.getShPostTypeAttr());
+
+		Set<ShRelatorItemDraft> shRelatorItemDrafts = new HashSet<>();
+		for (ShRelatorItemImpl shRelatorItem : shPostAttr.getShChildrenRelatorItems()) {
+			ShRelatorItemDraft shRelatorItemDraft = this.toRelatorItemDraft(shRelatorItem);
+			shRelatorItemDraft.setShParentPostAttr(shPostDraftAttr);
+			shRelatorItemDrafts.add(shRelatorItemDraft);
+		}
+		shPostDraftAttr.setShChildrenRelatorItems(shRelatorItemDrafts);
+		return shPostDraftAttr;
+	}
+
+	private ShRelatorItemDraft toRelatorItemDraft(ShRelatorItemImpl shRelatorItem) {
+		ShRelatorItemDraft shRelatorItemDraft = new ShRelatorItemDraft();
+		shRelatorItemDraft.setId(shRelatorItem.getId());
+		shRelatorItemDraft.setTitle(shRelatorItem.getTitle());
+		shRelatorItemDraft.setSummary(shRelatorItem.getSummary());
+		shRelatorItemDraft.setOrdinal(shRelatorItem.getOrdinal());
+
+		Set<ShPostDraftAttr> shPostDraftAttrs = new HashSet<>();
+		for (ShPostAttrImpl shChildPostAttr : shRelatorItem.getShChildrenPostAttrs()) {
+			ShPostDraftAttr shPostDraftAttr = this.toDraftAttr(shChildPostAttr);
+			shPostDraftAttr.setShParentRelatorItem(shRelatorItemDraft);
+			shPostDraftAttrs.add(shPostDraftAttr);
+		}
+		shRelatorItemDraft.setShChildrenPostAttrs(shPostDraftAttrs);
+		return shRelatorItemDraft;
+	}
+
+	private void copyObject(ShObject shObject, ShObjectDraft shObjectDraft) {
+		shObjectDraft.setId(shObject.getId());
+		shObjectDraft.setDate(shObject.getDate());
+		shObjectDraft.setOwner(shObject.getOwner());
+		shObjectDraft.setFurl(shObject.getFurl());
+		shObjectDraft.setModifier(shObject.getModifier());
+		shObjectDraft.setPublisher(shObject.getPublisher());
+		shObjectDraft.setModifiedDate(shObject.getModifiedDate());
+		shObjectDraft.setPublicationDate(shObject.getPublicationDate());
+		shObjectDraft.setPosition(shObject.getPosition());
+		shObjectDraft.setObjectType(shObject.getObjectType());
+		shObjectDraft.setPublished(shObject.isPublished());
+		shObjectDraft.setPublishStatus(shObject.getPublishStatus());
+		shObjectDraft.setPageAllowRegisterUser(shObject.isPageAllowRegisterUser());
+		shObjectDraft.setPageAllowGuestUser(shObject.isPageAllowGuestUser());
+		if (shObject.getShPageGroups() != null)
+			shObjectDraft.setShPageGroups(new HashSet<>(shObject.getShPageGroups()));
+	}
+
+	private void copyObject(ShObjectDraft shObjectDraft, ShObject shObject) {
+		shObject.setId(shObjectDraft.getId());
+		shObject.setDate(shObjectDraft.getDate());
+		shObject.setOwner(shObjectDraft.getOwner());
+		shObject.setFurl(shObjectDraft.getFurl());
+		shObject.setModifier(shObjectDraft.getModifier());
+		shObject.setPublisher(shObjectDraft.getPublisher());
+		shObject.setModifiedDate(shObjectDraft.getModifiedDate());
+		shObject.setPublicationDate(shObjectDraft.getPublicationDate());
+		shObject.setPosition(shObjectDraft.getPosition());
+		shObject.setObjectType(shObjectDraft.getObjectType());
+		shObject.setPublished(shObjectDraft.isPublished());
+		shObject.setPublishStatus(shObjectDraft.getPublishStatus());
+		shObject.setPageAllowRegisterUser(shObjectDraft.isPageAllowRegisterUser());
+		shObject.setPageAllowGuestUser(shObjectDraft.isPageAllowGuestUser());
+		if (shObjectDraft.getShPageGroups() != null)
+			shObject.setShPageGroups(new HashSet<>(shObjectDraft.getShPageGroups()));
+	}
+}
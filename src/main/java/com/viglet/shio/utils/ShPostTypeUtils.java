@@ -21,7 +21,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -30,6 +32,7 @@ import com.viglet.shio.persistence.model.post.type.ShPostType;
 import com.viglet.shio.persistence.model.post.type.ShPostTypeAttr;
 import com.viglet.shio.persistence.repository.post.type.ShPostTypeAttrRepository;
 import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
+import com.viglet.shio.widget.ShWidgetSettings;
 
 /**
  * @author Alexandre Oliveira
@@ -41,6 +44,8 @@ public class ShPostTypeUtils {
 	@Autowired
 	private ShPostTypeAttrRepository shPostTypeAttrRepository;
 
+	private final Map<String, ShWidgetSettings> widgetSettings = new ConcurrentHashMap<>();
+
 	public Map<String, ShPostTypeAttr> toMap(ShPostType shPostType) {
 
 		Set<ShPostTypeAttr> shPostTypeAttrList = shPostType.getShPostTypeAttrs();
@@ -53,6 +58,26 @@ public class ShPostTypeUtils {
 
 	}
 
+	/**
+	 * Parsed widget settings of a post type attribute. They are kept by
+	 * attribute id and parsed again only when its settings change.
+	 * 
+	 * @param shPostTypeAttr post type attribute
+	 * @return widget settings
+	 * @since 0.3.7
+	 */
+	public ShWidgetSettings widgetSettings(ShPostTypeAttr shPostTypeAttr) {
+		String source = shPostTypeAttr.getWidgetSettings();
+		if (shPostTypeAttr.getId() == null)
+			return new ShWidgetSettings(source);
+		ShWidgetSettings shWidgetSettings = widgetSettings.get(shPostTypeAttr.getId());
+		if (shWidgetSettings == null || !Objects.equals(shWidgetSettings.getSource(), source)) {
+			shWidgetSettings = new ShWidgetSettings(source);
+			widgetSettings.put(shPostTypeAttr.getId(), shWidgetSettings);
+		}
+		return shWidgetSettings;
+	}
+
 	public ShPostType clone(ShPostType shPostType) {
 
 		List<ShPostType> shPostTypes = shPostTypeRepository.findAll();
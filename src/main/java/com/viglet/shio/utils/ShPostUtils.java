@@ -20,6 +20,7 @@ import java.io.File;
 import java.security.Principal;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -32,15 +33,11 @@ import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.viglet.shio.api.ShJsonView;
 import com.viglet.shio.bean.ShPostTinyBean;
 import com.viglet.shio.object.ShObjectType;
 import com.viglet.shio.persistence.model.auth.ShUser;
@@ -53,6 +50,7 @@ import com.viglet.shio.persistence.model.post.ShPostDraft;
 import com.viglet.shio.persistence.model.post.ShPostDraftAttr;
 import com.viglet.shio.persistence.model.post.impl.ShPostAttrImpl;
 import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
+import com.viglet.shio.persistence.model.post.relator.ShRelatorItem;
 import com.viglet.shio.persistence.model.post.relator.impl.ShRelatorItemImpl;
 import com.viglet.shio.persistence.model.post.type.ShPostType;
 import com.viglet.shio.persistence.model.post.type.ShPostTypeAttr;
@@ -73,6 +71,7 @@ import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
 import com.viglet.shio.persistence.repository.reference.ShReferenceDraftRepository;
 import com.viglet.shio.persistence.repository.reference.ShReferenceRepository;
 import com.viglet.shio.post.type.ShSystemPostType;
+import com.viglet.shio.report.ShReportPostType;
 import com.viglet.shio.widget.ShSystemWidget;
 
 /**
@@ -117,6 +116,10 @@ public class ShPostUtils {
 	private ShUserRepository shUserRepository;
 	@Autowired
 	private ShGroupRepository shGroupRepository;
+	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShPostDraftUtils shPostDraftUtils;
 
 	public ShPost getShPostFromObjectId(String objectId) {
 
@@ -128,6 +131,19 @@ public class ShPostUtils {
 	}
 
 	public ShPost copy(ShPostImpl shPost, ShFolder shFolderDest) {
+		return this.copy(Collections.singletonList(shPost), shFolderDest).get(0);
+	}
+
+	/**
+	 * Copy many posts to a folder, reading destination titles and source
+	 * attributes only once.
+	 * 
+	 * @param shPosts      posts to copy
+	 * @param shFolderDest destination folder
+	 * @return copies, in same order
+	 * @since 0.3.7
+	 */
+	public List<ShPost> copy(List<? extends ShPostImpl> shPosts, ShFolder shFolderDest) {
 
 		List<ShPostTinyBean> shPostTinyBeans = shPostRepository.findByShFolderTiny(shFolderDest.getId());
 
@@ -140,25 +156,37 @@ public class ShPostUtils {
 
 		}
 
-		ShPost shPostCopy = new ShPost();
-		shPostCopy.setDate(new Date());
-		shPostCopy.setShFolder(shFolderDest);
-		shPostCopy.setShPostType(shPost.getShPostType());
-		shPostCopy.setSummary(shPost.getSummary());
-		shPostCopy.setPosition(lowerPosition - 1);
+		List<ShPost> shPostCopies = new ArrayList<>();
+		for (ShPostImpl shPost : shPosts) {
+			ShPost shPostCopy = new ShPost();
+			shPostCopy.setDate(new Date());
+			shPostCopy.setShFolder(shFolderDest);
+			shPostCopy.setShPostType(shPost.getShPostType());
+			shPostCopy.setSummary(shPost.getSummary());
+			shPostCopy.setPosition(--lowerPosition);
+
+			shPostCopy.setTitle(copyTitle(shPost, titles));
+			titles.add(shPostCopy.getTitle());
+			shPostCopies.add(shPostCopy);
+		}
 
-		shPostCopy.setTitle(copyTitle(shPost, titles));
+		shPostRepository.saveAll(shPostCopies);
 
-		shPostRepository.save(shPostCopy);
+		shPostCopies.forEach(shReportPostType::addPost);
 
-		copyAttributes(shPost, shPostCopy);
+		copyAttributes(shPosts, shPostCopies);
 
-		return shPostCopy;
+		return shPostCopies;
 	}
 
-	private void copyAttributes(ShPostImpl shPost, ShPost shPostCopy) {
-		Set<ShPostAttr> shPostAttrs = shPostAttrRepository.findByShPost(shPost);
-		for (ShPostAttrImpl shPostAttr : shPostAttrs) {
+	private void copyAttributes(List<? extends ShPostImpl> shPosts, List<ShPost> shPostCopies) {
+		Map<String, ShPost> shPostCopyBySource = new HashMap<>();
+		for (int i = 0; i < shPosts.size(); i++)
+			shPostCopyBySource.put(shPosts.get(i).getId(), shPostCopies.get(i));
+
+		List<ShPostAttr> shPostAttrClones = new ArrayList<>();
+		for (ShPostAttrImpl shPostAttr : shPostAttrRepository.findByShPostIdInAll(shPostCopyBySource.keySet())) {
+			ShPost shPostCopy = shPostCopyBySource.get(shPostAttr.getShPost().getId());
 			ShPostAttr shPostAttrClone = new ShPostAttr();
 			if (shPostAttr.getShPostTypeAttr().getIsTitle() == 1 && shPostAttr.getStrValue() != null) {
 				shPostAttrClone.setStrValue(shPostCopy.getTitle());
@@ -172,8 +200,9 @@ public class ShPostUtils {
 			shPostAttrClone.setShPost(shPostCopy);
 			shPostAttrClone.setShPostTypeAttr(shPostAttr.getShPostTypeAttr());
 			shPostAttrClone.setType(shPostAttr.getType());
-			shPostAttrRepository.save(shPostAttrClone);
+			shPostAttrClones.add(shPostAttrClone);
 		}
+		shPostAttrRepository.saveAll(shPostAttrClones);
 	}
 
 	private String copyTitle(ShPostImpl shPost, Set<String> titles) {
@@ -516,7 +545,7 @@ public class ShPostUtils {
 		return shPostAttrsByOrdinal;
 	}
 
-	@SuppressWarnings("unchecked")
+	@Transactional(readOnly = true)
 	public ShPost loadLazyPost(String id, boolean getPostPublished) {
 		Optional<ShPost> shPostOptional = shPostRepository.findByIdFull(id);
 		Optional<ShPostDraft> shPostDraftOptional = shPostDraftRepository.findByIdFull(id);
@@ -532,98 +561,155 @@ public class ShPostUtils {
 			}
 		} else {
 			logger.debug("Get Publish Content");
-			shPost.setShPostAttrs(shPostAttrRepository.findByShPostAll(shPost));
-			this.loadPostAttribs((Set<ShPostAttr>) shPost.getShPostAttrs());
+			this.loadPostAttribs(shPost.getShPostAttrsNonDraft());
 
 		}
 
 		return shPost;
 	}
 
-	@SuppressWarnings("unchecked")
+	@Transactional(readOnly = true)
 	public ShPost loadPostDraft(ShPostDraft shPostDraft) {
+		if (shPostDraft == null)
+			return null;
+		return this.loadPostDrafts(Collections.singletonList(shPostDraft)).get(shPostDraft.getId());
+	}
+
+	/**
+	 * Copy drafts to posts, references of all drafts are loaded together.
+	 */
+	private Map<String, ShPost> loadPostDrafts(Collection<ShPostDraft> shPostDrafts) {
 		logger.debug("Get Draft");
-		ShPost shPost = null;
-		if (shPostDraft != null) {
-
-			ObjectMapper mapper = new ObjectMapper();
-			try {
-				shPostDraft.setShPostAttrs(shPostDraftAttrRepository.findByShPostAll(shPostDraft));
-				String jsonInString = mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-						.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
-						.writerWithView(ShJsonView.ShJsonViewObject.class).writeValueAsString(shPostDraft);
-				shPost = mapper.readValue(jsonInString, ShPost.class);
-				this.loadPostDraftAttribs((Set<ShPostAttr>) shPost.getShPostAttrs());
-
-			} catch (JsonProcessingException e) {
-				logger.error("loadPostDraft", e);
-			}
+		Map<String, ShPost> shPosts = new HashMap<>();
+		List<ShPostAttrImpl> shAllPostAttrs = new ArrayList<>();
+		for (ShPostDraft shPostDraft : shPostDrafts) {
+			ShPost shPost = shPostDraftUtils.toPost(shPostDraft);
+			shPosts.put(shPostDraft.getId(), shPost);
+			this.collectPostAttrs(shPost.getShPostAttrs(), shAllPostAttrs);
 		}
-		return shPost;
+		this.loadReferences(shAllPostAttrs, true);
+		return shPosts;
 	}
 
 	public ShPostAttrImpl loadPostDraftAttr(ShPostDraftAttr shPostDraftAttr) {
 		logger.debug("Get Draft");
-		ShPostAttrImpl shPostAttr = null;
-		if (shPostDraftAttr != null) {
-
-			ObjectMapper mapper = new ObjectMapper();
-			try {
-				String jsonInString = mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-						.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
-						.writerWithView(ShJsonView.ShJsonViewObject.class).writeValueAsString(shPostDraftAttr);
-				shPostAttr = mapper.readValue(jsonInString, ShPostAttr.class);
-
-			} catch (JsonProcessingException e) {
-				logger.error("loadPostDraftAttr", e);
-			}
+		return shPostDraftUtils.toPostAttr(shPostDraftAttr);
+	}
+
+	/**
+	 * Load many posts at once, attributes, relators and references of all
+	 * published posts are loaded together.
+	 * 
+	 * @param ids              Post Ids
+	 * @param getPostPublished if false returns the draft of published posts
+	 * @return Posts found, in same order of ids
+	 * @since 0.3.7
+	 */
+	@Transactional(readOnly = true)
+	public List<ShPost> loadLazyPosts(List<String> ids, boolean getPostPublished) {
+		List<ShPost> shPosts = new ArrayList<>();
+		if (ids.isEmpty())
+			return shPosts;
+
+		Map<String, ShPost> shPostMap = new HashMap<>();
+		shPostRepository.findByIdInFull(ids).forEach(shPost -> shPostMap.put(shPost.getId(), shPost));
+
+		Map<String, ShPostDraft> shPostDraftMap = new HashMap<>();
+		if (!getPostPublished) {
+			List<String> publishedIds = new ArrayList<>();
+			shPostMap.values().stream().filter(ShPost::isPublished).forEach(shPost -> publishedIds.add(shPost.getId()));
+			if (!publishedIds.isEmpty())
+				shPostDraftRepository.findByIdInFull(publishedIds)
+						.forEach(shPostDraft -> shPostDraftMap.put(shPostDraft.getId(), shPostDraft));
+		}
+
+		Map<String, ShPost> shPostDrafts = this.loadPostDrafts(shPostDraftMap.values());
+		List<ShPostAttr> shPostAttrs = new ArrayList<>();
+		shPostMap.values().stream().filter(shPost -> !shPostDrafts.containsKey(shPost.getId()))
+				.forEach(shPost -> shPostAttrs.addAll(shPost.getShPostAttrsNonDraft()));
+		if (!shPostAttrs.isEmpty()) {
+			logger.debug("Get Publish Content");
+			this.loadPostAttribs(shPostAttrs);
 		}
-		return shPostAttr;
+
+		for (String id : ids) {
+			ShPost shPost = shPostDrafts.containsKey(id) ? shPostDrafts.get(id) : shPostMap.get(id);
+			if (shPost != null)
+				shPosts.add(shPost);
+		}
+		return shPosts;
 	}
 
-	@SuppressWarnings("unchecked")
-	private void loadPostAttribs(Set<ShPostAttr> shPostAttrs) {
+	/**
+	 * Load relators, child post type attributes and references of attributes,
+	 * one level of relators at a time. Collections are initialized in the
+	 * persistence context, with hibernate.default_batch_fetch_size collections
+	 * of the level by query, so it must run in a transaction.
+	 */
+	private void loadPostAttribs(Collection<ShPostAttr> shPostAttrs) {
+		List<ShPostAttr> shAllPostAttrs = new ArrayList<>();
+		Collection<ShPostAttr> shLevelPostAttrs = shPostAttrs;
+		while (!shLevelPostAttrs.isEmpty()) {
+			shAllPostAttrs.addAll(shLevelPostAttrs);
+			List<ShRelatorItem> shRelatorItems = new ArrayList<>();
+			shLevelPostAttrs.forEach(shPostAttr -> shPostAttr.getShChildrenRelatorItems()
+					.forEach(shRelatorItem -> shRelatorItems.add((ShRelatorItem) shRelatorItem)));
+			List<ShPostAttr> shNextPostAttrs = new ArrayList<>();
+			shRelatorItems.forEach(
+					shRelatorItem -> shNextPostAttrs.addAll(shRelatorItem.getShChildrenPostAttrsNonDraft()));
+			shLevelPostAttrs = shNextPostAttrs;
+		}
+
+		shAllPostAttrs.forEach(shPostAttr -> {
+			if (shPostAttr.getShPostTypeAttr() != null)
+				Hibernate.initialize(shPostAttr.getShPostTypeAttr().getShPostTypeAttrs());
+		});
+		this.loadReferences(shAllPostAttrs, false);
+	}
+
+	/**
+	 * Replace the reference of attributes by Post (with type, folder and
+	 * attributes) or Folder, using one query by object type.
+	 * 
+	 * @param shPostAttrs  attributes
+	 * @param byObjectType detect the object type by objectType field, instead of
+	 *                     class, used when reference comes from a copy
+	 */
+	private void loadReferences(Collection<? extends ShPostAttrImpl> shPostAttrs, boolean byObjectType) {
+		Set<String> postIds = new HashSet<>();
+		Set<String> folderIds = new HashSet<>();
 		for (ShPostAttrImpl shPostAttr : shPostAttrs) {
-			shPostAttr.setShChildrenRelatorItems(shRelatorItemRepository.findByShParentPostAttr(shPostAttr));
-			shPostAttr.getShPostTypeAttr().setShPostTypeAttrs(
-					shPostTypeAttrRepository.findByShParentPostTypeAttr(shPostAttr.getShPostTypeAttr()));
-			if (shPostAttr.getReferenceObject() != null) {
-				if (shPostAttr.getReferenceObject() instanceof ShPost) {
-					shPostAttr.setReferenceObject(
-							shPostRepository.findByIdFull(shPostAttr.getReferenceObject().getId()).orElse(null));
-				} else if (shPostAttr.getReferenceObject() instanceof ShFolder) {
-					shPostAttr.setReferenceObject(
-							shFolderRepository.findById(shPostAttr.getReferenceObject().getId()).orElse(null));
-				}
+			ShObject referenceObject = shPostAttr.getReferenceObject();
+			if (referenceObject != null) {
+				if (byObjectType ? ShObjectType.POST.equals(referenceObject.getObjectType())
+						: referenceObject instanceof ShPost)
+					postIds.add(referenceObject.getId());
+				else if (byObjectType ? ShObjectType.FOLDER.equals(referenceObject.getObjectType())
+						: referenceObject instanceof ShFolder)
+					folderIds.add(referenceObject.getId());
 			}
-			if (!shPostAttr.getShChildrenRelatorItems().isEmpty()) {
-				shPostAttr.getShChildrenRelatorItems().forEach(shRelatorItem -> {
-					shRelatorItem
-							.setShChildrenPostAttrs(shPostAttrRepository.findByShParentRelatorItemJoin(shRelatorItem));
-					this.loadPostAttribs((Set<ShPostAttr>) shRelatorItem.getShChildrenPostAttrs());
-				});
+		}
 
-			}
+		Map<String, ShObject> references = new HashMap<>();
+		if (!postIds.isEmpty())
+			shPostRepository.findByIdInFull(postIds).forEach(shPost -> references.put(shPost.getId(), shPost));
+		if (!folderIds.isEmpty())
+			shFolderRepository.findAllById(folderIds)
+					.forEach(shFolder -> references.put(shFolder.getId(), shFolder));
+
+		for (ShPostAttrImpl shPostAttr : shPostAttrs) {
+			ShObject referenceObject = shPostAttr.getReferenceObject();
+			if (referenceObject != null && (postIds.contains(referenceObject.getId())
+					|| folderIds.contains(referenceObject.getId())))
+				shPostAttr.setReferenceObject(references.get(referenceObject.getId()));
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-	private void loadPostDraftAttribs(Set<ShPostAttr> shPostAttrs) {
+	private void collectPostAttrs(Set<? extends ShPostAttrImpl> shPostAttrs, List<ShPostAttrImpl> shAllPostAttrs) {
 		for (ShPostAttrImpl shPostAttr : shPostAttrs) {
-			if (shPostAttr.getReferenceObject() != null) {
-				if (shPostAttr.getReferenceObject().getObjectType().equals(ShObjectType.POST)) {
-					shPostAttr.setReferenceObject(
-							shPostRepository.findByIdFull(shPostAttr.getReferenceObject().getId()).orElse(null));
-				} else if (shPostAttr.getReferenceObject().getObjectType().equals(ShObjectType.FOLDER)) {
-					shPostAttr.setReferenceObject(
-							shFolderRepository.findById(shPostAttr.getReferenceObject().getId()).orElse(null));
-				}
-			}
-			if (!shPostAttr.getShChildrenRelatorItems().isEmpty()) {
-				shPostAttr.getShChildrenRelatorItems().forEach(shRelatorItem -> this
-						.loadPostDraftAttribs((Set<ShPostAttr>) shRelatorItem.getShChildrenPostAttrs()));
-
-			}
+			shAllPostAttrs.add(shPostAttr);
+			shPostAttr.getShChildrenRelatorItems().forEach(
+					shRelatorItem -> this.collectPostAttrs(shRelatorItem.getShChildrenPostAttrs(), shAllPostAttrs));
 		}
 	}
 
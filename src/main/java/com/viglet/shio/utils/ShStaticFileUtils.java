@@ -18,9 +18,21 @@ package com.viglet.shio.utils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.Principal;
 import java.util.Date;
+import java.util.UUID;
 
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,6 +52,8 @@ import com.viglet.shio.persistence.repository.post.type.ShPostTypeAttrRepository
 import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
 import com.viglet.shio.post.type.ShSystemPostType;
 import com.viglet.shio.post.type.ShSystemPostTypeAttr;
+import com.viglet.shio.report.ShReportPostType;
+import com.viglet.shio.website.cache.component.ShCacheQuery;
 
 /**
  * @author Alexandre Oliveira
@@ -59,6 +73,10 @@ public class ShStaticFileUtils {
 	private ShPostAttrRepository shPostAttrRepository;
 	@Autowired
 	private ShHistoryUtils shHistoryUtils;
+	@Autowired
+	private ShReportPostType shReportPostType;
+	@Autowired
+	private ShCacheQuery shCacheQuery;
 
 	private static final String FILE_SOURCE_BASE = File.separator + "store" + File.separator + "file_source";
 	private static final String USER_DIR = "user.dir";
@@ -138,29 +156,7 @@ public class ShStaticFileUtils {
 				file.transferTo(new File(destFile));
 
 				if (createPost) {
-					// Post File
-					ShPostType shPostType = shPostTypeRepository.findByName(ShSystemPostType.FILE);
-
-					shPost.setDate(new Date());
-					shPost.setShPostType(shPostType);
-					shPost.setSummary(null);
-					shPost.setTitle(fileName);
-					shPost.setShFolder(shFolder);
-					shPost.setPublished(true);
-					shPostRepository.save(shPost);
-
-					ShPostTypeAttr shPostTypeAttr = shPostTypeAttrRepository.findByShPostTypeAndName(shPostType,
-							ShSystemPostTypeAttr.FILE);
-
-					ShPostAttr shPostAttr = new ShPostAttr();
-					shPostAttr.setShPost(shPost);
-					shPostAttr.setShPostTypeAttr(shPostTypeAttr);
-					shPostAttr.setStrValue(shPost.getTitle());
-					shPostAttr.setType(1);
-
-					shPostAttrRepository.save(shPostAttr);
-
-					shHistoryUtils.commit(shPost, principal, ShHistoryUtils.CREATE);
+					this.saveFilePost(shPost, fileName, shFolder, principal);
 				} else {
 					shPost.setTitle(fileName);
 				}
@@ -170,4 +166,73 @@ public class ShStaticFileUtils {
 		}
 		return shPost;
 	}
+
+	/**
+	 * Create a file post streaming the content to the file store. The content is
+	 * written to a temporary file next to the destination and moved in place
+	 * when complete, so a failed transfer does not leave a partial file.
+	 * 
+	 * @param inputStream file content, not closed
+	 * @param fileName    file name
+	 * @param shFolder    destination folder
+	 * @param principal   user
+	 * @return file post, or null when the content could not be stored
+	 * @since 0.3.7
+	 */
+	public ShPost createFilePost(InputStream inputStream, String fileName, ShFolder shFolder, Principal principal) {
+		File directoryPath = this.dirPath(shFolder);
+		if (directoryPath == null)
+			return null;
+		if (!directoryPath.exists())
+			directoryPath.mkdirs();
+
+		Path destFile = directoryPath.toPath().resolve(fileName);
+		Path tmpFile = directoryPath.toPath().resolve(String.format(".%s.%s.part", fileName, UUID.randomUUID()));
+		try {
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			long size;
+			try (OutputStream outputStream = Files.newOutputStream(tmpFile)) {
+				size = IOUtils.copyLarge(new DigestInputStream(inputStream, messageDigest), outputStream);
+			}
+			Files.move(tmpFile, destFile, StandardCopyOption.REPLACE_EXISTING);
+			logger.info(String.format("Stored %s (%d bytes, SHA-256 %s)", destFile, size,
+					Hex.encodeHexString(messageDigest.digest())));
+		} catch (IOException | NoSuchAlgorithmException e) {
+			logger.error("createFilePost: ", e);
+			FileUtils.deleteQuietly(tmpFile.toFile());
+			return null;
+		}
+
+		ShPost shPost = new ShPost();
+		this.saveFilePost(shPost, fileName, shFolder, principal);
+		return shPost;
+	}
+
+	private void saveFilePost(ShPost shPost, String fileName, ShFolder shFolder, Principal principal) {
+		// Post File
+		ShPostType shPostType = shPostTypeRepository.findByName(ShSystemPostType.FILE);
+
+		shPost.setDate(new Date());
+		shPost.setShPostType(shPostType);
+		shPost.setSummary(null);
+		shPost.setTitle(fileName);
+		shPost.setShFolder(shFolder);
+		shPost.setPublished(true);
+		shPostRepository.save(shPost);
+		shReportPostType.addPost(shPost);
+		shCacheQuery.deleteCache(shPost);
+
+		ShPostTypeAttr shPostTypeAttr = shPostTypeAttrRepository.findByShPostTypeAndName(shPostType,
+				ShSystemPostTypeAttr.FILE);
+
+		ShPostAttr shPostAttr = new ShPostAttr();
+		shPostAttr.setShPost(shPost);
+		shPostAttr.setShPostTypeAttr(shPostTypeAttr);
+		shPostAttr.setStrValue(shPost.getTitle());
+		shPostAttr.setType(1);
+
+		shPostAttrRepository.save(shPostAttr);
+
+		shHistoryUtils.commit(shPost, principal, ShHistoryUtils.CREATE);
+	}
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.viglet.shio.property.ShThreadProperties;
+
+/**
+ * Executors of request handling and background jobs. By default they use
+ * platform thread pools. When shio.thread.virtual is enabled and the JVM has
+ * virtual threads, each task runs on its own virtual thread, and the pool size
+ * becomes a limit of tasks running at the same time.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShThreadUtils {
+	private static final Log logger = LogFactory.getLog(ShThreadUtils.class);
+	@Autowired
+	private ShThreadProperties shThreadProperties;
+
+	private Method ofVirtual;
+	private Method name;
+	private Method factory;
+	private Method newThreadPerTaskExecutor;
+
+	@PostConstruct
+	private void init() {
+		if (shThreadProperties.isVirtual()) {
+			try {
+				Class<?> builder = Class.forName("java.lang.Thread$Builder");
+				ofVirtual = Thread.class.getMethod("ofVirtual");
+				name = builder.getMethod("name", String.class, long.class);
+				factory = builder.getMethod("factory");
+				newThreadPerTaskExecutor = Executors.class
+						.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+				logger.info("Using virtual threads");
+			} catch (ClassNotFoundException | NoSuchMethodException | SecurityException e) {
+				logger.warn("Virtual threads are not available in this JVM, using platform threads");
+				ofVirtual = null;
+			}
+		}
+	}
+
+	public boolean isVirtual() {
+		return ofVirtual != null;
+	}
+
+	/**
+	 * Create an executor that runs at most threads tasks at the same time and
+	 * keeps at most queueSize waiting tasks. When it is full, execute throws
+	 * RejectedExecutionException.
+	 * 
+	 * @param threadName name of its threads
+	 * @param threads    tasks running at the same time
+	 * @param queueSize  waiting tasks, or less than zero for no limit
+	 * @return executor
+	 */
+	public ExecutorService executor(String threadName, int threads, int queueSize) {
+		if (this.isVirtual()) {
+			ExecutorService executorService = this.virtualExecutor(threadName);
+			if (executorService != null)
+				return new ShLimitedExecutor(executorService, threads, queueSize);
+		}
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				queueSize < 0 ? new LinkedBlockingQueue<>() : new ArrayBlockingQueue<>(queueSize),
+				runnable -> {
+					Thread thread = new Thread(runnable, threadName);
+					thread.setDaemon(true);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private ExecutorService virtualExecutor(String threadName) {
+		try {
+			Object builder = name.invoke(ofVirtual.invoke(null), threadName + "-", 0L);
+			return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory.invoke(builder));
+		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+			logger.error("ShThreadUtils Error:", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Thread per task executor, with permits for running and for waiting tasks.
+	 */
+	static class ShLimitedExecutor extends AbstractExecutorService {
+		private final ExecutorService executorService;
+		private final Semaphore running;
+		private final Semaphore admitted;
+
+		ShLimitedExecutor(ExecutorService executorService, int threads, int queueSize) {
+			this.executorService = executorService;
+			this.running = new Semaphore(threads);
+			this.admitted = queueSize < 0 ? null : new Semaphore(threads + queueSize);
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			if (admitted != null && !admitted.tryAcquire())
+				throw new RejectedExecutionException("Executor is full");
+			try {
+				executorService.execute(() -> {
+					try {
+						running.acquire();
+						try {
+							command.run();
+						} finally {
+							running.release();
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						if (admitted != null)
+							admitted.release();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				if (admitted != null)
+					admitted.release();
+				throw e;
+			}
+		}
+
+		@Override
+		public void shutdown() {
+			executorService.shutdown();
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			return executorService.shutdownNow();
+		}
+
+		@Override
+		public boolean isShutdown() {
+			return executorService.isShutdown();
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return executorService.isTerminated();
+		}
+
+		@Override
+		public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+			return executorService.awaitTermination(timeout, unit);
+		}
+	}
+}
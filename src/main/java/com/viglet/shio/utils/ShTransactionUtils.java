@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Run cache invalidations with the current transaction. Deleting a cache
+ * only inside the transaction is not enough: a request that reads between
+ * the delete and the commit sees the old rows and caches them again, so the
+ * delete runs once more after commit.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+public class ShTransactionUtils {
+
+	private ShTransactionUtils() {
+		throw new IllegalStateException("Transaction Utility class");
+	}
+
+	/**
+	 * Run after the commit of the current transaction, or now when there is no
+	 * transaction. Nothing runs when it is rolled back.
+	 * 
+	 * @param runnable task
+	 */
+	public static void afterCommit(Runnable runnable) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					runnable.run();
+				}
+			});
+		} else {
+			runnable.run();
+		}
+	}
+
+	/**
+	 * Run now and again after the commit of the current transaction.
+	 * 
+	 * @param delete cache invalidation
+	 */
+	public static void nowAndAfterCommit(Runnable delete) {
+		delete.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					delete.run();
+				}
+			});
+		}
+	}
+}
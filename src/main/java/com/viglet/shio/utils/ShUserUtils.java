@@ -1,21 +1,80 @@
 package com.viglet.shio.utils;
 
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import com.viglet.shio.persistence.model.auth.ShUser;
 import com.viglet.shio.persistence.repository.auth.ShUserRepository;
+import com.viglet.shio.property.ShAuthProperties;
 
 @Component
 public class ShUserUtils {
+	private static final Log logger = LogFactory.getLog(ShUserUtils.class);
 
 	@Autowired
 	private ShUserRepository shUserRepository;
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+	@Autowired
+	private ShAuthProperties shAuthProperties;
+
+	private Semaphore verifiers;
+
+	@PostConstruct
+	private void initVerifiers() {
+		int permits = shAuthProperties.getPasswordVerifiers() > 0 ? shAuthProperties.getPasswordVerifiers()
+				: Runtime.getRuntime().availableProcessors();
+		verifiers = new Semaphore(permits, true);
+	}
 
 	public boolean isValidUserAndPassword(String username, String password) {
-		BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-		ShUser shUser = shUserRepository.findByUsername(username);
-		return (shUser != null && passwordEncoder.matches(password, shUser.getPassword()));
+		return this.getValidUser(username, password) != null;
+	}
+
+	/**
+	 * Check the password of a local user. At most shio.auth.password-verifiers
+	 * checks run at the same time, a login that waits longer than
+	 * shio.auth.timeout seconds is refused. Hashes made with a lower cost than
+	 * the configured one are replaced after a successful check.
+	 * 
+	 * @param username user name
+	 * @param password plain password
+	 * @return user with groups, or null when the login is refused
+	 * @since 0.3.7
+	 */
+	public ShUser getValidUser(String username, String password) {
+		if (username == null || password == null)
+			return null;
+		ShUser shUser = shUserRepository.findByUsernameFull(username);
+		if (shUser == null || shUser.getPassword() == null)
+			return null;
+		try {
+			if (!verifiers.tryAcquire(shAuthProperties.getTimeout(), TimeUnit.SECONDS)) {
+				logger.warn(String.format("Password check of %s refused, all verifiers are busy", username));
+				return null;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		try {
+			if (!passwordEncoder.matches(password, shUser.getPassword()))
+				return null;
+			if (passwordEncoder.upgradeEncoding(shUser.getPassword())) {
+				shUser.setPassword(passwordEncoder.encode(password));
+				shUserRepository.save(shUser);
+			}
+		} finally {
+			verifiers.release();
+		}
+		return shUser;
 	}
 }
@@ -39,6 +39,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.viglet.shio.api.ShJsonView.ShJsonViewGenericType;
@@ -49,6 +50,9 @@ import com.viglet.shio.api.ShJsonView.ShJsonViewGenericType;
 @Component
 public class ShUtils {
 	private static final Log logger = LogFactory.getLog(ShUtils.class);
+	private static final ObjectMapper objectMapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+			.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
 
 	/**
 	 * Unzip it
@@ -122,7 +126,7 @@ public class ShUtils {
 
 	public static String asJsonString(final Object obj) throws ShUtilsException {
 		try {
-			return new ObjectMapper().writeValueAsString(obj);
+			return objectMapper.writeValueAsString(obj);
 		} catch (Exception e) {
 			throw new ShUtilsException(e);
 		}
@@ -131,9 +135,7 @@ public class ShUtils {
 	public static String asJsonStringAndView(final Object obj, Class<? extends ShJsonViewGenericType> clazz)
 			throws ShUtilsException {
 		try {
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-			return mapper.writerWithView(clazz).writeValueAsString(obj);
+			return objectMapper.writerWithView(clazz).writeValueAsString(obj);
 		} catch (Exception e) {
 			throw new ShUtilsException(e);
 		}
@@ -18,12 +18,19 @@ package com.viglet.shio.website;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import javax.activation.MimetypesFileTypeMap;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -35,20 +42,27 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.ModelAndView;
 
 import com.viglet.shio.persistence.model.auth.ShGroup;
 import com.viglet.shio.persistence.model.auth.ShUser;
 import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
 import com.viglet.shio.persistence.model.site.ShSite;
-import com.viglet.shio.persistence.repository.auth.ShUserRepository;
 import com.viglet.shio.persistence.repository.post.ShPostRepository;
 import com.viglet.shio.persistence.repository.site.ShSiteRepository;
+import com.viglet.shio.property.ShWebsiteProperties;
 import com.viglet.shio.utils.ShFormUtils;
 import com.viglet.shio.utils.ShStaticFileUtils;
+import com.viglet.shio.utils.ShThreadUtils;
 import com.viglet.shio.utils.ShUserUtils;
 import com.viglet.shio.website.cache.component.ShCachePage;
 import com.viglet.shio.website.cache.component.ShCachePageBean;
@@ -86,9 +100,27 @@ public class ShSitesContext {
 	@Autowired
 	private ShSiteRepository shSiteRepository;
 	@Autowired
-	private ShUserRepository shUserRepository;
-	@Autowired
 	private ShUserUtils shUserUtils;
+	@Autowired
+	private ShWebsiteProperties shWebsiteProperties;
+
+	@Autowired
+	private ShThreadUtils shThreadUtils;
+
+	private ExecutorService executor;
+
+	@PostConstruct
+	private void init() {
+		int threads = shWebsiteProperties.getRenderThreads();
+		if (threads > 0)
+			executor = shThreadUtils.executor("shio-render", threads, shWebsiteProperties.getRenderQueueSize());
+	}
+
+	@PreDestroy
+	private void destroy() {
+		if (executor != null)
+			executor.shutdownNow();
+	}
 
 	@PostMapping("/sites/**")
 	private ModelAndView sitesPostForm(HttpServletRequest request, HttpServletResponse response) {
@@ -111,13 +143,97 @@ public class ShSitesContext {
 	}
 
 	@RequestMapping("/sites/**")
-	private void sitesFullGeneric(HttpServletRequest request, HttpServletResponse response, HttpSession session) {
+	private DeferredResult<ResponseEntity<byte[]>> sitesFullGeneric(HttpServletRequest request,
+			HttpServletResponse response, HttpSession session) {
 
 		ShSitesContextURL shSitesContextURL = shSitesContextURLProcess.getContextURL(request, response);
 
 		boolean showPage = checkIfShowPage(shSitesContextURL, session);
 
+		if (showPage && shSitesContextURL.getInfo().getSiteId() != null && !shSitesContextURL.getInfo().isStaticFile()
+				&& shSitesContextURL.getInfo().getObjectId() != null)
+			return requestPageAsync(shSitesContextURL);
+
 		renderPage(request, response, session, showPage, shSitesContextURL);
+
+		return null;
+	}
+
+	/**
+	 * Render the page from cache on request thread, or with render executor
+	 * when it is not in cache or it is expired. The render uses a copy of the
+	 * request, because the original one is recycled when the request times out,
+	 * and it is cancelled on timeout.
+	 */
+	private DeferredResult<ResponseEntity<byte[]>> requestPageAsync(ShSitesContextURL shSitesContextURL) {
+		ShCachePageBean shCachePageBean = executor != null ? shCachePage.peek(shSitesContextURL) : null;
+		if (executor == null || (shCachePageBean != null && !isCacheExpired(shCachePageBean))) {
+			this.siteContext(shSitesContextURL);
+			return null;
+		}
+
+		ShSitesContextURL shSitesContextURLCopy = new ShSitesContextURL();
+		shSitesContextURLCopy.setInfo(shSitesContextURL.getInfo());
+		shSitesContextURLCopy.setRequest(new ShSitesRequest(shSitesContextURL.getRequest()));
+
+		DeferredResult<ResponseEntity<byte[]>> deferredResult = new DeferredResult<>();
+		try {
+			Future<?> future = executor.submit(() -> {
+				try {
+					deferredResult.setResult(
+							toResponseEntity(shSitesContextURLCopy, this.cachePage(shSitesContextURLCopy)));
+				} catch (Exception e) {
+					logger.error(e);
+					deferredResult.setErrorResult(e);
+				}
+			});
+			deferredResult.onTimeout(() -> {
+				if (logger.isDebugEnabled())
+					logger.debug(String.format("Render of %s timed out, cancelling it",
+							shSitesContextURL.getInfo().getContextURLOriginal()));
+				future.cancel(true);
+			});
+		} catch (RejectedExecutionException e) {
+			if (logger.isDebugEnabled())
+				logger.debug("Render queue is full, rendering on request thread");
+			this.siteContext(shSitesContextURL);
+			return null;
+		}
+		return deferredResult;
+	}
+
+	private ResponseEntity<byte[]> toResponseEntity(ShSitesContextURL shSitesContextURL,
+			ShCachePageBean shCachePageBean) {
+		if (shCachePageBean == null)
+			return ResponseEntity.ok().build();
+		MediaType mediaType = new MediaType(MediaType.parseMediaType(shCachePageBean.getContentType()),
+				StandardCharsets.UTF_8);
+		ResponseEntity.BodyBuilder bodyBuilder = ResponseEntity.ok().contentType(mediaType)
+				.cacheControl(cacheControl(shSitesContextURL, shCachePageBean));
+		// If-None-Match is checked by Spring MVC when the entity has an ETag
+		if (shCachePageBean.getEtag() != null)
+			bodyBuilder.eTag(shCachePageBean.getEtag());
+		return bodyBuilder.body(
+				shCachePageBean.getBody() != null ? shCachePageBean.getBody().getBytes(StandardCharsets.UTF_8) : null);
+	}
+
+	/**
+	 * Pages with CACHE_TTL are fresh until they expire and then can be served
+	 * stale for one more CACHE_TTL while they are revalidated. Pages without it
+	 * are revalidated on every request, using their ETag.
+	 */
+	private CacheControl cacheControl(ShSitesContextURL shSitesContextURL, ShCachePageBean shCachePageBean) {
+		CacheControl cacheControl;
+		if (shCachePageBean.getExpirationDate() != null && shCachePageBean.getCacheTTL() != null) {
+			long maxAge = Math.max(0, TimeUnit.MILLISECONDS
+					.toSeconds(shCachePageBean.getExpirationDate().getTime() - System.currentTimeMillis()));
+			long stale = TimeUnit.MINUTES.toSeconds(shCachePageBean.getCacheTTL());
+			cacheControl = CacheControl.maxAge(maxAge, TimeUnit.SECONDS).staleWhileRevalidate(stale, TimeUnit.SECONDS)
+					.staleIfError(stale, TimeUnit.SECONDS);
+		} else {
+			cacheControl = CacheControl.noCache();
+		}
+		return shSitesContextURL.getInfo().isPageAllowGuestUser() ? cacheControl : cacheControl.cachePrivate();
 	}
 
 	private boolean checkIfShowPage(ShSitesContextURL shSitesContextURL, HttpSession session) {
@@ -201,8 +317,8 @@ public class ShSitesContext {
 			String username = request.getParameter("username");
 			String password = request.getParameter("password");
 
-			if (shUserUtils.isValidUserAndPassword(username, password)) {
-				ShUser shUser = shUserRepository.findByUsername(username);
+			ShUser shUser = shUserUtils.getValidUser(username, password);
+			if (shUser != null) {
 				String callback = (String) session.getAttribute(LOGIN_CALLBACK_SESSION);
 
 				List<String> groupList = new ArrayList<>();
@@ -257,20 +373,30 @@ public class ShSitesContext {
 	}
 
 	private void requestPage(ShSitesContextURL shSitesContextURL) {
-		ShCachePageBean shCachePageBean = shCachePage.cache(shSitesContextURL);
-		if (shCachePageBean != null) {
-			if (isCacheExpired(shCachePageBean))
-				shCachePageBean = recreateCache(shSitesContextURL);
+		ShCachePageBean shCachePageBean = this.cachePage(shSitesContextURL);
+		if (shCachePageBean != null)
 			renderPage(shSitesContextURL, shCachePageBean);
-		}
+	}
+
+	private ShCachePageBean cachePage(ShSitesContextURL shSitesContextURL) {
+		ShCachePageBean shCachePageBean = shCachePage.cache(shSitesContextURL);
+		if (shCachePageBean != null && isCacheExpired(shCachePageBean))
+			shCachePageBean = recreateCache(shSitesContextURL);
+		return shCachePageBean;
 	}
 
 	private void renderPage(ShSitesContextURL shSitesContextURL, ShCachePageBean shCachePageBean) {
-		shSitesContextURL.getResponse().setContentType(shCachePageBean.getContentType());
-		shSitesContextURL.getResponse().setCharacterEncoding("UTF-8");
+		HttpServletResponse response = shSitesContextURL.getResponse();
+		response.setHeader(HttpHeaders.CACHE_CONTROL,
+				cacheControl(shSitesContextURL, shCachePageBean).getHeaderValue());
+		if (shCachePageBean.getEtag() != null && new ServletWebRequest(shSitesContextURL.getRequest(), response)
+				.checkNotModified(shCachePageBean.getEtag()))
+			return;
+		response.setContentType(shCachePageBean.getContentType());
+		response.setCharacterEncoding("UTF-8");
 		if (shCachePageBean.getBody() != null)
 			try {
-				shSitesContextURL.getResponse().getWriter().write(shCachePageBean.getBody());
+				response.getWriter().write(shCachePageBean.getBody());
 			} catch (IOException e) {
 				logger.error(e);
 			}
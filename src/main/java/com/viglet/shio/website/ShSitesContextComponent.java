@@ -19,7 +19,6 @@ package com.viglet.shio.website;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -56,6 +55,9 @@ import com.viglet.shio.utils.ShPostUtils;
 import com.viglet.shio.website.cache.component.ShCacheJavascript;
 import com.viglet.shio.website.cache.component.ShCachePageLayout;
 import com.viglet.shio.website.cache.component.ShCacheRegion;
+import com.viglet.shio.website.cache.component.ShCacheSiteLayout;
+import com.viglet.shio.website.cache.component.ShCacheSiteSnapshot;
+import com.viglet.shio.website.cache.component.ShCacheSiteSnapshot.ShSnapshotRegion;
 import com.viglet.shio.website.component.ShSitesPageLayout;
 import com.viglet.shio.website.nashorn.ShNashornEngineProcess;
 import com.viglet.shio.website.utils.ShSitesFolderUtils;
@@ -90,6 +92,10 @@ public class ShSitesContextComponent {
 	private ShNashornEngineProcess shNashornEngineProcess;
 	@Autowired
 	private ShSitesPageLayoutUtils shSitesPageLayoutUtils;
+	@Autowired
+	private ShCacheSiteLayout shCacheSiteLayout;
+	@Autowired
+	private ShCacheSiteSnapshot shCacheSiteSnapshot;
 	@Resource
 	private ApplicationContext context;
 	private static final String SEPARATOR = "/";
@@ -165,15 +171,7 @@ public class ShSitesContextComponent {
 	}
 
 	public Map<String, Object> shThemeFactory(String postThemeId) {
-		ShPost shTheme = shPostRepository.findById(postThemeId).orElse(null);
-
-		Map<String, ShPostAttr> shThemeMap = shSitesPostUtils.postToMap(shTheme);
-
-		Map<String, Object> shThemeAttrs = new HashMap<>();
-		shThemeAttrs.put("javascript", shThemeMap.get(ShSystemPostTypeAttr.JAVASCRIPT).getStrValue());
-		shThemeAttrs.put("css", shThemeMap.get(ShSystemPostTypeAttr.CSS).getStrValue());
-
-		return shThemeAttrs;
+		return shCacheSiteLayout.theme(postThemeId);
 	}
 
 	public List<Map<String, Object>> shPostItemsFactory(ShFolder shFolderItem) {
@@ -250,32 +248,45 @@ public class ShSitesContextComponent {
 
 	public String regionProcess(String regionName, ShSitesPageLayout shSitesPageLayout, ShSite shSite, String mimeType,
 			HttpServletRequest request) {
+		if (shCacheSiteSnapshot.isEnabled()) {
+			ShSnapshotRegion shSnapshotRegion = shCacheSiteSnapshot.region(shSite.getId(), regionName);
+			return shSnapshotRegion != null
+					? this.regionProcess(regionName, shSnapshotRegion.getId(), shSnapshotRegion.getJavascript(),
+							shSnapshotRegion.getHTML(), shSitesPageLayout, shSite, mimeType, request)
+					: null;
+		}
 		ShPost shRegion = getRegion(regionName, shSite.getId());
 		if (shRegion != null) {
-			Stopwatch stopwatch = Stopwatch.createStarted();
 			Map<String, ShPostAttr> shRegionPostMap = shSitesPostUtils.postToMap(shRegion);
 
 			String shRegionJS = shRegionPostMap.get(ShSystemPostTypeAttr.JAVASCRIPT).getStrValue();
 
 			String shRegionHTML = shRegionPostMap.get(ShSystemPostTypeAttr.HTML).getStrValue();
 
-			Object regionResultChild = shNashornEngineProcess.render(regionName, shRegionJS, shRegionHTML, request,
-					shSitesPageLayout.getShContent());
+			return this.regionProcess(regionName, shRegion.getId(), shRegionJS, shRegionHTML, shSitesPageLayout,
+					shSite, mimeType, request);
+		}
+		return null;
+
+	}
 
-			String regionHTML = this
-					.shRegionFactory(shSitesPageLayout, regionResultChild.toString(), shSite, mimeType, request).html();
+	private String regionProcess(String regionName, String regionId, String shRegionJS, String shRegionHTML,
+			ShSitesPageLayout shSitesPageLayout, ShSite shSite, String mimeType, HttpServletRequest request) {
+		Stopwatch stopwatch = Stopwatch.createStarted();
 
-			stopwatch.stop();
+		Object regionResultChild = shNashornEngineProcess.render(regionName, shSite.getId(), shRegionJS, shRegionHTML,
+				request, shSitesPageLayout.getShContent());
 
-			long timeProcess = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+		String regionHTML = this
+				.shRegionFactory(shSitesPageLayout, regionResultChild.toString(), shSite, mimeType, request).html();
 
-			Comment comment = new Comment(String.format(" sh-region: %s, id: %s, processed in: %s ms ", regionName,
-					shRegion.getId(), String.valueOf(timeProcess)));
-			return String.format("%s%s", comment.toString(), regionHTML);
+		stopwatch.stop();
 
-		}
-		return null;
+		long timeProcess = stopwatch.elapsed(TimeUnit.MILLISECONDS);
 
+		Comment comment = new Comment(String.format(" sh-region: %s, id: %s, processed in: %s ms ", regionName,
+				regionId, String.valueOf(timeProcess)));
+		return String.format("%s%s", comment.toString(), regionHTML);
 	}
 
 	public ShPost getRegion(String regionName, String siteId) {
@@ -33,6 +33,7 @@ import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
 import com.viglet.shio.persistence.model.site.ShSite;
 import com.viglet.shio.persistence.repository.site.ShSiteRepository;
 import com.viglet.shio.utils.ShFolderUtils;
+import com.viglet.shio.website.cache.component.ShCacheSiteSnapshot;
 
 /**
  * @author Alexandre Oliveira
@@ -48,6 +49,8 @@ public class ShSitesContextURLProcess {
 	private ShFolderUtils shFolderUtils;
 	@Autowired
 	private ShSitesContextURLProcessCache shSitesContextURLProcessCache;
+	@Autowired
+	private ShCacheSiteSnapshot shCacheSiteSnapshot;
 
 	private static final String SITE_HEADER = "x-sh-site";
 	private static final String NO_CACHE_HEADER = "x-sh-nocache";
@@ -130,6 +133,11 @@ public class ShSitesContextURLProcess {
 			}
 		}
 
+		if (shCacheSiteSnapshot.isEnabled()) {
+			this.detectObjectFromSnapshot(shSiteName, shSitesContextURL);
+			return;
+		}
+
 		ShSite shSite = shSiteRepository.findByFurl(shSiteName);
 		shSitesContextURL.getInfo().setSiteId(shSite.getId());
 
@@ -153,6 +161,25 @@ public class ShSitesContextURLProcess {
 
 	}
 
+	private void detectObjectFromSnapshot(String shSiteName, ShSitesContextURL shSitesContextURL) {
+		String siteId = shCacheSiteSnapshot.siteId(shSiteName);
+		shSitesContextURL.getInfo().setSiteId(siteId);
+
+		List<String> contentPath = shSitesContextComponent
+				.contentPathFactory(shSitesContextURL.getInfo().getContextURL());
+
+		String objectName = shSitesContextComponent.objectNameFactory(contentPath);
+
+		String folderId = shCacheSiteSnapshot.folderId(siteId, shSitesContextComponent.folderPathFactory(contentPath));
+		if (folderId != null) {
+			shSitesContextURL.getInfo().setParentFolderId(folderId);
+		} else {
+			logger.info("No folder for " + shSitesContextURL.getInfo().getContextURL());
+		}
+
+		shSitesContextURL.getInfo().setObjectId(shCacheSiteSnapshot.objectId(siteId, folderId, objectName));
+	}
+
 	public ShSiteRepository getShSiteRepository() {
 		return shSiteRepository;
 	}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Copy of request data, used to render a page on render executor. Servlet
+ * container recycles the request when its response is done, so the render
+ * can't read the original request after that.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+public class ShSitesRequest extends HttpServletRequestWrapper {
+	private final Map<String, String[]> parameters;
+	private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+	private final String method;
+	private final String requestURI;
+	private final String requestURL;
+	private final String queryString;
+	private final String contextPath;
+	private final String servletPath;
+	private final String pathInfo;
+	private final Cookie[] cookies;
+	private final String remoteAddr;
+	private final String remoteHost;
+	private final String remoteUser;
+	private final Principal userPrincipal;
+	private final String serverName;
+	private final int serverPort;
+	private final String scheme;
+	private final boolean secure;
+	private final Locale locale;
+	private final List<Locale> locales;
+	private final String characterEncoding;
+	private final HttpSession session;
+
+	public ShSitesRequest(HttpServletRequest request) {
+		super(request);
+		parameters = Collections.unmodifiableMap(new LinkedHashMap<>(request.getParameterMap()));
+		for (String name : Collections.list(request.getHeaderNames()))
+			headers.put(name, Collections.list(request.getHeaders(name)));
+		for (String name : Collections.list(request.getAttributeNames())) {
+			Object value = request.getAttribute(name);
+			if (value != null)
+				attributes.put(name, value);
+		}
+		method = request.getMethod();
+		requestURI = request.getRequestURI();
+		requestURL = request.getRequestURL().toString();
+		queryString = request.getQueryString();
+		contextPath = request.getContextPath();
+		servletPath = request.getServletPath();
+		pathInfo = request.getPathInfo();
+		cookies = request.getCookies();
+		remoteAddr = request.getRemoteAddr();
+		remoteHost = request.getRemoteHost();
+		remoteUser = request.getRemoteUser();
+		userPrincipal = request.getUserPrincipal();
+		serverName = request.getServerName();
+		serverPort = request.getServerPort();
+		scheme = request.getScheme();
+		secure = request.isSecure();
+		locale = request.getLocale();
+		locales = Collections.list(request.getLocales());
+		characterEncoding = request.getCharacterEncoding();
+		session = request.getSession(false);
+	}
+
+	@Override
+	public String getParameter(String name) {
+		String[] values = parameters.get(name);
+		return values != null && values.length > 0 ? values[0] : null;
+	}
+
+	@Override
+	public Map<String, String[]> getParameterMap() {
+		return parameters;
+	}
+
+	@Override
+	public Enumeration<String> getParameterNames() {
+		return Collections.enumeration(parameters.keySet());
+	}
+
+	@Override
+	public String[] getParameterValues(String name) {
+		return parameters.get(name);
+	}
+
+	@Override
+	public String getHeader(String name) {
+		List<String> values = headers.get(name);
+		return values != null && !values.isEmpty() ? values.get(0) : null;
+	}
+
+	@Override
+	public Enumeration<String> getHeaders(String name) {
+		return Collections.enumeration(headers.getOrDefault(name, Collections.emptyList()));
+	}
+
+	@Override
+	public Enumeration<String> getHeaderNames() {
+		return Collections.enumeration(new ArrayList<>(headers.keySet()));
+	}
+
+	@Override
+	public int getIntHeader(String name) {
+		String value = this.getHeader(name);
+		return value != null ? Integer.parseInt(value) : -1;
+	}
+
+	@Override
+	public Object getAttribute(String name) {
+		return attributes.get(name);
+	}
+
+	@Override
+	public Enumeration<String> getAttributeNames() {
+		return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+	}
+
+	@Override
+	public void setAttribute(String name, Object value) {
+		if (value != null)
+			attributes.put(name, value);
+		else
+			attributes.remove(name);
+	}
+
+	@Override
+	public void removeAttribute(String name) {
+		attributes.remove(name);
+	}
+
+	@Override
+	public String getMethod() {
+		return method;
+	}
+
+	@Override
+	public String getRequestURI() {
+		return requestURI;
+	}
+
+	@Override
+	public StringBuffer getRequestURL() {
+		return new StringBuffer(requestURL);
+	}
+
+	@Override
+	public String getQueryString() {
+		return queryString;
+	}
+
+	@Override
+	public String getContextPath() {
+		return contextPath;
+	}
+
+	@Override
+	public String getServletPath() {
+		return servletPath;
+	}
+
+	@Override
+	public String getPathInfo() {
+		return pathInfo;
+	}
+
+	@Override
+	public Cookie[] getCookies() {
+		return cookies;
+	}
+
+	@Override
+	public String getRemoteAddr() {
+		return remoteAddr;
+	}
+
+	@Override
+	public String getRemoteHost() {
+		return remoteHost;
+	}
+
+	@Override
+	public String getRemoteUser() {
+		return remoteUser;
+	}
+
+	@Override
+	public Principal getUserPrincipal() {
+		return userPrincipal;
+	}
+
+	@Override
+	public String getServerName() {
+		return serverName;
+	}
+
+	@Override
+	public int getServerPort() {
+		return serverPort;
+	}
+
+	@Override
+	public String getScheme() {
+		return scheme;
+	}
+
+	@Override
+	public boolean isSecure() {
+		return secure;
+	}
+
+	@Override
+	public Locale getLocale() {
+		return locale;
+	}
+
+	@Override
+	public Enumeration<Locale> getLocales() {
+		return Collections.enumeration(locales);
+	}
+
+	@Override
+	public String getCharacterEncoding() {
+		return characterEncoding;
+	}
+
+	/**
+	 * Session of request, a new session can't be created while rendering.
+	 */
+	@Override
+	public HttpSession getSession(boolean create) {
+		return session;
+	}
+
+	@Override
+	public HttpSession getSession() {
+		return session;
+	}
+}
@@ -48,9 +48,13 @@ public class ShCacheJavascript {
 		try (InputStream isrObjectJS = resourceloader.getResource("classpath:/js/server-side/shObject.js")
 				.getInputStream();
 				InputStream isrHandlebars = resourceloader.getResource("classpath:/js/server-side/handlebars.min.js")
+						.getInputStream();
+				InputStream isrTemplate = resourceloader.getResource("classpath:/js/server-side/shTemplate.js")
 						.getInputStream();) {
 			shObjectJS.append(IOUtils.toString(isrObjectJS, StandardCharsets.UTF_8.name()));
 			shObjectJS.append(IOUtils.toString(isrHandlebars, StandardCharsets.UTF_8.name()));
+			shObjectJS.append(System.lineSeparator());
+			shObjectJS.append(IOUtils.toString(isrTemplate, StandardCharsets.UTF_8.name()));
 		} catch (IOException e) {
 			logger.error(e);
 		}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.viglet.shio.bean.ShNavigationItem;
+import com.viglet.shio.persistence.model.folder.ShFolder;
+import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
+import com.viglet.shio.persistence.model.site.ShSite;
+import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
+import com.viglet.shio.persistence.repository.site.ShSiteRepository;
+import com.viglet.shio.utils.ShObjectUtils;
+import com.viglet.shio.utils.ShTransactionUtils;
+import com.viglet.shio.website.utils.ShSitesFolderUtils;
+import com.viglet.shio.website.utils.ShSitesObjectUtils;
+
+/**
+ * Navigation Trees of sites, kept in memory and built from Home Folder with
+ * visibility and links. Trees of a site are removed when its folders or index
+ * posts change, now and again after the commit, so a render running during
+ * the change doesn't keep the old tree.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShCacheNavigation {
+	private static final Log logger = LogFactory.getLog(ShCacheNavigation.class);
+	private static final String HOME = "Home";
+	@Autowired
+	private ShSiteRepository shSiteRepository;
+	@Autowired
+	private ShFolderRepository shFolderRepository;
+	@Autowired
+	private ShSitesObjectUtils shSitesObjectUtils;
+	@Autowired
+	private ShSitesFolderUtils shSitesFolderUtils;
+	@Autowired
+	private ShObjectUtils shObjectUtils;
+
+	private final Map<String, ShSiteNavigation> navigationBySiteId = new ConcurrentHashMap<>();
+	private final Map<String, String> siteIdByName = new ConcurrentHashMap<>();
+	private final Map<String, String> siteIdByFolderId = new ConcurrentHashMap<>();
+
+	public ShNavigationItem home(String siteName) {
+		String siteId = siteIdByName.get(siteName);
+		ShSiteNavigation shSiteNavigation = siteId != null ? navigationBySiteId.get(siteId) : null;
+		if (shSiteNavigation != null && shSiteNavigation.home != null)
+			return shSiteNavigation.home;
+
+		ShSite shSite = shSiteRepository.findByName(siteName);
+		if (shSite == null)
+			return null;
+		ShFolder homeFolder = shFolderRepository.findByShSiteAndName(shSite, HOME);
+		if (homeFolder == null)
+			return null;
+		shSiteNavigation = navigationBySiteId.computeIfAbsent(shSite.getId(), key -> new ShSiteNavigation());
+		ShNavigationItem shNavigationItem = this.build(homeFolder, shSite.getId(), shSiteNavigation);
+		if (this.isCurrent(shSite.getId(), shSiteNavigation)) {
+			shSiteNavigation.home = shNavigationItem;
+			siteIdByName.put(siteName, shSite.getId());
+		}
+		return shNavigationItem;
+	}
+
+	public ShNavigationItem folder(String folderId) {
+		String siteId = siteIdByFolderId.get(folderId);
+		ShSiteNavigation shSiteNavigation = siteId != null ? navigationBySiteId.get(siteId) : null;
+		ShNavigationItem shNavigationItem = shSiteNavigation != null ? shSiteNavigation.items.get(folderId) : null;
+		if (shNavigationItem != null)
+			return shNavigationItem;
+
+		ShFolder shFolder = shFolderRepository.findById(folderId).orElse(null);
+		if (shFolder == null)
+			return null;
+		ShSite shSite = shObjectUtils.getSite(shFolder);
+		if (shSite == null)
+			return this.build(shFolder, null, new ShSiteNavigation());
+		shSiteNavigation = navigationBySiteId.computeIfAbsent(shSite.getId(), key -> new ShSiteNavigation());
+		return this.build(shFolder, shSite.getId(), shSiteNavigation);
+	}
+
+	private ShNavigationItem build(ShFolder shFolder, String siteId, ShSiteNavigation shSiteNavigation) {
+		if (logger.isDebugEnabled())
+			logger.debug("Creating the navigation Cache of folder " + shFolder.getId());
+		ShNavigationItem shNavigationItem = new ShNavigationItem();
+		shNavigationItem.setShFolder(shFolder);
+		shNavigationItem.setLink(shSitesFolderUtils.generateFolderLink(shFolder));
+		shNavigationItem.setVisible(shSitesObjectUtils.isVisiblePage(shFolder));
+
+		shFolderRepository.findByParentFolderOrderByPositionAsc(shFolder).forEach(shChildFolder -> shNavigationItem
+				.getChildren().add(this.build(shChildFolder, siteId, shSiteNavigation)));
+
+		if (siteId != null && this.isCurrent(siteId, shSiteNavigation)) {
+			shSiteNavigation.items.put(shFolder.getId(), shNavigationItem);
+			siteIdByFolderId.put(shFolder.getId(), siteId);
+		}
+		return shNavigationItem;
+	}
+
+	/**
+	 * A tree built while its site was removed is not kept.
+	 */
+	private boolean isCurrent(String siteId, ShSiteNavigation shSiteNavigation) {
+		return navigationBySiteId.get(siteId) == shSiteNavigation;
+	}
+
+	/**
+	 * Remove the trees of the site of a changed post, folder or site.
+	 * 
+	 * @param shObject changed object
+	 */
+	public void deleteCache(ShObjectImpl shObject) {
+		ShSite shSite = shObject instanceof ShSite ? (ShSite) shObject
+				: shObject != null ? shObjectUtils.getSite(shObject) : null;
+		if (shSite != null)
+			this.deleteCache(shSite.getId());
+		else
+			this.deleteCache();
+	}
+
+	public void deleteCache(String siteId) {
+		ShTransactionUtils.nowAndAfterCommit(() -> {
+			if (logger.isDebugEnabled())
+				logger.debug("Deleting the navigation Cache of site " + siteId);
+			ShSiteNavigation shSiteNavigation = navigationBySiteId.remove(siteId);
+			siteIdByName.values().remove(siteId);
+			if (shSiteNavigation != null)
+				shSiteNavigation.items.keySet().forEach(siteIdByFolderId::remove);
+		});
+	}
+
+	public void deleteCache() {
+		ShTransactionUtils.nowAndAfterCommit(() -> {
+			if (logger.isDebugEnabled())
+				logger.debug("Deleting the navigation Cache");
+			navigationBySiteId.clear();
+			siteIdByName.clear();
+			siteIdByFolderId.clear();
+		});
+	}
+
+	private static class ShSiteNavigation {
+		private volatile ShNavigationItem home;
+		private final Map<String, ShNavigationItem> items = new ConcurrentHashMap<>();
+	}
+}
@@ -17,22 +17,32 @@
 package com.viglet.shio.website.cache.component;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Lists;
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
 import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.site.ShSite;
 import com.viglet.shio.persistence.repository.object.ShObjectRepository;
 import com.viglet.shio.persistence.repository.post.ShPostRepository;
 import com.viglet.shio.utils.ShFolderUtils;
+import com.viglet.shio.utils.ShTransactionUtils;
 import com.viglet.shio.website.ShSitesContextURL;
 import com.viglet.shio.website.utils.ShSitesObjectUtils;
 
@@ -42,6 +52,10 @@ import com.viglet.shio.website.utils.ShSitesObjectUtils;
 @Component
 public class ShCacheObject {
 	private static final Log logger = LogFactory.getLog(ShCacheObject.class);
+	private static final String SH_OBJECT = "shObject";
+	private static final int BATCH_SIZE = 500;
+	@Autowired
+	CacheManager cacheManager;
 	@Autowired
 	ShCachePage shCachePage;
 	@Autowired
@@ -54,15 +68,25 @@ public class ShCacheObject {
 	ShFolderUtils shFolderUtils;
 	@Autowired
 	ShSitesObjectUtils shSitesObjectUtils;
+	@Autowired
+	ShCacheNavigation shCacheNavigation;
+	@Autowired
+	ShCacheQuery shCacheQuery;
+	@Autowired
+	ShCacheObjectLink shCacheObjectLink;
+	@Autowired
+	ShCacheSiteLayout shCacheSiteLayout;
+	@Autowired
+	ShCacheSiteSnapshot shCacheSiteSnapshot;
 
-	@Cacheable(value = "shObject", key = "#id", sync = true)
+	@Cacheable(value = SH_OBJECT, key = "#id", sync = true)
 	public List<String> cache(String id) {
 		if (logger.isDebugEnabled())
 			logger.debug("Creating the shObject Cache id " + id);
 		return new ArrayList<>();
 	}
 
-	@CachePut(value = "shObject", key = "#id")
+	@CachePut(value = SH_OBJECT, key = "#id")
 	public List<String> updateCache(String id, ShSitesContextURL shSitesContextURL) {
 		List<String> urls = this.cache(id);
 		if (!urls.contains(shSitesContextURL.getInfo().getContextURLOriginal())) {
@@ -75,53 +99,209 @@ public class ShCacheObject {
 
 	public void deleteCache(String id) {
 		ShObjectImpl shObject = shObjectRepository.findById(id).orElse(null);
+		shCacheSiteSnapshot.publish(shObject);
+		this.deleteCache(id, shObject);
+	}
+
+	private void deleteCache(String id, ShObjectImpl shObject) {
+		shCacheNavigation.deleteCache(shObject);
 		String objectId = id;
 		if (shObject instanceof ShFolder) {
+			shCacheQuery.deleteCache(ShCacheQuery.folder(id));
 			ShPost shFolderIndex = shPostRepository.findByShFolderAndFurl((ShFolder) shObject, "index");
 			if (shFolderIndex != null) {
 				objectId = shFolderIndex.getId();
 			}
 		} else if (shObject instanceof ShPost) {
+			shCacheQuery.deleteCache((ShPost) shObject);
+			shCacheSiteLayout.deleteCache((ShPost) shObject);
 			ShFolder shFolder = shFolderUtils.getParentFolder(shObject);
-			this.deleteCache(shFolder.getId());
+			this.deleteCache(shFolder.getId(), shFolder);
 		}
 
 		this.deleteDependency(objectId);
 		this.deleteCacheSelf(objectId);
+		shCacheObjectLink.deleteCache(shObject);
 
 	}
 
-	public void deleteDependency(String id) {
-		if (logger.isDebugEnabled())
-			logger.debug("Executing deleteDependency for id: " + id);
-		List<String> urls = this.cache(id);
-		for (String url : urls) {
-			if (logger.isDebugEnabled())
-				logger.debug("Deleting the page with id: " + id + " and URL: " + url);
-			shCachePage.deleteCache(id, url);
+	/**
+	 * Remove the caches of a new post or folder, in one place for APIs and
+	 * imports. Each cache removes its entries again after commit.
+	 * 
+	 * @param shObject new post or folder, already saved
+	 * @since 0.3.7
+	 */
+	public void created(ShObjectImpl shObject) {
+		shCacheNavigation.deleteCache(shObject);
+		shCacheObjectLink.deleteCache(shObject.getId());
+		if (shObject instanceof ShPost) {
+			shCacheQuery.deleteCache((ShPost) shObject);
+			shCacheSiteLayout.deleteCache((ShPost) shObject);
+		}
+		shCacheSiteSnapshot.publish(shObject);
+	}
+
+	/**
+	 * Remove the caches of a renamed or moved folder.
+	 * 
+	 * @param shFolder changed folder
+	 * @param shSite   site of the folder before the change
+	 * @since 0.3.7
+	 */
+	public void updated(ShFolder shFolder, ShSite shSite) {
+		if (shSite != null)
+			shCacheNavigation.deleteCache(shSite.getId());
+		shCacheNavigation.deleteCache(shFolder);
+		shCacheObjectLink.deleteCache(shSite);
+		shCacheSiteSnapshot.publish(shFolder);
+	}
+
+	/**
+	 * Remove the caches of a deleted folder. Queries and layouts are removed for
+	 * all sites, as the posts below it are deleted too.
+	 * 
+	 * @param shFolder deleted folder
+	 * @param shSite   site of the folder
+	 * @since 0.3.7
+	 */
+	public void deleted(ShFolder shFolder, ShSite shSite) {
+		if (shSite != null)
+			shCacheNavigation.deleteCache(shSite.getId());
+		else
+			shCacheNavigation.deleteCache();
+		shCacheQuery.deleteCache();
+		shCacheObjectLink.deleteCache(shSite);
+		shCacheSiteLayout.deleteCache();
+		shCacheSiteSnapshot.publish(shFolder);
+	}
+
+	/**
+	 * Remove the caches of a changed or imported site.
+	 * 
+	 * @param shSite changed site
+	 * @since 0.3.7
+	 */
+	public void updated(ShSite shSite) {
+		shCacheNavigation.deleteCache(shSite.getId());
+		shCacheObjectLink.deleteCache(shSite);
+		shCacheSiteLayout.deleteCache(shSite.getId());
+		shCacheSiteSnapshot.deleteCache(shSite.getId());
+	}
 
-			ShObjectImpl shObject = shObjectRepository.findById(id).orElse(null);
-			String contextURL = null;
-			if (shObject instanceof ShPost && shObject.getFurl().equals("index")) {
-				ShFolder shFolder = shFolderUtils.getParentFolder(shObject);
-				contextURL = shSitesObjectUtils.generateObjectLinkById(shFolder.getId());
-			} else {
-				contextURL = shSitesObjectUtils.generateObjectLinkById(id);
+	/**
+	 * Remove the caches of a deleted site.
+	 * 
+	 * @param shSite deleted site
+	 * @since 0.3.7
+	 */
+	public void deleted(ShSite shSite) {
+		this.updated(shSite);
+		shCacheQuery.deleteCache();
+	}
+
+	/**
+	 * Delete cache of many objects at once, for example all objects below a
+	 * moved folder. Must be called before the change, while old URLs are still
+	 * generated. Pages and URLs of the old locations are deleted again after
+	 * commit, as a render during the transaction can cache them again.
+	 * 
+	 * @param ids object ids
+	 * @since 0.3.7
+	 */
+	public void deleteCache(Collection<String> ids) {
+		shCacheQuery.deleteCache();
+		Set<String> objectIds = new HashSet<>(ids);
+		Map<String, ShSite> shSites = new HashMap<>();
+		Set<String> navigationSiteIds = new HashSet<>();
+		for (List<String> batch : Lists.partition(new ArrayList<>(ids), BATCH_SIZE)) {
+			List<ShFolder> shFolders = new ArrayList<>();
+			shObjectRepository.findAllById(batch).forEach(shObject -> {
+				shCacheSiteSnapshot.publish(shObject);
+				if (shObject instanceof ShFolder) {
+					shFolders.add((ShFolder) shObject);
+				} else if (shObject instanceof ShPost) {
+					shCacheObjectLink.deleteCache(shObject);
+					shCacheSiteLayout.deleteCache((ShPost) shObject);
+					ShSite shSite = ((ShPost) shObject).getShSite();
+					navigationSiteIds.add(shSite != null ? shSite.getId() : null);
+				} else if (shObject instanceof ShSite) {
+					navigationSiteIds.add(shObject.getId());
+				}
+			});
+			shFolders.forEach(shFolder -> {
+				ShSite shSite = shFolderUtils.getSite(shFolder);
+				shSites.put(shSite != null ? shSite.getId() : null, shSite);
+			});
+			if (!shFolders.isEmpty())
+				shPostRepository.findByShFolderInAndFurl(shFolders, "index")
+						.forEach(shFolderIndex -> objectIds.add(shFolderIndex.getId()));
+		}
+		shSites.values().forEach(shCacheObjectLink::deleteCache);
+		navigationSiteIds.addAll(shSites.keySet());
+		// Sites not found, like of a folder without site, remove all trees
+		if (navigationSiteIds.contains(null))
+			shCacheNavigation.deleteCache();
+		else
+			navigationSiteIds.forEach(shCacheNavigation::deleteCache);
+
+		Cache cache = cacheManager.getCache(SH_OBJECT);
+		if (cache != null) {
+			Map<String, Map<String, String>> pages = new HashMap<>();
+			for (String objectId : objectIds) {
+				@SuppressWarnings("unchecked")
+				List<String> urls = cache.get(objectId, List.class);
+				if (urls != null)
+					pages.put(objectId, this.contextURLs(objectId, urls));
 			}
+			ShTransactionUtils.nowAndAfterCommit(() -> pages.forEach((objectId, contextURLs) -> {
+				this.deletePages(objectId, contextURLs);
+				cache.evict(objectId);
+			}));
+		}
+	}
 
+	public void deleteDependency(String id) {
+		this.deletePages(id, this.contextURLs(id, this.cache(id)));
+	}
+
+	/**
+	 * Context URL of each cached URL of an object, generated from its current
+	 * location.
+	 */
+	private Map<String, String> contextURLs(String id, List<String> urls) {
+		Map<String, String> contextURLs = new HashMap<>();
+		if (urls.isEmpty())
+			return contextURLs;
+		ShObjectImpl shObject = shObjectRepository.findById(id).orElse(null);
+		String contextURL = null;
+		if (shObject instanceof ShPost && shObject.getFurl().equals("index")) {
+			ShFolder shFolder = shFolderUtils.getParentFolder(shObject);
+			contextURL = shSitesObjectUtils.generateObjectLinkById(shFolder.getId());
+		} else {
+			contextURL = shSitesObjectUtils.generateObjectLinkById(id);
+		}
+		for (String url : urls) {
 			/**
 			 * If the URL doesn't end with slash,remove the slash of contextURL
 			 */
-			if (!url.endsWith("/"))
-				contextURL = contextURL.trim().replaceFirst(".$", "");
-
-			shCacheURL.deleteCache(contextURL, url);
-
+			contextURLs.put(url, url.endsWith("/") ? contextURL : contextURL.trim().replaceFirst(".$", ""));
 		}
+		return contextURLs;
+	}
 
+	private void deletePages(String id, Map<String, String> contextURLs) {
+		if (logger.isDebugEnabled())
+			logger.debug("Executing deleteDependency for id: " + id);
+		contextURLs.forEach((url, contextURL) -> {
+			if (logger.isDebugEnabled())
+				logger.debug("Deleting the page with id: " + id + " and URL: " + url);
+			shCachePage.deleteCache(id, url);
+			shCacheURL.deleteCache(contextURL, url);
+		});
 	}
 
-	@CacheEvict(value = "shObject", key = "#id")
+	@CacheEvict(value = SH_OBJECT, key = "#id")
 	public void deleteCacheSelf(String id) {
 		if (logger.isDebugEnabled())
 			logger.debug("Deleted Cache: ".concat(id));
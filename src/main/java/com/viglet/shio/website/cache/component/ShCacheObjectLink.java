@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+import com.viglet.shio.persistence.model.folder.ShFolder;
+import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.site.ShSite;
+import com.viglet.shio.persistence.repository.object.ShObjectRepository;
+import com.viglet.shio.property.ShWebsiteProperties;
+import com.viglet.shio.utils.ShObjectUtils;
+import com.viglet.shio.utils.ShTransactionUtils;
+import com.viglet.shio.website.utils.ShSitesFolderUtils;
+import com.viglet.shio.website.utils.ShSitesPostUtils;
+
+/**
+ * Links of posts and folders, kept in memory by object id. A change of a post
+ * removes only its link, a change of a folder or site removes all links of
+ * the site, because the links below it depend on the folder path.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShCacheObjectLink {
+	private static final Log logger = LogFactory.getLog(ShCacheObjectLink.class);
+	private static final int BATCH_SIZE = 500;
+	@Autowired
+	private ShWebsiteProperties shWebsiteProperties;
+	@Autowired
+	private ShObjectRepository shObjectRepository;
+	@Autowired
+	private ShObjectUtils shObjectUtils;
+	@Autowired
+	private ShSitesPostUtils shSitesPostUtils;
+	@Autowired
+	private ShSitesFolderUtils shSitesFolderUtils;
+
+	private Map<String, ShObjectLink> links;
+	private final AtomicLong generation = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		int linkCacheSize = shWebsiteProperties.getLinkCacheSize();
+		links = Collections.synchronizedMap(new LinkedHashMap<String, ShObjectLink>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ShObjectLink> eldest) {
+				return size() > linkCacheSize;
+			}
+		});
+	}
+
+	public ShObjectLink get(String objectId) {
+		return this.get(Collections.singletonList(objectId)).get(objectId);
+	}
+
+	/**
+	 * Links of many objects, the objects that are not cached are read together.
+	 * 
+	 * @param objectIds post and folder ids
+	 * @return links by object id, in the same order, without the objects that
+	 *         were not found
+	 */
+	public Map<String, ShObjectLink> get(Collection<String> objectIds) {
+		Map<String, ShObjectLink> found = new HashMap<>();
+		List<String> missing = new ArrayList<>();
+		for (String objectId : objectIds) {
+			ShObjectLink shObjectLink = links.get(objectId);
+			if (shObjectLink != null)
+				found.put(objectId, shObjectLink);
+			else if (objectId != null)
+				missing.add(objectId);
+		}
+		if (!missing.isEmpty()) {
+			long currentGeneration = generation.get();
+			for (List<String> batch : Lists.partition(missing, BATCH_SIZE)) {
+				shObjectRepository.findAllById(batch).forEach(shObject -> {
+					ShObjectLink shObjectLink = this.create(shObject);
+					if (shObjectLink != null) {
+						found.put(shObject.getId(), shObjectLink);
+						if (currentGeneration == generation.get())
+							links.put(shObject.getId(), shObjectLink);
+					}
+				});
+			}
+		}
+		Map<String, ShObjectLink> result = new LinkedHashMap<>();
+		for (String objectId : objectIds) {
+			if (found.containsKey(objectId))
+				result.put(objectId, found.get(objectId));
+		}
+		return result;
+	}
+
+	private ShObjectLink create(ShObjectImpl shObject) {
+		String link;
+		if (shObject instanceof ShPost)
+			link = shSitesPostUtils.generatePostLink((ShPost) shObject);
+		else if (shObject instanceof ShFolder)
+			link = shSitesFolderUtils.generateFolderLink((ShFolder) shObject);
+		else
+			return null;
+		if (logger.isDebugEnabled())
+			logger.debug(String.format("Creating the link Cache of %s: %s", shObject.getId(), link));
+		ShSite shSite = shObjectUtils.getSite(shObject);
+		return new ShObjectLink(shSite != null ? shSite.getId() : null, link, shObject instanceof ShPost);
+	}
+
+	/**
+	 * Remove the links changed by an object. It is removed now and again after
+	 * the commit, because the change can be called before the object is saved.
+	 * 
+	 * @param shObject changed post, folder or site
+	 */
+	public void deleteCache(ShObjectImpl shObject) {
+		if (shObject instanceof ShPost) {
+			this.deleteCache(shObject.getId());
+		} else if (shObject instanceof ShSite) {
+			this.deleteCache((ShSite) shObject);
+		} else if (shObject instanceof ShFolder) {
+			this.deleteCache(shObjectUtils.getSite(shObject));
+		}
+	}
+
+	/**
+	 * Remove only the link of an object, for objects whose children are also
+	 * changed one by one, like in imports.
+	 * 
+	 * @param objectId post or folder id
+	 */
+	public void deleteCache(String objectId) {
+		ShTransactionUtils.nowAndAfterCommit(() -> {
+			generation.incrementAndGet();
+			links.remove(objectId);
+		});
+	}
+
+	public void deleteCache(ShSite shSite) {
+		if (shSite == null) {
+			this.deleteCache();
+			return;
+		}
+		String siteId = shSite.getId();
+		ShTransactionUtils.nowAndAfterCommit(() -> {
+			if (logger.isDebugEnabled())
+				logger.debug("Deleting the link Cache of site " + siteId);
+			generation.incrementAndGet();
+			synchronized (links) {
+				links.values().removeIf(shObjectLink -> siteId.equals(shObjectLink.getSiteId()));
+			}
+		});
+	}
+
+	public void deleteCache() {
+		ShTransactionUtils.nowAndAfterCommit(() -> {
+			if (logger.isDebugEnabled())
+				logger.debug("Deleting the link Cache");
+			generation.incrementAndGet();
+			links.clear();
+		});
+	}
+
+	public static class ShObjectLink {
+		private final String siteId;
+		private final String link;
+		private final boolean post;
+
+		public ShObjectLink(String siteId, String link, boolean post) {
+			this.siteId = siteId;
+			this.link = link;
+			this.post = post;
+		}
+
+		public String getSiteId() {
+			return siteId;
+		}
+
+		public String getLink() {
+			return link;
+		}
+
+		public boolean isPost() {
+			return post;
+		}
+	}
+}
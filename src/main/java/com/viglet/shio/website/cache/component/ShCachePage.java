@@ -16,6 +16,7 @@
  */
 package com.viglet.shio.website.cache.component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
@@ -23,10 +24,13 @@ import java.util.Map;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
 
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
@@ -60,8 +64,14 @@ public class ShCachePage {
 	private ShCacheObject shCacheObject;
 	@Autowired
 	private ShSitesPostUtils shSitesPostUtils;
+	@Autowired
+	private CacheManager cacheManager;
+	@Autowired
+	private ShCachePageKeyGenerator shCachePageKeyGenerator;
+
+	private static final String PAGE = "page";
 
-	@Cacheable(value = "page", key = "{#shSitesContextURL.getInfo().getObjectId(), #shSitesContextURL.getInfo().getContextURLOriginal()}", sync = true)
+	@Cacheable(value = "page", keyGenerator = "shCachePageKeyGenerator", sync = true)
 	public ShCachePageBean cache(ShSitesContextURL shSitesContextURL) {
 
 		ShCachePageBean shCachePageBean = new ShCachePageBean();
@@ -145,6 +155,7 @@ public class ShCachePage {
 			Calendar expirationDate = Calendar.getInstance();
 			expirationDate.add(Calendar.MINUTE, shSitesPageLayout.getCacheTTL());
 			shCachePageBean.setExpirationDate(expirationDate.getTime());
+			shCachePageBean.setCacheTTL(shSitesPageLayout.getCacheTTL());
 		}
 	}
 
@@ -157,6 +168,7 @@ public class ShCachePage {
 			Calendar expirationDate = Calendar.getInstance();
 			expirationDate.add(Calendar.MINUTE, minutes);
 			shCachePageBean.setExpirationDate(expirationDate.getTime());
+			shCachePageBean.setCacheTTL(minutes);
 		}
 	}
 
@@ -178,6 +190,8 @@ public class ShCachePage {
 			logger.error("ShCachePage Error:", e);
 		}
 		shCachePageBean.setBody(shPageLayoutHTML);
+		if (shPageLayoutHTML != null)
+			shCachePageBean.setEtag(DigestUtils.md5DigestAsHex(shPageLayoutHTML.getBytes(StandardCharsets.UTF_8)));
 	}
 
 	private void setContentType(ShCachePageBean shCachePageBean, String mimeType) {
@@ -189,7 +203,21 @@ public class ShCachePage {
 			shCachePageBean.setContentType(MediaType.TEXT_HTML_VALUE);
 	}
 
-	@CacheEvict(value = "page", key = "{#id, #url}")
+	/**
+	 * Return the cached page without rendering it, or null when the page is not
+	 * in cache.
+	 * 
+	 * @param shSitesContextURL context of request
+	 * @return cached page or null
+	 * @since 0.3.7
+	 */
+	public ShCachePageBean peek(ShSitesContextURL shSitesContextURL) {
+		Cache cache = cacheManager.getCache(PAGE);
+		return cache != null ? cache.get(shCachePageKeyGenerator.key(shSitesContextURL), ShCachePageBean.class)
+				: null;
+	}
+
+	@CacheEvict(value = "page", keyGenerator = "shCachePageKeyGenerator")
 	public void deleteCache(String id, String url) {
 		if (logger.isDebugEnabled())
 			logger.debug(String.format("Deleted cache of id %s, %s", id, url));
@@ -28,6 +28,8 @@ public class ShCachePageBean implements Serializable {
 	private String body;
 	private String contentType;
 	private Date expirationDate;
+	private Integer cacheTTL;
+	private String etag;
 
 	public String getBody() {
 		return body;
@@ -52,4 +54,28 @@ public class ShCachePageBean implements Serializable {
 	public void setExpirationDate(Date expirationDate) {
 		this.expirationDate = expirationDate;
 	}
+
+	/**
+	 * @return CACHE_TTL of page in minutes, or null when it doesn't expire
+	 * @since 0.3.7
+	 */
+	public Integer getCacheTTL() {
+		return cacheTTL;
+	}
+
+	public void setCacheTTL(Integer cacheTTL) {
+		this.cacheTTL = cacheTTL;
+	}
+
+	/**
+	 * @return hash of body, computed when the page is cached
+	 * @since 0.3.7
+	 */
+	public String getEtag() {
+		return etag;
+	}
+
+	public void setEtag(String etag) {
+		this.etag = etag;
+	}
 }
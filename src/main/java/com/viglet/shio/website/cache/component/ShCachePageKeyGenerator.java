@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import com.viglet.shio.website.ShSitesContextURL;
+
+/**
+ * Key of page cache, from object id and original URL. Used by cache, peek and
+ * deleteCache of ShCachePage, so they always find the same entry.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShCachePageKeyGenerator implements KeyGenerator {
+
+	@Override
+	public Object generate(Object target, Method method, Object... params) {
+		if (params.length == 1 && params[0] instanceof ShSitesContextURL)
+			return this.key((ShSitesContextURL) params[0]);
+		if (params.length == 2)
+			return this.key((String) params[0], (String) params[1]);
+		throw new IllegalArgumentException(
+				String.format("Page cache key can't be created from parameters of %s", method.getName()));
+	}
+
+	public Object key(ShSitesContextURL shSitesContextURL) {
+		return this.key(shSitesContextURL.getInfo().getObjectId(), shSitesContextURL.getInfo().getContextURLOriginal());
+	}
+
+	public Object key(String id, String url) {
+		return new ArrayList<>(Arrays.asList(id, url));
+	}
+}
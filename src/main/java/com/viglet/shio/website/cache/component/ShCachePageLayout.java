@@ -50,6 +50,7 @@ public class ShCachePageLayout {
 			try {
 				Object renderPageLayout = shNashornEngineProcess.render(
 						String.format("Page Layout: %s", shSitesPageLayout.getId()),
+						shSite.getId(),
 						shSitesPageLayout.getJavascriptCode(), shSitesPageLayout.getHTML(), request,
 						shSitesPageLayout.getShContent());
 				if (renderPageLayout != null) {
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.viglet.shio.persistence.model.post.ShPostAttr;
+import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
+import com.viglet.shio.property.ShWebsiteProperties;
+import com.viglet.shio.utils.ShTransactionUtils;
+
+/**
+ * Results of Query Component, kept in memory by query and stage. Each result
+ * depends on folders and post types, writes to them remove the result now and
+ * again after commit, and the other members of the cluster remove it by a
+ * Hazelcast topic. A result older than shio.website.query-cache-ttl seconds is
+ * read again, so a lost message only leaves a member stale until then.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShCacheQuery {
+	private static final Log logger = LogFactory.getLog(ShCacheQuery.class);
+	private static final String FOLDER = "folder:";
+	private static final String POST_TYPE = "postType:";
+	private static final String ALL = "*";
+	private static final String TOPIC = "shCacheQuery";
+	@Autowired
+	private ShWebsiteProperties shWebsiteProperties;
+	@Autowired(required = false)
+	private HazelcastInstance hazelcastInstance;
+
+	private ITopic<String> topic;
+
+	private Map<String, ShQueryResult> results;
+	private final Map<String, Set<String>> keysByDependency = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		int queryCacheSize = shWebsiteProperties.getQueryCacheSize();
+		results = Collections.synchronizedMap(new LinkedHashMap<String, ShQueryResult>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ShQueryResult> eldest) {
+				if (size() > queryCacheSize) {
+					unlink(eldest.getKey(), eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		});
+		if (hazelcastInstance != null) {
+			topic = hazelcastInstance.getTopic(TOPIC);
+			topic.addMessageListener(message -> {
+				if (!message.getPublishingMember().localMember())
+					this.remove(message.getMessageObject());
+			});
+		}
+	}
+
+	public static String folder(String folderId) {
+		return FOLDER + folderId;
+	}
+
+	public static String postType(String postTypeName) {
+		return POST_TYPE + postTypeName;
+	}
+
+	public List<Map<String, ShPostAttr>> cache(String key, Set<String> dependencies,
+			Supplier<List<Map<String, ShPostAttr>>> query) {
+		ShQueryResult shQueryResult = results.get(key);
+		if (shQueryResult != null && !shQueryResult
+				.isExpired(TimeUnit.SECONDS.toMillis(shWebsiteProperties.getQueryCacheTtl())))
+			return shQueryResult.result;
+
+		if (logger.isDebugEnabled())
+			logger.debug("Creating the query Cache " + key);
+		long currentGeneration = generation.get();
+		List<Map<String, ShPostAttr>> result = Collections.unmodifiableList(query.get());
+		if (currentGeneration == generation.get()) {
+			for (String dependency : dependencies)
+				keysByDependency.computeIfAbsent(dependency, k -> ConcurrentHashMap.newKeySet()).add(key);
+			results.put(key, new ShQueryResult(result, new HashSet<>(dependencies)));
+		}
+		return result;
+	}
+
+	/**
+	 * Remove a result key from its dependencies, so removed results don't stay
+	 * in them.
+	 */
+	private void unlink(String key, ShQueryResult shQueryResult) {
+		for (String dependency : shQueryResult.dependencies)
+			keysByDependency.computeIfPresent(dependency, (k, keys) -> {
+				keys.remove(key);
+				return keys.isEmpty() ? null : keys;
+			});
+	}
+
+	public void deleteCache(String dependency) {
+		ShTransactionUtils.nowAndAfterCommit(() -> this.remove(dependency));
+		ShTransactionUtils.afterCommit(() -> this.sendToCluster(dependency));
+	}
+
+	private void sendToCluster(String dependency) {
+		if (topic != null) {
+			try {
+				topic.publish(dependency);
+			} catch (RuntimeException e) {
+				logger.error("sendToCluster: ", e);
+			}
+		}
+	}
+
+	private void remove(String dependency) {
+		if (ALL.equals(dependency)) {
+			this.removeAll();
+			return;
+		}
+		generation.incrementAndGet();
+		Set<String> keys = keysByDependency.remove(dependency);
+		if (keys != null) {
+			if (logger.isDebugEnabled())
+				logger.debug("Deleting the query Cache of " + dependency);
+			for (String key : keys) {
+				ShQueryResult shQueryResult = results.remove(key);
+				if (shQueryResult != null)
+					this.unlink(key, shQueryResult);
+			}
+		}
+	}
+
+	public void deleteCache(ShPostImpl shPost) {
+		if (shPost != null) {
+			if (shPost.getShFolder() != null)
+				this.deleteCache(folder(shPost.getShFolder().getId()));
+			if (shPost.getShPostType() != null)
+				this.deleteCache(postType(shPost.getShPostType().getName()));
+		}
+	}
+
+	public void deleteCache() {
+		this.deleteCache(ALL);
+	}
+
+	private void removeAll() {
+		if (logger.isDebugEnabled())
+			logger.debug("Deleting the query Cache");
+		generation.incrementAndGet();
+		results.clear();
+		keysByDependency.clear();
+	}
+
+	private static class ShQueryResult {
+		private final List<Map<String, ShPostAttr>> result;
+		private final Set<String> dependencies;
+		private final long created = System.currentTimeMillis();
+
+		private ShQueryResult(List<Map<String, ShPostAttr>> result, Set<String> dependencies) {
+			this.result = result;
+			this.dependencies = dependencies;
+		}
+
+		private boolean isExpired(long ttl) {
+			return ttl > 0 && System.currentTimeMillis() - created >= ttl;
+		}
+	}
+}
@@ -31,6 +31,7 @@ import com.viglet.shio.persistence.model.post.ShPostAttr;
 import com.viglet.shio.persistence.model.site.ShSite;
 import com.viglet.shio.post.type.ShSystemPostTypeAttr;
 import com.viglet.shio.website.ShSitesContextComponent;
+import com.viglet.shio.website.cache.component.ShCacheSiteSnapshot.ShSnapshotRegion;
 import com.viglet.shio.website.component.ShSitesPageLayout;
 import com.viglet.shio.website.utils.ShSitesPostUtils;
 
@@ -44,6 +45,8 @@ public class ShCacheRegion {
 	private ShSitesPostUtils shSitesPostUtils;
 	@Autowired
 	private ShSitesContextComponent shSitesContextComponent;
+	@Autowired
+	private ShCacheSiteSnapshot shCacheSiteSnapshot;
 
 	@Cacheable(value = "region", key = "{#root.methodName, #regionName, #shSite.getId()}", sync = true)
 	public String templateScopeCache(String regionName, ShSitesPageLayout shSitesPageLayout, ShSite shSite,
@@ -54,6 +57,10 @@ public class ShCacheRegion {
 
 	@Cacheable(value = "region", key = "{#root.methodName, #regionName, #siteId}", sync = true)
 	public boolean isCached(String regionName, String siteId) {
+		if (shCacheSiteSnapshot.isEnabled()) {
+			ShSnapshotRegion shSnapshotRegion = shCacheSiteSnapshot.region(siteId, regionName);
+			return shSnapshotRegion != null && shSnapshotRegion.isCached();
+		}
 		ShPost shRegion = shSitesContextComponent.getRegion(regionName, siteId);
 		if (shRegion != null) {
 			Map<String, ShPostAttr> shRegionPostMap = shSitesPostUtils.postToMap(shRegion);
@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viglet.shio.bean.ShSitePostTypeLayout;
+import com.viglet.shio.bean.ShSitePostTypeLayouts;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.post.ShPostAttr;
+import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
+import com.viglet.shio.persistence.model.site.ShSite;
+import com.viglet.shio.persistence.repository.post.ShPostRepository;
+import com.viglet.shio.post.type.ShSystemPostType;
+import com.viglet.shio.post.type.ShSystemPostTypeAttr;
+import com.viglet.shio.utils.ShPostUtils;
+import com.viglet.shio.utils.ShTransactionUtils;
+import com.viglet.shio.website.utils.ShSitesPostUtils;
+
+/**
+ * Page layouts of sites, kept in memory. Each site has a table of post type
+ * and format to page layout, read once from its post type layout settings,
+ * and the page layout and theme bodies are kept by id. Changes of the site or
+ * of page layout and theme posts remove them.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShCacheSiteLayout {
+	private static final Log logger = LogFactory.getLog(ShCacheSiteLayout.class);
+	private static final String JAVASCRIPT = "javascript";
+	private static final String CSS = "css";
+	@Autowired
+	private ShPostRepository shPostRepository;
+	@Autowired
+	private ShPostUtils shPostUtils;
+	@Autowired
+	private ShSitesPostUtils shSitesPostUtils;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private final Map<String, ShSiteLayoutTable> siteLayouts = new ConcurrentHashMap<>();
+	private final Map<String, ShPageLayoutBody> pageLayouts = new ConcurrentHashMap<>();
+	private final Map<String, Map<String, Object>> themes = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * Layout of a post type in a format.
+	 * 
+	 * @param shSite       site
+	 * @param postTypeName post type name, or FOLDER
+	 * @param format       format
+	 * @return layout, or null when the site has no layout for them
+	 */
+	public ShSitePostTypeLayout postTypeLayout(ShSite shSite, String postTypeName, String format) {
+		Map<String, ShSitePostTypeLayout> formats = this.siteLayout(shSite).getPostTypes().get(postTypeName);
+		return formats != null ? formats.get(format) : null;
+	}
+
+	/**
+	 * Id of the page layout post of a site with a name.
+	 * 
+	 * @param shSite         site
+	 * @param pageLayoutName page layout title
+	 * @return page layout id, or null when the site has no page layout with this
+	 *         name
+	 */
+	public String pageLayoutId(ShSite shSite, String pageLayoutName) {
+		if (pageLayoutName == null)
+			return null;
+		ShSiteLayoutTable shSiteLayoutTable = this.siteLayout(shSite);
+		Optional<String> pageLayoutId = shSiteLayoutTable.getPageLayoutIds().get(pageLayoutName);
+		if (pageLayoutId == null) {
+			pageLayoutId = this.cache(() -> Optional.ofNullable(this.findPageLayoutId(shSite, pageLayoutName)),
+					value -> shSiteLayoutTable.getPageLayoutIds().put(pageLayoutName, value));
+		}
+		return pageLayoutId.orElse(null);
+	}
+
+	private String findPageLayoutId(ShSite shSite, String pageLayoutName) {
+		String pageLayoutId = null;
+		List<ShPost> shPostPageLayouts = shPostRepository.findByTitle(pageLayoutName);
+		if (shPostPageLayouts != null) {
+			for (ShPost shPostPageLayout : shPostPageLayouts) {
+				ShSite shPageLayoutSite = shPostUtils.getSite(shPostPageLayout);
+				if (shPageLayoutSite != null && shPageLayoutSite.getId().equals(shSite.getId()))
+					pageLayoutId = shPostPageLayout.getId();
+			}
+		}
+		return pageLayoutId;
+	}
+
+	public ShPageLayoutBody pageLayout(String pageLayoutId) {
+		if (pageLayoutId == null)
+			return null;
+		ShPageLayoutBody shPageLayoutBody = pageLayouts.get(pageLayoutId);
+		if (shPageLayoutBody == null) {
+			shPageLayoutBody = this.cache(() -> {
+				Map<String, ShPostAttr> shPageLayoutMap = shSitesPostUtils
+						.postToMap(shPostRepository.findById(pageLayoutId).orElse(null));
+				return shPageLayoutMap != null
+						? new ShPageLayoutBody(pageLayoutId, strValue(shPageLayoutMap, ShSystemPostTypeAttr.HTML),
+								strValue(shPageLayoutMap, ShSystemPostTypeAttr.JAVASCRIPT),
+								strValue(shPageLayoutMap, ShSystemPostTypeAttr.THEME))
+						: null;
+			}, value -> pageLayouts.put(pageLayoutId, value));
+		}
+		return shPageLayoutBody;
+	}
+
+	/**
+	 * Javascript and CSS of a theme.
+	 * 
+	 * @param themeId theme post id
+	 * @return new map with javascript and css, or null when the theme does not
+	 *         exist
+	 */
+	public Map<String, Object> theme(String themeId) {
+		if (themeId == null)
+			return null;
+		Map<String, Object> shThemeAttrs = themes.get(themeId);
+		if (shThemeAttrs == null) {
+			shThemeAttrs = this.cache(() -> {
+				Map<String, ShPostAttr> shThemeMap = shSitesPostUtils
+						.postToMap(shPostRepository.findById(themeId).orElse(null));
+				if (shThemeMap == null)
+					return null;
+				Map<String, Object> attrs = new HashMap<>();
+				attrs.put(JAVASCRIPT, strValue(shThemeMap, ShSystemPostTypeAttr.JAVASCRIPT));
+				attrs.put(CSS, strValue(shThemeMap, ShSystemPostTypeAttr.CSS));
+				return Collections.unmodifiableMap(attrs);
+			}, value -> themes.put(themeId, value));
+		}
+		return shThemeAttrs != null ? new HashMap<>(shThemeAttrs) : null;
+	}
+
+	private ShSiteLayoutTable siteLayout(ShSite shSite) {
+		ShSiteLayoutTable shSiteLayoutTable = siteLayouts.get(shSite.getId());
+		if (shSiteLayoutTable == null) {
+			shSiteLayoutTable = this.cache(() -> this.compile(shSite),
+					value -> siteLayouts.put(shSite.getId(), value));
+		}
+		return shSiteLayoutTable;
+	}
+
+	private ShSiteLayoutTable compile(ShSite shSite) {
+		if (logger.isDebugEnabled())
+			logger.debug("Creating the layout Cache of site " + shSite.getId());
+		Map<String, Map<String, ShSitePostTypeLayout>> postTypes = new HashMap<>();
+		if (shSite.getPostTypeLayout() != null) {
+			JSONObject postTypeLayout = new JSONObject(shSite.getPostTypeLayout());
+			for (String postTypeName : postTypeLayout.keySet()) {
+				try {
+					ShSitePostTypeLayouts shSitePostTypeLayouts = objectMapper.readValue(
+							postTypeLayout.get(postTypeName).toString(), ShSitePostTypeLayouts.class);
+					Map<String, ShSitePostTypeLayout> formats = new HashMap<>();
+					for (ShSitePostTypeLayout shSitePostTypeLayout : shSitePostTypeLayouts)
+						formats.put(shSitePostTypeLayout.getFormat(), shSitePostTypeLayout);
+					postTypes.put(postTypeName, formats);
+				} catch (JsonProcessingException e) {
+					logger.error(String.format("Layout of %s in site %s", postTypeName, shSite.getId()), e);
+				}
+			}
+		}
+		return new ShSiteLayoutTable(postTypes);
+	}
+
+	private <T> T cache(Supplier<T> supplier, Consumer<T> put) {
+		long currentGeneration = generation.get();
+		T value = supplier.get();
+		if (value != null && currentGeneration == generation.get())
+			put.accept(value);
+		return value;
+	}
+
+	private static String strValue(Map<String, ShPostAttr> shPostMap, String name) {
+		ShPostAttr shPostAttr = shPostMap.get(name);
+		return shPostAttr != null ? shPostAttr.getStrValue() : null;
+	}
+
+	/**
+	 * Remove the layout table of a site, after changes of its settings.
+	 * 
+	 * @param siteId site id
+	 */
+	public void deleteCache(String siteId) {
+		ShTransactionUtils.nowAndAfterCommit(() -> {
+			generation.incrementAndGet();
+			siteLayouts.remove(siteId);
+		});
+	}
+
+	/**
+	 * Remove a changed page layout or theme, with the page layout names of all
+	 * sites, because its title can be changed.
+	 * 
+	 * @param shPost changed post
+	 */
+	public void deleteCache(ShPostImpl shPost) {
+		if (shPost != null && shPost.getShPostType() != null
+				&& (ShSystemPostType.PAGE_LAYOUT.equals(shPost.getShPostType().getName())
+						|| ShSystemPostType.THEME.equals(shPost.getShPostType().getName()))) {
+			String postId = shPost.getId();
+			ShTransactionUtils.nowAndAfterCommit(() -> {
+				if (logger.isDebugEnabled())
+					logger.debug("Deleting the layout Cache of " + postId);
+				generation.incrementAndGet();
+				pageLayouts.remove(postId);
+				themes.remove(postId);
+				siteLayouts.values().forEach(shSiteLayoutTable -> shSiteLayoutTable.getPageLayoutIds().clear());
+			});
+		}
+	}
+
+	public void deleteCache() {
+		ShTransactionUtils.nowAndAfterCommit(() -> {
+			generation.incrementAndGet();
+			siteLayouts.clear();
+			pageLayouts.clear();
+			themes.clear();
+		});
+	}
+
+	private static class ShSiteLayoutTable {
+		private final Map<String, Map<String, ShSitePostTypeLayout>> postTypes;
+		private final Map<String, Optional<String>> pageLayoutIds = new ConcurrentHashMap<>();
+
+		public ShSiteLayoutTable(Map<String, Map<String, ShSitePostTypeLayout>> postTypes) {
+			this.postTypes = postTypes;
+		}
+
+		public Map<String, Map<String, ShSitePostTypeLayout>> getPostTypes() {
+			return postTypes;
+		}
+
+		public Map<String, Optional<String>> getPageLayoutIds() {
+			return pageLayoutIds;
+		}
+	}
+
+	public static class ShPageLayoutBody {
+		private final String id;
+		private final String html;
+		private final String javascript;
+		private final String themeId;
+
+		public ShPageLayoutBody(String id, String html, String javascript, String themeId) {
+			this.id = id;
+			this.html = html;
+			this.javascript = javascript;
+			this.themeId = themeId;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getHTML() {
+			return html;
+		}
+
+		public String getJavascript() {
+			return javascript;
+		}
+
+		public String getThemeId() {
+			return themeId;
+		}
+	}
+}
@@ -0,0 +1,707 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.viglet.shio.persistence.model.folder.ShFolder;
+import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.post.ShPostAttr;
+import com.viglet.shio.persistence.model.post.impl.ShPostAttrImpl;
+import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
+import com.viglet.shio.persistence.model.site.ShSite;
+import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
+import com.viglet.shio.persistence.repository.post.ShPostRepository;
+import com.viglet.shio.persistence.repository.site.ShSiteRepository;
+import com.viglet.shio.post.type.ShSystemPostType;
+import com.viglet.shio.post.type.ShSystemPostTypeAttr;
+import com.viglet.shio.property.ShMgmtProperties;
+import com.viglet.shio.property.ShWebsiteProperties;
+import com.viglet.shio.utils.ShFolderUtils;
+import com.viglet.shio.utils.ShTransactionUtils;
+import com.viglet.shio.website.utils.ShSitesPostUtils;
+
+/**
+ * Immutable snapshot of the folders, posts and regions of each site, used by
+ * the delivery tier to detect the object of an URL and to render regions
+ * without reading the database. It is enabled with shio.website.snapshot when
+ * the management is disabled. The snapshot of a site is read once, and each
+ * change of a post creates its next version with only the changed folder
+ * copied. Changes of folders remove the snapshot of the site. Only published
+ * posts are in the snapshot, like the live stage of ShSitesPostUtils.
+ * 
+ * Changes are sent to the other members of the cluster by a Hazelcast topic,
+ * also from members where the snapshot is disabled, like the management, and
+ * only members with the snapshot enabled apply them. A snapshot older than shio.website.snapshot-ttl seconds is read again,
+ * so a lost message only leaves a member stale until then.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShCacheSiteSnapshot {
+	private static final Log logger = LogFactory.getLog(ShCacheSiteSnapshot.class);
+	private static final String HOME = "home";
+	private static final String INDEX = "index";
+	private static final String SEPARATOR = "/";
+	private static final int BATCH_SIZE = 500;
+	private static final String TOPIC = "shSiteSnapshot";
+	@Autowired
+	private ShSiteRepository shSiteRepository;
+	@Autowired
+	private ShFolderRepository shFolderRepository;
+	@Autowired
+	private ShPostRepository shPostRepository;
+	@Autowired
+	private ShFolderUtils shFolderUtils;
+	@Autowired
+	private ShSitesPostUtils shSitesPostUtils;
+	@Autowired
+	private ShWebsiteProperties shWebsiteProperties;
+	@Autowired
+	private ShMgmtProperties shMgmtProperties;
+	@Autowired(required = false)
+	private HazelcastInstance hazelcastInstance;
+
+	private ITopic<ShSnapshotEvent> topic;
+
+	private final Map<String, ShSiteSnapshot> snapshots = new ConcurrentHashMap<>();
+	private final Map<String, String> siteIds = new ConcurrentHashMap<>();
+	private final AtomicLong generation = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		if (hazelcastInstance != null) {
+			topic = hazelcastInstance.getTopic(TOPIC);
+			if (this.isEnabled())
+				topic.addMessageListener(message -> {
+					if (!message.getPublishingMember().localMember())
+						this.apply(message.getMessageObject());
+				});
+		}
+	}
+
+	public boolean isEnabled() {
+		return shWebsiteProperties.isSnapshot() && !shMgmtProperties.isEnabled();
+	}
+
+	/**
+	 * Id of the site with a furl.
+	 * 
+	 * @param siteFurl site furl
+	 * @return site id, or null when there is no site with this furl
+	 */
+	public String siteId(String siteFurl) {
+		if (siteFurl == null)
+			return null;
+		String siteId = siteIds.get(siteFurl);
+		if (siteId == null) {
+			long currentGeneration = generation.get();
+			ShSite shSite = shSiteRepository.findByFurl(siteFurl);
+			if (shSite != null) {
+				siteId = shSite.getId();
+				if (currentGeneration == generation.get())
+					siteIds.put(siteFurl, siteId);
+			}
+		}
+		return siteId;
+	}
+
+	/**
+	 * Folder of a path, with the same rules of ShFolderUtils.folderFromPath.
+	 * 
+	 * @param siteId     site id
+	 * @param folderPath folder path
+	 * @return folder id, or null when the path has no folder
+	 */
+	public String folderId(String siteId, String folderPath) {
+		ShSiteSnapshot shSiteSnapshot = this.snapshot(siteId);
+		return shSiteSnapshot != null ? shSiteSnapshot.folderFromPath(folderPath) : null;
+	}
+
+	/**
+	 * Object of an URL, with the same rules of
+	 * ShSitesContextComponent.shObjectItemFactory: a post of the folder by furl
+	 * or title, its alias content, or else the index of a folder.
+	 * 
+	 * @param siteId     site id
+	 * @param folderId   parent folder id
+	 * @param objectName last name of URL
+	 * @return object id, or null when the URL has no object
+	 */
+	public String objectId(String siteId, String folderId, String objectName) {
+		ShSiteSnapshot shSiteSnapshot = this.snapshot(siteId);
+		if (shSiteSnapshot == null)
+			return null;
+		if (objectName != null) {
+			ShSnapshotPost shSnapshotPost = shSiteSnapshot.post(folderId, objectName);
+			if (shSnapshotPost != null)
+				return shSnapshotPost.getAliasId() != null ? shSnapshotPost.getAliasId() : shSnapshotPost.getId();
+		}
+		String folderPath = shSiteSnapshot.folderPath(folderId);
+		if (objectName != null)
+			folderPath = folderPath.concat(objectName).concat(SEPARATOR);
+		String objectFolderId = shSiteSnapshot.folderFromPath(folderPath);
+		if (objectFolderId != null) {
+			ShSnapshotPost shFolderIndex = shSiteSnapshot.postByFurl(objectFolderId, INDEX);
+			return shFolderIndex != null ? shFolderIndex.getId() : objectFolderId;
+		}
+		return null;
+	}
+
+	/**
+	 * Region of a site by name.
+	 * 
+	 * @param siteId     site id
+	 * @param regionName region title
+	 * @return region, or null when the site has no region with this name
+	 */
+	public ShSnapshotRegion region(String siteId, String regionName) {
+		ShSiteSnapshot shSiteSnapshot = this.snapshot(siteId);
+		return shSiteSnapshot != null ? shSiteSnapshot.getRegions().get(regionName) : null;
+	}
+
+	private ShSiteSnapshot snapshot(String siteId) {
+		if (siteId == null)
+			return null;
+		ShSiteSnapshot shSiteSnapshot = snapshots.get(siteId);
+		if (shSiteSnapshot != null
+				&& shSiteSnapshot.isExpired(TimeUnit.SECONDS.toMillis(shWebsiteProperties.getSnapshotTtl()))) {
+			if (snapshots.remove(siteId, shSiteSnapshot))
+				siteIds.values().removeIf(id -> id.equals(siteId));
+			shSiteSnapshot = null;
+		}
+		if (shSiteSnapshot == null) {
+			long currentGeneration = generation.get();
+			shSiteSnapshot = this.build(siteId);
+			if (shSiteSnapshot != null && currentGeneration == generation.get())
+				snapshots.putIfAbsent(siteId, shSiteSnapshot);
+		}
+		return shSiteSnapshot;
+	}
+
+	private ShSiteSnapshot build(String siteId) {
+		ShSite shSite = shSiteRepository.findById(siteId).orElse(null);
+		if (shSite == null)
+			return null;
+		if (logger.isDebugEnabled())
+			logger.debug("Creating the snapshot of site " + siteId);
+		Map<String, ShSnapshotFolder> folders = new HashMap<>();
+		List<ShFolder> shFolders = new ArrayList<>();
+		for (ShFolder shRootFolder : shFolderRepository.findByShSiteAndRootFolder(shSite, (byte) 1))
+			shFolderUtils.subtreeLevels(shRootFolder).forEach(shFolders::addAll);
+		shFolders.forEach(shFolder -> folders.put(shFolder.getId(), new ShSnapshotFolder(shFolder)));
+
+		Map<String, ShSnapshotFolderPosts> folderPosts = new HashMap<>();
+		Map<String, ShSnapshotRegion> regions = new HashMap<>();
+		for (List<ShFolder> batch : Lists.partition(shFolders, BATCH_SIZE)) {
+			for (ShPost shPost : shPostRepository.findByShFolderIn(batch)) {
+				if (shSitesPostUtils.getPostByStage(shPost) == null)
+					continue;
+				String folderId = shPost.getShFolder().getId();
+				folderPosts.put(folderId, folderPosts.getOrDefault(folderId, ShSnapshotFolderPosts.EMPTY)
+						.with(this.snapshotPost(shPost)));
+				ShSnapshotRegion shSnapshotRegion = this.snapshotRegion(shPost);
+				if (shSnapshotRegion != null)
+					regions.put(shSnapshotRegion.getName(), shSnapshotRegion);
+			}
+		}
+		return new ShSiteSnapshot(1, folders, folderPosts, regions);
+	}
+
+	private ShSnapshotPost snapshotPost(ShPost shPost) {
+		String aliasId = null;
+		if (ShSystemPostType.ALIAS.equals(shPost.getShPostType().getName())) {
+			for (ShPostAttrImpl shPostAttr : shPost.getShPostAttrs())
+				if (shPostAttr.getShPostTypeAttr().getName().equals(ShSystemPostTypeAttr.CONTENT))
+					aliasId = shPostAttr.getStrValue();
+		}
+		return new ShSnapshotPost(shPost.getId(), shPost.getFurl(), shPost.getTitle(), aliasId);
+	}
+
+	private ShSnapshotRegion snapshotRegion(ShPost shPost) {
+		if (!ShSystemPostType.REGION.equals(shPost.getShPostType().getName()))
+			return null;
+		Map<String, ShPostAttr> shRegionMap = shSitesPostUtils.postToMap(shPost);
+		return new ShSnapshotRegion(shPost.getId(), shPost.getTitle(),
+				strValue(shRegionMap, ShSystemPostTypeAttr.HTML),
+				strValue(shRegionMap, ShSystemPostTypeAttr.JAVASCRIPT),
+				"yes".equals(strValue(shRegionMap, ShSystemPostTypeAttr.CACHED)));
+	}
+
+	private static String strValue(Map<String, ShPostAttr> shPostMap, String name) {
+		ShPostAttr shPostAttr = shPostMap.get(name);
+		return shPostAttr != null ? shPostAttr.getStrValue() : null;
+	}
+
+	/**
+	 * Create the next version of the snapshots with a changed post or folder,
+	 * after the commit. It must be called before the change, while the old
+	 * parent folder is still known, or after it was saved.
+	 * 
+	 * @param shObject changed post or folder
+	 */
+	public void publish(ShObjectImpl shObject) {
+		if (shObject == null || (!this.isEnabled() && topic == null))
+			return;
+		String objectId = shObject.getId();
+		if (shObject instanceof ShPostImpl) {
+			ShFolder shFolder = ((ShPostImpl) shObject).getShFolder();
+			String oldFolderId = shFolder != null ? shFolder.getId() : null;
+			ShTransactionUtils.afterCommit(() -> this.broadcast(new ShSnapshotEvent(ShSnapshotEvent.POST, objectId, oldFolderId)));
+		} else if (shObject instanceof ShFolder) {
+			ShTransactionUtils.afterCommit(() -> this.broadcast(new ShSnapshotEvent(ShSnapshotEvent.FOLDER, objectId, null)));
+		}
+	}
+
+	private void broadcast(ShSnapshotEvent event) {
+		this.applyIfEnabled(event);
+		this.sendToCluster(event);
+	}
+
+	private void applyIfEnabled(ShSnapshotEvent event) {
+		if (this.isEnabled())
+			this.apply(event);
+	}
+
+	private void sendToCluster(ShSnapshotEvent event) {
+		if (topic != null) {
+			try {
+				topic.publish(event);
+			} catch (RuntimeException e) {
+				logger.error("sendToCluster: ", e);
+			}
+		}
+	}
+
+	private void apply(ShSnapshotEvent event) {
+		switch (event.getType()) {
+		case ShSnapshotEvent.POST:
+			this.publishPost(event.getId(), event.getFolderId());
+			break;
+		case ShSnapshotEvent.FOLDER:
+			this.publishFolder(event.getId());
+			break;
+		case ShSnapshotEvent.SITE:
+			this.removeSite(event.getId());
+			break;
+		default:
+			this.removeAll();
+		}
+	}
+
+	private void publishPost(String postId, String oldFolderId) {
+		generation.incrementAndGet();
+		ShPost shPost = shPostRepository.findById(postId).orElse(null);
+		ShSnapshotPost shSnapshotPost = null;
+		ShSnapshotRegion shSnapshotRegion = null;
+		String folderId = null;
+		if (shPost != null && shPost.getShFolder() != null && shSitesPostUtils.getPostByStage(shPost) != null) {
+			folderId = shPost.getShFolder().getId();
+			shSnapshotPost = this.snapshotPost(shPost);
+			shSnapshotRegion = this.snapshotRegion(shPost);
+		}
+		for (String siteId : snapshots.keySet()) {
+			String newFolderId = folderId;
+			ShSnapshotPost newPost = shSnapshotPost;
+			ShSnapshotRegion newRegion = shSnapshotRegion;
+			snapshots.computeIfPresent(siteId, (key, shSiteSnapshot) -> {
+				ShSiteSnapshot shNextSnapshot = shSiteSnapshot.publish(postId, oldFolderId, newFolderId, newPost,
+						newRegion);
+				if (logger.isDebugEnabled() && shNextSnapshot != shSiteSnapshot)
+					logger.debug(String.format("Snapshot of site %s version %d", key, shNextSnapshot.getVersion()));
+				return shNextSnapshot;
+			});
+		}
+	}
+
+	private void publishFolder(String folderId) {
+		generation.incrementAndGet();
+		ShFolder shFolder = shFolderRepository.findById(folderId).orElse(null);
+		String parentFolderId = shFolder != null && shFolder.getParentFolder() != null
+				? shFolder.getParentFolder().getId()
+				: null;
+		String siteId = shFolder != null && shFolder.getShSite() != null ? shFolder.getShSite().getId() : null;
+		snapshots.entrySet()
+				.removeIf(entry -> entry.getKey().equals(siteId) || entry.getValue().containsFolder(folderId)
+						|| entry.getValue().containsFolder(parentFolderId));
+	}
+
+	/**
+	 * Remove the snapshot of a site, after changes of its settings or imports.
+	 * 
+	 * @param siteId site id
+	 */
+	public void deleteCache(String siteId) {
+		ShSnapshotEvent event = new ShSnapshotEvent(ShSnapshotEvent.SITE, siteId, null);
+		ShTransactionUtils.nowAndAfterCommit(() -> this.applyIfEnabled(event));
+		ShTransactionUtils.afterCommit(() -> this.sendToCluster(event));
+	}
+
+	public void deleteCache() {
+		ShSnapshotEvent event = new ShSnapshotEvent(ShSnapshotEvent.ALL, null, null);
+		ShTransactionUtils.nowAndAfterCommit(() -> this.applyIfEnabled(event));
+		ShTransactionUtils.afterCommit(() -> this.sendToCluster(event));
+	}
+
+	private void removeSite(String siteId) {
+		generation.incrementAndGet();
+		snapshots.remove(siteId);
+		siteIds.values().removeIf(id -> id.equals(siteId));
+	}
+
+	private void removeAll() {
+		generation.incrementAndGet();
+		snapshots.clear();
+		siteIds.clear();
+	}
+
+	private static class ShSiteSnapshot {
+		private final long version;
+		private final long created;
+		private final Map<String, ShSnapshotFolder> folders;
+		private final Map<String, String> rootFolders = new HashMap<>();
+		private final Map<String, String> childFolders = new HashMap<>();
+		private final Map<String, ShSnapshotFolderPosts> folderPosts;
+		private final Map<String, ShSnapshotRegion> regions;
+
+		public ShSiteSnapshot(long version, Map<String, ShSnapshotFolder> folders,
+				Map<String, ShSnapshotFolderPosts> folderPosts, Map<String, ShSnapshotRegion> regions) {
+			this.version = version;
+			this.created = System.currentTimeMillis();
+			this.folders = Collections.unmodifiableMap(folders);
+			this.folderPosts = Collections.unmodifiableMap(folderPosts);
+			this.regions = Collections.unmodifiableMap(regions);
+			for (ShSnapshotFolder shSnapshotFolder : folders.values()) {
+				if (shSnapshotFolder.getParentId() == null)
+					rootFolders.put(shSnapshotFolder.getFurl(), shSnapshotFolder.getId());
+				else
+					childFolders.put(childKey(shSnapshotFolder.getParentId(), shSnapshotFolder.getFurl()),
+							shSnapshotFolder.getId());
+			}
+		}
+
+		private ShSiteSnapshot(ShSiteSnapshot shSiteSnapshot, Map<String, ShSnapshotFolderPosts> folderPosts,
+				Map<String, ShSnapshotRegion> regions) {
+			this.version = shSiteSnapshot.version + 1;
+			this.created = shSiteSnapshot.created;
+			this.folders = shSiteSnapshot.folders;
+			this.rootFolders.putAll(shSiteSnapshot.rootFolders);
+			this.childFolders.putAll(shSiteSnapshot.childFolders);
+			this.folderPosts = Collections.unmodifiableMap(folderPosts);
+			this.regions = Collections.unmodifiableMap(regions);
+		}
+
+		private static String childKey(String parentId, String furl) {
+			return parentId + SEPARATOR + furl;
+		}
+
+		public long getVersion() {
+			return version;
+		}
+
+		/**
+		 * Next versions keep the time of the first one, as they only add the
+		 * changes received since it was read.
+		 */
+		public boolean isExpired(long ttl) {
+			return ttl > 0 && System.currentTimeMillis() - created >= ttl;
+		}
+
+		public Map<String, ShSnapshotRegion> getRegions() {
+			return regions;
+		}
+
+		public boolean containsFolder(String folderId) {
+			return folderId != null && folders.containsKey(folderId);
+		}
+
+		public String folderFromPath(String folderPath) {
+			String currentFolder = null;
+			String[] contexts = folderPath.split(SEPARATOR);
+			if (contexts.length == 0) {
+				currentFolder = rootFolders.get(HOME);
+			} else {
+				for (int i = 1; i < contexts.length; i++) {
+					if (i == 1) {
+						currentFolder = rootFolders.get(contexts[i]);
+						if (currentFolder == null) {
+							String homeFolder = rootFolders.get(HOME);
+							currentFolder = homeFolder != null ? childFolders.get(childKey(homeFolder, contexts[i]))
+									: null;
+						}
+					} else if (currentFolder != null) {
+						currentFolder = childFolders.get(childKey(currentFolder, contexts[i]));
+					}
+				}
+			}
+			return currentFolder;
+		}
+
+		public String folderPath(String folderId) {
+			ShSnapshotFolder shSnapshotFolder = folderId != null ? folders.get(folderId) : null;
+			if (shSnapshotFolder == null)
+				return SEPARATOR;
+			LinkedList<String> pathContexts = new LinkedList<>();
+			if (!(shSnapshotFolder.isRoot() && HOME.equals(shSnapshotFolder.getFurl())))
+				pathContexts.addFirst(shSnapshotFolder.getFurl());
+			ShSnapshotFolder parentFolder = folders.get(shSnapshotFolder.getParentId());
+			while (parentFolder != null) {
+				if (parentFolder.isRoot()) {
+					if (!parentFolder.getName().equalsIgnoreCase(HOME))
+						pathContexts.addFirst(parentFolder.getFurl());
+					parentFolder = null;
+				} else {
+					pathContexts.addFirst(parentFolder.getFurl());
+					parentFolder = folders.get(parentFolder.getParentId());
+				}
+			}
+			StringBuilder path = new StringBuilder(SEPARATOR);
+			pathContexts.forEach(context -> path.append(context).append(SEPARATOR));
+			return path.toString();
+		}
+
+		public ShSnapshotPost post(String folderId, String name) {
+			ShSnapshotFolderPosts shSnapshotFolderPosts = folderId != null ? folderPosts.get(folderId) : null;
+			if (shSnapshotFolderPosts == null)
+				return null;
+			ShSnapshotPost shSnapshotPost = shSnapshotFolderPosts.getByFurl().get(name);
+			return shSnapshotPost != null ? shSnapshotPost : shSnapshotFolderPosts.getByTitle().get(name);
+		}
+
+		public ShSnapshotPost postByFurl(String folderId, String furl) {
+			ShSnapshotFolderPosts shSnapshotFolderPosts = folderPosts.get(folderId);
+			return shSnapshotFolderPosts != null ? shSnapshotFolderPosts.getByFurl().get(furl) : null;
+		}
+
+		/**
+		 * Next version with a changed post, removed from its old folder and added to
+		 * its new folder, when they are in this site.
+		 */
+		public ShSiteSnapshot publish(String postId, String oldFolderId, String folderId, ShSnapshotPost post,
+				ShSnapshotRegion region) {
+			boolean hasRegion = regions.values().stream().anyMatch(r -> r.getId().equals(postId));
+			if (!this.containsFolder(oldFolderId) && !this.containsFolder(folderId) && !hasRegion)
+				return this;
+			Map<String, ShSnapshotFolderPosts> nextFolderPosts = new HashMap<>(folderPosts);
+			if (this.containsFolder(oldFolderId) && nextFolderPosts.containsKey(oldFolderId))
+				nextFolderPosts.put(oldFolderId, nextFolderPosts.get(oldFolderId).without(postId));
+			if (post != null && this.containsFolder(folderId))
+				nextFolderPosts.put(folderId,
+						nextFolderPosts.getOrDefault(folderId, ShSnapshotFolderPosts.EMPTY).with(post));
+			Map<String, ShSnapshotRegion> nextRegions = regions;
+			if (hasRegion || (region != null && this.containsFolder(folderId))) {
+				nextRegions = new HashMap<>(regions);
+				nextRegions.values().removeIf(r -> r.getId().equals(postId));
+				if (region != null && this.containsFolder(folderId))
+					nextRegions.put(region.getName(), region);
+			}
+			return new ShSiteSnapshot(this, nextFolderPosts, nextRegions);
+		}
+	}
+
+	/**
+	 * Change sent to the other members of the cluster.
+	 */
+	private static class ShSnapshotEvent implements Serializable {
+		private static final long serialVersionUID = 1L;
+		private static final String POST = "post";
+		private static final String FOLDER = "folder";
+		private static final String SITE = "site";
+		private static final String ALL = "all";
+		private final String type;
+		private final String id;
+		private final String folderId;
+
+		public ShSnapshotEvent(String type, String id, String folderId) {
+			this.type = type;
+			this.id = id;
+			this.folderId = folderId;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getFolderId() {
+			return folderId;
+		}
+	}
+
+	private static class ShSnapshotFolder {
+		private final String id;
+		private final String name;
+		private final String furl;
+		private final boolean root;
+		private final String parentId;
+
+		public ShSnapshotFolder(ShFolder shFolder) {
+			this.id = shFolder.getId();
+			this.name = shFolder.getName();
+			this.furl = shFolder.getFurl();
+			this.parentId = shFolder.getParentFolder() != null ? shFolder.getParentFolder().getId() : null;
+			this.root = shFolder.getRootFolder() == (byte) 1 || parentId == null;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getFurl() {
+			return furl;
+		}
+
+		public boolean isRoot() {
+			return root;
+		}
+
+		public String getParentId() {
+			return parentId;
+		}
+	}
+
+	private static class ShSnapshotFolderPosts {
+		private static final ShSnapshotFolderPosts EMPTY = new ShSnapshotFolderPosts(new HashMap<>());
+		private final Map<String, ShSnapshotPost> byId;
+		private final Map<String, ShSnapshotPost> byFurl = new HashMap<>();
+		private final Map<String, ShSnapshotPost> byTitle = new HashMap<>();
+
+		private ShSnapshotFolderPosts(Map<String, ShSnapshotPost> byId) {
+			this.byId = Collections.unmodifiableMap(byId);
+			for (ShSnapshotPost shSnapshotPost : byId.values()) {
+				byFurl.put(shSnapshotPost.getFurl(), shSnapshotPost);
+				byTitle.put(shSnapshotPost.getTitle(), shSnapshotPost);
+			}
+		}
+
+		public Map<String, ShSnapshotPost> getByFurl() {
+			return byFurl;
+		}
+
+		public Map<String, ShSnapshotPost> getByTitle() {
+			return byTitle;
+		}
+
+		public ShSnapshotFolderPosts with(ShSnapshotPost shSnapshotPost) {
+			Map<String, ShSnapshotPost> posts = new HashMap<>(byId);
+			posts.put(shSnapshotPost.getId(), shSnapshotPost);
+			return new ShSnapshotFolderPosts(posts);
+		}
+
+		public ShSnapshotFolderPosts without(String postId) {
+			if (!byId.containsKey(postId))
+				return this;
+			Map<String, ShSnapshotPost> posts = new HashMap<>(byId);
+			posts.remove(postId);
+			return new ShSnapshotFolderPosts(posts);
+		}
+	}
+
+	private static class ShSnapshotPost {
+		private final String id;
+		private final String furl;
+		private final String title;
+		private final String aliasId;
+
+		public ShSnapshotPost(String id, String furl, String title, String aliasId) {
+			this.id = id;
+			this.furl = furl;
+			this.title = title;
+			this.aliasId = aliasId;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getFurl() {
+			return furl;
+		}
+
+		public String getTitle() {
+			return title;
+		}
+
+		public String getAliasId() {
+			return aliasId;
+		}
+	}
+
+	public static class ShSnapshotRegion {
+		private final String id;
+		private final String name;
+		private final String html;
+		private final String javascript;
+		private final boolean cached;
+
+		public ShSnapshotRegion(String id, String name, String html, String javascript, boolean cached) {
+			this.id = id;
+			this.name = name;
+			this.html = html;
+			this.javascript = javascript;
+			this.cached = cached;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getHTML() {
+			return html;
+		}
+
+		public String getJavascript() {
+			return javascript;
+		}
+
+		public boolean isCached() {
+			return cached;
+		}
+	}
+}
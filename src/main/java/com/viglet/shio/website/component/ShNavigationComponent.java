@@ -19,16 +19,13 @@ package com.viglet.shio.website.component;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.viglet.shio.bean.ShNavigationItem;
 import com.viglet.shio.persistence.model.folder.ShFolder;
-import com.viglet.shio.persistence.model.site.ShSite;
-import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
-import com.viglet.shio.persistence.repository.site.ShSiteRepository;
-import com.viglet.shio.website.utils.ShSitesObjectUtils;
+import com.viglet.shio.website.cache.component.ShCacheNavigation;
 
 /**
  * @author Alexandre Oliveira
@@ -36,22 +33,20 @@ import com.viglet.shio.website.utils.ShSitesObjectUtils;
 @Component
 public class ShNavigationComponent {
 	@Autowired
-	private ShSiteRepository shSiteRepository;
-	@Autowired
-	private ShFolderRepository shFolderRepository;
-	@Autowired
-	private ShSitesObjectUtils shSitesObjectUtils;
+	private ShCacheNavigation shCacheNavigation;
 
 	public List<ShFolder> navigation(String siteName, boolean home) {
-		ShSite shSite = shSiteRepository.findByName(siteName);
-		ShFolder homeFolder = shFolderRepository.findByShSiteAndName(shSite, "Home");
+		ShNavigationItem homeItem = shCacheNavigation.home(siteName);
 		List<ShFolder> shFolders = new ArrayList<>();
-		if (home && shSitesObjectUtils.isVisiblePage(homeFolder))
-			shFolders.add(homeFolder);
+		if (homeItem == null)
+			return shFolders;
 
-		shFolderRepository.findByParentFolderOrderByPositionAsc(homeFolder).forEach(shFolder -> {
-			if (shSitesObjectUtils.isVisiblePage(shFolder))
-				shFolders.add(shFolder);
+		if (home && homeItem.isVisible())
+			shFolders.add(homeItem.getShFolder());
+
+		homeItem.getChildren().forEach(shNavigationItem -> {
+			if (shNavigationItem.isVisible())
+				shFolders.add(shNavigationItem.getShFolder());
 
 		});
 
@@ -59,15 +54,19 @@ public class ShNavigationComponent {
 	}
 
 	public List<ShFolder> navigationFolder(String folderId, boolean home) {
-		Optional<ShFolder> shFolderOptional = shFolderRepository.findById(folderId);
-		if (shFolderOptional.isPresent()) {
-			ShFolder shParentFolder = shFolderOptional.get();
-			List<ShFolder> shFolders = shFolderRepository.findByParentFolderOrderByPositionAsc(shParentFolder);
-			if (home && shSitesObjectUtils.isVisiblePage(shParentFolder))
-				shFolders.add(shParentFolder);
+		ShNavigationItem parentItem = shCacheNavigation.folder(folderId);
+		if (parentItem != null) {
+			List<ShFolder> shFolders = new ArrayList<>();
+			parentItem.getChildren().forEach(shNavigationItem -> shFolders.add(shNavigationItem.getShFolder()));
+			if (home && parentItem.isVisible())
+				shFolders.add(parentItem.getShFolder());
 
 			return shFolders;
 		}
 		return Collections.emptyList();
 	}
+
+	public ShNavigationItem navigationTree(String siteName) {
+		return shCacheNavigation.home(siteName);
+	}
 }
@@ -17,11 +17,15 @@
 package com.viglet.shio.website.component;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import com.viglet.shio.persistence.model.folder.ShFolder;
@@ -32,6 +36,8 @@ import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
 import com.viglet.shio.persistence.repository.post.ShPostAttrRepository;
 import com.viglet.shio.persistence.repository.post.ShPostRepository;
 import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
+import com.viglet.shio.property.ShMgmtProperties;
+import com.viglet.shio.website.cache.component.ShCacheQuery;
 import com.viglet.shio.website.utils.ShSitesPostUtils;
 
 /**
@@ -39,7 +45,7 @@ import com.viglet.shio.website.utils.ShSitesPostUtils;
  */
 @Component
 public class ShQueryComponent {
-
+	private static final int ALL = 0;
 	@Autowired
 	private ShFolderRepository shFolderRepository;
 	@Autowired
@@ -50,53 +56,115 @@ public class ShQueryComponent {
 	private ShPostTypeRepository shPostTypeRepository;
 	@Autowired
 	private ShSitesPostUtils shSitesPostUtils;
+	@Autowired
+	private ShCacheQuery shCacheQuery;
+	@Autowired
+	private ShMgmtProperties shMgmtProperties;
 
 	public List<Map<String, ShPostAttr>> findByFolderName(String folderId, String postTypeName) {
+		return this.findByFolderName(folderId, postTypeName, ALL);
+	}
 
-		ShPostType shPostType = shPostTypeRepository.findByName(postTypeName);
-		ShFolder shFolder = shFolderRepository.findById(folderId).orElse(null);
-		List<ShPost> shPostList = shSitesPostUtils
-				.getPostsByStage(shPostRepository.findByShFolderAndShPostTypeOrderByPositionAsc(shFolder, shPostType));
-
-		List<Map<String, ShPostAttr>> shPosts = new ArrayList<>();
-		for (ShPost shPost : shPostList) {
-			Map<String, ShPostAttr> shPostObject = shSitesPostUtils.postToMap(shPost);
-			shPosts.add(shPostObject);
-		}
-
-		return shPosts;
+	/**
+	 * Returns only the first posts of folder
+	 * 
+	 * @param folderId     Folder Id
+	 * @param postTypeName Post Type Name
+	 * @param limit        Max of posts
+	 * @return Posts
+	 */
+	public List<Map<String, ShPostAttr>> findByFolderName(String folderId, String postTypeName, int limit) {
+		return shCacheQuery.cache(this.key("folder", limit, folderId, postTypeName),
+				this.dependencies(ShCacheQuery.folder(folderId), ShCacheQuery.postType(postTypeName)), () -> {
+					ShPostType shPostType = shPostTypeRepository.findByName(postTypeName);
+					ShFolder shFolder = shFolderRepository.findById(folderId).orElse(null);
+					List<ShPost> shPostList;
+					if (limit > ALL) {
+						shPostList = new ArrayList<>();
+						int page = 0;
+						List<ShPost> shPostPage;
+						do {
+							shPostPage = shPostRepository.findByShFolderAndShPostTypeOrderByPositionAsc(shFolder,
+									shPostType, PageRequest.of(page++, limit));
+							shPostList.addAll(shSitesPostUtils.getPostsByStage(shPostPage));
+						} while (shPostList.size() < limit && shPostPage.size() == limit);
+					} else {
+						shPostList = shSitesPostUtils.getPostsByStage(
+								shPostRepository.findByShFolderAndShPostTypeOrderByPositionAsc(shFolder, shPostType));
+					}
+					return this.toMap(shPostList, limit);
+				});
 	}
 
 	public List<Map<String, ShPostAttr>> findByPostTypeName(String postTypeName) {
+		return this.findByPostTypeName(postTypeName, ALL);
+	}
 
-		ShPostType shPostType = shPostTypeRepository.findByName(postTypeName);
-		List<ShPost> shPostList = shPostRepository.findByShPostType(shPostType);
-
-		List<Map<String, ShPostAttr>> shPosts = new ArrayList<>();
-		for (ShPost shPost : shPostList) {
-			Map<String, ShPostAttr> shPostObject = shSitesPostUtils.postToMap(shPost);
-			shPosts.add(shPostObject);
-		}
-
-		return shPosts;
+	/**
+	 * Returns only the first posts of post type
+	 * 
+	 * @param postTypeName Post Type Name
+	 * @param limit        Max of posts
+	 * @return Posts
+	 */
+	public List<Map<String, ShPostAttr>> findByPostTypeName(String postTypeName, int limit) {
+		return shCacheQuery.cache(this.key("postType", limit, postTypeName),
+				this.dependencies(ShCacheQuery.postType(postTypeName)), () -> {
+					ShPostType shPostType = shPostTypeRepository.findByName(postTypeName);
+					List<ShPost> shPostList = limit > ALL
+							? shPostRepository.findByShPostType(shPostType, PageRequest.of(0, limit))
+							: shPostRepository.findByShPostType(shPostType);
+					return this.toMap(shPostList, limit);
+				});
 	}
 
 	public List<Map<String, ShPostAttr>> findByPostTypeNameIn(String postTypeName, Set<String> arrayValue) {
+		return this.findByPostTypeNameIn(postTypeName, arrayValue, ALL);
+	}
 
-		ShPostType shPostType = shPostTypeRepository.findByName(postTypeName);
-		Set<ShPostAttr> shPostAttrs = shPostAttrRepository.findByArrayValueIn(arrayValue);
-
-		List<ShPostAttr> shPostAttrList = new ArrayList<>();
-		shPostAttrList.addAll(shPostAttrs);
-
-		Set<ShPost> shPostList = shPostRepository.findByShPostTypeAndShPostAttrsIn(shPostType, shPostAttrList);
+	/**
+	 * Returns only the first posts of post type that have some values
+	 * 
+	 * @param postTypeName Post Type Name
+	 * @param arrayValue   Values
+	 * @param limit        Max of posts
+	 * @return Posts
+	 */
+	public List<Map<String, ShPostAttr>> findByPostTypeNameIn(String postTypeName, Set<String> arrayValue,
+			int limit) {
+		return shCacheQuery.cache(
+				this.key("postTypeIn", limit, postTypeName, arrayValue != null ? String.join(",", new TreeSet<>(arrayValue)) : ""),
+				this.dependencies(ShCacheQuery.postType(postTypeName)), () -> {
+					ShPostType shPostType = shPostTypeRepository.findByName(postTypeName);
+					Set<ShPostAttr> shPostAttrs = shPostAttrRepository.findByArrayValueIn(arrayValue);
+
+					List<ShPostAttr> shPostAttrList = new ArrayList<>();
+					shPostAttrList.addAll(shPostAttrs);
+
+					Set<ShPost> shPostList = shPostRepository.findByShPostTypeAndShPostAttrsIn(shPostType,
+							shPostAttrList);
+					return this.toMap(shPostList, limit);
+				});
+	}
 
+	private List<Map<String, ShPostAttr>> toMap(Iterable<ShPost> shPostList, int limit) {
 		List<Map<String, ShPostAttr>> shPosts = new ArrayList<>();
 		for (ShPost shPost : shPostList) {
+			if (limit > ALL && shPosts.size() >= limit)
+				break;
 			Map<String, ShPostAttr> shPostObject = shSitesPostUtils.postToMap(shPost);
 			shPosts.add(shPostObject);
 		}
 
 		return shPosts;
 	}
+
+	private String key(String query, int limit, String... params) {
+		return String.join("|", query, shMgmtProperties.isEnabled() ? "mgmt" : "live", String.valueOf(limit),
+				String.join("|", params));
+	}
+
+	private Set<String> dependencies(String... dependencies) {
+		return new HashSet<>(Arrays.asList(dependencies));
+	}
 }
@@ -81,6 +81,8 @@ public class ShSitesContent {
 	private ShPostUtils shPostUtils;
 	@Autowired
 	private ShPostRepository shPostRepository;
+	@Autowired
+	private ObjectMapper objectMapper;
 
 	public ShContent fromURL(String url) {
 		ShSitesContextURL shSitesContextURL = new ShSitesContextURL();
@@ -140,11 +142,10 @@ public class ShSitesContent {
 		if (shSite.getPostTypeLayout() != null)
 			postTypeLayout = new JSONObject(shSite.getPostTypeLayout());
 	
-		ObjectMapper mapper = new ObjectMapper();
 		ShSitePostTypeLayouts shSitePostTypeLayouts = null;
 
 		try {
-			shSitePostTypeLayouts = mapper.readValue(postTypeLayout.get(shPost.getShPostType().getName()).toString(),
+			shSitePostTypeLayouts = objectMapper.readValue(postTypeLayout.get(shPost.getShPostType().getName()).toString(),
 					ShSitePostTypeLayouts.class);
 		} catch (JsonProcessingException | JSONException e) {
 			logger.error("fromPost Error: ", e);
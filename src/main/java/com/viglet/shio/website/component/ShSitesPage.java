@@ -17,31 +17,26 @@
 package com.viglet.shio.website.component;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.viglet.shio.bean.ShSitePostTypeLayout;
-import com.viglet.shio.bean.ShSitePostTypeLayouts;
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.post.ShPost;
-import com.viglet.shio.persistence.model.post.ShPostAttr;
 import com.viglet.shio.persistence.model.site.ShSite;
 import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
 import com.viglet.shio.persistence.repository.post.ShPostRepository;
-import com.viglet.shio.post.type.ShSystemPostTypeAttr;
-import com.viglet.shio.utils.ShPostUtils;
 import com.viglet.shio.utils.ShSiteUtils;
 import com.viglet.shio.website.ShSitesContextComponent;
 import com.viglet.shio.website.ShSitesContextURL;
+import com.viglet.shio.website.cache.component.ShCacheSiteLayout;
+import com.viglet.shio.website.cache.component.ShCacheSiteLayout.ShPageLayoutBody;
 import com.viglet.shio.website.utils.ShSitesFolderUtils;
+import com.viglet.shio.website.utils.ShSitesPageLayoutUtils;
 import com.viglet.shio.website.utils.ShSitesPostUtils;
 
 /**
@@ -57,13 +52,15 @@ public class ShSitesPage {
 	@Autowired
 	private ShSitesFolderUtils shSitesFolderUtils;
 	@Autowired
-	private ShPostUtils shPostUtils;
-	@Autowired
 	private ShSitesPostUtils shSitesPostUtils;
 	@Autowired
 	private ShSiteUtils shSiteUtils;
 	@Autowired
 	private ShSitesContextComponent shSitesContextComponent;
+	@Autowired
+	private ShSitesPageLayoutUtils shSitesPageLayoutUtils;
+	@Autowired
+	private ShCacheSiteLayout shCacheSiteLayout;
 
 	private static final String THEME = "theme";
 	private static final String POSTS = "posts";
@@ -89,24 +86,20 @@ public class ShSitesPage {
 
 	private String postPage(ShSitesPageLayout shSitesPageLayout, ShSite shSite, ShSitesContextURL shSitesContextURL,
 			String mimeType, ShPost shPostItem) {
-		JSONObject postTypeLayout = new JSONObject();
-
-		ShSitePostTypeLayouts shSitePostTypeLayouts = this.getPostTypeLayouts(shSite, shPostItem, postTypeLayout);
-
 		String pageLayoutName = null;
 		String format = shSitesContextURL.getInfo().getShFormat();
 		if (format == null)
 			format = DEFAULT_FORMAT;
 
-		for (ShSitePostTypeLayout shSitePostTypeLayout : shSitePostTypeLayouts) {
-			if (shSitePostTypeLayout.getFormat().equals(format)) {
-				pageLayoutName = shSitePostTypeLayout.getLayout();
-				if (shSitePostTypeLayout.getCacheTTL() != null)
-					shSitesPageLayout.setCacheTTL(shSitePostTypeLayout.getCacheTTL());
+		ShSitePostTypeLayout shSitePostTypeLayout = shCacheSiteLayout.postTypeLayout(shSite,
+				shPostItem.getShPostType().getName(), format);
+		if (shSitePostTypeLayout != null) {
+			pageLayoutName = shSitePostTypeLayout.getLayout();
+			if (shSitePostTypeLayout.getCacheTTL() != null)
+				shSitesPageLayout.setCacheTTL(shSitePostTypeLayout.getCacheTTL());
 
-				if (shSitePostTypeLayout.getMimeType() != null)
-					mimeType = shSitePostTypeLayout.getMimeType();
-			}
+			if (shSitePostTypeLayout.getMimeType() != null)
+				mimeType = shSitePostTypeLayout.getMimeType();
 		}
 
 		this.setPageLayout(shSitesPageLayout, shSite, shPostItem, pageLayoutName);
@@ -116,16 +109,14 @@ public class ShSitesPage {
 
 	private void setPageLayout(ShSitesPageLayout shSitesPageLayout, ShSite shSite, ShPost shPostItem,
 			String pageLayoutName) {
-		List<ShPost> shPostPageLayouts = shPostRepository.findByTitle(pageLayoutName);
-
-		Map<String, ShPostAttr> shPostPageLayoutMap = getPageLayoutMap(shSite, shPostPageLayouts);
-		if (shPostPageLayoutMap != null) {
-			shSitesPageLayout.setId(shPostPageLayoutMap.get(ShSystemPostTypeAttr.ID).getStrValue());
-			shSitesPageLayout.setHTML(shPostPageLayoutMap.get(ShSystemPostTypeAttr.HTML).getStrValue());
-			shSitesPageLayout.setJavascriptCode(shPostPageLayoutMap.get(ShSystemPostTypeAttr.JAVASCRIPT).getStrValue());
+		ShPageLayoutBody shPageLayoutBody = shCacheSiteLayout
+				.pageLayout(shCacheSiteLayout.pageLayoutId(shSite, pageLayoutName));
+		if (shPageLayoutBody != null) {
+			shSitesPageLayout.setId(shPageLayoutBody.getId());
+			shSitesPageLayout.setHTML(shPageLayoutBody.getHTML());
+			shSitesPageLayout.setJavascriptCode(shPageLayoutBody.getJavascript());
 
-			String shPostThemeId = shPostPageLayoutMap.get(ShSystemPostTypeAttr.THEME).getStrValue();
-			Map<String, Object> shThemeAttrs = shSitesContextComponent.shThemeFactory(shPostThemeId);
+			Map<String, Object> shThemeAttrs = shCacheSiteLayout.theme(shPageLayoutBody.getThemeId());
 
 			Map<String, Object> shSiteItemAttrs = shSiteUtils.toSystemMap(shSite);
 
@@ -139,36 +130,6 @@ public class ShSitesPage {
 		}
 	}
 
-	private Map<String, ShPostAttr> getPageLayoutMap(ShSite shSite, List<ShPost> shPostPageLayouts) {
-		Map<String, ShPostAttr> shPostPageLayoutMap = null;
-
-		if (shPostPageLayouts != null) {
-			for (ShPost shPostPageLayout : shPostPageLayouts) {
-				if (shPostUtils.getSite(shPostPageLayout).getId().equals(shSite.getId())) {
-					shPostPageLayoutMap = shSitesPostUtils.postToMap(shPostPageLayout);
-				}
-			}
-		}
-		return shPostPageLayoutMap;
-	}
-
-	private ShSitePostTypeLayouts getPostTypeLayouts(ShSite shSite, ShPost shPostItem, JSONObject postTypeLayout) {
-		ShSitePostTypeLayouts shSitePostTypeLayouts = null;
-		if (shSite.getPostTypeLayout() != null)
-			postTypeLayout = new JSONObject(shSite.getPostTypeLayout());
-
-		ObjectMapper mapper = new ObjectMapper();
-
-		try {
-			shSitePostTypeLayouts = mapper.readValue(
-					postTypeLayout.get(shPostItem.getShPostType().getName()).toString(), ShSitePostTypeLayouts.class);
-
-		} catch (JsonProcessingException e) {
-			logger.error(e);
-		}
-		return shSitePostTypeLayouts;
-	}
-
 	private void shFolderIndexPage(ShSitesPageLayout shSitesPageLayout, ShSite shSite, ShSitesContextURL shSitesContextURL,
 			ShPost shPostItem) {
 		 ShFolder shFolderItem = shSitesContextComponent.shFolderItemFactory(shPostItem);
@@ -184,20 +145,20 @@ public class ShSitesPage {
 			ShFolder shFolderItem) {
 		Map<String, Object> shPostItemAttrs = new HashMap<>();
 		Map<String, Object> shFolderItemAttrs = shSitesFolderUtils.toSystemMap(shFolderItem);
-		Map<String, ShPostAttr> shFolderPageLayoutMap = shSitesContextComponent
-				.shFolderPageLayoutMapFactory(shFolderItem, shSite, shSitesContextURL.getInfo().getShFormat());
-		if (shFolderPageLayoutMap != null) {
-			String id = shFolderPageLayoutMap.get(ShSystemPostTypeAttr.ID).getStrValue();
+		ShPost shFolderPageLayout = shSitesPageLayoutUtils.pageLayoutFromFolderAndFolderIndex(shFolderItem, shSite,
+				shSitesContextURL.getInfo().getShFormat());
+		ShPageLayoutBody shPageLayoutBody = shFolderPageLayout != null
+				? shCacheSiteLayout.pageLayout(shFolderPageLayout.getId())
+				: null;
+		if (shPageLayoutBody != null) {
+			String id = shPageLayoutBody.getId();
 			if (logger.isDebugEnabled())
 				logger.debug("Found Folder PageLayout: " + id);
 			shSitesPageLayout.setId(id);
-			shSitesPageLayout.setHTML(shFolderPageLayoutMap.get(ShSystemPostTypeAttr.HTML).getStrValue());
-			shSitesPageLayout
-					.setJavascriptCode(shFolderPageLayoutMap.get(ShSystemPostTypeAttr.JAVASCRIPT).getStrValue());
-
-			String shPostThemeId = shFolderPageLayoutMap.get(ShSystemPostTypeAttr.THEME).getStrValue();
+			shSitesPageLayout.setHTML(shPageLayoutBody.getHTML());
+			shSitesPageLayout.setJavascriptCode(shPageLayoutBody.getJavascript());
 
-			Map<String, Object> shThemeAttrs = shSitesContextComponent.shThemeFactory(shPostThemeId);
+			Map<String, Object> shThemeAttrs = shCacheSiteLayout.theme(shPageLayoutBody.getThemeId());
 
 			shPostItemAttrs.put(THEME, shThemeAttrs);
 			shFolderItemAttrs.put(THEME, shThemeAttrs);
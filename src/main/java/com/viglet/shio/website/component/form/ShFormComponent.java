@@ -26,7 +26,6 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.security.web.csrf.CsrfToken;
@@ -39,6 +38,7 @@ import com.viglet.shio.persistence.model.post.type.ShPostType;
 import com.viglet.shio.persistence.model.post.type.ShPostTypeAttr;
 import com.viglet.shio.persistence.repository.object.ShObjectRepository;
 import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
+import com.viglet.shio.utils.ShPostTypeUtils;
 import com.viglet.shio.widget.ShSystemWidget;
 import com.viglet.shio.widget.ShWidgetImplementation;
 
@@ -56,6 +56,8 @@ public class ShFormComponent {
 	private SpringTemplateEngine templateEngine;
 	@Autowired
 	private ShObjectRepository shObjectRepository;
+	@Autowired
+	private ShPostTypeUtils shPostTypeUtils;
 
 	public String byPostType(String shPostTypeName, String shObjectId, HttpServletRequest request) {
 		final Context ctx = new Context();
@@ -86,8 +88,7 @@ public class ShFormComponent {
 			}
 
 			if (shPostTypeAttr.getShWidget().getName().equals(ShSystemWidget.FORM_CONFIGURATION)) {
-				JSONObject formConfiguration = new JSONObject(shPostTypeAttr.getWidgetSettings());
-				shFormConfiguration = new ShFormConfiguration(formConfiguration);
+				shFormConfiguration = shPostTypeUtils.widgetSettings(shPostTypeAttr).getFormConfiguration();
 			}
 		}
 
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.engine;
+
+import java.util.Map;
+
+import javax.script.ScriptException;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Javascript engine used to render regions and page layouts.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+public interface ShRenderEngine {
+
+	String getName();
+
+	/**
+	 * Evaluate the javascript of a region or page layout.
+	 * 
+	 * @param siteId     site of the region or page layout, its Handlebars
+	 *                   environment is available as Handlebars
+	 * @param javascript region or page layout javascript
+	 * @param html       region or page layout html, available as html
+	 * @param request    current request, available as request
+	 * @param shContent  content of the page, available as shContent
+	 * @return render result
+	 * @throws ScriptException when the javascript fails
+	 */
+	Object render(String siteId, String javascript, String html, HttpServletRequest request, Map<String, Object> shContent)
+			throws ScriptException;
+
+	/**
+	 * Release the idle contexts.
+	 */
+	void cleanup();
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.engine;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Supplier;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Render engine over a JSR-223 script engine. Renders borrow a context from a
+ * pool, with shObject.js and Handlebars already loaded, so they are evaluated
+ * once per context and not on every render. The pool, unlike a context per
+ * thread, is also reused when requests run on short-lived virtual threads.
+ * Handlebars templates are compiled by shTemplate.js once per site and
+ * template content in each pooled context, on its first render of them.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+public class ShScriptRenderEngine implements ShRenderEngine {
+	private static final Log logger = LogFactory.getLog(ShScriptRenderEngine.class);
+	private static final String SITE_TEMPLATE_JS = "Handlebars = viglet.shio.shtemplate.site(shSiteId);";
+	private static final String[] RENDER_ATTRIBUTES = { "shContent", "html", "request", "shSiteId" };
+	private final String name;
+	private final ScriptEngine scriptEngine;
+	private final Map<String, Object> contextOptions;
+	private final Supplier<String> shObjectJS;
+	private final Deque<ScriptContext> scriptContexts = new ConcurrentLinkedDeque<>();
+	private CompiledScript siteTemplate = null;
+
+	/**
+	 * @param name           engine name
+	 * @param scriptEngine   script engine, with the components in its global
+	 *                       bindings
+	 * @param contextOptions engine options, set before anything else in each
+	 *                       new context
+	 * @param shObjectJS     shObject.js and Handlebars library
+	 */
+	public ShScriptRenderEngine(String name, ScriptEngine scriptEngine, Map<String, Object> contextOptions,
+			Supplier<String> shObjectJS) {
+		this.name = name;
+		this.scriptEngine = scriptEngine;
+		this.contextOptions = contextOptions;
+		this.shObjectJS = shObjectJS;
+		if (scriptEngine instanceof Compilable) {
+			try {
+				this.siteTemplate = ((Compilable) scriptEngine).compile(SITE_TEMPLATE_JS);
+			} catch (ScriptException e) {
+				logger.error(e);
+			}
+		}
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Object render(String siteId, String javascript, String html, HttpServletRequest request, Map<String, Object> shContent)
+			throws ScriptException {
+		ScriptContext sc = this.getScriptContext();
+		try {
+			sc.setAttribute("shContent", shContent, ScriptContext.ENGINE_SCOPE);
+			sc.setAttribute("html", html, ScriptContext.ENGINE_SCOPE);
+			sc.setAttribute("request", request, ScriptContext.ENGINE_SCOPE);
+			sc.setAttribute("shSiteId", siteId, ScriptContext.ENGINE_SCOPE);
+			if (siteTemplate != null)
+				siteTemplate.eval(sc);
+			else
+				scriptEngine.eval(SITE_TEMPLATE_JS, sc);
+			return scriptEngine.eval(javascript, sc);
+		} finally {
+			// Pooled context can't keep the request and content of this render
+			for (String attribute : RENDER_ATTRIBUTES)
+				sc.removeAttribute(attribute, ScriptContext.ENGINE_SCOPE);
+			scriptContexts.push(sc);
+		}
+	}
+
+	@Override
+	public void cleanup() {
+		scriptContexts.clear();
+	}
+
+	private ScriptContext getScriptContext() {
+		ScriptContext sc = scriptContexts.poll();
+		if (sc == null) {
+			if (logger.isDebugEnabled())
+				logger.debug(String.format("Creating %s context", name));
+			Bindings bindings = scriptEngine.createBindings();
+			bindings.putAll(contextOptions);
+			Bindings globalBindings = scriptEngine.getBindings(ScriptContext.GLOBAL_SCOPE);
+			if (globalBindings != null)
+				bindings.putAll(globalBindings);
+			sc = new SimpleScriptContext();
+			sc.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+			try {
+				scriptEngine.eval(shObjectJS.get(), sc);
+			} catch (ScriptException e) {
+				logger.error(e);
+			}
+		}
+		return sc;
+	}
+}
@@ -18,12 +18,16 @@ package com.viglet.shio.website.nashorn;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import javax.annotation.Resource;
 import javax.script.Bindings;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
+import javax.script.ScriptEngineManager;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -33,11 +37,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.viglet.shio.property.ShWebsiteProperties;
+import com.viglet.shio.website.cache.component.ShCacheJavascript;
 import com.viglet.shio.website.component.ShGetRelationComponent;
 import com.viglet.shio.website.component.ShNavigationComponent;
 import com.viglet.shio.website.component.ShQueryComponent;
 import com.viglet.shio.website.component.ShSearchComponent;
 import com.viglet.shio.website.component.form.ShFormComponent;
+import com.viglet.shio.website.engine.ShRenderEngine;
+import com.viglet.shio.website.engine.ShScriptRenderEngine;
 import com.viglet.shio.website.utils.ShSitesFolderUtils;
 import com.viglet.shio.website.utils.ShSitesObjectUtils;
 import com.viglet.shio.website.utils.ShSitesPostUtils;
@@ -48,6 +55,12 @@ import com.viglet.shio.website.utils.ShSitesPostUtils;
 @Configuration
 public class ShNashornEngineConfiguration {
 	private static final Log logger = LogFactory.getLog(ShNashornEngineConfiguration.class);
+	public static final String NASHORN = "nashorn";
+	public static final String GRAALJS = "graaljs";
+	private static final String GRAALJS_ENGINE_NAME = "graal.js";
+	private static final String GRAALJS_NASHORN_COMPAT = "polyglot.js.nashorn-compat";
+	private static final Map<String, Object> GRAALJS_OPTIONS = Collections
+			.singletonMap("polyglot.js.allowHostAccess", true);
 
 	@Resource
 	private ApplicationContext context;
@@ -69,10 +82,36 @@ public class ShNashornEngineConfiguration {
 	private ShGetRelationComponent shGetRelationComponent;
 	@Autowired
 	private ShWebsiteProperties shWebsiteProperties;
+	@Autowired
+	private ShCacheJavascript shCacheJavascript;
 
 	@Bean
-	public ScriptEngine scriptEngine() {
-		
+	public ShRenderEngine shRenderEngine() {
+		Supplier<String> shObjectJS = () -> shCacheJavascript.shObjectJSFactory().toString();
+		if (GRAALJS.equalsIgnoreCase(shWebsiteProperties.getEngine())) {
+			ScriptEngine engine = this.graalJSEngine();
+			if (engine != null)
+				return new ShScriptRenderEngine(GRAALJS, engine, GRAALJS_OPTIONS, shObjectJS);
+			logger.warn("GraalJS is not available, using Nashorn");
+		}
+		ScriptEngine engine = this.nashornEngine();
+		if (engine != null)
+			return new ShScriptRenderEngine(NASHORN, engine, Collections.emptyMap(), shObjectJS);
+		return null;
+	}
+
+	/**
+	 * GraalJS JSR-223 engine, when it is in classpath. All contexts are created
+	 * from the same polyglot engine, so the parsed code is shared between them.
+	 */
+	private ScriptEngine graalJSEngine() {
+		if (System.getProperty(GRAALJS_NASHORN_COMPAT) == null)
+			System.setProperty(GRAALJS_NASHORN_COMPAT, Boolean.TRUE.toString());
+		ScriptEngine engine = new ScriptEngineManager().getEngineByName(GRAALJS_ENGINE_NAME);
+		return engine != null ? this.setComponents(engine) : null;
+	}
+
+	private ScriptEngine nashornEngine() {
 		Class<?> nashornScriptEngineFactory;
 		try {
 
@@ -83,20 +122,8 @@ public class ShNashornEngineConfiguration {
 					.getDeclaredConstructor().newInstance();
 			ScriptEngine engine = (ScriptEngine) getScriptEngine.invoke(scriptEngineFactory,
 					shWebsiteProperties.getNashornAsObject());
-			Bindings bindings = engine.createBindings();
 
-			bindings.put("shNavigationComponent", shNavigationComponent);
-			bindings.put("shQueryComponent", shQueryComponent);
-			bindings.put("shSearchComponent", shSearchComponent);
-			bindings.put("shFormComponent", shFormComponent);
-			bindings.put("shGetRelationComponent", shGetRelationComponent);
-			bindings.put("shSitesFolderUtils", shSitesFolderUtils);
-			bindings.put("shSitesObjectUtils", shSitesObjectUtils);
-			bindings.put("shSitesPostUtils", shSitesPostUtils);
-
-			engine.setBindings(bindings, ScriptContext.GLOBAL_SCOPE);
-
-			return engine;
+			return this.setComponents(engine);
 		} catch (ClassNotFoundException | NoSuchMethodException | SecurityException | InstantiationException
 				| IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
 			logger.error("ShNashornEngineConfiguration Error:", e);
@@ -104,4 +131,22 @@ public class ShNashornEngineConfiguration {
 		return null;
 	}
 
+	private ScriptEngine setComponents(ScriptEngine engine) {
+		Bindings bindings = engine.createBindings();
+
+		bindings.put("shNavigationComponent", shNavigationComponent);
+		bindings.put("shQueryComponent", shQueryComponent);
+		bindings.put("shSearchComponent", shSearchComponent);
+		bindings.put("shFormComponent", shFormComponent);
+		bindings.put("shGetRelationComponent", shGetRelationComponent);
+		bindings.put("shSitesFolderUtils", shSitesFolderUtils);
+		bindings.put("shSitesObjectUtils", shSitesObjectUtils);
+		bindings.put("shSitesPostUtils", shSitesPostUtils);
+		bindings.put("shTemplateCacheSize", shWebsiteProperties.getTemplateCacheSize());
+
+		engine.setBindings(bindings, ScriptContext.GLOBAL_SCOPE);
+
+		return engine;
+	}
+
 }
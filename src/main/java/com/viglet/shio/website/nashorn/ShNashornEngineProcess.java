@@ -16,16 +16,11 @@
  */
 package com.viglet.shio.website.nashorn;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import javax.script.Bindings;
-import javax.script.ScriptContext;
-import javax.script.ScriptEngine;
 import javax.script.ScriptException;
-import javax.script.SimpleScriptContext;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -34,7 +29,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import com.viglet.shio.website.cache.component.ShCacheJavascript;
+import com.viglet.shio.website.engine.ShRenderEngine;
 
 /**
  * @author Alexandre Oliveira
@@ -42,17 +37,14 @@ import com.viglet.shio.website.cache.component.ShCacheJavascript;
 @Component
 public class ShNashornEngineProcess {
 	private static final Log logger = LogFactory.getLog(ShNashornEngineProcess.class);
-	private static final ThreadLocal<HashMap<String, ScriptContext>> scriptContexts = new ThreadLocal<>();
 	@Autowired
-	private ScriptEngine scriptEngine;
-	@Autowired
-	private ShCacheJavascript shCacheJavascript;
+	private ShRenderEngine shRenderEngine;
 
 	public void cleanup() {
-		scriptContexts.remove();
+		shRenderEngine.cleanup();
 	}
 
-	public Object render(String labelForError, String javascript, String html, HttpServletRequest request,
+	public Object render(String labelForError, String siteId, String javascript, String html, HttpServletRequest request,
 			Map<String, Object> shContent) {
 		if (logger.isDebugEnabled()) {
 			logger.debug("javascript: " + javascript);
@@ -60,24 +52,7 @@ public class ShNashornEngineProcess {
 			logger.debug("shContent: " + shContent);
 		}
 		try {
-			SimpleScriptContext ssc = new SimpleScriptContext();
-			ssc.setBindings(scriptEngine.createBindings(), ScriptContext.ENGINE_SCOPE);
-			Bindings b = scriptEngine.getBindings(ScriptContext.GLOBAL_SCOPE);
-			if (b != null) {
-				for (Map.Entry<String, Object> e : b.entrySet()) {
-					ssc.setAttribute(e.getKey(), e.getValue(), ScriptContext.ENGINE_SCOPE);
-				}
-			} else {
-				if (logger.isDebugEnabled())
-					logger.debug("Bindings is null");
-
-			}
-			ScriptContext sc = shObjectLib(ssc);
-			sc.setAttribute("shContent", shContent, ScriptContext.ENGINE_SCOPE);
-			sc.setAttribute("html", html, ScriptContext.ENGINE_SCOPE);
-			sc.setAttribute("request", request, ScriptContext.ENGINE_SCOPE);
-
-			Object render = scriptEngine.eval(javascript, sc);
+			Object render = shRenderEngine.render(siteId, javascript, html, request, shContent);
 			if (logger.isDebugEnabled())
 				logger.debug("render: " + render);
 			return render;
@@ -88,33 +63,6 @@ public class ShNashornEngineProcess {
 		return null;
 	}
 
-	private ScriptContext shObjectLib(SimpleScriptContext ssc) {
-		StringBuilder shObjectJS;
-		ScriptContext sc;
-		if (scriptContexts.get() == null) {
-			logger.debug("Creating TL");
-			scriptContexts.set(new HashMap<>());
-		}
-		if ((sc = scriptContexts.get().get("shScript")) != null) {
-			logger.debug("Reusing shScript");
-		} else {
-			logger.debug("Creating shScript");
-
-			try {
-				shObjectJS = shCacheJavascript.shObjectJSFactory();
-				scriptEngine.eval(shObjectJS.toString(), ssc);
-			} catch (ScriptException e) {
-				logger.error(e);
-			}
-			HashMap<String, ScriptContext> elementMap = new HashMap<>();
-			sc = ssc;
-			elementMap.put("shScript", ssc);
-			scriptContexts.set(elementMap);
-
-		}
-		return sc;
-	}
-
 	public void regionError(String regionAttr, String javascript, Throwable err) {
 		if (err instanceof ScriptException) {
 			ScriptException exc = ((ScriptException) err);
@@ -35,6 +35,8 @@ import com.viglet.shio.post.type.ShSystemPostType;
 import com.viglet.shio.url.ShURLScheme;
 import com.viglet.shio.utils.ShFolderUtils;
 import com.viglet.shio.website.ShContent;
+import com.viglet.shio.website.cache.component.ShCacheObjectLink;
+import com.viglet.shio.website.cache.component.ShCacheObjectLink.ShObjectLink;
 
 /**
  * @author Alexandre Oliveira
@@ -53,6 +55,8 @@ public class ShSitesFolderUtils {
 	private ShSitesPostUtils shSitesPostUtils;
 	@Autowired
 	private ShFolderUtils shFolderUtils;
+	@Autowired
+	private ShCacheObjectLink shCacheObjectLink;
 
 	public ShFolder getParentFolder(String shFolderId) {
 		return shFolderUtils.getParentFolder(shFolderId);
@@ -113,11 +117,9 @@ public class ShSitesFolderUtils {
 	}
 
 	public String generateFolderLinkById(String folderID) {
-		Optional<ShFolder> shFolderOptional = shFolderRepository.findById(folderID);
-		if (shFolderOptional.isPresent()) {
-			ShFolder shFolder = shFolderOptional.get();
-			return this.generateFolderLink(shFolder);
-		}
+		ShObjectLink shObjectLink = shCacheObjectLink.get(folderID);
+		if (shObjectLink != null && !shObjectLink.isPost())
+			return shObjectLink.getLink();
 		return null;
 	}
 }
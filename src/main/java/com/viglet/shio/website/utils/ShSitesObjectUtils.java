@@ -16,21 +16,21 @@
  */
 package com.viglet.shio.website.utils;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.viglet.shio.persistence.model.folder.ShFolder;
-import com.viglet.shio.persistence.model.object.ShObject;
 import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
 import com.viglet.shio.persistence.model.post.ShPost;
 import com.viglet.shio.persistence.model.post.ShPostAttr;
 import com.viglet.shio.persistence.model.post.impl.ShPostImpl;
-import com.viglet.shio.persistence.repository.object.ShObjectRepository;
 import com.viglet.shio.utils.ShFolderUtils;
+import com.viglet.shio.website.cache.component.ShCacheObjectLink;
+import com.viglet.shio.website.cache.component.ShCacheObjectLink.ShObjectLink;
 
 /**
  * @author Alexandre Oliveira
@@ -46,7 +46,7 @@ public class ShSitesObjectUtils {
 	@Autowired
 	private ShSitesFolderUtils shSitesFolderUtils;
 	@Autowired
-	private ShObjectRepository shObjectRepository;
+	private ShCacheObjectLink shCacheObjectLink;
 	@Autowired
 	private ShSitesPostUtils shSitesPostUtils;
 
@@ -80,37 +80,39 @@ public class ShSitesObjectUtils {
 
 	public String generateObjectLinkById(String objectId) {
 		if (objectId != null) {
-			Optional<ShObject> shObjectOptional = shObjectRepository.findById(objectId);
-			if (shObjectOptional.isPresent()) {
-				ShObjectImpl shObject = shObjectOptional.get();
-				if (shObject instanceof ShPost) {
-					return shSitesPostUtils.generatePostLink((ShPost) shObject);
-				} else if (shObject instanceof ShFolder) {
-					return shSitesFolderUtils.generateFolderLink((ShFolder) shObject);
-				}
-			}
-
+			ShObjectLink shObjectLink = shCacheObjectLink.get(objectId);
+			if (shObjectLink != null)
+				return shObjectLink.getLink();
 		}
 		return null;
 	}
 
+	/**
+	 * Generate the links of many posts and folders at once.
+	 * 
+	 * @param objectIds post and folder ids
+	 * @return links by object id, without the objects that were not found
+	 * @since 0.3.7
+	 */
+	public Map<String, String> generateObjectLinksById(List<String> objectIds) {
+		Map<String, String> objectLinks = new LinkedHashMap<>();
+		if (objectIds != null)
+			shCacheObjectLink.get(objectIds)
+					.forEach((objectId, shObjectLink) -> objectLinks.put(objectId, shObjectLink.getLink()));
+		return objectLinks;
+	}
+
 	public String generateImageLinkById(String objectId, int scale) {
 		if (objectId != null) {
-			Optional<ShObject> shObjectOptional = shObjectRepository.findById(objectId);
-			if (shObjectOptional.isPresent()) {
-				ShObjectImpl shObject = shObjectOptional.get();
-				if (shObject instanceof ShPost) {
-					if (scale == 1) {
-						return shSitesPostUtils.generatePostLink((ShPost) shObject);
-					} else {
-						return shSitesPostUtils.generatePostLink((ShPost) shObject).replaceAll("^/store/file_source",
-								String.format("/image/scale/%d", scale));
-					}
+			ShObjectLink shObjectLink = shCacheObjectLink.get(objectId);
+			if (shObjectLink != null && shObjectLink.isPost()) {
+				if (scale == 1 || shObjectLink.getLink() == null) {
+					return shObjectLink.getLink();
 				} else {
-					return null;
+					return shObjectLink.getLink().replaceAll("^/store/file_source",
+							String.format("/image/scale/%d", scale));
 				}
 			}
-
 		}
 		return null;
 	}
@@ -22,15 +22,10 @@ import java.util.Optional;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.viglet.shio.bean.ShSitePostTypeLayout;
-import com.viglet.shio.bean.ShSitePostTypeLayouts;
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.object.ShObject;
 import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
@@ -44,9 +39,9 @@ import com.viglet.shio.persistence.repository.post.ShPostRepository;
 import com.viglet.shio.persistence.repository.site.ShSiteRepository;
 import com.viglet.shio.post.type.ShSystemPostType;
 import com.viglet.shio.post.type.ShSystemPostTypeAttr;
-import com.viglet.shio.utils.ShPostUtils;
 import com.viglet.shio.website.ShSitesContextURL;
 import com.viglet.shio.website.ShSitesContextURLProcess;
+import com.viglet.shio.website.cache.component.ShCacheSiteLayout;
 
 /**
  * Page Layout Utils.
@@ -58,18 +53,19 @@ import com.viglet.shio.website.ShSitesContextURLProcess;
 public class ShSitesPageLayoutUtils {
 	private static final Logger logger = LogManager.getLogger(ShSitesPageLayoutUtils.class);
 	private static final String DEFAULT_FORMAT = "default";
+	private static final String FOLDER = "FOLDER";
 	@Autowired
 	private ShSitesPostUtils shSitesPostUtils;
 	@Autowired
 	private ShPostRepository shPostRepository;
 	@Autowired
-	private ShPostUtils shPostUtils;
-	@Autowired
 	private ShSitesContextURLProcess shSitesContextURLProcess;
 	@Autowired
 	private ShObjectRepository shObjectRepository;
 	@Autowired
 	private ShSiteRepository shSiteRepository;
+	@Autowired
+	private ShCacheSiteLayout shCacheSiteLayout;
 
 	public ShPost fromURL(String url) {
 		ShSitesContextURL shSitesContextURL = new ShSitesContextURL();
@@ -100,40 +96,18 @@ public class ShSitesPageLayoutUtils {
 	}
 
 	public ShPost pageLayoutFromPost(ShPostImpl shPostItem, ShSite shSite, String format) {
-		JSONObject postTypeLayout = new JSONObject();
-
-		if (shSite.getPostTypeLayout() != null)
-			postTypeLayout = new JSONObject(shSite.getPostTypeLayout());
-
-		String pageLayoutName = getPageLayoutNamePost(shPostItem, format, postTypeLayout);
-		List<ShPost> shPostPageLayouts = shPostRepository.findByTitle(pageLayoutName);
-
-		ShPost shPostPageLayout = null;
-		if (shPostPageLayouts != null)
-			for (ShPost shPostPageLayoutItem : shPostPageLayouts)
-				if (shPostUtils.getSite(shPostPageLayoutItem).getId().equals(shSite.getId()))
-					shPostPageLayout = shPostPageLayoutItem;
-
-		return shPostPageLayout;
+		return this.pageLayout(shSite, shPostItem.getShPostType().getName(), format);
 	}
 
-	private String getPageLayoutNamePost(ShPostImpl shPostItem, String format, JSONObject postTypeLayout) {
-		ShSitePostTypeLayouts shSitePostTypeLayouts = null;
-		ObjectMapper mapper = new ObjectMapper();
-		try {
-			shSitePostTypeLayouts = mapper.readValue(
-					postTypeLayout.get(shPostItem.getShPostType().getName()).toString(), ShSitePostTypeLayouts.class);
-		} catch (JsonProcessingException | JSONException e) {
-			logger.error("pageLayoutFromPost Error", e);
+	private ShPost pageLayout(ShSite shSite, String postTypeName, String format) {
+		ShSitePostTypeLayout shSitePostTypeLayout = shCacheSiteLayout.postTypeLayout(shSite, postTypeName,
+				format != null ? format : DEFAULT_FORMAT);
+		if (shSitePostTypeLayout != null) {
+			String pageLayoutId = shCacheSiteLayout.pageLayoutId(shSite, shSitePostTypeLayout.getLayout());
+			if (pageLayoutId != null)
+				return shPostRepository.findById(pageLayoutId).orElse(null);
 		}
-
-		String pageLayoutName = null;
-
-		if (format == null)
-			format = DEFAULT_FORMAT;
-
-		pageLayoutName = getPageLayoutName(format, pageLayoutName, shSitePostTypeLayouts);
-		return pageLayoutName;
+		return null;
 	}
 
 	public ShPost pageLayoutFromFolderAndFolderIndex(ShObjectImpl shObjectItem, ShSite shSite, String format) {
@@ -199,51 +173,7 @@ public class ShSitesPageLayoutUtils {
 	}
 
 	private ShPost defaultFolderPageLayout(ShSite shSite, String format, ShPost shFolderPageLayout) {
-		JSONObject postTypeLayout = new JSONObject(shSite.getPostTypeLayout());
-
-		if (postTypeLayout.has("FOLDER")) {
-			String pageLayoutName = getPageLayoutNameFolder(postTypeLayout, format);
-			shFolderPageLayout = getFolderPageLayout(shSite, shFolderPageLayout, pageLayoutName);
-		}
-		return shFolderPageLayout;
-	}
-
-	private ShPost getFolderPageLayout(ShSite shSite, ShPost shFolderPageLayout, String pageLayoutName) {
-		List<ShPost> shPostPageLayouts = shPostRepository.findByTitle(pageLayoutName);
-
-		if (shPostPageLayouts != null) {
-			for (ShPost shPostPageLayout : shPostPageLayouts) {
-				if (shPostUtils.getSite(shPostPageLayout).getId().equals(shSite.getId()))
-					shFolderPageLayout = shPostPageLayout;
-			}
-		}
-		return shFolderPageLayout;
-	}
-
-	private String getPageLayoutNameFolder(JSONObject postTypeLayout, String format) {
-		String pageLayoutName = null;
-		ObjectMapper mapper = new ObjectMapper();
-		ShSitePostTypeLayouts shSitePostTypeLayouts;
-		try {
-			shSitePostTypeLayouts = mapper.readValue(postTypeLayout.get("FOLDER").toString(),
-					ShSitePostTypeLayouts.class);
-			if (format == null)
-				format = DEFAULT_FORMAT;
-
-			pageLayoutName = getPageLayoutName(format, pageLayoutName, shSitePostTypeLayouts);
-		} catch (JsonProcessingException | JSONException e) {
-			logger.error(e);
-		}
-
-		return pageLayoutName;
-	}
-
-	private String getPageLayoutName(String format, String pageLayoutName,
-			ShSitePostTypeLayouts shSitePostTypeLayouts) {
-		for (ShSitePostTypeLayout shSitePostTypeLayout : shSitePostTypeLayouts) {
-			if (shSitePostTypeLayout.getFormat().equals(format))
-				pageLayoutName = shSitePostTypeLayout.getLayout();
-		}
-		return pageLayoutName;
+		ShPost shPostPageLayout = this.pageLayout(shSite, FOLDER, format);
+		return shPostPageLayout != null ? shPostPageLayout : shFolderPageLayout;
 	}
 }
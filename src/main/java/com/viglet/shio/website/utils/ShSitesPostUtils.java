@@ -48,6 +48,8 @@ import com.viglet.shio.utils.ShFolderUtils;
 import com.viglet.shio.utils.ShPostUtils;
 import com.viglet.shio.utils.ShStaticFileUtils;
 import com.viglet.shio.website.ShContent;
+import com.viglet.shio.website.cache.component.ShCacheObjectLink;
+import com.viglet.shio.website.cache.component.ShCacheObjectLink.ShObjectLink;
 
 /**
  * Site Post Utils.
@@ -79,6 +81,8 @@ public class ShSitesPostUtils {
 	private ShMgmtProperties shMgmtProperties;
 	@Autowired
 	private ShPostUtils shPostUtils;
+	@Autowired
+	private ShCacheObjectLink shCacheObjectLink;
 
 	public boolean isFolderIndex(ShPost shPost) {
 		if (shPost.getShPostType().getName().equals(ShSystemPostType.FOLDER_INDEX)) {
@@ -280,16 +284,11 @@ public class ShSitesPostUtils {
 
 	public String generatePostLinkById(String postID) {
 		if (postID != null) {
-			try {
-				ShPost shPost = shPostRepository.findById(postID).orElse(null);
-				return this.generatePostLink(shPost);
-
-			} catch (IllegalArgumentException exception) {
-				return null;
-			}
-		} else {
-			return null;
+			ShObjectLink shObjectLink = shCacheObjectLink.get(postID);
+			if (shObjectLink != null && shObjectLink.isPost())
+				return shObjectLink.getLink();
 		}
+		return null;
 	}
 
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.widget;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.BasicResponseHandler;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicNameValuePair;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.viglet.shio.property.ShFormProperties;
+
+/**
+ * reCAPTCHA verification with a pooled HTTP client, so connections to Google
+ * are reused and a slow answer can't hold the request longer than the
+ * timeout.
+ *
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+@Component
+public class ShReCaptchaClient {
+	private static final Log logger = LogFactory.getLog(ShReCaptchaClient.class);
+	private static final String VERIFY_URL = "https://www.google.com/recaptcha/api/siteverify";
+	@Autowired
+	private ShFormProperties shFormProperties;
+
+	private CloseableHttpClient httpClient;
+	private ResponseHandler<String> responseHandler = new BasicResponseHandler();
+
+	@PostConstruct
+	private void init() {
+		int timeout = shFormProperties.getRecaptchaTimeout() * 1000;
+		RequestConfig config = RequestConfig.custom().setConnectTimeout(timeout).setConnectionRequestTimeout(timeout)
+				.setSocketTimeout(timeout).build();
+		PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+		cm.setMaxTotal(shFormProperties.getRecaptchaMaxConnections());
+		cm.setDefaultMaxPerRoute(shFormProperties.getRecaptchaMaxConnections());
+		cm.setValidateAfterInactivity(3000);
+		httpClient = HttpClientBuilder.create().setDefaultRequestConfig(config).setConnectionManager(cm).build();
+	}
+
+	@PreDestroy
+	private void destroy() {
+		try {
+			httpClient.close();
+		} catch (IOException e) {
+			logger.error("close IOException: ", e);
+		}
+	}
+
+	public boolean verify(String secretKey, String response, String remoteIp) {
+		if (StringUtils.isBlank(secretKey) || StringUtils.isBlank(response))
+			return false;
+		List<NameValuePair> params = new ArrayList<>();
+		params.add(new BasicNameValuePair("secret", secretKey));
+		params.add(new BasicNameValuePair("response", response));
+		params.add(new BasicNameValuePair("remoteip", remoteIp));
+		HttpPost httpPost = new HttpPost(VERIFY_URL);
+		httpPost.setEntity(new UrlEncodedFormEntity(params, StandardCharsets.UTF_8));
+		try {
+			return new JSONObject(httpClient.execute(httpPost, responseHandler)).optBoolean("success");
+		} catch (IOException | JSONException e) {
+			logger.error("verify Exception: ", e);
+			return false;
+		}
+	}
+}
@@ -16,22 +16,15 @@
  */
 package com.viglet.shio.widget;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-
 import javax.servlet.http.HttpServletRequest;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.thymeleaf.context.Context;
 
-import com.google.gson.Gson;
 import com.viglet.shio.persistence.model.object.impl.ShObjectImpl;
 import com.viglet.shio.persistence.model.post.type.ShPostTypeAttr;
+import com.viglet.shio.utils.ShPostTypeUtils;
 
 /**
  * reCAPTCHA Widget.
@@ -42,7 +35,10 @@ import com.viglet.shio.persistence.model.post.type.ShPostTypeAttr;
 @Component
 public class ShReCaptchaWidget  extends ShDefaultWidget {
 
-	private static final Log logger = LogFactory.getLog(ShReCaptchaWidget.class);
+	@Autowired
+	private ShPostTypeUtils shPostTypeUtils;
+	@Autowired
+	private ShReCaptchaClient shReCaptchaClient;
 	
 	@Override
 	public void setTemplate() {
@@ -52,9 +48,7 @@ public class ShReCaptchaWidget  extends ShDefaultWidget {
 	
 	@Override
 	public String render(ShPostTypeAttr shPostTypeAttr, ShObjectImpl shObject) {
-		String widgetSettings = shPostTypeAttr.getWidgetSettings();
-		JSONObject settings = new JSONObject(widgetSettings);
-		String siteKey = settings.getString("siteKey");
+		String siteKey = shPostTypeUtils.widgetSettings(shPostTypeAttr).getSiteKey();
 		final Context ctx = new Context();
 		ctx.setVariable("shPostTypeAttr", shPostTypeAttr);
 		ctx.setVariable("siteKey", siteKey);
@@ -64,58 +58,9 @@ public class ShReCaptchaWidget  extends ShDefaultWidget {
 	@Override
 	public boolean validateForm(HttpServletRequest request, ShPostTypeAttr shPostTypeAttr) {
 		String recap = request.getParameter("g-recaptcha-response");
-		String widgetSettings = shPostTypeAttr.getWidgetSettings();
-		JSONObject settings = new JSONObject(widgetSettings);
-		String secretKey = settings.getString("secretKey");
-
-		try {
-			String urlGoogle = "https://www.google.com/recaptcha/api/siteverify?secret=%s&response=%s&remoteip=%s";
-
-			// Send get request to Google reCaptcha server with secret key
-			String urlFormatada = String.format(urlGoogle, secretKey, recap,
-					(request.getRemoteAddr() != null ? request.getRemoteAddr() : "0.0.0.0"));
-			URL url = new URL(urlFormatada);
-			HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-			conn.setRequestMethod("GET");
-			String line = "";
-			StringBuilder outputString = new StringBuilder();
-			BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-			while ((line = reader.readLine()) != null)
-				outputString.append(line);
-
-			// Convert response into Object
-			CaptchaResponse capRes = new Gson().fromJson(outputString.toString(), CaptchaResponse.class);
-
-			return capRes.isSuccess();
-
-		} catch (Exception e) {
-			logger.error("validateFormException", e);
-			return false;
-		}
-	}
-
-	private class CaptchaResponse {
-		private boolean success;
-		private String[] errorCodes;
-
-		public boolean isSuccess() {
-			return success;
-		}
-
-		@SuppressWarnings("unused")
-		public void setSuccess(boolean success) {
-			this.success = success;
-		}
-
-		@SuppressWarnings("unused")
-		public String[] getErrorCodes() {
-			return errorCodes;
-		}
-
-		@SuppressWarnings("unused")
-		public void setErrorCodes(String[] errorCodes) {
-			this.errorCodes = errorCodes;
-		}
+		String secretKey = shPostTypeUtils.widgetSettings(shPostTypeAttr).getSecretKey();
 
+		return shReCaptchaClient.verify(secretKey, recap,
+				request.getRemoteAddr() != null ? request.getRemoteAddr() : "0.0.0.0");
 	}
 }
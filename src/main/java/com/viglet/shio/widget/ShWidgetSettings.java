@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2016-2020 the original author or authors. 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.widget;
+
+import org.apache.commons.lang3.StringUtils;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.viglet.shio.turing.ShTuringSearchSettings;
+import com.viglet.shio.website.component.form.ShFormConfiguration;
+
+/**
+ * Widget settings of a post type attribute, parsed once from its JSON.
+ * Settings that are not a JSON object are read as empty.
+ * 
+ * @author Alexandre Oliveira
+ * @since 0.3.7
+ */
+public class ShWidgetSettings {
+	private static final String SITE_KEY = "siteKey";
+	private static final String SECRET_KEY = "secretKey";
+
+	private final String source;
+	private final JSONObject settings;
+	private final boolean additionalField;
+	private final boolean samePostTypeField;
+	private final String customFieldName;
+	private final String association;
+	private final String siteKey;
+	private final String secretKey;
+	private volatile ShFormConfiguration formConfiguration;
+
+	public ShWidgetSettings(String source) {
+		this.source = source;
+		this.settings = parse(source);
+		JSONObject searchSettings = settings.optJSONObject(ShTuringSearchSettings.SEARCH);
+		if (searchSettings != null) {
+			this.additionalField = searchSettings.optInt(ShTuringSearchSettings.IS_ADDITIONAL_FIELD) == 1;
+			this.samePostTypeField = searchSettings.optInt(ShTuringSearchSettings.IS_SAME_POSTTYPE_FIELD) == 1;
+			this.customFieldName = notBlank(searchSettings.optString(ShTuringSearchSettings.CUSTOM_FIELD_NAME, null));
+			this.association = notBlank(searchSettings.optString(ShTuringSearchSettings.ASSOCIATION, null));
+		} else {
+			this.additionalField = false;
+			this.samePostTypeField = false;
+			this.customFieldName = null;
+			this.association = null;
+		}
+		this.siteKey = settings.optString(SITE_KEY, null);
+		this.secretKey = settings.optString(SECRET_KEY, null);
+	}
+
+	private static JSONObject parse(String source) {
+		if (StringUtils.isNotBlank(source)) {
+			try {
+				return new JSONObject(source);
+			} catch (JSONException e) {
+				return new JSONObject();
+			}
+		}
+		return new JSONObject();
+	}
+
+	private static String notBlank(String value) {
+		return StringUtils.isNotBlank(value) ? value : null;
+	}
+
+	/**
+	 * @return JSON that these settings were parsed from
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	public boolean isAdditionalField() {
+		return additionalField;
+	}
+
+	public boolean isSamePostTypeField() {
+		return samePostTypeField;
+	}
+
+	/**
+	 * @return search field name, or null when it is not defined
+	 */
+	public String getCustomFieldName() {
+		return customFieldName;
+	}
+
+	/**
+	 * @return associated search field, or null when it is not defined
+	 */
+	public String getAssociation() {
+		return association;
+	}
+
+	public String getSiteKey() {
+		return siteKey;
+	}
+
+	public String getSecretKey() {
+		return secretKey;
+	}
+
+	/**
+	 * Form configuration, created on first use because only Form Configuration
+	 * widgets have it.
+	 * 
+	 * @return form configuration
+	 */
+	public ShFormConfiguration getFormConfiguration() {
+		ShFormConfiguration shFormConfiguration = formConfiguration;
+		if (shFormConfiguration == null) {
+			shFormConfiguration = new ShFormConfiguration(settings);
+			formConfiguration = shFormConfiguration;
+		}
+		return shFormConfiguration;
+	}
+}
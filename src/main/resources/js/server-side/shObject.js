@@ -62,6 +62,21 @@ viglet.shio.shObject = function() {
 				postTypeName));
 	}
 
+	/**
+	 * @desc Returns only the first items of Query Component
+	 * @param folderId
+	 *            Folder Id.
+	 * @param postTypeName
+	 *            Post Type Name.
+	 * @param limit
+	 *            Max of items.
+	 * @public
+	 */
+	this.queryFirst = function(folderId, postTypeName, limit) {
+		return Java.from(shQueryComponent.findByFolderName(folderId,
+				postTypeName, limit));
+	}
+
 	/**
 	 * @desc Returns Query Component By Post Type
 	 * @param postTypeName
@@ -72,6 +87,18 @@ viglet.shio.shObject = function() {
 		return Java.from(shQueryComponent.findByPostTypeName(postTypeName));
 	}
 	
+	/**
+	 * @desc Returns only the first items of Query Component By Post Type
+	 * @param postTypeName
+	 *            Post Type Name.
+	 * @param limit
+	 *            Max of items.
+	 * @public
+	 */
+	this.queryByPostTypeFirst = function(postTypeName, limit) {
+		return Java.from(shQueryComponent.findByPostTypeName(postTypeName, limit));
+	}
+	
 	/**
 	 * @desc Returns Query Component By Posts that have some values
 	 * @param postTypeName
@@ -155,6 +182,16 @@ viglet.shio.shObject = function() {
 		return shSitesObjectUtils.generateObjectLinkById(objectId);
 	}
 	
+	/**
+	 * @desc Generate Links of many Objects at once
+	 * @param objectIds
+	 *            Array of Object Id.
+	 * @public
+	 */
+	this.generateObjectLinks = function(objectIds) {
+		return shSitesObjectUtils.generateObjectLinksById(objectIds);
+	}
+
 	/**
 	 * @desc Generate Image Link
 	 * @param objectId
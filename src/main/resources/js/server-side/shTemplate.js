@@ -0,0 +1,58 @@
+var viglet = this.viglet || {}; //NOSONAR
+viglet.shio = viglet.shio || {};
+
+/**
+ * @desc the shTemplate class. Keeps one Handlebars environment by site, so
+ *       partials and helpers registered by a site stay in it, and compiles
+ *       each template only once in the script context. Each pooled script
+ *       context has its own environments and compiled templates.
+ * 
+ * @class
+ * @param handlebars
+ *            Handlebars library.
+ * @param maxTemplates
+ *            Max of compiled templates by site.
+ */
+viglet.shio.shTemplate = function(handlebars, maxTemplates) {
+	var environments = Object.create(null);
+
+	var cachedCompile = function(environment) {
+		var compile = environment.compile;
+		var templates = Object.create(null);
+		var size = 0;
+		return function(input, options) {
+			if (typeof input !== 'string' || options !== undefined)
+				return compile.call(environment, input, options);
+			var template = templates[input];
+			if (template === undefined) {
+				if (size >= maxTemplates) {
+					templates = Object.create(null);
+					size = 0;
+				}
+				template = compile.call(environment, input);
+				templates[input] = template;
+				size++;
+			}
+			return template;
+		};
+	};
+
+	/**
+	 * @desc Returns the Handlebars environment of site
+	 * @param siteId
+	 *            Site Id.
+	 * @public
+	 */
+	this.site = function(siteId) {
+		var key = siteId || '';
+		var environment = environments[key];
+		if (environment === undefined) {
+			environment = handlebars.create();
+			environment.compile = cachedCompile(environment);
+			environments[key] = environment;
+		}
+		return environment;
+	};
+};
+
+viglet.shio.shtemplate = new viglet.shio.shTemplate(Handlebars, shTemplateCacheSize);
@@ -16,11 +16,19 @@
  */
 package com.viglet.shio.api.post;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
 import org.junit.FixMethodOrder;
@@ -35,11 +43,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.viglet.shio.api.ShJsonView;
 import com.viglet.shio.persistence.model.folder.ShFolder;
 import com.viglet.shio.persistence.model.post.ShPost;
@@ -94,6 +105,61 @@ public class ShPostAPITest {
 
 	}
 
+	@Test
+	public void shPostCursor() throws Exception {
+		ShPostType shPostType = shPostTypeRepository.findByName(ShSystemPostType.ARTICLE);
+		List<ShPost> shPosts = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			ShPost shPost = new ShPost();
+			shPost.setTitle("Cursor " + i);
+			shPost.setShPostType(shPostType);
+			shPosts.add(shPostRepository.save(shPost));
+		}
+		try {
+			List<String> expected = shPostRepository.findAll().stream().map(ShPost::getId).sorted()
+					.collect(Collectors.toList());
+			List<String> ids = new ArrayList<>();
+			String after = "";
+			int pages = 0;
+			do {
+				JsonNode page = this.cursorPage(after, 2);
+				JsonNode items = page.get("items");
+				assertTrue(items.size() <= 2);
+				items.forEach(item -> ids.add(item.get("id").asText()));
+				if (page.get("next").isNull()) {
+					after = null;
+				} else {
+					// Only full pages have a next cursor, it is the id of its last item
+					assertEquals(2, items.size());
+					assertEquals(items.get(1).get("id").asText(), page.get("next").asText());
+					after = page.get("next").asText();
+				}
+				pages++;
+			} while (after != null && pages <= expected.size());
+
+			// Each post once, in id order, without gaps between pages
+			assertEquals(expected, ids);
+			assertTrue(ids.containsAll(shPosts.stream().map(ShPost::getId).collect(Collectors.toList())));
+			assertEquals(expected.size() / 2 + 1, pages);
+
+			JsonNode end = this.cursorPage(expected.get(expected.size() - 1), 2);
+			assertEquals(0, end.get("items").size());
+			assertTrue(end.get("next").isNull());
+		} finally {
+			shPostRepository.deleteAll(shPosts);
+		}
+	}
+
+	private JsonNode cursorPage(String after, int size) throws Exception {
+		MvcResult mvcResult = mockMvc
+				.perform(get("/api/v2/post/cursor").param("after", after).param("size", String.valueOf(size)))
+				.andExpect(request().asyncStarted()).andReturn();
+		String content = mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk())
+				.andExpect(content().contentType("application/json")).andExpect(jsonPath("$.items").isArray())
+				.andReturn().getResponse().getContentAsString();
+		return new ObjectMapper().readTree(content);
+	}
+
 	@Test
 	public void shPostAttrModel() throws Exception {
 		mockMvc.perform(get("/api/v2/post/attr/model")).andExpect(status().isOk())
@@ -88,6 +88,12 @@ public class ShSiteAPITest {
 		
 	}
 	
+	@Test
+	public void shSitePostTypeCount() throws Exception {
+		mockMvc.perform(get("/api/v2/site/" + sampleSiteId + "/type/count")).andExpect(status().isOk());
+
+	}
+
 	@Test
 	public void shSiteEdit() throws Exception {
 		mockMvc.perform(get("/api/v2/site/" + sampleSiteId)).andExpect(status().isOk());
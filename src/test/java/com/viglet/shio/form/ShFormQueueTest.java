@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.form;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viglet.shio.property.ShFormProperties;
+import com.viglet.shio.utils.ShFormUtils;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ShFormQueueTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Spy
+	private ShFormProperties shFormProperties = new ShFormProperties();
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@Mock
+	private ShFormUtils shFormUtils;
+
+	@InjectMocks
+	private ShFormQueue shFormQueue;
+
+	private final List<String> saved = Collections.synchronizedList(new ArrayList<>());
+
+	private final Collection<String> failing = new HashSet<>();
+
+	private String userDir;
+
+	private File formDir;
+
+	@Before
+	public void setup() {
+		userDir = System.getProperty("user.dir");
+		System.setProperty("user.dir", temporaryFolder.getRoot().getAbsolutePath());
+		formDir = new File(temporaryFolder.getRoot(), "store" + File.separator + "form");
+		formDir.mkdirs();
+		shFormProperties.setFlushInterval(60000);
+		doReturn(Collections.emptySet()).when(shFormUtils).saved(anyCollection());
+		doAnswer(invocation -> {
+			List<ShFormSubmission> shFormSubmissions = invocation.getArgument(0);
+			for (ShFormSubmission shFormSubmission : shFormSubmissions)
+				if (failing.contains(shFormSubmission.getId()))
+					throw new IllegalStateException("Save failed");
+			shFormSubmissions.forEach(shFormSubmission -> saved.add(shFormSubmission.getId()));
+			return Collections.emptyList();
+		}).when(shFormUtils).save(any(List.class));
+	}
+
+	@After
+	public void tearDown() {
+		System.setProperty("user.dir", userDir);
+	}
+
+	@Test
+	public void replayAfterCrash() throws IOException {
+		File queueFile = this.queueFile("queue-1-1.json", "a", "b", "c");
+		// Incomplete last line written by the crash
+		FileUtils.write(queueFile, "{\"id\":\"d\",\"postT", StandardCharsets.UTF_8, true);
+
+		this.restart(shFormQueue);
+
+		assertEquals(Arrays.asList("a", "b", "c"), saved);
+		assertFalse(queueFile.exists());
+	}
+
+	@Test
+	public void partlyFailedBatch() throws IOException {
+		File queueFile = this.queueFile("queue-1-1.json", "a", "b", "c");
+		failing.add("b");
+
+		this.restart(shFormQueue);
+
+		assertEquals(Arrays.asList("a", "c"), saved);
+		assertFalse(queueFile.exists());
+		File journal = new File(formDir, "journal.json");
+		assertEquals(Collections.singletonList("b"), this.ids(journal));
+
+		// The journal is saved in next startup
+		failing.clear();
+		this.restart(this.newQueue());
+		assertEquals(Arrays.asList("a", "c", "b"), saved);
+		assertFalse(journal.exists());
+		assertEquals(0, formDir.listFiles().length);
+	}
+
+	@Test
+	public void duplicatesOnReplay() throws IOException {
+		// a was saved before the crash, c is in journal and also in a queue file
+		doReturn(Collections.singleton("a")).when(shFormUtils).saved(anyCollection());
+		File queueFile = this.queueFile("queue-1-1.json", "a", "b", "c");
+		File journal = this.queueFile("journal.json", "c");
+
+		this.restart(shFormQueue);
+
+		assertEquals(2, saved.size());
+		assertEquals(new HashSet<>(Arrays.asList("b", "c")), new HashSet<>(saved));
+		assertFalse(queueFile.exists());
+		assertFalse(journal.exists());
+	}
+
+	@Test
+	public void appendAndFlush() throws IOException {
+		shFormQueue.init();
+		shFormQueue.append(this.submission("a"));
+		File[] queueFiles = formDir.listFiles((dir, name) -> name.startsWith("queue-"));
+		assertEquals(1, queueFiles.length);
+		assertEquals(Collections.singletonList("a"), this.ids(queueFiles[0]));
+
+		shFormQueue.flush();
+		assertEquals(Collections.singletonList("a"), saved);
+		assertFalse(queueFiles[0].exists());
+		shFormQueue.shutdown();
+	}
+
+	/**
+	 * Start the queue, it replays the files of last run, and stop it.
+	 */
+	private void restart(ShFormQueue shFormQueue) {
+		shFormQueue.init();
+		shFormQueue.shutdown();
+	}
+
+	private ShFormQueue newQueue() {
+		ShFormQueue newFormQueue = new ShFormQueue();
+		ReflectionTestUtils.setField(newFormQueue, "shFormUtils", shFormUtils);
+		ReflectionTestUtils.setField(newFormQueue, "shFormProperties", shFormProperties);
+		ReflectionTestUtils.setField(newFormQueue, "objectMapper", objectMapper);
+		return newFormQueue;
+	}
+
+	private File queueFile(String name, String... ids) throws IOException {
+		File file = new File(formDir, name);
+		List<String> lines = new ArrayList<>();
+		for (String id : ids)
+			lines.add(objectMapper.writeValueAsString(this.submission(id)));
+		FileUtils.writeLines(file, StandardCharsets.UTF_8.name(), lines);
+		return file;
+	}
+
+	private List<String> ids(File file) throws IOException {
+		List<String> ids = new ArrayList<>();
+		for (String line : FileUtils.readLines(file, StandardCharsets.UTF_8))
+			ids.add(objectMapper.readValue(line, ShFormSubmission.class).getId());
+		return ids;
+	}
+
+	private ShFormSubmission submission(String id) {
+		ShFormSubmission shFormSubmission = new ShFormSubmission();
+		shFormSubmission.setId(id);
+		shFormSubmission.setPostType("Form");
+		shFormSubmission.getFields().put("NAME", Collections.singletonList(id));
+		return shFormSubmission;
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.provider.auth.otds;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+
+import javax.servlet.http.HttpSession;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.viglet.shio.persistence.model.auth.ShUser;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ShOTDSAuthProviderTest {
+
+	private static final String PROVIDER_ID = "otds";
+
+	@Mock
+	private ShOTDSService shOTDSService;
+
+	@Mock
+	private ObjectFactory<HttpSession> httpSessionFactory;
+
+	@Mock
+	private HttpSession httpSession;
+
+	@InjectMocks
+	private ShOTDSAuthProvider shOTDSAuthProvider;
+
+	@Before
+	public void setup() {
+		when(httpSessionFactory.getObject()).thenReturn(httpSession);
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken("admin", null, new ArrayList<>()));
+	}
+
+	@After
+	public void cleanup() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void userWithTicket() {
+		ShUser shUser = new ShUser();
+		shUser.setUsername("admin");
+		when(shOTDSService.getShUser(PROVIDER_ID, "admin")).thenReturn(shUser);
+
+		assertNotNull(shOTDSAuthProvider.getShUser(PROVIDER_ID, "admin"));
+		assertNotNull(shOTDSAuthProvider.getShUser(PROVIDER_ID, "admin"));
+
+		verify(shOTDSService, never()).init(anyString());
+		verify(httpSession, never()).invalidate();
+		assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+	}
+
+	@Test
+	public void userWithExpiredTicket() {
+		when(shOTDSService.getShUser(PROVIDER_ID, "admin")).thenReturn(null);
+
+		assertNull(shOTDSAuthProvider.getShUser(PROVIDER_ID, "admin"));
+
+		verify(httpSession).invalidate();
+		assertNull(SecurityContextHolder.getContext().getAuthentication());
+	}
+}
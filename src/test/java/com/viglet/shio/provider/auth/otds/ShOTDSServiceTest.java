@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.provider.auth.otds;
+
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.viglet.shio.property.ShAuthProperties;
+import com.viglet.shio.provider.auth.ShAuthProviderService;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ShOTDSServiceTest {
+
+	@Spy
+	private ShAuthProperties shAuthProperties = new ShAuthProperties();
+
+	@Mock
+	private ShAuthProviderService shAuthProviderService;
+
+	@InjectMocks
+	private ShOTDSService shOTDSService;
+
+	@Before
+	public void setup() {
+		ReflectionTestUtils.invokeMethod(shOTDSService, "initCache");
+	}
+
+	@Test
+	public void userWithoutTicket() {
+		assertNull(shOTDSService.getUser("otds", "admin"));
+		assertNull(shOTDSService.getShUser("otds", "admin"));
+
+		verify(shAuthProviderService, never()).getShAuthProviderInstanceBean("otds");
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.viglet.shio.provider.exchange;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.viglet.shio.provider.exchange.otcs.ShOTCSProvider;
+
+public class ShExchangeProviderCacheTest {
+
+	private HttpServer server;
+
+	private CloseableHttpClient httpClient;
+
+	private final AtomicInteger hits = new AtomicInteger();
+
+	private final AtomicInteger notModified = new AtomicInteger();
+
+	private final AtomicInteger logins = new AtomicInteger();
+
+	private volatile String body = "v1";
+
+	private volatile String ticket = null;
+
+	@Before
+	public void setup() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/node", this::node);
+		server.createContext("/api/v1/auth", this::auth);
+		server.createContext("/api/v2/nodes", this::otcsNode);
+		server.start();
+		httpClient = HttpClients.createDefault();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		httpClient.close();
+		server.stop(0);
+	}
+
+	@Test
+	public void freshHit() throws IOException {
+		ShExchangeProviderCache cache = new ShExchangeProviderCache(60);
+		assertEquals("v1", cache.get(new HttpGet(url("/node")), httpClient::execute));
+		body = "v2";
+		assertEquals("v1", cache.get(new HttpGet(url("/node")), httpClient::execute));
+		assertEquals(1, hits.get());
+	}
+
+	@Test
+	public void notModifiedReuse() throws IOException, InterruptedException {
+		ShExchangeProviderCache cache = new ShExchangeProviderCache(1);
+		assertEquals("v1", cache.get(new HttpGet(url("/node")), httpClient::execute));
+		Thread.sleep(1100);
+		assertEquals("v1", cache.get(new HttpGet(url("/node")), httpClient::execute));
+		assertEquals(2, hits.get());
+		assertEquals(1, notModified.get());
+		assertEquals("v1", cache.get(new HttpGet(url("/node")), httpClient::execute));
+		assertEquals(2, hits.get());
+	}
+
+	@Test
+	public void ttlExpiry() throws IOException, InterruptedException {
+		ShExchangeProviderCache cache = new ShExchangeProviderCache(1);
+		assertEquals("v1", cache.get(new HttpGet(url("/node")), httpClient::execute));
+		body = "v2";
+		assertEquals("v1", cache.get(new HttpGet(url("/node")), httpClient::execute));
+		Thread.sleep(1100);
+		assertEquals("v2", cache.get(new HttpGet(url("/node")), httpClient::execute));
+		assertEquals(2, hits.get());
+		assertEquals(0, notModified.get());
+	}
+
+	@Test
+	public void unauthorizedRelogin() {
+		ShOTCSProvider shOTCSProvider = new ShOTCSProvider();
+		Map<String, String> variables = new HashMap<>();
+		variables.put("URL", url(""));
+		variables.put("USERNAME", "admin");
+		variables.put("PASSWORD", "admin");
+		variables.put(ShExchangeProviderCache.CACHE_TTL_VAR, "60");
+		shOTCSProvider.init(variables);
+		try {
+			assertEquals("node-10", shOTCSProvider.getObject("10", false).getTitle());
+			assertEquals(1, logins.get());
+			ticket = null;
+			assertEquals("node-11", shOTCSProvider.getObject("11", false).getTitle());
+			assertEquals(2, logins.get());
+			assertEquals(3, hits.get());
+		} finally {
+			shOTCSProvider.close();
+		}
+	}
+
+	@Test
+	public void errorNotCached() throws IOException {
+		ShExchangeProviderCache cache = new ShExchangeProviderCache(60);
+		assertNull(cache.get(new HttpGet(url("/node/missing")), httpClient::execute));
+		assertNull(cache.get(new HttpGet(url("/node/missing")), httpClient::execute));
+		assertEquals(2, hits.get());
+	}
+
+	private String url(String path) {
+		return String.format("http://localhost:%d%s", server.getAddress().getPort(), path);
+	}
+
+	private void node(HttpExchange exchange) throws IOException {
+		hits.incrementAndGet();
+		if (exchange.getRequestURI().getPath().endsWith("/missing")) {
+			respond(exchange, 404, null);
+			return;
+		}
+		String etag = String.format("\"%s\"", body);
+		exchange.getResponseHeaders().set("ETag", etag);
+		if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+			notModified.incrementAndGet();
+			respond(exchange, 304, null);
+		} else
+			respond(exchange, 200, body);
+	}
+
+	private void auth(HttpExchange exchange) throws IOException {
+		ticket = "ticket-" + logins.incrementAndGet();
+		respond(exchange, 200, String.format("{\"ticket\":\"%s\"}", ticket));
+	}
+
+	private void otcsNode(HttpExchange exchange) throws IOException {
+		hits.incrementAndGet();
+		String currentTicket = ticket;
+		if (currentTicket == null || !currentTicket.equals(exchange.getRequestHeaders().getFirst("OTCSTicket"))) {
+			respond(exchange, 401, null);
+			return;
+		}
+		String id = exchange.getRequestURI().getPath().replaceAll(".*/", "");
+		respond(exchange, 200, String.format(
+				"{\"results\":{\"data\":{\"properties\":{\"id\":%s,\"name\":\"node-%s\",\"parent_id\":2000}}}}", id,
+				id));
+	}
+
+	private void respond(HttpExchange exchange, int status, String content) throws IOException {
+		byte[] bytes = content != null ? content.getBytes(StandardCharsets.UTF_8) : new byte[0];
+		exchange.sendResponseHeaders(status, bytes.length > 0 ? bytes.length : -1);
+		try (OutputStream outputStream = exchange.getResponseBody()) {
+			outputStream.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.provider.exchange;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.viglet.shio.persistence.model.provider.exchange.ShExchangeProviderInstance;
+import com.viglet.shio.persistence.model.provider.exchange.ShExchangeProviderVendor;
+import com.viglet.shio.persistence.repository.provider.exchange.ShExchangeProviderInstanceRepository;
+import com.viglet.shio.property.ShConfigProperties;
+import com.viglet.shio.property.ShExchangeProperties;
+import com.viglet.shio.utils.ShConfigVarUtils;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ShExchangeProviderRegistryTest {
+
+	@Spy
+	private ShExchangeProperties shExchangeProperties = new ShExchangeProperties();
+
+	@Spy
+	private ShConfigProperties shConfigProperties = new ShConfigProperties();
+
+	@Mock
+	private ShExchangeProviderInstanceRepository shExchangeProviderInstanceRepository;
+
+	@Mock
+	private ShConfigVarUtils shConfigVarUtils;
+
+	@InjectMocks
+	private ShExchangeProviderRegistry shExchangeProviderRegistry;
+
+	@Test
+	public void missingInstance() {
+		when(shExchangeProviderInstanceRepository.findById(anyString())).thenReturn(Optional.empty());
+		for (int i = 0; i < 3; i++)
+			assertNull(shExchangeProviderRegistry.execute("missing" + i, ShExchangeProvider::getRootFolder));
+		assertTrue(this.providers().isEmpty());
+	}
+
+	@Test
+	public void failedInstance() {
+		ShExchangeProviderVendor shExchangeProviderVendor = new ShExchangeProviderVendor();
+		shExchangeProviderVendor.setClassName("com.viglet.shio.provider.exchange.Missing");
+		ShExchangeProviderInstance shExchangeProviderInstance = new ShExchangeProviderInstance();
+		shExchangeProviderInstance.setId("failed");
+		shExchangeProviderInstance.setVendor(shExchangeProviderVendor);
+		when(shExchangeProviderInstanceRepository.findById("failed"))
+				.thenReturn(Optional.of(shExchangeProviderInstance));
+
+		assertNull(shExchangeProviderRegistry.execute("failed", ShExchangeProvider::getRootFolder));
+		// Entry is kept, so the next calls wait for retry delay
+		assertTrue(this.providers().containsKey("failed"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, ?> providers() {
+		return (Map<String, ?>) ReflectionTestUtils.getField(shExchangeProviderRegistry, "providers");
+	}
+}
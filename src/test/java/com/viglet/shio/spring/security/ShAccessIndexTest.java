@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.spring.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import com.viglet.shio.bean.IShObjectPrincipal;
+import com.viglet.shio.persistence.model.auth.ShGroup;
+import com.viglet.shio.persistence.model.auth.ShUser;
+import com.viglet.shio.persistence.repository.auth.ShUserRepository;
+import com.viglet.shio.persistence.repository.object.ShObjectRepository;
+import com.viglet.shio.property.ShAuthProperties;
+import com.viglet.shio.spring.security.ShAccessIndex.ShUserAccess;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ShAccessIndexTest {
+
+	@Spy
+	private ShAuthProperties shAuthProperties = new ShAuthProperties();
+
+	@Mock
+	private ShObjectRepository shObjectRepository;
+
+	@Mock
+	private ShUserRepository shUserRepository;
+
+	@Mock
+	private HazelcastInstance hazelcastInstance;
+
+	@Mock
+	private ITopic<String> topic;
+
+	@InjectMocks
+	private ShAccessIndex shAccessIndex;
+
+	private MessageListener<String> listener;
+
+	private final Map<String, Set<String>> objectGroups = new HashMap<>();
+
+	private final Map<String, Set<String>> userGroups = new HashMap<>();
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		when(hazelcastInstance.<String>getTopic(anyString())).thenReturn(topic);
+		shAccessIndex.init();
+		ArgumentCaptor<MessageListener<String>> captor = ArgumentCaptor.forClass(MessageListener.class);
+		verify(topic).addMessageListener(captor.capture());
+		listener = captor.getValue();
+
+		objectGroups.put("public", Collections.emptySet());
+		objectGroups.put("private", Collections.singleton("Editors"));
+		userGroups.put("editor", Collections.singleton("Editors"));
+		userGroups.put("guest", Collections.singleton("Guests"));
+		userGroups.put("admin", Collections.singleton("Administrator"));
+
+		when(shObjectRepository.findShGroupsByIdIn(anyCollection())).thenAnswer(invocation -> {
+			List<IShObjectPrincipal> rows = new ArrayList<>();
+			for (Object id : (Collection<?>) invocation.getArgument(0)) {
+				Set<String> groups = objectGroups.get(id);
+				if (groups != null) {
+					if (groups.isEmpty())
+						rows.add(row((String) id, null));
+					groups.forEach(group -> rows.add(row((String) id, group)));
+				}
+			}
+			return rows;
+		});
+		when(shObjectRepository.findShUsersByIdIn(anyCollection())).thenReturn(Collections.emptyList());
+		when(shUserRepository.findByUsername(anyString())).thenAnswer(invocation -> {
+			String username = invocation.getArgument(0);
+			if (!userGroups.containsKey(username))
+				return null;
+			ShUser shUser = new ShUser();
+			shUser.setUsername(username);
+			Set<ShGroup> shGroups = new HashSet<>();
+			for (String name : userGroups.get(username)) {
+				ShGroup shGroup = new ShGroup();
+				shGroup.setName(name);
+				shGroups.add(shGroup);
+			}
+			shUser.setShGroups(shGroups);
+			return shUser;
+		});
+	}
+
+	@Test
+	public void canAccess() {
+		ShUserAccess editor = shAccessIndex.user(principal("editor"));
+		ShUserAccess guest = shAccessIndex.user(principal("guest"));
+		ShUserAccess admin = shAccessIndex.user(principal("admin"));
+		assertNull(shAccessIndex.user(null));
+		assertNull(shAccessIndex.user(principal("unknown")));
+
+		assertTrue(shAccessIndex.canAccess(editor, "private"));
+		assertFalse(shAccessIndex.canAccess(guest, "private"));
+		assertTrue(shAccessIndex.canAccess(guest, "public"));
+		assertTrue(shAccessIndex.canAccess(admin, "private"));
+		assertFalse(shAccessIndex.canAccess(admin, "missing"));
+		assertEquals(new HashSet<>(Arrays.asList("public", "private")),
+				shAccessIndex.allowed(null, Arrays.asList("public", "private", "missing")));
+		assertEquals(Collections.singleton("public"),
+				shAccessIndex.allowed(guest, Arrays.asList("public", "private", "missing")));
+
+		assertTrue(shAccessIndex.exists("private"));
+		assertFalse(shAccessIndex.exists("missing"));
+		verify(shObjectRepository, times(1)).findShGroupsByIdIn(Collections.singleton("private"));
+	}
+
+	@Test
+	public void revokeObject() {
+		ShUserAccess editor = shAccessIndex.user(principal("editor"));
+		assertTrue(shAccessIndex.canAccess(editor, "private"));
+		objectGroups.put("private", Collections.singleton("Admins"));
+		assertTrue(shAccessIndex.canAccess(editor, "private"));
+
+		shAccessIndex.deleteCache("private");
+		verify(topic).publish("object:private");
+		assertFalse(shAccessIndex.canAccess(editor, "private"));
+	}
+
+	@Test
+	public void revokeUser() {
+		assertTrue(shAccessIndex.canAccess(shAccessIndex.user(principal("editor")), "private"));
+		userGroups.put("editor", Collections.singleton("Guests"));
+		assertTrue(shAccessIndex.canAccess(shAccessIndex.user(principal("editor")), "private"));
+
+		shAccessIndex.deleteUserCache();
+		verify(topic).publish("users");
+		assertFalse(shAccessIndex.canAccess(shAccessIndex.user(principal("editor")), "private"));
+	}
+
+	@Test
+	public void revokeFromCluster() {
+		ShUserAccess editor = shAccessIndex.user(principal("editor"));
+		assertTrue(shAccessIndex.canAccess(editor, "private"));
+		objectGroups.put("private", Collections.singleton("Admins"));
+		listener.onMessage(message("object:private", true));
+		assertTrue(shAccessIndex.canAccess(editor, "private"));
+		listener.onMessage(message("object:private", false));
+		assertFalse(shAccessIndex.canAccess(editor, "private"));
+
+		objectGroups.put("private", Collections.singleton("Editors"));
+		listener.onMessage(message("objects", false));
+		assertTrue(shAccessIndex.canAccess(editor, "private"));
+
+		userGroups.put("editor", Collections.singleton("Guests"));
+		listener.onMessage(message("users", false));
+		assertFalse(shAccessIndex.canAccess(shAccessIndex.user(principal("editor")), "private"));
+	}
+
+	@Test
+	public void timeToLive() throws InterruptedException {
+		shAuthProperties.setAccessIndexTtl(1);
+		ShUserAccess editor = shAccessIndex.user(principal("editor"));
+		assertTrue(shAccessIndex.canAccess(editor, "private"));
+		objectGroups.put("private", Collections.singleton("Admins"));
+		userGroups.put("editor", Collections.singleton("Admins"));
+		assertTrue(shAccessIndex.canAccess(editor, "private"));
+		Thread.sleep(1100);
+		assertFalse(shAccessIndex.canAccess(editor, "private"));
+		assertEquals(Collections.singleton("Admins"), shAccessIndex.user(principal("editor")).getShGroups());
+	}
+
+	private static Principal principal(String name) {
+		return () -> name;
+	}
+
+	private static IShObjectPrincipal row(String id, String principal) {
+		return new IShObjectPrincipal() {
+			@Override
+			public String getId() {
+				return id;
+			}
+
+			@Override
+			public String getPrincipal() {
+				return principal;
+			}
+		};
+	}
+
+	private static Message<String> message(String entry, boolean local) {
+		Member member = mock(Member.class);
+		when(member.localMember()).thenReturn(local);
+		return new Message<>("shAccessIndex", entry, System.currentTimeMillis(), member);
+	}
+}
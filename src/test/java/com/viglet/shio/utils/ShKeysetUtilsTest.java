@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ShKeysetUtilsTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final ShKeysetUtils shKeysetUtils = new ShKeysetUtils();
+
+	@Before
+	public void setup() {
+		ReflectionTestUtils.setField(shKeysetUtils, "objectMapper", objectMapper);
+	}
+
+	@Test
+	public void size() {
+		assertEquals(ShKeysetUtils.DEFAULT_SIZE, shKeysetUtils.size(0));
+		assertEquals(ShKeysetUtils.DEFAULT_SIZE, shKeysetUtils.size(-1));
+		assertEquals(10, shKeysetUtils.size(10));
+		assertEquals(ShKeysetUtils.MAX_SIZE, shKeysetUtils.size(ShKeysetUtils.MAX_SIZE + 1));
+		assertEquals(10, shKeysetUtils.pageable(10).getPageSize());
+		assertEquals(0, shKeysetUtils.pageable(10).getPageNumber());
+		assertTrue(shKeysetUtils.isObjectView(ShKeysetUtils.VIEW_OBJECT));
+		assertFalse(shKeysetUtils.isObjectView(ShKeysetUtils.VIEW_TINY));
+	}
+
+	@Test
+	public void fullPage() throws IOException {
+		JsonNode page = this.page(Arrays.asList("a", "b", "c"), 3);
+		assertEquals(3, page.get("items").size());
+		assertEquals("c", page.get("items").get(2).asText());
+		assertEquals("cursor-c", page.get("next").asText());
+	}
+
+	@Test
+	public void lastPage() throws IOException {
+		JsonNode page = this.page(Arrays.asList("a", "b"), 3);
+		assertEquals(2, page.get("items").size());
+		assertTrue(page.get("next").isNull());
+
+		page = this.page(Collections.emptyList(), 3);
+		assertEquals(0, page.get("items").size());
+		assertTrue(page.get("next").isNull());
+	}
+
+	private JsonNode page(List<String> items, int size) throws IOException {
+		ResponseEntity<StreamingResponseBody> response = shKeysetUtils.stream(items, size, item -> "cursor-" + item);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		response.getBody().writeTo(outputStream);
+		return objectMapper.readTree(outputStream.toByteArray());
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.viglet.shio.persistence.model.folder.ShFolder;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.post.ShPostAttr;
+import com.viglet.shio.persistence.model.post.ShPostDraft;
+import com.viglet.shio.persistence.model.post.ShPostDraftAttr;
+import com.viglet.shio.persistence.model.post.relator.ShRelatorItem;
+import com.viglet.shio.persistence.model.post.relator.ShRelatorItemDraft;
+import com.viglet.shio.persistence.model.post.type.ShPostType;
+import com.viglet.shio.persistence.model.post.type.ShPostTypeAttr;
+
+public class ShPostDraftUtilsTest {
+
+	private final ShPostDraftUtils shPostDraftUtils = new ShPostDraftUtils();
+
+	@Test
+	public void toDraftAndBack() {
+		ShPostType shPostType = new ShPostType();
+		ShFolder shFolder = new ShFolder();
+		ShPostTypeAttr shPostTypeAttr = new ShPostTypeAttr();
+
+		ShPost shPost = new ShPost();
+		shPost.setId("post");
+		shPost.setTitle("Title");
+		shPost.setPublished(true);
+		shPost.setShPostType(shPostType);
+		shPost.setShFolder(shFolder);
+
+		ShPostAttr shPostAttr = new ShPostAttr();
+		shPostAttr.setId("attr");
+		shPostAttr.setStrValue("Title");
+		shPostAttr.setShPostTypeAttr(shPostTypeAttr);
+		ShRelatorItem shRelatorItem = new ShRelatorItem();
+		shRelatorItem.setId("item");
+		shRelatorItem.setOrdinal(1);
+		ShPostAttr shChildPostAttr = new ShPostAttr();
+		shChildPostAttr.setId("child");
+		shChildPostAttr.setStrValue("Child");
+		shRelatorItem.getShChildrenPostAttrsNonDraft().add(shChildPostAttr);
+		shPostAttr.setShChildrenRelatorItems(Collections.singleton(shRelatorItem));
+		shPost.getShPostAttrsNonDraft().add(shPostAttr);
+
+		ShPostDraft shPostDraft = shPostDraftUtils.toDraft(shPost);
+
+		assertEquals("post", shPostDraft.getId());
+		assertEquals("Title", shPostDraft.getTitle());
+		assertSame(shPostType, shPostDraft.getShPostType());
+		assertSame(shFolder, shPostDraft.getShFolder());
+		ShPostDraftAttr shPostDraftAttr = (ShPostDraftAttr) shPostDraft.getShPostAttrs().iterator().next();
+		assertEquals("attr", shPostDraftAttr.getId());
+		assertSame(shPostDraft, shPostDraftAttr.getShPost());
+		assertSame(shPostTypeAttr, shPostDraftAttr.getShPostTypeAttr());
+		ShRelatorItemDraft shRelatorItemDraft = shPostDraftAttr.getShChildrenRelatorItems().iterator().next();
+		assertEquals("item", shRelatorItemDraft.getId());
+		assertSame(shPostDraftAttr, shRelatorItemDraft.getShParentPostAttr());
+		ShPostDraftAttr shChildPostDraftAttr = (ShPostDraftAttr) shRelatorItemDraft.getShChildrenPostAttrs().iterator()
+				.next();
+		assertEquals("Child", shChildPostDraftAttr.getStrValue());
+		assertSame(shRelatorItemDraft, shChildPostDraftAttr.getShParentRelatorItem());
+
+		ShPost shPostCopy = shPostDraftUtils.toPost(shPostDraft);
+
+		assertEquals("post", shPostCopy.getId());
+		ShPostAttr shPostAttrCopy = shPostCopy.getShPostAttrsNonDraft().iterator().next();
+		assertEquals("Title", shPostAttrCopy.getStrValue());
+		ShRelatorItem shRelatorItemCopy = (ShRelatorItem) shPostAttrCopy.getShChildrenRelatorItems().iterator().next();
+		assertEquals(1, shRelatorItemCopy.getOrdinal());
+		assertEquals("child", shRelatorItemCopy.getShChildrenPostAttrsNonDraft().iterator().next().getId());
+	}
+}
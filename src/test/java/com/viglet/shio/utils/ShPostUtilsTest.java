@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.viglet.shio.persistence.model.folder.ShFolder;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.post.ShPostAttr;
+import com.viglet.shio.persistence.model.post.relator.ShRelatorItem;
+import com.viglet.shio.persistence.model.post.type.ShPostType;
+import com.viglet.shio.persistence.model.site.ShSite;
+import com.viglet.shio.persistence.repository.folder.ShFolderRepository;
+import com.viglet.shio.persistence.repository.post.ShPostRepository;
+import com.viglet.shio.persistence.repository.post.type.ShPostTypeAttrRepository;
+import com.viglet.shio.persistence.repository.post.type.ShPostTypeRepository;
+import com.viglet.shio.persistence.repository.site.ShSiteRepository;
+import com.viglet.shio.post.type.ShSystemPostType;
+import com.viglet.shio.post.type.ShSystemPostTypeAttr;
+
+/**
+ * Statements to load posts can't grow with the count of posts, attributes and
+ * relator items.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ShPostUtilsTest {
+	@Autowired
+	private ShPostUtils shPostUtils;
+	@Autowired
+	private ShSiteRepository shSiteRepository;
+	@Autowired
+	private ShFolderRepository shFolderRepository;
+	@Autowired
+	private ShPostRepository shPostRepository;
+	@Autowired
+	private ShPostTypeRepository shPostTypeRepository;
+	@Autowired
+	private ShPostTypeAttrRepository shPostTypeAttrRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private ShFolder shFolder;
+
+	private ShPostType shPostType;
+
+	@Before
+	public void setup() {
+		String name = "postutils" + UUID.randomUUID().toString().replace("-", "");
+		ShSite shSite = new ShSite();
+		shSite.setName(name);
+		shSite.setFurl(name);
+		shSite.setDate(new Date());
+		shSite = shSiteRepository.save(shSite);
+
+		shFolder = new ShFolder();
+		shFolder.setName("Home");
+		shFolder.setFurl("home");
+		shFolder.setDate(new Date());
+		shFolder.setShSite(shSite);
+		shFolder.setRootFolder((byte) 1);
+		shFolder = shFolderRepository.save(shFolder);
+
+		shPostType = shPostTypeRepository.findByName(ShSystemPostType.ARTICLE);
+	}
+
+	@Test
+	public void loadLazyPosts() {
+		List<String> fewPosts = this.createPosts(2, 2);
+		List<String> manyPosts = this.createPosts(8, 2);
+
+		assertEquals(this.statements(() -> shPostUtils.loadLazyPosts(fewPosts, true)),
+				this.statements(() -> shPostUtils.loadLazyPosts(manyPosts, true)));
+	}
+
+	@Test
+	public void loadLazyPost() {
+		String fewRelatorItems = this.createPosts(1, 1).get(0);
+		String manyRelatorItems = this.createPosts(1, 8).get(0);
+
+		assertEquals(this.statements(() -> shPostUtils.loadLazyPost(fewRelatorItems, true)),
+				this.statements(() -> shPostUtils.loadLazyPost(manyRelatorItems, true)));
+	}
+
+	private long statements(Runnable runnable) {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		runnable.run();
+		return statistics.getPrepareStatementCount();
+	}
+
+	/**
+	 * Posts with a title whose relator items have a description.
+	 */
+	private List<String> createPosts(int posts, int relatorItems) {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < posts; i++) {
+			ShPost shPost = new ShPost();
+			shPost.setShFolder(shFolder);
+			shPost.setShPostType(shPostType);
+			shPost.setShSite(shFolder.getShSite());
+
+			ShPostAttr shPostAttr = this.createPostAttr(ShSystemPostTypeAttr.TITLE, "Title " + i);
+			shPostAttr.setShPost(shPost);
+			shPost.getShPostAttrsNonDraft().add(shPostAttr);
+
+			List<ShRelatorItem> shRelatorItems = new ArrayList<>();
+			for (int j = 0; j < relatorItems; j++) {
+				ShRelatorItem shRelatorItem = new ShRelatorItem();
+				shRelatorItem.setOrdinal(j);
+				shRelatorItem.setShParentPostAttr(shPostAttr);
+				ShPostAttr shChildPostAttr = this.createPostAttr(ShSystemPostTypeAttr.DESCRIPTION, "Description " + j);
+				shChildPostAttr.setShParentRelatorItem(shRelatorItem);
+				shRelatorItem.getShChildrenPostAttrsNonDraft().add(shChildPostAttr);
+				shRelatorItems.add(shRelatorItem);
+			}
+			shPostAttr.setShChildrenRelatorItems(shRelatorItems.stream().collect(Collectors.toSet()));
+
+			ids.add(shPostRepository.save(shPost).getId());
+		}
+		return ids;
+	}
+
+	private ShPostAttr createPostAttr(String name, String value) {
+		ShPostAttr shPostAttr = new ShPostAttr();
+		shPostAttr.setStrValue(value);
+		shPostAttr.setType(1);
+		shPostAttr.setShPostTypeAttr(shPostTypeAttrRepository.findByShPostTypeAndName(shPostType, name));
+		return shPostAttr;
+	}
+}
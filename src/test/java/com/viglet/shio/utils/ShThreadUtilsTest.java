@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.viglet.shio.property.ShThreadProperties;
+import com.viglet.shio.utils.ShThreadUtils.ShLimitedExecutor;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ShThreadUtilsTest {
+
+	@Spy
+	private ShThreadProperties shThreadProperties = new ShThreadProperties();
+
+	@InjectMocks
+	private ShThreadUtils shThreadUtils;
+
+	@Test
+	public void platformThreads() {
+		ReflectionTestUtils.invokeMethod(shThreadUtils, "init");
+		assertFalse(shThreadUtils.isVirtual());
+		ExecutorService executorService = shThreadUtils.executor("test", 2, 10);
+		try {
+			assertTrue(executorService instanceof ThreadPoolExecutor);
+			assertEquals(2, ((ThreadPoolExecutor) executorService).getMaximumPoolSize());
+			assertEquals(10, ((ThreadPoolExecutor) executorService).getQueue().remainingCapacity());
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void virtualThreadsDetection() {
+		shThreadProperties.setVirtual(true);
+		ReflectionTestUtils.invokeMethod(shThreadUtils, "init");
+		boolean available = this.hasVirtualThreads();
+		assertEquals(available, shThreadUtils.isVirtual());
+		ExecutorService executorService = shThreadUtils.executor("test", 2, 10);
+		try {
+			// Platform threads when this JVM has no virtual threads
+			assertEquals(available, executorService instanceof ShLimitedExecutor);
+			assertEquals(!available, executorService instanceof ThreadPoolExecutor);
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void limitedExecutor() throws InterruptedException {
+		ExecutorService executorService = new ShLimitedExecutor(Executors.newCachedThreadPool(), 2, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(3);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		Runnable task = () -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				running.decrementAndGet();
+				done.countDown();
+			}
+		};
+		try {
+			for (int i = 0; i < 3; i++)
+				executorService.execute(task);
+			try {
+				executorService.execute(task);
+				fail("Executor accepted more than threads plus queue size tasks");
+			} catch (RejectedExecutionException e) {
+				// Expected, two running and one waiting
+			}
+			Thread.sleep(200);
+			assertEquals(2, running.get());
+
+			release.countDown();
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+			assertEquals(2, maxRunning.get());
+
+			// Permits are given back when tasks finish
+			Semaphore admitted = (Semaphore) ReflectionTestUtils.getField(executorService, "admitted");
+			for (int i = 0; i < 50 && admitted.availablePermits() < 3; i++)
+				Thread.sleep(100);
+			assertEquals(3, admitted.availablePermits());
+			CountDownLatch again = new CountDownLatch(3);
+			for (int i = 0; i < 3; i++)
+				executorService.execute(again::countDown);
+			assertTrue(again.await(5, TimeUnit.SECONDS));
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private boolean hasVirtualThreads() {
+		try {
+			Thread.class.getMethod("ofVirtual");
+			Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+}
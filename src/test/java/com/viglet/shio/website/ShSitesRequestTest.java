@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpSession;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class ShSitesRequestTest {
+
+	@Test
+	public void copyOfRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/sites/site/default/en-us/page");
+		request.setQueryString("q=shio");
+		request.addParameter("q", "shio");
+		request.addHeader("x-sh-site", "site");
+		request.setAttribute("attr", "value");
+		request.setCookies(new Cookie("c", "1"));
+		HttpSession session = request.getSession();
+
+		ShSitesRequest shSitesRequest = new ShSitesRequest(request);
+		// Servlet container recycles the request after the response
+		request.clearAttributes();
+		request.removeAllParameters();
+		request.removeHeader("x-sh-site");
+		request.setRequestURI(null);
+		request.setQueryString(null);
+		request.setCookies((Cookie[]) null);
+		request.setSession(null);
+
+		assertEquals("shio", shSitesRequest.getParameter("q"));
+		assertArrayEquals(new String[] { "shio" }, shSitesRequest.getParameterValues("q"));
+		assertEquals("site", shSitesRequest.getHeader("X-SH-SITE"));
+		assertEquals("value", shSitesRequest.getAttribute("attr"));
+		assertEquals("/sites/site/default/en-us/page", shSitesRequest.getRequestURI());
+		assertEquals("http://localhost/sites/site/default/en-us/page", shSitesRequest.getRequestURL().toString());
+		assertEquals("q=shio", shSitesRequest.getQueryString());
+		assertEquals("GET", shSitesRequest.getMethod());
+		assertEquals("1", shSitesRequest.getCookies()[0].getValue());
+		assertSame(session, shSitesRequest.getSession(true));
+
+		shSitesRequest.setAttribute("attr", null);
+		assertNull(shSitesRequest.getAttribute("attr"));
+	}
+}
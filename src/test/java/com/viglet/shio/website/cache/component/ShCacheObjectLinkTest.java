@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.viglet.shio.persistence.model.object.ShObject;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.site.ShSite;
+import com.viglet.shio.persistence.repository.object.ShObjectRepository;
+import com.viglet.shio.property.ShWebsiteProperties;
+import com.viglet.shio.utils.ShObjectUtils;
+import com.viglet.shio.website.cache.component.ShCacheObjectLink.ShObjectLink;
+import com.viglet.shio.website.utils.ShSitesFolderUtils;
+import com.viglet.shio.website.utils.ShSitesPostUtils;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ShCacheObjectLinkTest {
+
+	@Spy
+	private ShWebsiteProperties shWebsiteProperties = new ShWebsiteProperties();
+
+	@Mock
+	private ShObjectRepository shObjectRepository;
+
+	@Mock
+	private ShObjectUtils shObjectUtils;
+
+	@Mock
+	private ShSitesPostUtils shSitesPostUtils;
+
+	@Mock
+	private ShSitesFolderUtils shSitesFolderUtils;
+
+	@InjectMocks
+	private ShCacheObjectLink shCacheObjectLink;
+
+	private final Map<String, ShObject> shObjects = new HashMap<>();
+
+	private final ShSite site1 = site("site1");
+
+	private final ShSite site2 = site("site2");
+
+	@Before
+	public void setup() {
+		shWebsiteProperties.setLinkCacheSize(3);
+		shCacheObjectLink.init();
+		post("post1", site1);
+		post("post2", site1);
+		post("post3", site2);
+		post("post4", site2);
+		when(shObjectRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+			List<ShObject> found = new ArrayList<>();
+			for (Object id : (Iterable<?>) invocation.getArgument(0))
+				if (shObjects.containsKey(id))
+					found.add(shObjects.get(id));
+			return found;
+		});
+		when(shSitesPostUtils.generatePostLink(any()))
+				.thenAnswer(invocation -> "/" + ((ShPost) invocation.getArgument(0)).getId());
+		when(shObjectUtils.getSite(any()))
+				.thenAnswer(invocation -> ((ShPost) invocation.getArgument(0)).getShSite());
+	}
+
+	@Test
+	public void bulkLoadAndHit() {
+		Map<String, ShObjectLink> links = shCacheObjectLink.get(Arrays.asList("post2", "missing", "post1"));
+		assertEquals(Arrays.asList("post2", "post1"), new ArrayList<>(links.keySet()));
+		assertEquals("/post1", links.get("post1").getLink());
+		assertEquals("site1", links.get("post1").getSiteId());
+		assertTrue(links.get("post1").isPost());
+
+		assertEquals("/post2", shCacheObjectLink.get("post2").getLink());
+		assertEquals("/post1", shCacheObjectLink.get("post1").getLink());
+		verify(shObjectRepository, times(1)).findAllById(anyIterable());
+	}
+
+	@Test
+	public void deletePost() {
+		shCacheObjectLink.get(Arrays.asList("post1", "post2"));
+		shCacheObjectLink.deleteCache(shObjects.get("post1").getId());
+		shCacheObjectLink.get(Arrays.asList("post1", "post2"));
+		verify(shObjectRepository).findAllById(Collections.singletonList("post1"));
+	}
+
+	@Test
+	public void deleteSite() {
+		shCacheObjectLink.get(Arrays.asList("post1", "post3"));
+		shCacheObjectLink.deleteCache(site1);
+		shCacheObjectLink.get(Arrays.asList("post1", "post3"));
+		verify(shObjectRepository).findAllById(Collections.singletonList("post1"));
+	}
+
+	@Test
+	public void leastRecentlyUsed() {
+		shCacheObjectLink.get(Arrays.asList("post1", "post2", "post3"));
+		shCacheObjectLink.get("post1");
+		shCacheObjectLink.get("post4");
+		shCacheObjectLink.get(Arrays.asList("post1", "post3", "post4"));
+		verify(shObjectRepository).findAllById(Collections.singletonList("post4"));
+		shCacheObjectLink.get("post2");
+		verify(shObjectRepository).findAllById(Collections.singletonList("post2"));
+	}
+
+	@Test
+	public void deleteWhileLoading() {
+		doAnswer(invocation -> {
+			shCacheObjectLink.deleteCache(site1);
+			return "/old";
+		}).when(shSitesPostUtils).generatePostLink(any());
+		assertEquals("/old", shCacheObjectLink.get("post1").getLink());
+		doReturn("/new").when(shSitesPostUtils).generatePostLink(any());
+		assertEquals("/new", shCacheObjectLink.get("post1").getLink());
+		assertFalse(shCacheObjectLink.get(Collections.singletonList("missing")).containsKey("missing"));
+	}
+
+	private void post(String id, ShSite shSite) {
+		ShPost shPost = new ShPost();
+		shPost.setId(id);
+		shPost.setShSite(shSite);
+		shObjects.put(id, shPost);
+	}
+
+	private static ShSite site(String id) {
+		ShSite shSite = new ShSite();
+		shSite.setId(id);
+		return shSite;
+	}
+}
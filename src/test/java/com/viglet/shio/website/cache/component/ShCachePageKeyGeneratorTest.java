@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import com.viglet.shio.website.ShSitesContextURL;
+
+public class ShCachePageKeyGeneratorTest {
+
+	private final ShCachePageKeyGenerator shCachePageKeyGenerator = new ShCachePageKeyGenerator();
+
+	@Test
+	public void sameKeyForCacheAndDelete() throws NoSuchMethodException {
+		ShSitesContextURL shSitesContextURL = new ShSitesContextURL();
+		shSitesContextURL.getInfo().setObjectId("id1");
+		shSitesContextURL.getInfo().setContextURLOriginal("/sites/site/default/en-us/page");
+
+		Method cache = ShCachePage.class.getMethod("cache", ShSitesContextURL.class);
+		Method deleteCache = ShCachePage.class.getMethod("deleteCache", String.class, String.class);
+		Object key = shCachePageKeyGenerator.generate(null, cache, shSitesContextURL);
+
+		assertEquals(key, shCachePageKeyGenerator.key(shSitesContextURL));
+		assertEquals(key, shCachePageKeyGenerator.generate(null, deleteCache, "id1", "/sites/site/default/en-us/page"));
+		assertNotEquals(key, shCachePageKeyGenerator.key("id1", "/sites/site/default/en-us/other"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidParameters() throws NoSuchMethodException {
+		shCachePageKeyGenerator.generate(null, ShCachePage.class.getMethod("cache", ShSitesContextURL.class));
+	}
+}
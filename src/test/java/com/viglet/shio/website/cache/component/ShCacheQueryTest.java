@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import com.viglet.shio.persistence.model.folder.ShFolder;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.post.ShPostAttr;
+import com.viglet.shio.persistence.model.post.type.ShPostType;
+import com.viglet.shio.property.ShWebsiteProperties;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ShCacheQueryTest {
+
+	@Spy
+	private ShWebsiteProperties shWebsiteProperties = new ShWebsiteProperties();
+
+	@Mock
+	private HazelcastInstance hazelcastInstance;
+
+	@Mock
+	private ITopic<String> topic;
+
+	@InjectMocks
+	private ShCacheQuery shCacheQuery;
+
+	private final AtomicInteger queries = new AtomicInteger();
+
+	private MessageListener<String> listener;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		shWebsiteProperties.setQueryCacheSize(2);
+		when(hazelcastInstance.<String>getTopic(anyString())).thenReturn(topic);
+		shCacheQuery.init();
+		ArgumentCaptor<MessageListener<String>> captor = ArgumentCaptor.forClass(MessageListener.class);
+		verify(topic).addMessageListener(captor.capture());
+		listener = captor.getValue();
+	}
+
+	@Test
+	public void dependencyEviction() {
+		this.query("a", ShCacheQuery.folder("folder1"), ShCacheQuery.postType("Article"));
+		this.query("b", ShCacheQuery.postType("Text"));
+		this.query("a", ShCacheQuery.folder("folder1"), ShCacheQuery.postType("Article"));
+		this.query("b", ShCacheQuery.postType("Text"));
+		assertEquals(2, queries.get());
+
+		ShPost shPost = new ShPost();
+		ShFolder shFolder = new ShFolder();
+		shFolder.setId("folder1");
+		shPost.setShFolder(shFolder);
+		ShPostType shPostType = new ShPostType();
+		shPostType.setName("Other");
+		shPost.setShPostType(shPostType);
+		shCacheQuery.deleteCache(shPost);
+		this.query("a", ShCacheQuery.folder("folder1"), ShCacheQuery.postType("Article"));
+		this.query("b", ShCacheQuery.postType("Text"));
+		assertEquals(3, queries.get());
+
+		shCacheQuery.deleteCache();
+		this.query("b", ShCacheQuery.postType("Text"));
+		assertEquals(4, queries.get());
+	}
+
+	@Test
+	public void leastRecentlyUsedUnlink() {
+		this.query("a", "d1");
+		this.query("b", "d2");
+		this.query("a", "d1");
+		this.query("c", "d2", "d3");
+		assertEquals(3, queries.get());
+		Map<String, Set<String>> keysByDependency = this.keysByDependency();
+		assertEquals(new HashSet<>(Arrays.asList("d1", "d2", "d3")), keysByDependency.keySet());
+		assertEquals(Collections.singleton("c"), keysByDependency.get("d2"));
+
+		this.query("d", "d4");
+		assertFalse(keysByDependency.containsKey("d1"));
+		this.query("b", "d2");
+		assertEquals(5, queries.get());
+	}
+
+	@Test
+	public void deleteWhileQuerying() {
+		shCacheQuery.cache("a", Collections.singleton("d1"), () -> {
+			queries.incrementAndGet();
+			shCacheQuery.deleteCache("d1");
+			return Collections.emptyList();
+		});
+		this.query("a", "d1");
+		assertEquals(2, queries.get());
+		assertTrue(this.keysByDependency().get("d1").contains("a"));
+	}
+
+	@Test
+	public void timeToLive() throws InterruptedException {
+		shWebsiteProperties.setQueryCacheTtl(1);
+		this.query("a", "d1");
+		this.query("a", "d1");
+		assertEquals(1, queries.get());
+		Thread.sleep(1100);
+		this.query("a", "d1");
+		assertEquals(2, queries.get());
+	}
+
+	@Test
+	public void cluster() {
+		this.query("a", "d1");
+		shCacheQuery.deleteCache("d1");
+		verify(topic).publish("d1");
+		shCacheQuery.deleteCache();
+		verify(topic, times(2)).publish(any());
+
+		this.query("a", "d1");
+		this.query("b", "d2");
+		listener.onMessage(this.message("d1", true));
+		this.query("a", "d1");
+		assertEquals(3, queries.get());
+		listener.onMessage(this.message("d1", false));
+		this.query("a", "d1");
+		this.query("b", "d2");
+		assertEquals(4, queries.get());
+		listener.onMessage(this.message("*", false));
+		this.query("b", "d2");
+		assertEquals(5, queries.get());
+	}
+
+	private List<Map<String, ShPostAttr>> query(String key, String... dependencies) {
+		return shCacheQuery.cache(key, new HashSet<>(Arrays.asList(dependencies)), () -> {
+			queries.incrementAndGet();
+			return Collections.emptyList();
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Set<String>> keysByDependency() {
+		return (Map<String, Set<String>>) ReflectionTestUtils.getField(shCacheQuery, "keysByDependency");
+	}
+
+	private Message<String> message(String dependency, boolean local) {
+		Member member = mock(Member.class);
+		when(member.localMember()).thenReturn(local);
+		return new Message<>("shCacheQuery", dependency, System.currentTimeMillis(), member);
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.post.ShPostAttr;
+import com.viglet.shio.persistence.model.post.type.ShPostType;
+import com.viglet.shio.persistence.model.site.ShSite;
+import com.viglet.shio.persistence.repository.post.ShPostRepository;
+import com.viglet.shio.post.type.ShSystemPostType;
+import com.viglet.shio.post.type.ShSystemPostTypeAttr;
+import com.viglet.shio.utils.ShPostUtils;
+import com.viglet.shio.website.utils.ShSitesPostUtils;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ShCacheSiteLayoutTest {
+
+	@Mock
+	private ShPostRepository shPostRepository;
+
+	@Mock
+	private ShPostUtils shPostUtils;
+
+	@Mock
+	private ShSitesPostUtils shSitesPostUtils;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@InjectMocks
+	private ShCacheSiteLayout shCacheSiteLayout;
+
+	private final ShSite shSite = new ShSite();
+
+	private final ShPost shPageLayout = post("layout1", ShSystemPostType.PAGE_LAYOUT);
+
+	@Before
+	public void setup() {
+		shSite.setId("site1");
+		shSite.setPostTypeLayout("{\"Article\":[{\"format\":\"default\",\"layout\":\"Post Page Layout\"},"
+				+ "{\"format\":\"json\",\"layout\":\"JSON Layout\",\"mimeType\":\"application/json\"}]}");
+		shPageLayout.setTitle("Post Page Layout");
+		when(shPostRepository.findByTitle("Post Page Layout")).thenReturn(Collections.singletonList(shPageLayout));
+		when(shPostUtils.getSite(any())).thenReturn(shSite);
+		when(shPostRepository.findById(anyString())).thenReturn(Optional.of(shPageLayout));
+		Map<String, ShPostAttr> shPageLayoutMap = new HashMap<>();
+		shPageLayoutMap.put(ShSystemPostTypeAttr.HTML, attr("<div></div>"));
+		shPageLayoutMap.put(ShSystemPostTypeAttr.JAVASCRIPT, attr("var x;"));
+		when(shSitesPostUtils.postToMap(any())).thenReturn(shPageLayoutMap);
+	}
+
+	@Test
+	public void postTypeLayout() {
+		assertEquals("Post Page Layout", shCacheSiteLayout.postTypeLayout(shSite, "Article", "default").getLayout());
+		assertEquals("application/json",
+				shCacheSiteLayout.postTypeLayout(shSite, "Article", "json").getMimeType());
+		assertNull(shCacheSiteLayout.postTypeLayout(shSite, "Article", "xml"));
+		assertNull(shCacheSiteLayout.postTypeLayout(shSite, "Folder", "default"));
+
+		shSite.setPostTypeLayout(null);
+		assertEquals("Post Page Layout", shCacheSiteLayout.postTypeLayout(shSite, "Article", "default").getLayout());
+		shCacheSiteLayout.deleteCache(shSite.getId());
+		assertNull(shCacheSiteLayout.postTypeLayout(shSite, "Article", "default"));
+	}
+
+	@Test
+	public void pageLayoutId() {
+		assertEquals("layout1", shCacheSiteLayout.pageLayoutId(shSite, "Post Page Layout"));
+		assertEquals("layout1", shCacheSiteLayout.pageLayoutId(shSite, "Post Page Layout"));
+		assertNull(shCacheSiteLayout.pageLayoutId(shSite, "Missing"));
+		assertNull(shCacheSiteLayout.pageLayoutId(shSite, "Missing"));
+		verify(shPostRepository, times(1)).findByTitle("Post Page Layout");
+		verify(shPostRepository, times(1)).findByTitle("Missing");
+
+		shCacheSiteLayout.deleteCache(shPageLayout);
+		assertEquals("layout1", shCacheSiteLayout.pageLayoutId(shSite, "Post Page Layout"));
+		verify(shPostRepository, times(2)).findByTitle("Post Page Layout");
+	}
+
+	@Test
+	public void pageLayout() {
+		assertEquals("<div></div>", shCacheSiteLayout.pageLayout("layout1").getHTML());
+		assertEquals("var x;", shCacheSiteLayout.pageLayout("layout1").getJavascript());
+		verify(shPostRepository, times(1)).findById("layout1");
+
+		shCacheSiteLayout.deleteCache(post("layout1", ShSystemPostType.ARTICLE));
+		shCacheSiteLayout.pageLayout("layout1");
+		verify(shPostRepository, times(1)).findById("layout1");
+
+		shCacheSiteLayout.deleteCache(shPageLayout);
+		shCacheSiteLayout.pageLayout("layout1");
+		verify(shPostRepository, times(2)).findById("layout1");
+
+		shCacheSiteLayout.deleteCache();
+		shCacheSiteLayout.pageLayout("layout1");
+		verify(shPostRepository, times(3)).findById("layout1");
+	}
+
+	@Test
+	public void theme() {
+		Map<String, Object> shTheme = shCacheSiteLayout.theme("layout1");
+		shTheme.put("javascript", "changed");
+		assertEquals("var x;", shCacheSiteLayout.theme("layout1").get("javascript"));
+		verify(shPostRepository, times(1)).findById("layout1");
+
+		shCacheSiteLayout.deleteCache(post("layout1", ShSystemPostType.THEME));
+		shCacheSiteLayout.theme("layout1");
+		verify(shPostRepository, times(2)).findById("layout1");
+	}
+
+	private static ShPost post(String id, String postTypeName) {
+		ShPostType shPostType = new ShPostType();
+		shPostType.setName(postTypeName);
+		ShPost shPost = new ShPost();
+		shPost.setId(id);
+		shPost.setShPostType(shPostType);
+		return shPost;
+	}
+
+	private static ShPostAttr attr(String strValue) {
+		ShPostAttr shPostAttr = new ShPostAttr();
+		shPostAttr.setStrValue(strValue);
+		return shPostAttr;
+	}
+}
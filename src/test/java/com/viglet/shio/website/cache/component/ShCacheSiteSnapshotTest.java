@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.cache.component;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import com.viglet.shio.persistence.model.folder.ShFolder;
+import com.viglet.shio.persistence.model.post.ShPost;
+import com.viglet.shio.persistence.model.site.ShSite;
+import com.viglet.shio.persistence.repository.post.ShPostRepository;
+import com.viglet.shio.persistence.repository.site.ShSiteRepository;
+import com.viglet.shio.property.ShMgmtProperties;
+import com.viglet.shio.property.ShWebsiteProperties;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class ShCacheSiteSnapshotTest {
+
+	private final ShPostRepository mgmtPostRepository = mock(ShPostRepository.class);
+
+	private final ShPostRepository deliveryPostRepository = mock(ShPostRepository.class);
+
+	private final ShSiteRepository deliverySiteRepository = mock(ShSiteRepository.class);
+
+	private final ITopic mgmtTopic = mock(ITopic.class);
+
+	private final ITopic deliveryTopic = mock(ITopic.class);
+
+	private ShCacheSiteSnapshot mgmt;
+
+	private ShCacheSiteSnapshot delivery;
+
+	@Before
+	public void setup() {
+		mgmt = this.snapshot(true, mgmtTopic, mgmtPostRepository, mock(ShSiteRepository.class));
+		delivery = this.snapshot(false, deliveryTopic, deliveryPostRepository, deliverySiteRepository);
+
+		ArgumentCaptor<MessageListener> captor = ArgumentCaptor.forClass(MessageListener.class);
+		verify(deliveryTopic).addMessageListener(captor.capture());
+		MessageListener listener = captor.getValue();
+		Member member = mock(Member.class);
+		when(member.localMember()).thenReturn(false);
+		doAnswer(invocation -> {
+			listener.onMessage(new Message("shSiteSnapshot", invocation.getArgument(0), 0, member));
+			return null;
+		}).when(mgmtTopic).publish(any());
+
+		when(deliveryPostRepository.findById(anyString())).thenReturn(Optional.empty());
+		ShSite shSite = new ShSite();
+		shSite.setId("site1");
+		when(deliverySiteRepository.findByFurl("site-1")).thenReturn(shSite);
+	}
+
+	@Test
+	public void publishFromManagement() {
+		verify(mgmtTopic, never()).addMessageListener(any());
+
+		ShFolder shFolder = new ShFolder();
+		shFolder.setId("folder1");
+		ShPost shPost = new ShPost();
+		shPost.setId("post1");
+		shPost.setShFolder(shFolder);
+		mgmt.publish(shPost);
+
+		verify(mgmtTopic).publish(any());
+		verify(mgmtPostRepository, never()).findById(anyString());
+		verify(deliveryPostRepository).findById("post1");
+	}
+
+	@Test
+	public void deleteFromManagement() {
+		delivery.siteId("site-1");
+		delivery.siteId("site-1");
+		verify(deliverySiteRepository, times(1)).findByFurl("site-1");
+
+		mgmt.deleteCache("site1");
+		delivery.siteId("site-1");
+		verify(deliverySiteRepository, times(2)).findByFurl("site-1");
+	}
+
+	private ShCacheSiteSnapshot snapshot(boolean mgmtEnabled, ITopic topic, ShPostRepository shPostRepository,
+			ShSiteRepository shSiteRepository) {
+		ShWebsiteProperties shWebsiteProperties = new ShWebsiteProperties();
+		shWebsiteProperties.setSnapshot(true);
+		ShMgmtProperties shMgmtProperties = new ShMgmtProperties();
+		shMgmtProperties.setEnabled(mgmtEnabled);
+		HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+		when(hazelcastInstance.getTopic(anyString())).thenReturn(topic);
+
+		ShCacheSiteSnapshot shCacheSiteSnapshot = new ShCacheSiteSnapshot();
+		ReflectionTestUtils.setField(shCacheSiteSnapshot, "shWebsiteProperties", shWebsiteProperties);
+		ReflectionTestUtils.setField(shCacheSiteSnapshot, "shMgmtProperties", shMgmtProperties);
+		ReflectionTestUtils.setField(shCacheSiteSnapshot, "hazelcastInstance", hazelcastInstance);
+		ReflectionTestUtils.setField(shCacheSiteSnapshot, "shPostRepository", shPostRepository);
+		ReflectionTestUtils.setField(shCacheSiteSnapshot, "shSiteRepository", shSiteRepository);
+		shCacheSiteSnapshot.init();
+		return shCacheSiteSnapshot;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2016-2018 Alexandre Oliveira <alexandre.oliveira@viglet.com> 
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.viglet.shio.website.nashorn;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+
+import javax.script.ScriptContext;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.viglet.shio.property.ShWebsiteProperties;
+import com.viglet.shio.website.cache.component.ShCacheJavascript;
+import com.viglet.shio.website.engine.ShRenderEngine;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ShNashornEngineConfigurationTest {
+
+	private static final String SH_OBJECT_JS = "var viglet = { shio: { shtemplate: "
+			+ "{ site: function(id) { return id; } } } };";
+
+	@Spy
+	private ShWebsiteProperties shWebsiteProperties = new ShWebsiteProperties();
+
+	@Mock
+	private ShCacheJavascript shCacheJavascript;
+
+	@InjectMocks
+	private ShNashornEngineConfiguration shNashornEngineConfiguration;
+
+	@Before
+	public void setup() {
+		when(shCacheJavascript.shObjectJSFactory()).thenReturn(new StringBuilder(SH_OBJECT_JS));
+	}
+
+	@Test
+	public void nashorn() {
+		assertEquals(ShNashornEngineConfiguration.NASHORN, shNashornEngineConfiguration.shRenderEngine().getName());
+	}
+
+	@Test
+	public void graalJSFallback() {
+		shWebsiteProperties.setEngine(ShNashornEngineConfiguration.GRAALJS);
+
+		assertEquals(ShNashornEngineConfiguration.NASHORN, shNashornEngineConfiguration.shRenderEngine().getName());
+	}
+
+	@Test
+	public void renderBindings() throws Exception {
+		ShRenderEngine shRenderEngine = shNashornEngineConfiguration.shRenderEngine();
+		HttpServletRequest request = new MockHttpServletRequest();
+		Map<String, Object> shContent = Collections.singletonMap("title", "Title");
+
+		assertEquals("site1 Title <p/>", shRenderEngine.render("site1",
+				"Handlebars + ' ' + shContent.title + ' ' + html", "<p/>", request, shContent));
+
+		@SuppressWarnings("unchecked")
+		Deque<ScriptContext> scriptContexts = (Deque<ScriptContext>) ReflectionTestUtils.getField(shRenderEngine,
+				"scriptContexts");
+		ScriptContext scriptContext = scriptContexts.peek();
+		for (String attribute : new String[] { "shContent", "html", "request", "shSiteId" })
+			assertNull(scriptContext.getAttribute(attribute, ScriptContext.ENGINE_SCOPE));
+		assertEquals("site1", scriptContext.getAttribute("Handlebars", ScriptContext.ENGINE_SCOPE));
+
+		assertEquals("site2 Body", shRenderEngine.render("site2", "Handlebars + ' ' + shContent.title",
+				null, request, Collections.singletonMap("title", "Body")));
+	}
+}